@@ -1,5 +1,7 @@
 package com.oneself.elasticsearch.autoconfigure;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
@@ -8,6 +10,9 @@ import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.elasticsearch.client.Node;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -17,16 +22,32 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.elasticsearch.autoconfigure.ElasticsearchClientAutoConfiguration;
 import org.springframework.boot.elasticsearch.autoconfigure.ElasticsearchRestClientAutoConfiguration;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.transport.BackoffPolicy;
 
+import com.oneself.elasticsearch.core.ElasticsearchAdaptiveBulkController;
+import com.oneself.elasticsearch.core.ElasticsearchAsyncOps;
+import com.oneself.elasticsearch.core.ElasticsearchBulkListener;
+import com.oneself.elasticsearch.core.ElasticsearchDeadLetterJournal;
+import com.oneself.elasticsearch.core.ElasticsearchIndexRouter;
+import com.oneself.elasticsearch.core.ElasticsearchLatencyNodeSelector;
+import com.oneself.elasticsearch.core.ElasticsearchMetrics;
+import com.oneself.elasticsearch.core.ElasticsearchNodeSniffer;
 import com.oneself.elasticsearch.core.ElasticsearchOps;
+import com.oneself.elasticsearch.core.ElasticsearchQueryCache;
+import com.oneself.elasticsearch.core.ElasticsearchQueryCacheStore;
+import com.oneself.elasticsearch.core.ElasticsearchSpillBuffer;
+import com.oneself.elasticsearch.core.RedisElasticsearchQueryCacheStore;
+import com.oneself.redis.core.RedisOps;
 
 /**
  * Elasticsearch Starter 自动装配。
@@ -41,30 +62,97 @@ import com.oneself.elasticsearch.core.ElasticsearchOps;
 public class OneselfElasticsearchAutoConfiguration {
 
     /**
-     * 构建 Elasticsearch RestClient。
+     * 构建 Elasticsearch RestClient（连接池、IO 线程、keep-alive、压缩、节点选择与失败回调）。
      */
     @Bean
     @ConditionalOnMissingBean(RestClient.class)
-    public RestClient restClient(OneselfElasticsearchProperties properties) {
+    public RestClient restClient(OneselfElasticsearchProperties properties,
+                                 ObjectProvider<ElasticsearchLatencyNodeSelector> nodeSelector,
+                                 ObjectProvider<ElasticsearchNodeSniffer> nodeSniffer) {
+        if (properties.getMaxConnTotal() <= 0 || properties.getMaxConnPerRoute() <= 0 || properties.getIoThreadCount() < 0) {
+            throw new IllegalStateException("Max-conn-total and max-conn-per-route must be positive, "
+                    + "io-thread-count must not be negative");
+        }
         HttpHost[] hosts = Arrays.stream(splitUris(properties.getUris()))
                 .map(uri -> parseHost(uri, properties.getScheme()))
                 .toList()
                 .toArray(new HttpHost[0]);
+        ElasticsearchLatencyNodeSelector selector = nodeSelector.getIfAvailable();
         RestClientBuilder builder = RestClient.builder(hosts)
+                .setCompressionEnabled(properties.isCompressionEnabled())
                 .setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder
                         .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
                         .setSocketTimeout((int) properties.getSocketTimeout().toMillis()));
+        CredentialsProvider provider = null;
         if (hasText(properties.getUsername()) && hasText(properties.getPassword())) {
-            CredentialsProvider provider = new BasicCredentialsProvider();
+            provider = new BasicCredentialsProvider();
             provider.setCredentials(AuthScope.ANY,
                     new UsernamePasswordCredentials(properties.getUsername(),
                             properties.getPassword()));
-            builder.setHttpClientConfigCallback(httpClientBuilder ->
-                    httpClientBuilder.setDefaultCredentialsProvider(provider));
         }
+        CredentialsProvider credentials = provider;
+        long keepAliveMillis = properties.getKeepAlive().toMillis();
+        builder.setHttpClientConfigCallback(httpClientBuilder -> {
+            httpClientBuilder.setMaxConnTotal(properties.getMaxConnTotal())
+                    .setMaxConnPerRoute(properties.getMaxConnPerRoute());
+            if (properties.getIoThreadCount() > 0) {
+                httpClientBuilder.setDefaultIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(properties.getIoThreadCount())
+                        .build());
+            }
+            if (keepAliveMillis > 0) {
+                // 取服务端 Keep-Alive 与配置值中较小者，避免复用已被中间设备断开的空闲连接
+                httpClientBuilder.setKeepAliveStrategy((response, context) -> {
+                    long server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return server > 0 ? Math.min(server, keepAliveMillis) : keepAliveMillis;
+                });
+            }
+            if (credentials != null) {
+                httpClientBuilder.setDefaultCredentialsProvider(credentials);
+            }
+            if (selector != null) {
+                httpClientBuilder.addInterceptorFirst(selector.requestInterceptor())
+                        .addInterceptorLast(selector.responseInterceptor());
+            }
+            return httpClientBuilder;
+        });
+        if (selector != null) {
+            builder.setNodeSelector(selector);
+        }
+        builder.setFailureListener(new RestClient.FailureListener() {
+            @Override
+            public void onFailure(Node node) {
+                if (selector != null) {
+                    selector.onFailure(node);
+                }
+                nodeSniffer.ifAvailable(ElasticsearchNodeSniffer::onFailure);
+            }
+        });
         return builder.build();
     }
 
+    /**
+     * 按节点延迟负载均衡的节点选择器。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "node-balancing-enabled", havingValue = "true")
+    public ElasticsearchLatencyNodeSelector elasticsearchLatencyNodeSelector(OneselfElasticsearchProperties properties) {
+        return new ElasticsearchLatencyNodeSelector(properties.getNodeLatencyTolerance(),
+                properties.getNodeLatencyProbeInterval());
+    }
+
+    /**
+     * 集群节点发现。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "sniff-enabled", havingValue = "true")
+    public ElasticsearchNodeSniffer elasticsearchNodeSniffer(RestClient restClient, OneselfElasticsearchProperties properties) {
+        return new ElasticsearchNodeSniffer(restClient, hasText(properties.getScheme()) ? properties.getScheme() : "http",
+                properties.getSniffInterval(), properties.getSniffAfterFailureDelay());
+    }
+
     /**
      * 构建 ElasticsearchClient。
      */
@@ -75,15 +163,128 @@ public class OneselfElasticsearchAutoConfiguration {
         return new ElasticsearchClient(transport);
     }
 
+    /**
+     * 构建 ElasticsearchAsyncClient，与同步客户端共享 transport（连接池与序列化）。
+     */
+    @Bean
+    @ConditionalOnMissingBean(ElasticsearchAsyncClient.class)
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchClient client) {
+        return new ElasticsearchAsyncClient(client._transport(), client._transportOptions());
+    }
+
     /**
      * 统一操作封装。
      */
     @Bean
     @ConditionalOnMissingBean
     public ElasticsearchOps elasticsearchOps(ElasticsearchClient client,
+                                            ElasticsearchAsyncClient asyncClient,
                                             OneselfElasticsearchProperties properties,
-                                            ObjectProvider<BulkIngester<Object>> bulkIngester) {
-        return new ElasticsearchOps(client, properties, bulkIngester.getIfAvailable());
+                                            ObjectProvider<BulkIngester<Object>> bulkIngester,
+                                            ObjectProvider<ElasticsearchAdaptiveBulkController> bulkController,
+                                            ObjectProvider<ElasticsearchSpillBuffer> spillBuffer,
+                                            ObjectProvider<ElasticsearchQueryCache> queryCache) {
+        return new ElasticsearchOps(client, asyncClient, properties, bulkIngester.getIfAvailable(),
+                bulkController.getIfAvailable(), spillBuffer.getIfAvailable(), queryCache.getIfAvailable());
+    }
+
+    /**
+     * 异步操作封装（在途请求合并、mget/msearch 批量）。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public ElasticsearchAsyncOps elasticsearchAsyncOps(ElasticsearchAsyncClient asyncClient,
+                                                      OneselfElasticsearchProperties properties) {
+        return new ElasticsearchAsyncOps(asyncClient, properties);
+    }
+
+    /**
+     * 按时间/大小切分的索引路由与模板、别名、rollover 管理。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "time-index-enabled", havingValue = "true")
+    public ElasticsearchIndexRouter elasticsearchIndexRouter(ElasticsearchClient client, ElasticsearchOps ops,
+                                                             OneselfElasticsearchProperties properties) {
+        return new ElasticsearchIndexRouter(client, ops, properties);
+    }
+
+    /**
+     * 查询结果缓存。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "query-cache-enabled", havingValue = "true")
+    public ElasticsearchQueryCache elasticsearchQueryCache(ElasticsearchClient client,
+                                                           OneselfElasticsearchProperties properties,
+                                                           ObjectProvider<ElasticsearchQueryCacheStore> store) {
+        return new ElasticsearchQueryCache(client, properties.getQueryCacheMaxEntries(), properties.getQueryCacheTtl(),
+                properties.getQueryCacheInvalidation(), properties.getQueryCacheValidateInterval(), store.getIfAvailable());
+    }
+
+    /**
+     * Bulk 磁盘溢写缓冲。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "bulk-spill-enabled", havingValue = "true")
+    public ElasticsearchSpillBuffer elasticsearchSpillBuffer(ElasticsearchClient client,
+                                                             OneselfElasticsearchProperties properties,
+                                                             ObjectProvider<BulkIngester<Object>> bulkIngester) {
+        BulkIngester<Object> ingester = bulkIngester.getIfAvailable();
+        if (ingester == null) {
+            throw new IllegalStateException("Bulk spill requires oneself.elasticsearch.bulk-enabled=true");
+        }
+        if (!hasText(properties.getBulkSpillPath())) {
+            throw new IllegalStateException("Bulk spill path must be set");
+        }
+        try {
+            return new ElasticsearchSpillBuffer(Path.of(properties.getBulkSpillPath()),
+                    properties.getBulkSpillSegmentBytes(), properties.getBulkSpillMaxSegments(),
+                    properties.getBulkSpillThresholdBytes(), client._jsonpMapper(), ingester);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to open bulk spill buffer", ex);
+        }
+    }
+
+    /**
+     * 自适应 Bulk 大小控制器。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "bulk-adaptive-enabled", havingValue = "true")
+    public ElasticsearchAdaptiveBulkController elasticsearchAdaptiveBulkController(OneselfElasticsearchProperties properties) {
+        return new ElasticsearchAdaptiveBulkController(properties.getBulkAdaptiveMinBytes(), properties.getBulkMaxBytes(),
+                properties.getBulkAdaptiveLatencyLow(), properties.getBulkAdaptiveLatencyHigh());
+    }
+
+    /**
+     * Bulk 死信日志。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "bulk-dead-letter-enabled", havingValue = "true")
+    public ElasticsearchDeadLetterJournal elasticsearchDeadLetterJournal(ElasticsearchClient client,
+                                                                         OneselfElasticsearchProperties properties) {
+        if (!hasText(properties.getBulkDeadLetterPath()) || properties.getBulkDeadLetterMaxFileBytes() <= 0) {
+            throw new IllegalStateException(
+                    "oneself.elasticsearch.bulk-dead-letter-path is required and max-file-bytes must be positive");
+        }
+        return new ElasticsearchDeadLetterJournal(Path.of(properties.getBulkDeadLetterPath()),
+                properties.getBulkDeadLetterMaxFileBytes(), properties.isBulkDeadLetterFsync(), client._jsonpMapper());
+    }
+
+    /**
+     * Bulk 监听器（耗时、按索引结果、自适应反馈、死信）。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "bulk-enabled", havingValue = "true", matchIfMissing = true)
+    public ElasticsearchBulkListener elasticsearchBulkListener(ObjectProvider<ElasticsearchAdaptiveBulkController> bulkController,
+                                                               ObjectProvider<ElasticsearchMetrics> metrics,
+                                                               ObjectProvider<ElasticsearchDeadLetterJournal> deadLetterJournal) {
+        return new ElasticsearchBulkListener(bulkController.getIfAvailable(), metrics.getIfAvailable(),
+                deadLetterJournal.getIfAvailable());
     }
 
     /**
@@ -92,11 +293,51 @@ public class OneselfElasticsearchAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "bulk-enabled", havingValue = "true", matchIfMissing = true)
-    public BulkIngester<Object> bulkIngester(ElasticsearchClient client, OneselfElasticsearchProperties properties) {
-        return BulkIngester.of(builder -> builder
-                .client(client)
-                .maxOperations(properties.getBulkMaxOperations())
-                .flushInterval(properties.getBulkFlushInterval().toMillis(), TimeUnit.MILLISECONDS));
+    public BulkIngester<Object> bulkIngester(ElasticsearchClient client, OneselfElasticsearchProperties properties,
+                                             ObjectProvider<ElasticsearchBulkListener> bulkListener) {
+        if (properties.getBulkMaxBytes() <= 0 || properties.getBulkConcurrentRequests() <= 0) {
+            throw new IllegalStateException("Bulk max-bytes and concurrent-requests must be positive");
+        }
+        if (properties.getBulkRetryMaxAttempts() < 0) {
+            throw new IllegalStateException("Bulk retry max-attempts must not be negative");
+        }
+        ElasticsearchBulkListener listener = bulkListener.getIfAvailable();
+        return BulkIngester.of(builder -> {
+            builder.client(client)
+                    .maxOperations(properties.getBulkMaxOperations())
+                    .maxSize(properties.getBulkMaxBytes())
+                    .maxConcurrentRequests(properties.getBulkConcurrentRequests())
+                    .flushInterval(properties.getBulkFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+            if (listener != null) {
+                builder.listener(listener);
+            }
+            if (properties.getBulkRetryMaxAttempts() > 0) {
+                // 仅重试 429 条目，每次重试回调监听器计数并收缩自适应目标
+                BackoffPolicy backoff = BackoffPolicy.exponentialBackoff(
+                        properties.getBulkRetryInitialDelay().toMillis(), properties.getBulkRetryMaxAttempts());
+                builder.backoffPolicy(listener == null ? backoff : BackoffPolicy.wrap(backoff, listener::onRetry));
+            }
+            return builder;
+        });
+    }
+
+    /**
+     * 基于 Redis Starter 的查询缓存二级存储（需引入 oneself-redis-spring-boot-starter）。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.oneself.redis.core.RedisOps")
+    @ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "query-cache-redis-enabled", havingValue = "true")
+    static class RedisQueryCacheStoreConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ElasticsearchQueryCacheStore.class)
+        public ElasticsearchQueryCacheStore redisElasticsearchQueryCacheStore(ObjectProvider<RedisOps> redisOps) {
+            RedisOps ops = redisOps.getIfAvailable();
+            if (ops == null) {
+                throw new IllegalStateException("Query cache redis store requires a RedisOps bean (oneself.redis.enabled)");
+            }
+            return new RedisElasticsearchQueryCacheStore(ops);
+        }
     }
 
     private boolean hasText(String value) {
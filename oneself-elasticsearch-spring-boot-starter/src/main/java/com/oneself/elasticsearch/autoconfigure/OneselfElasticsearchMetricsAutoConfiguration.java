@@ -0,0 +1,151 @@
+package com.oneself.elasticsearch.autoconfigure;
+
+import java.util.concurrent.TimeUnit;
+
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import com.oneself.elasticsearch.core.ElasticsearchAdaptiveBulkController;
+import com.oneself.elasticsearch.core.ElasticsearchAsyncOps;
+import com.oneself.elasticsearch.core.ElasticsearchIndexRouter;
+import com.oneself.elasticsearch.core.ElasticsearchLatencyNodeSelector;
+import com.oneself.elasticsearch.core.ElasticsearchMetrics;
+import com.oneself.elasticsearch.core.ElasticsearchNodeSniffer;
+import com.oneself.elasticsearch.core.ElasticsearchQueryCache;
+import com.oneself.elasticsearch.core.ElasticsearchSpillBuffer;
+import com.oneself.elasticsearch.core.MicrometerElasticsearchMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Elasticsearch 指标自动装配（需要 Micrometer）：Bulk 耗时与按索引结果、BulkIngester 积压、自适应决策、磁盘溢写、查询缓存、异步请求合并、节点发现与索引 rollover。
+ */
+@AutoConfiguration(before = OneselfElasticsearchAutoConfiguration.class)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "oneself.elasticsearch", name = "metrics-enabled", havingValue = "true")
+public class OneselfElasticsearchMetricsAutoConfiguration {
+
+    /**
+     * Starter 指标。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ElasticsearchMetrics elasticsearchMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MicrometerElasticsearchMetrics(meterRegistry);
+    }
+
+    /**
+     * 为 BulkIngester、自适应控制器、溢写缓冲、查询缓存、异步操作、节点选择/发现与索引路由注册 gauge。
+     */
+    @Bean
+    public static BeanPostProcessor elasticsearchMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                MeterRegistry registry = bean instanceof BulkIngester<?>
+                        || bean instanceof ElasticsearchAdaptiveBulkController
+                        || bean instanceof ElasticsearchSpillBuffer
+                        || bean instanceof ElasticsearchQueryCache
+                        || bean instanceof ElasticsearchAsyncOps
+                        || bean instanceof ElasticsearchLatencyNodeSelector
+                        || bean instanceof ElasticsearchNodeSniffer
+                        || bean instanceof ElasticsearchIndexRouter ? meterRegistry.getIfAvailable() : null;
+                if (registry == null) {
+                    return bean;
+                }
+                if (bean instanceof BulkIngester<?> ingester) {
+                    bindIngester(ingester, registry);
+                } else if (bean instanceof ElasticsearchAdaptiveBulkController controller) {
+                    bindAdaptive(controller, registry);
+                } else if (bean instanceof ElasticsearchSpillBuffer spillBuffer) {
+                    bindSpill(spillBuffer, registry);
+                } else if (bean instanceof ElasticsearchQueryCache queryCache) {
+                    bindQueryCache(queryCache, registry);
+                } else if (bean instanceof ElasticsearchAsyncOps asyncOps) {
+                    bindAsync(asyncOps, registry);
+                } else if (bean instanceof ElasticsearchLatencyNodeSelector nodeSelector) {
+                    FunctionCounter.builder("oneself.elasticsearch.node.failures", nodeSelector,
+                            ElasticsearchLatencyNodeSelector::failures).register(registry);
+                } else if (bean instanceof ElasticsearchNodeSniffer nodeSniffer) {
+                    bindSniffer(nodeSniffer, registry);
+                } else if (bean instanceof ElasticsearchIndexRouter indexRouter) {
+                    FunctionCounter.builder("oneself.elasticsearch.index.rollovers", indexRouter,
+                            ElasticsearchIndexRouter::rollovers).register(registry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void bindIngester(BulkIngester<?> ingester, MeterRegistry registry) {
+        Gauge.builder("oneself.elasticsearch.bulk.pending.operations", ingester, BulkIngester::pendingOperations)
+                .register(registry);
+        Gauge.builder("oneself.elasticsearch.bulk.pending.bytes", ingester, BulkIngester::pendingOperationsSize)
+                .register(registry);
+        Gauge.builder("oneself.elasticsearch.bulk.pending.requests", ingester, BulkIngester::pendingRequests)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.contentions", ingester,
+                BulkIngester::requestContentionsCount).register(registry);
+    }
+
+    private static void bindAdaptive(ElasticsearchAdaptiveBulkController controller, MeterRegistry registry) {
+        Gauge.builder("oneself.elasticsearch.bulk.adaptive.target.bytes", controller,
+                ElasticsearchAdaptiveBulkController::targetBytes).register(registry);
+        TimeGauge.builder("oneself.elasticsearch.bulk.adaptive.latency", controller, TimeUnit.NANOSECONDS,
+                ElasticsearchAdaptiveBulkController::lastLatencyNanos).register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.adaptive.increases", controller,
+                ElasticsearchAdaptiveBulkController::increases).register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.adaptive.decreases", controller,
+                ElasticsearchAdaptiveBulkController::decreases).register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.adaptive.rejections", controller,
+                ElasticsearchAdaptiveBulkController::rejections).register(registry);
+    }
+
+    private static void bindSpill(ElasticsearchSpillBuffer spillBuffer, MeterRegistry registry) {
+        Gauge.builder("oneself.elasticsearch.bulk.spill.pending", spillBuffer, ElasticsearchSpillBuffer::pendingEntries)
+                .register(registry);
+        Gauge.builder("oneself.elasticsearch.bulk.spill.segments", spillBuffer, ElasticsearchSpillBuffer::segmentCount)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.spill.spilled", spillBuffer,
+                ElasticsearchSpillBuffer::spilled).register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.bulk.spill.drained", spillBuffer,
+                ElasticsearchSpillBuffer::drained).register(registry);
+    }
+
+    private static void bindQueryCache(ElasticsearchQueryCache queryCache, MeterRegistry registry) {
+        Gauge.builder("oneself.elasticsearch.query.cache.size", queryCache, ElasticsearchQueryCache::size)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.query.cache.requests", queryCache, ElasticsearchQueryCache::hits)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.query.cache.requests", queryCache,
+                ElasticsearchQueryCache::sharedHits).tag("result", "shared-hit").register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.query.cache.requests", queryCache, ElasticsearchQueryCache::misses)
+                .tag("result", "miss").register(registry);
+    }
+
+    private static void bindAsync(ElasticsearchAsyncOps asyncOps, MeterRegistry registry) {
+        FunctionCounter.builder("oneself.elasticsearch.async.coalesced", asyncOps, ElasticsearchAsyncOps::coalesced)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.async.batches", asyncOps, ElasticsearchAsyncOps::batches)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.async.batched.requests", asyncOps,
+                ElasticsearchAsyncOps::batchedRequests).register(registry);
+    }
+
+    private static void bindSniffer(ElasticsearchNodeSniffer nodeSniffer, MeterRegistry registry) {
+        Gauge.builder("oneself.elasticsearch.nodes", nodeSniffer, ElasticsearchNodeSniffer::nodeCount)
+                .register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.sniff", nodeSniffer, ElasticsearchNodeSniffer::sniffs)
+                .tag("result", "success").register(registry);
+        FunctionCounter.builder("oneself.elasticsearch.sniff", nodeSniffer, ElasticsearchNodeSniffer::sniffFailures)
+                .tag("result", "failed").register(registry);
+    }
+}
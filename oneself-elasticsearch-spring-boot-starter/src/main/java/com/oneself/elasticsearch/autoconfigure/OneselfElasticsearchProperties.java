@@ -45,6 +45,61 @@ public class OneselfElasticsearchProperties {
      */
     private Duration socketTimeout = Duration.ofSeconds(30);
 
+    /**
+     * 连接池总连接数上限。
+     */
+    private int maxConnTotal = 100;
+
+    /**
+     * 单节点（route）连接数上限。
+     */
+    private int maxConnPerRoute = 30;
+
+    /**
+     * IO reactor 线程数（0 表示使用 CPU 核数）。
+     */
+    private int ioThreadCount = 0;
+
+    /**
+     * 空闲连接最长保持时间（服务端返回 Keep-Alive 时取较小值，0 表示仅按服务端）。
+     */
+    private Duration keepAlive = Duration.ofMinutes(1);
+
+    /**
+     * 是否 gzip 压缩请求体并接受压缩响应。
+     */
+    private boolean compressionEnabled = false;
+
+    /**
+     * 是否按节点响应延迟负载均衡（优先延迟最低的节点，失败节点快速降权）。
+     */
+    private boolean nodeBalancingEnabled = false;
+
+    /**
+     * 延迟均衡容忍系数，延迟不超过最低延迟该倍数的节点参与轮询。
+     */
+    private double nodeLatencyTolerance = 1.5;
+
+    /**
+     * 节点延迟样本有效期，过期后重新参与轮询以便探测恢复。
+     */
+    private Duration nodeLatencyProbeInterval = Duration.ofSeconds(10);
+
+    /**
+     * 是否定期通过 _nodes/http 发现集群节点。
+     */
+    private boolean sniffEnabled = false;
+
+    /**
+     * 节点发现间隔。
+     */
+    private Duration sniffInterval = Duration.ofMinutes(5);
+
+    /**
+     * 节点失败触发立即发现后，下一次发现的间隔。
+     */
+    private Duration sniffAfterFailureDelay = Duration.ofMinutes(1);
+
     /**
      * 索引前缀。
      */
@@ -75,6 +130,206 @@ public class OneselfElasticsearchProperties {
      */
     private int bulkConcurrentRequests = 1;
 
+    /**
+     * 是否启用自适应 Bulk 大小（按响应耗时与 429 拒绝调整单批字节数）。
+     */
+    private boolean bulkAdaptiveEnabled = false;
+
+    /**
+     * 自适应最小单批字节数。
+     */
+    private long bulkAdaptiveMinBytes = 512 * 1024;
+
+    /**
+     * 自适应延迟下限，Bulk 耗时低于该值时增大批次。
+     */
+    private Duration bulkAdaptiveLatencyLow = Duration.ofMillis(200);
+
+    /**
+     * 自适应延迟上限，Bulk 耗时高于该值时缩小批次。
+     */
+    private Duration bulkAdaptiveLatencyHigh = Duration.ofSeconds(1);
+
+    /**
+     * Bulk 条目被拒绝（429）时的最大重试次数，0 表示不重试。
+     */
+    private int bulkRetryMaxAttempts = 5;
+
+    /**
+     * Bulk 重试初始退避时间（指数增长）。
+     */
+    private Duration bulkRetryInitialDelay = Duration.ofMillis(200);
+
+    /**
+     * 是否将永久失败的 Bulk 条目写入本地死信日志。
+     */
+    private boolean bulkDeadLetterEnabled = false;
+
+    /**
+     * 死信日志目录（启用死信日志时必填）。
+     */
+    private String bulkDeadLetterPath;
+
+    /**
+     * 单个死信文件大小上限（字节），超过后滚动。
+     */
+    private long bulkDeadLetterMaxFileBytes = 64L * 1024 * 1024;
+
+    /**
+     * 死信写入后是否强制刷盘。
+     */
+    private boolean bulkDeadLetterFsync = false;
+
+    /**
+     * 是否启用 Bulk 磁盘溢写缓冲（BulkIngester 饱和时写入内存映射分段日志）。
+     */
+    private boolean bulkSpillEnabled = false;
+
+    /**
+     * 溢写分段目录。
+     */
+    private String bulkSpillPath = "es-spill";
+
+    /**
+     * 单个溢写分段大小（字节）。
+     */
+    private int bulkSpillSegmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * 最大溢写分段数，全部写满时退回阻塞写入。
+     */
+    private int bulkSpillMaxSegments = 16;
+
+    /**
+     * 在途请求已满且待发送字节超过该值时开始溢写，应小于 bulk-max-bytes。
+     */
+    private long bulkSpillThresholdBytes = 4 * 1024 * 1024;
+
+    /**
+     * ElasticsearchOps#bulkIndexAll 文档数达到该值时并行预序列化（0 表示始终在调用线程串行序列化）。
+     */
+    private int bulkParallelSerializeThreshold = 256;
+
+    /**
+     * 全量遍历（scan）默认每页条数。
+     */
+    private int scanPageSize = 1000;
+
+    /**
+     * 全量遍历 point-in-time 默认保持时间。
+     */
+    private Duration scanKeepAlive = Duration.ofMinutes(1);
+
+    /**
+     * 是否启用查询结果缓存（ElasticsearchOps#cachedSearch）。
+     */
+    private boolean queryCacheEnabled = false;
+
+    /**
+     * 查询缓存本地最大条目数。
+     */
+    private int queryCacheMaxEntries = 1000;
+
+    /**
+     * 查询缓存条目最长存活时间。
+     */
+    private Duration queryCacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * 查询缓存失效模式。
+     */
+    private QueryCacheInvalidation queryCacheInvalidation = QueryCacheInvalidation.TTL;
+
+    /**
+     * REFRESH 模式下索引版本校验间隔。
+     */
+    private Duration queryCacheValidateInterval = Duration.ofSeconds(1);
+
+    /**
+     * 是否使用 Redis Starter 的 RedisOps 作为共享二级缓存。
+     */
+    private boolean queryCacheRedisEnabled = false;
+
+    /**
+     * 异步操作是否合并相同的在途 get/search 请求。
+     */
+    private boolean asyncCoalescingEnabled = true;
+
+    /**
+     * 异步操作是否将时间窗口内的并发单条 get/search 合并为 mget/msearch。
+     */
+    private boolean asyncBatchEnabled = false;
+
+    /**
+     * 异步批量合并的时间窗口。
+     */
+    private Duration asyncBatchWindow = Duration.ofMillis(2);
+
+    /**
+     * 单个 mget/msearch 批次的最大请求数，达到即立即发送。
+     */
+    private int asyncBatchMaxSize = 100;
+
+    /**
+     * 是否启用按时间/大小路由的索引管理（ElasticsearchIndexRouter）。
+     */
+    private boolean timeIndexEnabled = false;
+
+    /**
+     * 受管理的逻辑索引名（逗号分隔，不含前缀）。
+     */
+    private String timeIndexNames = "";
+
+    /**
+     * 索引切分方式。
+     */
+    private TimeIndexMode timeIndexMode = TimeIndexMode.DAILY;
+
+    /**
+     * 按时间切分时使用的时区。
+     */
+    private String timeIndexZone = "UTC";
+
+    /**
+     * 索引模板主分片数。
+     */
+    private int timeIndexShards = 1;
+
+    /**
+     * 索引模板副本数。
+     */
+    private int timeIndexReplicas = 1;
+
+    /**
+     * ILM 策略名（为空时 ROLLOVER 模式由 Starter 定期检查 rollover 条件）。
+     */
+    private String timeIndexIlmPolicy = "";
+
+    /**
+     * Starter 管理 rollover 时的最大主分片大小。
+     */
+    private String timeIndexRolloverMaxSize = "50gb";
+
+    /**
+     * Starter 管理 rollover 时的最大索引存活时间。
+     */
+    private Duration timeIndexRolloverMaxAge = Duration.ofDays(1);
+
+    /**
+     * 模板/写别名初始化重试与 rollover 检查间隔。
+     */
+    private Duration timeIndexCheckInterval = Duration.ofMinutes(1);
+
+    /**
+     * 读索引列表（按时间范围裁剪）的缓存时间。
+     */
+    private Duration timeIndexResolveInterval = Duration.ofSeconds(30);
+
+    /**
+     * 是否启用 Micrometer 指标（需引入 micrometer-core）。
+     */
+    private boolean metricsEnabled = false;
+
 
     /**
      * 是否Enabled。
@@ -174,6 +429,160 @@ public class OneselfElasticsearchProperties {
         this.socketTimeout = socketTimeout;
     }
 
+    /**
+     * 获取MaxConnTotal。
+     */
+    public int getMaxConnTotal() {
+        return maxConnTotal;
+    }
+
+    /**
+     * 设置MaxConnTotal。
+     */
+    public void setMaxConnTotal(int maxConnTotal) {
+        this.maxConnTotal = maxConnTotal;
+    }
+
+    /**
+     * 获取MaxConnPerRoute。
+     */
+    public int getMaxConnPerRoute() {
+        return maxConnPerRoute;
+    }
+
+    /**
+     * 设置MaxConnPerRoute。
+     */
+    public void setMaxConnPerRoute(int maxConnPerRoute) {
+        this.maxConnPerRoute = maxConnPerRoute;
+    }
+
+    /**
+     * 获取IoThreadCount。
+     */
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    /**
+     * 设置IoThreadCount。
+     */
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    /**
+     * 获取KeepAlive。
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * 设置KeepAlive。
+     */
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * 是否CompressionEnabled。
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * 设置CompressionEnabled。
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * 是否NodeBalancingEnabled。
+     */
+    public boolean isNodeBalancingEnabled() {
+        return nodeBalancingEnabled;
+    }
+
+    /**
+     * 设置NodeBalancingEnabled。
+     */
+    public void setNodeBalancingEnabled(boolean nodeBalancingEnabled) {
+        this.nodeBalancingEnabled = nodeBalancingEnabled;
+    }
+
+    /**
+     * 获取NodeLatencyTolerance。
+     */
+    public double getNodeLatencyTolerance() {
+        return nodeLatencyTolerance;
+    }
+
+    /**
+     * 设置NodeLatencyTolerance。
+     */
+    public void setNodeLatencyTolerance(double nodeLatencyTolerance) {
+        this.nodeLatencyTolerance = nodeLatencyTolerance;
+    }
+
+    /**
+     * 获取NodeLatencyProbeInterval。
+     */
+    public Duration getNodeLatencyProbeInterval() {
+        return nodeLatencyProbeInterval;
+    }
+
+    /**
+     * 设置NodeLatencyProbeInterval。
+     */
+    public void setNodeLatencyProbeInterval(Duration nodeLatencyProbeInterval) {
+        this.nodeLatencyProbeInterval = nodeLatencyProbeInterval;
+    }
+
+    /**
+     * 是否SniffEnabled。
+     */
+    public boolean isSniffEnabled() {
+        return sniffEnabled;
+    }
+
+    /**
+     * 设置SniffEnabled。
+     */
+    public void setSniffEnabled(boolean sniffEnabled) {
+        this.sniffEnabled = sniffEnabled;
+    }
+
+    /**
+     * 获取SniffInterval。
+     */
+    public Duration getSniffInterval() {
+        return sniffInterval;
+    }
+
+    /**
+     * 设置SniffInterval。
+     */
+    public void setSniffInterval(Duration sniffInterval) {
+        this.sniffInterval = sniffInterval;
+    }
+
+    /**
+     * 获取SniffAfterFailureDelay。
+     */
+    public Duration getSniffAfterFailureDelay() {
+        return sniffAfterFailureDelay;
+    }
+
+    /**
+     * 设置SniffAfterFailureDelay。
+     */
+    public void setSniffAfterFailureDelay(Duration sniffAfterFailureDelay) {
+        this.sniffAfterFailureDelay = sniffAfterFailureDelay;
+    }
+
     /**
      * 获取IndexPrefix。
      */
@@ -258,4 +667,585 @@ public class OneselfElasticsearchProperties {
         this.bulkConcurrentRequests = bulkConcurrentRequests;
     }
 
+    /**
+     * 是否BulkAdaptiveEnabled。
+     */
+    public boolean isBulkAdaptiveEnabled() {
+        return bulkAdaptiveEnabled;
+    }
+
+    /**
+     * 设置BulkAdaptiveEnabled。
+     */
+    public void setBulkAdaptiveEnabled(boolean bulkAdaptiveEnabled) {
+        this.bulkAdaptiveEnabled = bulkAdaptiveEnabled;
+    }
+
+    /**
+     * 获取BulkAdaptiveMinBytes。
+     */
+    public long getBulkAdaptiveMinBytes() {
+        return bulkAdaptiveMinBytes;
+    }
+
+    /**
+     * 设置BulkAdaptiveMinBytes。
+     */
+    public void setBulkAdaptiveMinBytes(long bulkAdaptiveMinBytes) {
+        this.bulkAdaptiveMinBytes = bulkAdaptiveMinBytes;
+    }
+
+    /**
+     * 获取BulkAdaptiveLatencyLow。
+     */
+    public Duration getBulkAdaptiveLatencyLow() {
+        return bulkAdaptiveLatencyLow;
+    }
+
+    /**
+     * 设置BulkAdaptiveLatencyLow。
+     */
+    public void setBulkAdaptiveLatencyLow(Duration bulkAdaptiveLatencyLow) {
+        this.bulkAdaptiveLatencyLow = bulkAdaptiveLatencyLow;
+    }
+
+    /**
+     * 获取BulkAdaptiveLatencyHigh。
+     */
+    public Duration getBulkAdaptiveLatencyHigh() {
+        return bulkAdaptiveLatencyHigh;
+    }
+
+    /**
+     * 设置BulkAdaptiveLatencyHigh。
+     */
+    public void setBulkAdaptiveLatencyHigh(Duration bulkAdaptiveLatencyHigh) {
+        this.bulkAdaptiveLatencyHigh = bulkAdaptiveLatencyHigh;
+    }
+
+    /**
+     * 获取BulkRetryMaxAttempts。
+     */
+    public int getBulkRetryMaxAttempts() {
+        return bulkRetryMaxAttempts;
+    }
+
+    /**
+     * 设置BulkRetryMaxAttempts。
+     */
+    public void setBulkRetryMaxAttempts(int bulkRetryMaxAttempts) {
+        this.bulkRetryMaxAttempts = bulkRetryMaxAttempts;
+    }
+
+    /**
+     * 获取BulkRetryInitialDelay。
+     */
+    public Duration getBulkRetryInitialDelay() {
+        return bulkRetryInitialDelay;
+    }
+
+    /**
+     * 设置BulkRetryInitialDelay。
+     */
+    public void setBulkRetryInitialDelay(Duration bulkRetryInitialDelay) {
+        this.bulkRetryInitialDelay = bulkRetryInitialDelay;
+    }
+
+    /**
+     * 是否BulkDeadLetterEnabled。
+     */
+    public boolean isBulkDeadLetterEnabled() {
+        return bulkDeadLetterEnabled;
+    }
+
+    /**
+     * 设置BulkDeadLetterEnabled。
+     */
+    public void setBulkDeadLetterEnabled(boolean bulkDeadLetterEnabled) {
+        this.bulkDeadLetterEnabled = bulkDeadLetterEnabled;
+    }
+
+    /**
+     * 获取BulkDeadLetterPath。
+     */
+    public String getBulkDeadLetterPath() {
+        return bulkDeadLetterPath;
+    }
+
+    /**
+     * 设置BulkDeadLetterPath。
+     */
+    public void setBulkDeadLetterPath(String bulkDeadLetterPath) {
+        this.bulkDeadLetterPath = bulkDeadLetterPath;
+    }
+
+    /**
+     * 获取BulkDeadLetterMaxFileBytes。
+     */
+    public long getBulkDeadLetterMaxFileBytes() {
+        return bulkDeadLetterMaxFileBytes;
+    }
+
+    /**
+     * 设置BulkDeadLetterMaxFileBytes。
+     */
+    public void setBulkDeadLetterMaxFileBytes(long bulkDeadLetterMaxFileBytes) {
+        this.bulkDeadLetterMaxFileBytes = bulkDeadLetterMaxFileBytes;
+    }
+
+    /**
+     * 是否BulkDeadLetterFsync。
+     */
+    public boolean isBulkDeadLetterFsync() {
+        return bulkDeadLetterFsync;
+    }
+
+    /**
+     * 设置BulkDeadLetterFsync。
+     */
+    public void setBulkDeadLetterFsync(boolean bulkDeadLetterFsync) {
+        this.bulkDeadLetterFsync = bulkDeadLetterFsync;
+    }
+
+    /**
+     * 是否BulkSpillEnabled。
+     */
+    public boolean isBulkSpillEnabled() {
+        return bulkSpillEnabled;
+    }
+
+    /**
+     * 设置BulkSpillEnabled。
+     */
+    public void setBulkSpillEnabled(boolean bulkSpillEnabled) {
+        this.bulkSpillEnabled = bulkSpillEnabled;
+    }
+
+    /**
+     * 获取BulkSpillPath。
+     */
+    public String getBulkSpillPath() {
+        return bulkSpillPath;
+    }
+
+    /**
+     * 设置BulkSpillPath。
+     */
+    public void setBulkSpillPath(String bulkSpillPath) {
+        this.bulkSpillPath = bulkSpillPath;
+    }
+
+    /**
+     * 获取BulkSpillSegmentBytes。
+     */
+    public int getBulkSpillSegmentBytes() {
+        return bulkSpillSegmentBytes;
+    }
+
+    /**
+     * 设置BulkSpillSegmentBytes。
+     */
+    public void setBulkSpillSegmentBytes(int bulkSpillSegmentBytes) {
+        this.bulkSpillSegmentBytes = bulkSpillSegmentBytes;
+    }
+
+    /**
+     * 获取BulkSpillMaxSegments。
+     */
+    public int getBulkSpillMaxSegments() {
+        return bulkSpillMaxSegments;
+    }
+
+    /**
+     * 设置BulkSpillMaxSegments。
+     */
+    public void setBulkSpillMaxSegments(int bulkSpillMaxSegments) {
+        this.bulkSpillMaxSegments = bulkSpillMaxSegments;
+    }
+
+    /**
+     * 获取BulkSpillThresholdBytes。
+     */
+    public long getBulkSpillThresholdBytes() {
+        return bulkSpillThresholdBytes;
+    }
+
+    /**
+     * 设置BulkSpillThresholdBytes。
+     */
+    public void setBulkSpillThresholdBytes(long bulkSpillThresholdBytes) {
+        this.bulkSpillThresholdBytes = bulkSpillThresholdBytes;
+    }
+
+    /**
+     * 获取BulkParallelSerializeThreshold。
+     */
+    public int getBulkParallelSerializeThreshold() {
+        return bulkParallelSerializeThreshold;
+    }
+
+    /**
+     * 设置BulkParallelSerializeThreshold。
+     */
+    public void setBulkParallelSerializeThreshold(int bulkParallelSerializeThreshold) {
+        this.bulkParallelSerializeThreshold = bulkParallelSerializeThreshold;
+    }
+
+    /**
+     * 获取ScanPageSize。
+     */
+    public int getScanPageSize() {
+        return scanPageSize;
+    }
+
+    /**
+     * 设置ScanPageSize。
+     */
+    public void setScanPageSize(int scanPageSize) {
+        this.scanPageSize = scanPageSize;
+    }
+
+    /**
+     * 获取ScanKeepAlive。
+     */
+    public Duration getScanKeepAlive() {
+        return scanKeepAlive;
+    }
+
+    /**
+     * 设置ScanKeepAlive。
+     */
+    public void setScanKeepAlive(Duration scanKeepAlive) {
+        this.scanKeepAlive = scanKeepAlive;
+    }
+
+    /**
+     * 是否QueryCacheEnabled。
+     */
+    public boolean isQueryCacheEnabled() {
+        return queryCacheEnabled;
+    }
+
+    /**
+     * 设置QueryCacheEnabled。
+     */
+    public void setQueryCacheEnabled(boolean queryCacheEnabled) {
+        this.queryCacheEnabled = queryCacheEnabled;
+    }
+
+    /**
+     * 获取QueryCacheMaxEntries。
+     */
+    public int getQueryCacheMaxEntries() {
+        return queryCacheMaxEntries;
+    }
+
+    /**
+     * 设置QueryCacheMaxEntries。
+     */
+    public void setQueryCacheMaxEntries(int queryCacheMaxEntries) {
+        this.queryCacheMaxEntries = queryCacheMaxEntries;
+    }
+
+    /**
+     * 获取QueryCacheTtl。
+     */
+    public Duration getQueryCacheTtl() {
+        return queryCacheTtl;
+    }
+
+    /**
+     * 设置QueryCacheTtl。
+     */
+    public void setQueryCacheTtl(Duration queryCacheTtl) {
+        this.queryCacheTtl = queryCacheTtl;
+    }
+
+    /**
+     * 获取QueryCacheInvalidation。
+     */
+    public QueryCacheInvalidation getQueryCacheInvalidation() {
+        return queryCacheInvalidation;
+    }
+
+    /**
+     * 设置QueryCacheInvalidation。
+     */
+    public void setQueryCacheInvalidation(QueryCacheInvalidation queryCacheInvalidation) {
+        this.queryCacheInvalidation = queryCacheInvalidation;
+    }
+
+    /**
+     * 获取QueryCacheValidateInterval。
+     */
+    public Duration getQueryCacheValidateInterval() {
+        return queryCacheValidateInterval;
+    }
+
+    /**
+     * 设置QueryCacheValidateInterval。
+     */
+    public void setQueryCacheValidateInterval(Duration queryCacheValidateInterval) {
+        this.queryCacheValidateInterval = queryCacheValidateInterval;
+    }
+
+    /**
+     * 是否QueryCacheRedisEnabled。
+     */
+    public boolean isQueryCacheRedisEnabled() {
+        return queryCacheRedisEnabled;
+    }
+
+    /**
+     * 设置QueryCacheRedisEnabled。
+     */
+    public void setQueryCacheRedisEnabled(boolean queryCacheRedisEnabled) {
+        this.queryCacheRedisEnabled = queryCacheRedisEnabled;
+    }
+
+    /**
+     * 是否AsyncCoalescingEnabled。
+     */
+    public boolean isAsyncCoalescingEnabled() {
+        return asyncCoalescingEnabled;
+    }
+
+    /**
+     * 设置AsyncCoalescingEnabled。
+     */
+    public void setAsyncCoalescingEnabled(boolean asyncCoalescingEnabled) {
+        this.asyncCoalescingEnabled = asyncCoalescingEnabled;
+    }
+
+    /**
+     * 是否AsyncBatchEnabled。
+     */
+    public boolean isAsyncBatchEnabled() {
+        return asyncBatchEnabled;
+    }
+
+    /**
+     * 设置AsyncBatchEnabled。
+     */
+    public void setAsyncBatchEnabled(boolean asyncBatchEnabled) {
+        this.asyncBatchEnabled = asyncBatchEnabled;
+    }
+
+    /**
+     * 获取AsyncBatchWindow。
+     */
+    public Duration getAsyncBatchWindow() {
+        return asyncBatchWindow;
+    }
+
+    /**
+     * 设置AsyncBatchWindow。
+     */
+    public void setAsyncBatchWindow(Duration asyncBatchWindow) {
+        this.asyncBatchWindow = asyncBatchWindow;
+    }
+
+    /**
+     * 获取AsyncBatchMaxSize。
+     */
+    public int getAsyncBatchMaxSize() {
+        return asyncBatchMaxSize;
+    }
+
+    /**
+     * 设置AsyncBatchMaxSize。
+     */
+    public void setAsyncBatchMaxSize(int asyncBatchMaxSize) {
+        this.asyncBatchMaxSize = asyncBatchMaxSize;
+    }
+
+    /**
+     * 是否TimeIndexEnabled。
+     */
+    public boolean isTimeIndexEnabled() {
+        return timeIndexEnabled;
+    }
+
+    /**
+     * 设置TimeIndexEnabled。
+     */
+    public void setTimeIndexEnabled(boolean timeIndexEnabled) {
+        this.timeIndexEnabled = timeIndexEnabled;
+    }
+
+    /**
+     * 获取TimeIndexNames。
+     */
+    public String getTimeIndexNames() {
+        return timeIndexNames;
+    }
+
+    /**
+     * 设置TimeIndexNames。
+     */
+    public void setTimeIndexNames(String timeIndexNames) {
+        this.timeIndexNames = timeIndexNames;
+    }
+
+    /**
+     * 获取TimeIndexMode。
+     */
+    public TimeIndexMode getTimeIndexMode() {
+        return timeIndexMode;
+    }
+
+    /**
+     * 设置TimeIndexMode。
+     */
+    public void setTimeIndexMode(TimeIndexMode timeIndexMode) {
+        this.timeIndexMode = timeIndexMode;
+    }
+
+    /**
+     * 获取TimeIndexZone。
+     */
+    public String getTimeIndexZone() {
+        return timeIndexZone;
+    }
+
+    /**
+     * 设置TimeIndexZone。
+     */
+    public void setTimeIndexZone(String timeIndexZone) {
+        this.timeIndexZone = timeIndexZone;
+    }
+
+    /**
+     * 获取TimeIndexShards。
+     */
+    public int getTimeIndexShards() {
+        return timeIndexShards;
+    }
+
+    /**
+     * 设置TimeIndexShards。
+     */
+    public void setTimeIndexShards(int timeIndexShards) {
+        this.timeIndexShards = timeIndexShards;
+    }
+
+    /**
+     * 获取TimeIndexReplicas。
+     */
+    public int getTimeIndexReplicas() {
+        return timeIndexReplicas;
+    }
+
+    /**
+     * 设置TimeIndexReplicas。
+     */
+    public void setTimeIndexReplicas(int timeIndexReplicas) {
+        this.timeIndexReplicas = timeIndexReplicas;
+    }
+
+    /**
+     * 获取TimeIndexIlmPolicy。
+     */
+    public String getTimeIndexIlmPolicy() {
+        return timeIndexIlmPolicy;
+    }
+
+    /**
+     * 设置TimeIndexIlmPolicy。
+     */
+    public void setTimeIndexIlmPolicy(String timeIndexIlmPolicy) {
+        this.timeIndexIlmPolicy = timeIndexIlmPolicy;
+    }
+
+    /**
+     * 获取TimeIndexRolloverMaxSize。
+     */
+    public String getTimeIndexRolloverMaxSize() {
+        return timeIndexRolloverMaxSize;
+    }
+
+    /**
+     * 设置TimeIndexRolloverMaxSize。
+     */
+    public void setTimeIndexRolloverMaxSize(String timeIndexRolloverMaxSize) {
+        this.timeIndexRolloverMaxSize = timeIndexRolloverMaxSize;
+    }
+
+    /**
+     * 获取TimeIndexRolloverMaxAge。
+     */
+    public Duration getTimeIndexRolloverMaxAge() {
+        return timeIndexRolloverMaxAge;
+    }
+
+    /**
+     * 设置TimeIndexRolloverMaxAge。
+     */
+    public void setTimeIndexRolloverMaxAge(Duration timeIndexRolloverMaxAge) {
+        this.timeIndexRolloverMaxAge = timeIndexRolloverMaxAge;
+    }
+
+    /**
+     * 获取TimeIndexCheckInterval。
+     */
+    public Duration getTimeIndexCheckInterval() {
+        return timeIndexCheckInterval;
+    }
+
+    /**
+     * 设置TimeIndexCheckInterval。
+     */
+    public void setTimeIndexCheckInterval(Duration timeIndexCheckInterval) {
+        this.timeIndexCheckInterval = timeIndexCheckInterval;
+    }
+
+    /**
+     * 获取TimeIndexResolveInterval。
+     */
+    public Duration getTimeIndexResolveInterval() {
+        return timeIndexResolveInterval;
+    }
+
+    /**
+     * 设置TimeIndexResolveInterval。
+     */
+    public void setTimeIndexResolveInterval(Duration timeIndexResolveInterval) {
+        this.timeIndexResolveInterval = timeIndexResolveInterval;
+    }
+
+    /**
+     * 是否MetricsEnabled。
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * 设置MetricsEnabled。
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * 查询缓存失效模式枚举。
+     */
+    public enum QueryCacheInvalidation {
+        /** 仅按 TTL 失效。 */
+        TTL,
+        /** TTL 内按索引 refresh/写入次数校验，变化即失效。 */
+        REFRESH
+    }
+
+    /**
+     * 索引切分方式枚举。
+     */
+    public enum TimeIndexMode {
+        /** 按天写入 name-yyyy.MM.dd，读别名为 name。 */
+        DAILY,
+        /** 按月写入 name-yyyy.MM，读别名为 name。 */
+        MONTHLY,
+        /** 写别名 name 指向 name-000001 起的序号索引，按大小/时间 rollover。 */
+        ROLLOVER
+    }
 }
@@ -0,0 +1,128 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 自适应 Bulk 大小控制器（AIMD）：按 Bulk 响应耗时与 429 拒绝调整单批目标字节数。
+ * <p>
+ * 耗时低于延迟下限时按固定步长增长，高于上限时缩小至 80%，出现 429 拒绝时减半（同一延迟上限窗口内只减半一次）；目标限制在
+ * {@code [minBytes, maxBytes]} 内。BulkIngester 的 maxSize 固定为上限，由调用方在待发送字节达到目标时提前 flush。
+ */
+public class ElasticsearchAdaptiveBulkController {
+
+    private static final double LATENCY_DECREASE = 0.8;
+    private static final double REJECT_DECREASE = 0.5;
+
+    private final long minBytes;
+    private final long maxBytes;
+    private final long stepBytes;
+    private final long latencyLowNanos;
+    private final long latencyHighNanos;
+    private final AtomicLong targetBytes;
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong lastRejectAt;
+    private volatile long lastLatencyNanos;
+
+    /**
+     * 构造控制器。
+     *
+     * @param minBytes    最小目标字节数
+     * @param maxBytes    最大目标字节数（通常为 bulk-max-bytes）
+     * @param latencyLow  延迟下限，低于该值时增长
+     * @param latencyHigh 延迟上限，高于该值时缩小
+     */
+    public ElasticsearchAdaptiveBulkController(long minBytes, long maxBytes, Duration latencyLow, Duration latencyHigh) {
+        if (latencyLow.compareTo(latencyHigh) >= 0) {
+            throw new IllegalStateException("Bulk adaptive latency-low must be less than latency-high");
+        }
+        this.minBytes = Math.max(1, Math.min(minBytes, maxBytes));
+        this.maxBytes = Math.max(this.minBytes, maxBytes);
+        this.stepBytes = Math.max(this.minBytes, this.maxBytes / 10);
+        this.latencyLowNanos = latencyLow.toNanos();
+        this.latencyHighNanos = latencyHigh.toNanos();
+        this.targetBytes = new AtomicLong(this.minBytes);
+        this.lastRejectAt = new AtomicLong(System.nanoTime() - this.latencyHighNanos);
+    }
+
+    /**
+     * 待发送字节数是否已达到当前目标。
+     */
+    public boolean shouldFlush(long pendingBytes) {
+        return pendingBytes >= targetBytes.get();
+    }
+
+    /**
+     * 记录一次 Bulk 响应。
+     *
+     * @param latencyNanos 请求耗时
+     * @param rejected     是否出现 429 拒绝（整批或部分条目）
+     */
+    public void onBulk(long latencyNanos, boolean rejected) {
+        lastLatencyNanos = latencyNanos;
+        if (rejected) {
+            onRejected();
+        } else if (latencyNanos > latencyHighNanos) {
+            decreases.incrementAndGet();
+            update(current -> (long) (current * LATENCY_DECREASE));
+        } else if (latencyNanos < latencyLowNanos && targetBytes.get() < maxBytes) {
+            increases.incrementAndGet();
+            update(current -> current + stepBytes);
+        }
+    }
+
+    /**
+     * 记录一次 429 拒绝（含条目级重试），同一窗口内多次拒绝只减半一次。
+     */
+    public void onRejected() {
+        rejections.incrementAndGet();
+        long now = System.nanoTime();
+        long last = lastRejectAt.get();
+        if (now - last >= latencyHighNanos && lastRejectAt.compareAndSet(last, now)) {
+            decreases.incrementAndGet();
+            update(current -> (long) (current * REJECT_DECREASE));
+        }
+    }
+
+    /**
+     * 当前目标字节数。
+     */
+    public long targetBytes() {
+        return targetBytes.get();
+    }
+
+    /**
+     * 最近一次 Bulk 耗时（纳秒）。
+     */
+    public long lastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * 累计增长次数。
+     */
+    public long increases() {
+        return increases.get();
+    }
+
+    /**
+     * 累计缩小次数（含拒绝）。
+     */
+    public long decreases() {
+        return decreases.get();
+    }
+
+    /**
+     * 累计 429 拒绝次数（请求或条目重试）。
+     */
+    public long rejections() {
+        return rejections.get();
+    }
+
+    private void update(LongUnaryOperator operator) {
+        targetBytes.updateAndGet(current -> Math.max(minBytes, Math.min(maxBytes, operator.applyAsLong(current))));
+    }
+}
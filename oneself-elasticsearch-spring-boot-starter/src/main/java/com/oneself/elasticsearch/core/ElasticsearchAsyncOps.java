@@ -0,0 +1,350 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.get.GetResult;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetOperation;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import co.elastic.clients.elasticsearch.core.search.SearchRequestBody;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.util.ObjectBuilder;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import jakarta.json.stream.JsonParser;
+
+/**
+ * 基于 {@link ElasticsearchAsyncClient} 的非阻塞操作封装。
+ * <p>
+ * 相同的在途请求（索引、id/请求体、全部 URL 参数、文档类型一致）只发送一次，结果共享给所有调用方；开启批量后，时间窗口内的并发单条 get
+ * 按文档类型合并为一次 mget，单条 search 合并为一次 msearch（仅合并 URL 参数不超出 routing/preference 的请求，其它 search 直接发送）。
+ * 返回的响应对象在合并的调用方之间共享，不应修改。
+ */
+public class ElasticsearchAsyncOps {
+
+    /**
+     * msearch 请求头可携带的 search URL 参数（typed_keys 由客户端固定添加）。
+     */
+    private static final Set<String> BATCHABLE_SEARCH_PARAMS = Set.of("typed_keys", "routing", "preference");
+
+    private final ElasticsearchAsyncClient client;
+    private final JsonpMapper mapper;
+    private final String indexPrefix;
+    private final boolean coalescing;
+    private final boolean batching;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Batch<GetItem>> getBatches = new HashMap<>();
+    private final Map<Class<?>, Batch<SearchItem>> searchBatches = new HashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedRequests = new AtomicLong();
+
+    /**
+     * 构造异步操作封装。
+     */
+    public ElasticsearchAsyncOps(ElasticsearchAsyncClient client, OneselfElasticsearchProperties properties) {
+        if (properties.isAsyncBatchEnabled()
+                && (properties.getAsyncBatchMaxSize() <= 0 || properties.getAsyncBatchWindow().isNegative())) {
+            throw new IllegalStateException("Async batch max-size must be positive and window must not be negative");
+        }
+        this.client = client;
+        this.mapper = client._jsonpMapper();
+        this.indexPrefix = properties.getIndexPrefix() == null ? "" : properties.getIndexPrefix();
+        this.coalescing = properties.isAsyncCoalescingEnabled();
+        this.batching = properties.isAsyncBatchEnabled();
+        this.windowNanos = properties.getAsyncBatchWindow().toNanos();
+        this.maxBatchSize = properties.getAsyncBatchMaxSize();
+        this.scheduler = batching ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-es-async-batch");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public ElasticsearchAsyncClient client() {
+        return client;
+    }
+
+    public String indexName(String raw) {
+        if (indexPrefix.isEmpty()) {
+            return raw;
+        }
+        return indexPrefix + "_" + raw;
+    }
+
+    /**
+     * 按 id 读取文档，索引名自动加前缀；文档不存在时 {@link GetResult#found()} 为 false。
+     */
+    public <T> CompletableFuture<GetResult<T>> get(String index, String id, Class<T> type) {
+        String name = indexName(index);
+        return coalesce("get\n" + name + "\n" + id + "\n" + type.getName(), () -> {
+            if (!batching) {
+                return client.get(g -> g.index(name).id(id), type).thenApply(response -> response);
+            }
+            CompletableFuture<GetResult<T>> future = new CompletableFuture<>();
+            enqueue(getBatches, type, new GetItem(name, id, future), this::flushGets);
+            return future;
+        });
+    }
+
+    /**
+     * 执行查询，索引名自动加前缀。
+     */
+    public <T> CompletableFuture<ResponseBody<T>> search(String index,
+                                                         Function<SearchRequest.Builder, ObjectBuilder<SearchRequest>> fn,
+                                                         Class<T> type) {
+        SearchRequest request = SearchRequest.of(builder -> {
+            fn.apply(builder);
+            return builder.index(indexName(index));
+        });
+        String body = toJson(request);
+        Map<String, String> params = new TreeMap<>(SearchRequest._ENDPOINT.queryParameters(request));
+        String key = "search\n" + SearchRequest._ENDPOINT.requestUrl(request) + "\n" + params + "\n"
+                + type.getName() + "\n" + ElasticsearchJsonSupport.sha256(body);
+        boolean batchable = BATCHABLE_SEARCH_PARAMS.containsAll(params.keySet());
+        return coalesce(key, () -> {
+            if (!batching || !batchable) {
+                return client.search(request, type).thenApply(response -> response);
+            }
+            CompletableFuture<ResponseBody<T>> future = new CompletableFuture<>();
+            enqueue(searchBatches, type, new SearchItem(request, body, future), this::flushSearches);
+            return future;
+        });
+    }
+
+    /**
+     * 被合并（未实际发送）的请求数。
+     */
+    public long coalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * 已发送的 mget/msearch 批次数。
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    /**
+     * 经批次发送的单条请求数。
+     */
+    public long batchedRequests() {
+        return batchedRequests.get();
+    }
+
+    /**
+     * 立即发送所有待合并的批次并停止调度线程。
+     */
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+        for (Class<?> type : snapshot(getBatches)) {
+            flush(getBatches, type, null, this::flushGets);
+        }
+        for (Class<?> type : snapshot(searchBatches)) {
+            flush(searchBatches, type, null, this::flushSearches);
+        }
+        scheduler.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> CompletableFuture<R> coalesce(String key, Supplier<CompletableFuture<R>> call) {
+        if (!coalescing) {
+            return call.get();
+        }
+        CompletableFuture<R> created = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            // 返回副本，调用方取消或完成副本不影响其它调用方
+            return ((CompletableFuture<R>) existing).copy();
+        }
+        try {
+            call.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, created);
+                if (ex != null) {
+                    created.completeExceptionally(ex);
+                } else {
+                    created.complete(result);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(ex);
+        }
+        return created.copy();
+    }
+
+    private <I> void enqueue(Map<Class<?>, Batch<I>> batchMap, Class<?> type, I item,
+                             BatchSender<I> sender) {
+        Batch<I> full = null;
+        Batch<I> scheduled = null;
+        synchronized (batchMap) {
+            Batch<I> batch = batchMap.computeIfAbsent(type, key -> new Batch<>());
+            batch.items.add(item);
+            if (batch.items.size() >= maxBatchSize) {
+                batchMap.remove(type);
+                full = batch;
+            } else if (batch.items.size() == 1) {
+                scheduled = batch;
+            }
+        }
+        if (full != null) {
+            send(type, full, sender);
+        } else if (scheduled != null) {
+            Batch<I> batch = scheduled;
+            scheduler.schedule(() -> flush(batchMap, type, batch, sender), windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <I> void flush(Map<Class<?>, Batch<I>> batchMap, Class<?> type, Batch<I> expected, BatchSender<I> sender) {
+        Batch<I> batch;
+        synchronized (batchMap) {
+            batch = batchMap.get(type);
+            // 批次已因达到上限提前发送时，定时任务不再处理后续新批次
+            if (batch == null || (expected != null && batch != expected)) {
+                return;
+            }
+            batchMap.remove(type);
+        }
+        send(type, batch, sender);
+    }
+
+    private <I> void send(Class<?> type, Batch<I> batch, BatchSender<I> sender) {
+        batches.incrementAndGet();
+        batchedRequests.addAndGet(batch.items.size());
+        try {
+            sender.send(type, batch.items);
+        } catch (RuntimeException ex) {
+            batch.items.forEach(item -> fail(item, ex));
+        }
+    }
+
+    private <I> List<Class<?>> snapshot(Map<Class<?>, Batch<I>> batchMap) {
+        synchronized (batchMap) {
+            return new ArrayList<>(batchMap.keySet());
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void flushGets(Class<?> type, List<GetItem> items) {
+        List<MultiGetOperation> docs = items.stream()
+                .map(item -> MultiGetOperation.of(o -> o.index(item.index()).id(item.id())))
+                .toList();
+        CompletableFuture<MgetResponse<Object>> response = client.mget(m -> m.docs(docs), (Class<Object>) type);
+        response.whenComplete((result, ex) -> {
+            for (int i = 0; i < items.size(); i++) {
+                CompletableFuture future = items.get(i).future();
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                    continue;
+                }
+                MultiGetResponseItem<Object> doc = result.docs().get(i);
+                if (doc.isFailure()) {
+                    future.completeExceptionally(new IllegalStateException("Elasticsearch mget item failed: "
+                            + describe(doc.failure().error())));
+                } else {
+                    future.complete(doc.result());
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void flushSearches(Class<?> type, List<SearchItem> items) {
+        List<RequestItem> searches = items.stream()
+                .map(item -> RequestItem.of(r -> r
+                        .header(h -> h.index(item.request().index())
+                                .routing(item.request().routing())
+                                .preference(item.request().preference()))
+                        .body(bodyOf(item.body()))))
+                .toList();
+        CompletableFuture<MsearchResponse<Object>> response = client.msearch(m -> m.searches(searches),
+                (Class<Object>) type);
+        response.whenComplete((result, ex) -> {
+            for (int i = 0; i < items.size(); i++) {
+                CompletableFuture future = items.get(i).future();
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                    continue;
+                }
+                MultiSearchResponseItem<Object> item = result.responses().get(i);
+                if (item.isFailure()) {
+                    future.completeExceptionally(new IllegalStateException("Elasticsearch msearch item failed: "
+                            + describe(item.failure().error())));
+                } else {
+                    future.complete(item.result());
+                }
+            }
+        });
+    }
+
+    private SearchRequestBody bodyOf(String json) {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new StringReader(json))) {
+            return SearchRequestBody.of(b -> b.withJson(parser, mapper));
+        }
+    }
+
+    private void fail(Object item, Throwable ex) {
+        if (item instanceof GetItem get) {
+            get.future().completeExceptionally(ex);
+        } else if (item instanceof SearchItem search) {
+            search.future().completeExceptionally(ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return ElasticsearchJsonSupport.toJson(value, mapper);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to serialize search request", ex);
+        }
+    }
+
+    private static String describe(ErrorCause cause) {
+        return cause == null ? "unknown" : cause.type() + ": " + cause.reason();
+    }
+
+    @FunctionalInterface
+    private interface BatchSender<I> {
+
+        void send(Class<?> type, List<I> items);
+    }
+
+    private static final class Batch<I> {
+
+        private final List<I> items = new ArrayList<>();
+    }
+
+    private record GetItem(String index, String id, CompletableFuture<?> future) {
+    }
+
+    private record SearchItem(SearchRequest request, String body, CompletableFuture<?> future) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperationBase;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.transport.TransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk 监听器：采集每个请求的耗时与按索引的条目结果，反馈给自适应控制器并记录指标。
+ * <p>
+ * 429 条目由 BulkIngester 按退避策略重试（{@link #onRetry()} 计数），重试耗尽的条目、其它条目错误与整批失败
+ * 写入死信日志；未配置死信日志时仅记录错误日志。溢写缓冲写回的条目在请求成功后确认，整批失败时交回溢写缓冲重新写回，不进入死信。
+ */
+public class ElasticsearchBulkListener implements BulkListener<Object> {
+
+    static final int TOO_MANY_REQUESTS = 429;
+
+    private static final int MAX_TRACKED_REQUESTS = 1024;
+    private static final long STALE_REQUEST_NANOS = 600_000_000_000L;
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchBulkListener.class);
+
+    private final ElasticsearchAdaptiveBulkController controller;
+    private final ElasticsearchMetrics metrics;
+    private final ElasticsearchDeadLetterJournal deadLetterJournal;
+    private final Map<Long, Long> startedAt = new ConcurrentHashMap<>();
+
+    /**
+     * 构造监听器，controller 与 metrics 均可为空。
+     */
+    public ElasticsearchBulkListener(ElasticsearchAdaptiveBulkController controller, ElasticsearchMetrics metrics) {
+        this(controller, metrics, null);
+    }
+
+    /**
+     * 构造监听器，controller、metrics 与 deadLetterJournal 均可为空。
+     */
+    public ElasticsearchBulkListener(ElasticsearchAdaptiveBulkController controller, ElasticsearchMetrics metrics,
+                                     ElasticsearchDeadLetterJournal deadLetterJournal) {
+        this.controller = controller;
+        this.metrics = metrics;
+        this.deadLetterJournal = deadLetterJournal;
+    }
+
+    @Override
+    public void beforeBulk(long executionId, BulkRequest request, List<Object> contexts) {
+        long now = System.nanoTime();
+        if (startedAt.size() > MAX_TRACKED_REQUESTS) {
+            // 全部条目进入重试的请求不会回调 afterBulk，定期清理
+            startedAt.values().removeIf(start -> now - start > STALE_REQUEST_NANOS);
+        }
+        startedAt.put(executionId, now);
+    }
+
+    /**
+     * 429 条目每次进入退避重试时调用（由退避策略回调）。
+     */
+    public void onRetry() {
+        if (controller != null) {
+            controller.onRejected();
+        }
+        if (metrics != null) {
+            metrics.countRetries(1);
+        }
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest request, List<Object> contexts, BulkResponse response) {
+        long latency = elapsed(executionId);
+        Map<String, int[]> counts = new HashMap<>();
+        List<ElasticsearchDeadLetterJournal.DeadLetter> deadLetters = new ArrayList<>();
+        List<BulkOperation> operations = request.operations();
+        List<BulkResponseItem> items = response.items();
+        boolean rejected = false;
+        for (int i = 0; i < items.size(); i++) {
+            BulkResponseItem item = items.get(i);
+            int[] count = counts.computeIfAbsent(item.index(), key -> new int[3]);
+            if (item.error() == null) {
+                count[0]++;
+                continue;
+            }
+            if (item.status() == TOO_MANY_REQUESTS) {
+                count[2]++;
+                rejected = true;
+            } else {
+                count[1]++;
+            }
+            if (i < operations.size()) {
+                deadLetters.add(new ElasticsearchDeadLetterJournal.DeadLetter(operations.get(i), item.status(),
+                        describe(item.error())));
+            }
+        }
+        if (controller != null) {
+            controller.onBulk(latency, rejected);
+        }
+        if (metrics != null) {
+            metrics.recordBulk(latency, operations.size(), response.errors() ? "partial" : "success");
+            counts.forEach((index, count) -> metrics.recordBulkItems(index, count[0], count[1], count[2]));
+        }
+        deadLetter(deadLetters);
+        for (Object context : contexts) {
+            if (context instanceof ElasticsearchSpillBuffer.Acknowledgement ack) {
+                ack.acknowledge();
+            }
+        }
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest request, List<Object> contexts, Throwable failure) {
+        long latency = elapsed(executionId);
+        boolean rejected = isRejected(failure);
+        log.warn("oneself.elasticsearch bulk request of {} operations failed: {}",
+                request.operations().size(), failure.getMessage());
+        if (controller != null) {
+            controller.onBulk(latency, rejected);
+        }
+        if (metrics != null) {
+            metrics.recordBulk(latency, request.operations().size(), "failed");
+            Map<String, Integer> counts = new HashMap<>();
+            for (BulkOperation operation : request.operations()) {
+                counts.merge(indexOf(operation), 1, Integer::sum);
+            }
+            counts.forEach((index, count) -> metrics.recordBulkItems(index, 0,
+                    rejected ? 0 : count, rejected ? count : 0));
+        }
+        int status = statusOf(failure);
+        String error = failure.getClass().getName() + ": " + failure.getMessage();
+        List<BulkOperation> operations = request.operations();
+        List<ElasticsearchDeadLetterJournal.DeadLetter> deadLetters = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            Object context = i < contexts.size() ? contexts.get(i) : null;
+            if (context instanceof ElasticsearchSpillBuffer.Acknowledgement ack) {
+                ack.fail();
+                continue;
+            }
+            deadLetters.add(new ElasticsearchDeadLetterJournal.DeadLetter(operations.get(i), status, error));
+        }
+        deadLetter(deadLetters);
+    }
+
+    private void deadLetter(List<ElasticsearchDeadLetterJournal.DeadLetter> deadLetters) {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        if (deadLetterJournal == null) {
+            log.error("oneself.elasticsearch dropped {} failed bulk operations (dead-letter journal disabled), first: {}",
+                    deadLetters.size(), deadLetters.get(0).error());
+            return;
+        }
+        try {
+            deadLetterJournal.append(deadLetters);
+        } catch (IOException | RuntimeException ex) {
+            log.error("oneself.elasticsearch failed to write {} operations to dead-letter journal",
+                    deadLetters.size(), ex);
+            return;
+        }
+        if (metrics != null) {
+            Map<String, Integer> counts = new HashMap<>();
+            deadLetters.forEach(deadLetter -> counts.merge(indexOf(deadLetter.operation()), 1, Integer::sum));
+            counts.forEach(metrics::countDeadLetters);
+        }
+    }
+
+    private static String describe(ErrorCause error) {
+        return error.type() + ": " + error.reason();
+    }
+
+    /**
+     * 操作的目标索引（未指定时为 {@code _default}，即请求级默认索引）。
+     */
+    static String indexOf(BulkOperation operation) {
+        if (operation._get() instanceof BulkOperationBase base && base.index() != null) {
+            return base.index();
+        }
+        return "_default";
+    }
+
+    /**
+     * 整批失败是否为 429 拒绝。
+     */
+    static boolean isRejected(Throwable failure) {
+        return statusOf(failure) == TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * 整批失败的 HTTP 状态码，非 HTTP 错误（如连接失败）为 0。
+     */
+    static int statusOf(Throwable failure) {
+        for (Throwable current = failure; current != null; current = current.getCause()) {
+            if (current instanceof ElasticsearchException ex) {
+                return ex.status();
+            }
+            if (current instanceof TransportException ex) {
+                return ex.statusCode();
+            }
+        }
+        return 0;
+    }
+
+    private long elapsed(long executionId) {
+        Long start = startedAt.remove(executionId);
+        return start == null ? 0L : System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,336 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperationBase;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.NdJsonpSerializable;
+import co.elastic.clients.util.BinaryData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+
+/**
+ * Bulk 死信日志：永久失败的文档以 NDJSON 追加到本地磁盘，可通过 {@link #replay(RestClient, long)} 重放。
+ * <p>
+ * 每行一条记录：{@code {"timestamp","index","id","status","error","attempts","operation":[action, source]}}，
+ * operation 即原始 Bulk 请求行，重放时原样拼接为 {@code _bulk} 请求体。文件超过上限时滚动，目录在首次写入时创建。
+ */
+public class ElasticsearchDeadLetterJournal implements AutoCloseable {
+
+    private static final String FILE_PREFIX = "dead-letter-";
+    private static final String FILE_SUFFIX = ".ndjson";
+    private static final ContentType NDJSON = ContentType.create("application/x-ndjson", StandardCharsets.UTF_8);
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final boolean fsync;
+    private final JsonpMapper mapper;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong appended = new AtomicLong();
+    private FileChannel channel;
+    private Path current;
+    private long currentSize;
+    private long sequence;
+
+    /**
+     * 构造死信日志。
+     *
+     * @param directory    日志目录
+     * @param maxFileBytes 单文件上限，超过后滚动
+     * @param fsync        每批写入后是否强制刷盘
+     * @param mapper       序列化文档使用的 JsonpMapper（与客户端一致）
+     */
+    public ElasticsearchDeadLetterJournal(Path directory, long maxFileBytes, boolean fsync, JsonpMapper mapper) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.fsync = fsync;
+        this.mapper = mapper;
+    }
+
+    /**
+     * 追加一批死信。
+     */
+    public void append(List<DeadLetter> deadLetters) throws IOException {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(deadLetters.size() * 512);
+        for (DeadLetter deadLetter : deadLetters) {
+            encode(buffer, deadLetter);
+        }
+        write(buffer.toByteArray(), deadLetters.size());
+    }
+
+    /**
+     * 重放全部死信文件：按 maxRequestBytes 分批发送 {@code _bulk}，仍失败的条目写回新的死信文件，处理完的文件删除。
+     * <p>
+     * 请求整体失败时抛出异常，当前文件按批边界截断为未发送的条目（含失败批），已确认的批次与已写回的失败条目不会再次重放。
+     */
+    public ReplayResult replay(RestClient restClient, long maxRequestBytes) throws IOException {
+        List<Path> files;
+        synchronized (this) {
+            closeChannel();
+            files = listFiles();
+        }
+        int replayed = 0;
+        int failed = 0;
+        for (Path file : files) {
+            Path unsent = file.resolveSibling(file.getFileName() + ".unsent");
+            try {
+                ReplayResult result = replayFile(restClient, file, unsent, maxRequestBytes);
+                replayed += result.replayed();
+                failed += result.failed();
+            } catch (IOException | RuntimeException ex) {
+                if (Files.exists(unsent)) {
+                    Files.move(unsent, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                throw ex;
+            }
+            Files.deleteIfExists(file);
+        }
+        return new ReplayResult(replayed, failed);
+    }
+
+    /**
+     * 待重放的死信文件数。
+     */
+    public synchronized int pendingFiles() throws IOException {
+        return listFiles().size();
+    }
+
+    /**
+     * 累计写入的死信条数。
+     */
+    public long appended() {
+        return appended.get();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeChannel();
+    }
+
+    private ReplayResult replayFile(RestClient restClient, Path file, Path unsent, long maxRequestBytes)
+            throws IOException {
+        int replayed = 0;
+        int failed = 0;
+        List<ObjectNode> chunk = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line != null && !line.isBlank()) {
+                    ObjectNode entry = (ObjectNode) objectMapper.readTree(line);
+                    for (JsonNode operationLine : entry.path("operation")) {
+                        body.write(objectMapper.writeValueAsBytes(operationLine));
+                        body.write('\n');
+                    }
+                    chunk.add(entry);
+                }
+                if (!chunk.isEmpty() && (line == null || body.size() >= maxRequestBytes)) {
+                    int chunkFailed;
+                    try {
+                        chunkFailed = send(restClient, body, chunk);
+                    } catch (IOException | RuntimeException ex) {
+                        writeUnsent(unsent, chunk, reader);
+                        throw ex;
+                    }
+                    failed += chunkFailed;
+                    replayed += chunk.size() - chunkFailed;
+                    chunk.clear();
+                    body.reset();
+                }
+            } while (line != null);
+        }
+        return new ReplayResult(replayed, failed);
+    }
+
+    /**
+     * 将失败批及其后未读取的条目写入临时文件，随后替换原文件。
+     */
+    private void writeUnsent(Path unsent, List<ObjectNode> chunk, BufferedReader reader) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(unsent, StandardCharsets.UTF_8)) {
+            for (ObjectNode entry : chunk) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.write('\n');
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    private int send(RestClient restClient, ByteArrayOutputStream body, List<ObjectNode> chunk) throws IOException {
+        Request request = new Request("POST", "/_bulk");
+        request.setEntity(new ByteArrayEntity(body.toByteArray(), NDJSON));
+        Response response = restClient.performRequest(request);
+        JsonNode items;
+        try (InputStream content = response.getEntity().getContent()) {
+            items = objectMapper.readTree(content).path("items");
+        }
+        ByteArrayOutputStream retained = new ByteArrayOutputStream();
+        int failed = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            JsonNode result = items.path(i).elements().hasNext() ? items.path(i).elements().next() : null;
+            int status = result == null ? 0 : result.path("status").asInt();
+            if (result != null && status < 300 && !result.has("error")) {
+                continue;
+            }
+            ObjectNode entry = chunk.get(i);
+            entry.put("timestamp", Instant.now().toString());
+            entry.put("status", status);
+            entry.put("error", result == null ? "missing bulk response item" : result.path("error").toString());
+            entry.put("attempts", entry.path("attempts").asInt(1) + 1);
+            retained.write(objectMapper.writeValueAsBytes(entry));
+            retained.write('\n');
+            failed++;
+        }
+        if (failed > 0) {
+            write(retained.toByteArray(), failed);
+        }
+        return failed;
+    }
+
+    private void encode(ByteArrayOutputStream buffer, DeadLetter deadLetter) throws IOException {
+        BulkOperation operation = deadLetter.operation();
+        List<byte[]> lines = new ArrayList<>(2);
+        collectLines(lines, operation);
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.now().toString());
+            generator.writeStringField("index", ElasticsearchBulkListener.indexOf(operation));
+            if (operation._get() instanceof BulkOperationBase base && base.id() != null) {
+                generator.writeStringField("id", base.id());
+            }
+            generator.writeNumberField("status", deadLetter.status());
+            generator.writeStringField("error", deadLetter.error());
+            generator.writeNumberField("attempts", 1);
+            generator.writeArrayFieldStart("operation");
+            for (byte[] line : lines) {
+                generator.writeRawValue(new String(line, StandardCharsets.UTF_8));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        buffer.write('\n');
+    }
+
+    /**
+     * 按 Bulk 请求体格式展开操作（action 行与可选的 source 行）。
+     */
+    private void collectLines(List<byte[]> lines, NdJsonpSerializable value) throws IOException {
+        Iterator<?> iterator = value._serializables();
+        while (iterator.hasNext()) {
+            Object item = iterator.next();
+            if (item == null) {
+                continue;
+            }
+            if (item instanceof NdJsonpSerializable nested && nested != value) {
+                collectLines(lines, nested);
+                continue;
+            }
+            ByteBuffer data = BinaryData.of(item, mapper).asByteBuffer();
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            lines.add(bytes);
+        }
+    }
+
+    private synchronized void write(byte[] data, int count) throws IOException {
+        if (channel == null || currentSize >= maxFileBytes) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        currentSize += data.length;
+        appended.addAndGet(count);
+    }
+
+    private void roll() throws IOException {
+        closeChannel();
+        Files.createDirectories(directory);
+        current = directory.resolve(FILE_PREFIX + System.currentTimeMillis() + "-" + (sequence++) + FILE_SUFFIX);
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        currentSize = channel.size();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+            current = null;
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX) && !path.equals(current);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * 死信条目。
+     *
+     * @param operation 原始 Bulk 操作
+     * @param status    失败状态码（请求整体失败时为 0 或 HTTP 状态码）
+     * @param error     失败原因
+     */
+    public record DeadLetter(BulkOperation operation, int status, String error) {
+    }
+
+    /**
+     * 重放结果。
+     *
+     * @param replayed 重放成功条数
+     * @param failed   仍失败并写回死信的条数
+     */
+    public record ReplayResult(int replayed, int failed) {
+    }
+}
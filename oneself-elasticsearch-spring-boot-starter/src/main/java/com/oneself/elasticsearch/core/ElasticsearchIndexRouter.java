@@ -0,0 +1,355 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.RolloverResponse;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties.TimeIndexMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按时间或大小切分的索引路由与管理。
+ * <p>
+ * DAILY/MONTHLY 模式写入 {@code name-yyyy.MM.dd} / {@code name-yyyy.MM}，索引模板为其挂读别名 {@code name}；
+ * ROLLOVER 模式通过写别名 {@code name} 写入 {@code name-000001} 起的序号索引，未配置 ILM 策略时由本类定期检查 rollover 条件。
+ * 写索引名按原始索引名缓存最近的若干时间段，新旧时间段交替的文档（如迟到事件）同样不做格式化；读索引列表按缓存的索引时间范围裁剪（ROLLOVER 模式以索引创建时间为界，
+ * 假设文档时间接近写入时间）。模板、写别名初始化与 rollover 检查在后台线程执行，集群不可用时按检查间隔重试。
+ */
+public class ElasticsearchIndexRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchIndexRouter.class);
+
+    private static final DateTimeFormatter DAILY_FORMAT = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final DateTimeFormatter MONTHLY_FORMAT = DateTimeFormatter.ofPattern("yyyy.MM");
+    private static final String FIRST_ROLLOVER_SUFFIX = "-000001";
+    private static final long TEMPLATE_PRIORITY = 200L;
+    private static final int CACHED_PERIODS = 8;
+
+    private final ElasticsearchClient client;
+    private final TimeIndexMode mode;
+    private final ZoneId zone;
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private final int shards;
+    private final int replicas;
+    private final String ilmPolicy;
+    private final String rolloverMaxSize;
+    private final Duration rolloverMaxAge;
+    private final long resolveIntervalNanos;
+    private final Map<String, Period[]> writePeriods = new ConcurrentHashMap<>();
+    private final Map<String, Resolved> resolved = new ConcurrentHashMap<>();
+    private final AtomicLong rollovers = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean initialized;
+
+    /**
+     * 构造路由器并启动后台初始化与 rollover 检查。
+     *
+     * @param client     客户端
+     * @param ops        用于为逻辑索引名加前缀
+     * @param properties 配置
+     */
+    public ElasticsearchIndexRouter(ElasticsearchClient client, ElasticsearchOps ops,
+                                    OneselfElasticsearchProperties properties) {
+        for (String raw : properties.getTimeIndexNames().split(",")) {
+            if (!raw.isBlank()) {
+                names.put(raw.trim(), ops.indexName(raw.trim()));
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalStateException("Time index requires oneself.elasticsearch.time-index-names");
+        }
+        if (properties.getTimeIndexCheckInterval().isZero() || properties.getTimeIndexCheckInterval().isNegative()) {
+            throw new IllegalStateException("Time index check-interval must be positive");
+        }
+        this.client = client;
+        this.mode = properties.getTimeIndexMode();
+        this.zone = ZoneId.of(properties.getTimeIndexZone());
+        this.shards = properties.getTimeIndexShards();
+        this.replicas = properties.getTimeIndexReplicas();
+        this.ilmPolicy = properties.getTimeIndexIlmPolicy() == null ? "" : properties.getTimeIndexIlmPolicy().trim();
+        this.rolloverMaxSize = properties.getTimeIndexRolloverMaxSize();
+        this.rolloverMaxAge = properties.getTimeIndexRolloverMaxAge();
+        this.resolveIntervalNanos = properties.getTimeIndexResolveInterval().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-es-index-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkMillis = properties.getTimeIndexCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 当前时间的写索引名。
+     */
+    public String writeIndex(String raw) {
+        return writeIndex(raw, System.currentTimeMillis());
+    }
+
+    /**
+     * 文档时间对应的写索引名（ROLLOVER 模式始终返回写别名）。
+     */
+    public String writeIndex(String raw, Instant timestamp) {
+        return writeIndex(raw, timestamp.toEpochMilli());
+    }
+
+    /**
+     * 文档时间（毫秒）对应的写索引名（ROLLOVER 模式始终返回写别名）。
+     */
+    public String writeIndex(String raw, long epochMillis) {
+        String name = name(raw);
+        if (mode == TimeIndexMode.ROLLOVER) {
+            return name;
+        }
+        Period[] periods = writePeriods.getOrDefault(raw, new Period[0]);
+        for (Period period : periods) {
+            if (epochMillis >= period.start && epochMillis < period.end) {
+                return period.index;
+            }
+        }
+        // 未命中时新时间段放在最前，超出上限淘汰最久未新增的；并发未命中只会重复计算，不影响结果
+        Period period = period(name, epochMillis);
+        Period[] updated = new Period[Math.min(periods.length + 1, CACHED_PERIODS)];
+        updated[0] = period;
+        System.arraycopy(periods, 0, updated, 1, updated.length - 1);
+        writePeriods.put(raw, updated);
+        return period.index;
+    }
+
+    /**
+     * 覆盖全部索引的读别名。
+     */
+    public String readAlias(String raw) {
+        return name(raw);
+    }
+
+    /**
+     * 与时间范围 [from, to] 有交集的索引，返回空列表表示范围内没有索引（此时不应发起查询，空索引列表会查询全部索引）。
+     */
+    public List<String> readIndices(String raw, Instant from, Instant to) {
+        String name = name(raw);
+        long now = System.nanoTime();
+        Resolved current = resolved.get(raw);
+        if (current == null || now - current.resolvedAt > resolveIntervalNanos) {
+            current = new Resolved(resolve(name), now);
+            resolved.put(raw, current);
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<String> indices = new ArrayList<>();
+        for (IndexRange range : current.ranges) {
+            if (range.start <= toMillis && range.end > fromMillis) {
+                indices.add(range.index);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * 清空读索引缓存（如外部删除或新建了索引）。
+     */
+    public void refresh() {
+        resolved.clear();
+    }
+
+    /**
+     * 模板与写别名是否已初始化。
+     */
+    public boolean initialized() {
+        return initialized;
+    }
+
+    /**
+     * Starter 触发的 rollover 次数。
+     */
+    public long rollovers() {
+        return rollovers.get();
+    }
+
+    /**
+     * 停止后台检查。
+     */
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private String name(String raw) {
+        String name = names.get(raw);
+        if (name == null) {
+            throw new IllegalArgumentException("Index is not managed by time index router: " + raw);
+        }
+        return name;
+    }
+
+    private Period period(String name, long epochMillis) {
+        ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+        ZonedDateTime start;
+        ZonedDateTime end;
+        if (mode == TimeIndexMode.DAILY) {
+            start = time.truncatedTo(ChronoUnit.DAYS);
+            end = start.plusDays(1);
+        } else {
+            start = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            end = start.plusMonths(1);
+        }
+        DateTimeFormatter format = mode == TimeIndexMode.DAILY ? DAILY_FORMAT : MONTHLY_FORMAT;
+        return new Period(start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli(),
+                name + "-" + format.format(start));
+    }
+
+    private List<IndexRange> resolve(String name) {
+        GetIndicesSettingsResponse response;
+        try {
+            response = client.indices().getSettings(g -> g.index(name + "-*").name("index.creation_date"));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Elasticsearch get index settings failed", ex);
+        }
+        List<IndexRange> ranges = new ArrayList<>();
+        if (mode == TimeIndexMode.ROLLOVER) {
+            List<IndexRange> created = new ArrayList<>();
+            response.settings().forEach((index, state) -> {
+                Long creationDate = creationDate(state.settings());
+                if (creationDate != null) {
+                    created.add(new IndexRange(index, creationDate, Long.MAX_VALUE));
+                }
+            });
+            created.sort(Comparator.comparingLong(IndexRange::start));
+            for (int i = 0; i < created.size(); i++) {
+                long end = i + 1 < created.size() ? created.get(i + 1).start : Long.MAX_VALUE;
+                ranges.add(new IndexRange(created.get(i).index, created.get(i).start, end));
+            }
+            return ranges;
+        }
+        for (String index : response.settings().keySet()) {
+            String suffix = index.substring(name.length() + 1);
+            try {
+                ZonedDateTime start = mode == TimeIndexMode.DAILY
+                        ? LocalDate.parse(suffix, DAILY_FORMAT).atStartOfDay(zone)
+                        : YearMonth.parse(suffix, MONTHLY_FORMAT).atDay(1).atStartOfDay(zone);
+                ZonedDateTime end = mode == TimeIndexMode.DAILY ? start.plusDays(1) : start.plusMonths(1);
+                ranges.add(new IndexRange(index, start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli()));
+            } catch (DateTimeParseException ex) {
+                // 匹配 name-* 但不是本路由创建的索引
+            }
+        }
+        ranges.sort(Comparator.comparingLong(IndexRange::start));
+        return ranges;
+    }
+
+    private static Long creationDate(IndexSettings settings) {
+        if (settings == null) {
+            return null;
+        }
+        if (settings.creationDate() != null) {
+            return settings.creationDate();
+        }
+        return settings.index() == null ? null : settings.index().creationDate();
+    }
+
+    private void check() {
+        try {
+            if (!initialized) {
+                for (String name : names.values()) {
+                    putTemplate(name);
+                    if (mode == TimeIndexMode.ROLLOVER) {
+                        bootstrapWriteAlias(name);
+                    }
+                }
+                initialized = true;
+            }
+            if (mode == TimeIndexMode.ROLLOVER && ilmPolicy.isEmpty()) {
+                names.forEach(this::rollover);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("oneself.elasticsearch time index check failed: {}", ex.getMessage());
+        }
+    }
+
+    private void putTemplate(String name) throws IOException {
+        client.indices().putIndexTemplate(t -> t
+                .name(name)
+                .indexPatterns(name + "-*")
+                .priority(TEMPLATE_PRIORITY)
+                .template(m -> {
+                    m.settings(s -> {
+                        s.numberOfShards(String.valueOf(shards)).numberOfReplicas(String.valueOf(replicas));
+                        if (!ilmPolicy.isEmpty()) {
+                            s.lifecycle(l -> mode == TimeIndexMode.ROLLOVER
+                                    ? l.name(ilmPolicy).rolloverAlias(name)
+                                    : l.name(ilmPolicy));
+                        }
+                        return s;
+                    });
+                    // rollover 的写别名不能出现在模板中，由首个索引创建时挂载
+                    if (mode != TimeIndexMode.ROLLOVER) {
+                        m.aliases(name, a -> a);
+                    }
+                    return m;
+                }));
+    }
+
+    private void bootstrapWriteAlias(String name) throws IOException {
+        if (client.indices().existsAlias(e -> e.name(name)).value()) {
+            return;
+        }
+        try {
+            client.indices().create(c -> c.index(name + FIRST_ROLLOVER_SUFFIX)
+                    .aliases(name, a -> a.isWriteIndex(true)));
+        } catch (ElasticsearchException ex) {
+            // 多实例同时启动时其它实例已创建
+            if (ex.error() == null || !"resource_already_exists_exception".equals(ex.error().type())) {
+                throw ex;
+            }
+        }
+    }
+
+    private void rollover(String raw, String name) {
+        RolloverResponse response;
+        try {
+            response = client.indices().rollover(r -> r.alias(name).conditions(c -> c
+                    .maxPrimaryShardSize(rolloverMaxSize)
+                    .maxAge(Time.of(t -> t.time(rolloverMaxAge.toMillis() + "ms")))));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Elasticsearch rollover failed", ex);
+        }
+        if (response.rolledOver()) {
+            rollovers.incrementAndGet();
+            resolved.remove(raw);
+            log.info("oneself.elasticsearch rolled over {} to {}", name, response.newIndex());
+        }
+    }
+
+    private record Period(long start, long end, String index) {
+    }
+
+    private record IndexRange(String index, long start, long end) {
+    }
+
+    private record Resolved(List<IndexRange> ranges, long resolvedAt) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.util.BinaryData;
+
+/**
+ * 查询缓存与异步合并共用的序列化与摘要工具。
+ */
+final class ElasticsearchJsonSupport {
+
+    private ElasticsearchJsonSupport() {
+    }
+
+    /**
+     * 按客户端 JsonpMapper 序列化为 JSON 字符串。
+     */
+    static String toJson(Object value, JsonpMapper mapper) throws IOException {
+        ByteBuffer buffer = BinaryData.of(value, mapper).asByteBuffer();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    /**
+     * SHA-256 十六进制摘要。
+     */
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpCoreContext;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.NodeSelector;
+
+/**
+ * 按节点响应延迟选择节点的 {@link NodeSelector}。
+ * <p>
+ * 通过 HTTP 拦截器记录每个节点的首字节延迟（EWMA），选择时跳过专用 master 节点，只保留延迟不超过最低延迟
+ * {@code tolerance} 倍的节点，由 RestClient 在其中轮询；无样本或样本超过探测间隔的节点始终保留，以便新节点与恢复节点重新获得流量。
+ * 请求失败的节点在样本有效期内先被排除，不参与最低延迟计算，直到下一次成功响应；全部节点均失败时不做筛选。
+ */
+public class ElasticsearchLatencyNodeSelector implements NodeSelector {
+
+    private static final String START_ATTRIBUTE = "oneself.elasticsearch.request.start";
+    private static final double ALPHA = 0.3;
+
+    private final double tolerance;
+    private final long probeIntervalNanos;
+    private final Map<HttpHost, Latency> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * 构造选择器。
+     *
+     * @param tolerance     延迟容忍系数（不小于 1）
+     * @param probeInterval 延迟样本有效期
+     */
+    public ElasticsearchLatencyNodeSelector(double tolerance, Duration probeInterval) {
+        if (tolerance < 1 || probeInterval.isZero() || probeInterval.isNegative()) {
+            throw new IllegalStateException("Node latency tolerance must be >= 1 and probe-interval must be positive");
+        }
+        this.tolerance = tolerance;
+        this.probeIntervalNanos = probeInterval.toNanos();
+    }
+
+    @Override
+    public void select(Iterable<Node> nodes) {
+        NodeSelector.SKIP_DEDICATED_MASTERS.select(nodes);
+        long now = System.nanoTime();
+        boolean healthy = false;
+        for (Node node : nodes) {
+            Latency latency = fresh(node.getHost(), now);
+            if (latency == null || !latency.failed) {
+                healthy = true;
+                break;
+            }
+        }
+        if (!healthy) {
+            // 全部节点近期失败时不做筛选，交由 RestClient 自身的失败节点重试
+            return;
+        }
+        double best = Double.MAX_VALUE;
+        Iterator<Node> candidates = nodes.iterator();
+        while (candidates.hasNext()) {
+            Latency latency = fresh(candidates.next().getHost(), now);
+            if (latency == null) {
+                continue;
+            }
+            if (latency.failed) {
+                candidates.remove();
+            } else if (latency.nanos < best) {
+                best = latency.nanos;
+            }
+        }
+        if (best == Double.MAX_VALUE) {
+            return;
+        }
+        double limit = best * tolerance;
+        Iterator<Node> iterator = nodes.iterator();
+        while (iterator.hasNext()) {
+            Latency latency = fresh(iterator.next().getHost(), now);
+            if (latency != null && latency.nanos > limit) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 请求拦截器：记录发送时间。
+     */
+    public HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> context.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    /**
+     * 响应拦截器：按目标节点更新延迟。
+     */
+    public HttpResponseInterceptor responseInterceptor() {
+        return (response, context) -> {
+            Object start = context.getAttribute(START_ATTRIBUTE);
+            Object host = context.getAttribute(HttpCoreContext.HTTP_TARGET_HOST);
+            if (start instanceof Long startNanos && host instanceof HttpHost target) {
+                record(target, System.nanoTime() - startNanos);
+            }
+        };
+    }
+
+    /**
+     * 记录一次成功响应的延迟。
+     */
+    public void record(HttpHost host, long nanos) {
+        long now = System.nanoTime();
+        latencies.compute(host, (key, previous) -> previous == null || previous.failed
+                ? new Latency(nanos, now, false)
+                : new Latency(ALPHA * nanos + (1 - ALPHA) * previous.nanos, now, false));
+    }
+
+    /**
+     * 节点请求失败（连接失败或 502/503/504），在样本有效期内排除该节点。
+     */
+    public void onFailure(Node node) {
+        failures.incrementAndGet();
+        latencies.put(node.getHost(), new Latency(Double.MAX_VALUE, System.nanoTime(), true));
+    }
+
+    /**
+     * 节点失败次数。
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    private Latency fresh(HttpHost host, long now) {
+        Latency latency = latencies.get(host);
+        return latency == null || now - latency.updatedAt > probeIntervalNanos ? null : latency;
+    }
+
+    private record Latency(double nanos, long updatedAt, boolean failed) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.oneself.elasticsearch.core;
+
+/**
+ * Starter 指标 SPI，默认实现基于 Micrometer（{@link MicrometerElasticsearchMetrics}）。
+ * <p>
+ * 接口本身不依赖 Micrometer，未引入 Micrometer 时核心组件不会加载相关类。
+ */
+public interface ElasticsearchMetrics {
+
+    /**
+     * 记录一次 Bulk 请求。
+     *
+     * @param latencyNanos 请求耗时
+     * @param operations   请求内操作数
+     * @param outcome      success / partial / failed
+     */
+    void recordBulk(long latencyNanos, int operations, String outcome);
+
+    /**
+     * 记录单个索引的 Bulk 条目结果。
+     *
+     * @param index     索引名称
+     * @param succeeded 成功条目数
+     * @param failed    失败条目数（不含拒绝）
+     * @param rejected  被拒绝（429）条目数
+     */
+    void recordBulkItems(String index, int succeeded, int failed, int rejected);
+
+    /**
+     * 记录被拒绝（429）条目的重试次数。
+     */
+    void countRetries(int count);
+
+    /**
+     * 记录写入死信日志的条目数。
+     */
+    void countDeadLetters(String index, int count);
+}
@@ -0,0 +1,193 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 定期通过 {@code GET _nodes/http} 发现集群节点并更新 {@link RestClient} 的节点列表。
+ * <p>
+ * 节点失败时（由 RestClient 的 FailureListener 触发）立即重新发现，之后按失败间隔继续，恢复正常后回到常规间隔；
+ * 发现结果为空或请求失败时保留原有节点列表。
+ */
+public class ElasticsearchNodeSniffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchNodeSniffer.class);
+
+    private static final long MIN_FAILURE_SNIFF_GAP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RestClient restClient;
+    private final String scheme;
+    private final long intervalNanos;
+    private final long afterFailureDelayNanos;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong sniffs = new AtomicLong();
+    private final AtomicLong sniffFailures = new AtomicLong();
+    private ScheduledFuture<?> next;
+    private long lastFailureSniffAt;
+    private boolean closed;
+
+    /**
+     * 构造并立即执行首次发现。
+     *
+     * @param restClient        客户端
+     * @param scheme            发现节点使用的协议
+     * @param interval          常规发现间隔
+     * @param afterFailureDelay 节点失败触发发现后的下一次间隔
+     */
+    public ElasticsearchNodeSniffer(RestClient restClient, String scheme, Duration interval, Duration afterFailureDelay) {
+        if (interval.isZero() || interval.isNegative() || afterFailureDelay.isZero() || afterFailureDelay.isNegative()) {
+            throw new IllegalStateException("Sniff interval and after-failure-delay must be positive");
+        }
+        this.restClient = restClient;
+        this.scheme = scheme;
+        this.intervalNanos = interval.toNanos();
+        this.afterFailureDelayNanos = afterFailureDelay.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-es-sniffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule(0, intervalNanos);
+    }
+
+    /**
+     * 节点失败时调用：立即重新发现（1 秒内的重复触发合并为一次）。
+     */
+    public void onFailure() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (lastFailureSniffAt != 0 && now - lastFailureSniffAt < MIN_FAILURE_SNIFF_GAP_NANOS) {
+                return;
+            }
+            lastFailureSniffAt = now;
+        }
+        schedule(0, afterFailureDelayNanos);
+    }
+
+    /**
+     * 当前节点数。
+     */
+    public int nodeCount() {
+        return restClient.getNodes().size();
+    }
+
+    /**
+     * 成功发现次数。
+     */
+    public long sniffs() {
+        return sniffs.get();
+    }
+
+    /**
+     * 发现失败次数。
+     */
+    public long sniffFailures() {
+        return sniffFailures.get();
+    }
+
+    /**
+     * 停止定期发现。
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void schedule(long delayNanos, long nextDelayNanos) {
+        if (closed) {
+            return;
+        }
+        if (next != null) {
+            next.cancel(false);
+        }
+        next = scheduler.schedule(() -> {
+            sniff();
+            schedule(nextDelayNanos, intervalNanos);
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void sniff() {
+        try {
+            List<Node> nodes = fetchNodes();
+            if (nodes.isEmpty()) {
+                log.warn("oneself.elasticsearch sniffer found no http nodes, keeping {}", restClient.getNodes());
+                sniffFailures.incrementAndGet();
+                return;
+            }
+            restClient.setNodes(nodes);
+            sniffs.incrementAndGet();
+            log.debug("oneself.elasticsearch sniffed nodes: {}", nodes);
+        } catch (IOException | RuntimeException ex) {
+            sniffFailures.incrementAndGet();
+            log.warn("oneself.elasticsearch node sniffing failed: {}", ex.getMessage());
+        }
+    }
+
+    private List<Node> fetchNodes() throws IOException {
+        Request request = new Request("GET", "/_nodes/http");
+        Response response = restClient.performRequest(request);
+        JsonNode root;
+        try (InputStream content = response.getEntity().getContent()) {
+            root = objectMapper.readTree(content);
+        }
+        List<Node> nodes = new ArrayList<>();
+        root.path("nodes").forEach(node -> {
+            String address = node.path("http").path("publish_address").asText(null);
+            if (address == null || address.isBlank()) {
+                return;
+            }
+            TreeSet<String> roles = new TreeSet<>();
+            node.path("roles").forEach(role -> roles.add(role.asText()));
+            Map<String, List<String>> attributes = new LinkedHashMap<>();
+            node.path("attributes").properties().forEach(entry ->
+                    attributes.put(entry.getKey(), List.of(entry.getValue().asText())));
+            nodes.add(new Node(parseAddress(address), null, node.path("name").asText(null),
+                    node.path("version").asText(null), new Node.Roles(roles), attributes));
+        });
+        return nodes;
+    }
+
+    /**
+     * 解析 publish_address，格式为 {@code ip:port}、{@code [ipv6]:port} 或 {@code hostname/ip:port}（优先使用 hostname）。
+     */
+    private HttpHost parseAddress(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalStateException("Invalid publish_address: " + address);
+        }
+        int port = Integer.parseInt(address.substring(colon + 1));
+        int slash = address.indexOf('/');
+        String host = slash >= 0 ? address.substring(0, slash) : address.substring(0, colon);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        return new HttpHost(host, port, scheme);
+    }
+}
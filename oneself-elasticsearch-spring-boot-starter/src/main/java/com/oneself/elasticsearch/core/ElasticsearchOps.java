@@ -1,24 +1,78 @@
 package com.oneself.elasticsearch.core;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.IndexOperation;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ObjectBuilder;
 
 /**
  * Elasticsearch 常用操作封装。
  */
 public class ElasticsearchOps {
 
+    private static final String JSON = "application/json";
+
     private final ElasticsearchClient client;
+    private final JsonpMapper mapper;
     private final String indexPrefix;
     private final BulkIngester<Object> bulkIngester;
+    private final ElasticsearchAdaptiveBulkController bulkController;
+    private final ElasticsearchSpillBuffer spillBuffer;
+    private final ElasticsearchScanner scanner;
+    private final ElasticsearchQueryCache queryCache;
+    private final int parallelSerializeThreshold;
+    private final AtomicBoolean flushing = new AtomicBoolean();
 
     public ElasticsearchOps(ElasticsearchClient client,
                             OneselfElasticsearchProperties properties,
                             BulkIngester<Object> bulkIngester) {
+        this(client, new ElasticsearchAsyncClient(client._transport(), client._transportOptions()), properties,
+                bulkIngester, null, null, null);
+    }
+
+    /**
+     * 构造 ElasticsearchOps，可选组件均可为空。
+     *
+     * @param client         客户端
+     * @param asyncClient    异步客户端（全量遍历使用）
+     * @param properties     配置
+     * @param bulkIngester   批量写入器
+     * @param bulkController 自适应 Bulk 控制器，不为空时按自适应目标字节数提前 flush
+     * @param spillBuffer    溢写缓冲，不为空时在 BulkIngester 饱和时溢写到磁盘
+     * @param queryCache     查询缓存，不为空时 {@link #cachedSearch} 走缓存
+     */
+    public ElasticsearchOps(ElasticsearchClient client,
+                            ElasticsearchAsyncClient asyncClient,
+                            OneselfElasticsearchProperties properties,
+                            BulkIngester<Object> bulkIngester,
+                            ElasticsearchAdaptiveBulkController bulkController,
+                            ElasticsearchSpillBuffer spillBuffer,
+                            ElasticsearchQueryCache queryCache) {
         this.client = client;
+        this.mapper = client._jsonpMapper();
         this.indexPrefix = properties.getIndexPrefix() == null ? "" : properties.getIndexPrefix();
         this.bulkIngester = bulkIngester;
+        this.bulkController = bulkController;
+        this.spillBuffer = spillBuffer;
+        this.scanner = new ElasticsearchScanner(asyncClient, properties.getScanPageSize(), properties.getScanKeepAlive());
+        this.queryCache = queryCache;
+        this.parallelSerializeThreshold = properties.getBulkParallelSerializeThreshold();
     }
 
     public ElasticsearchClient client() {
@@ -32,6 +86,34 @@ public class ElasticsearchOps {
         return indexPrefix + "_" + raw;
     }
 
+    /**
+     * 以 point-in-time + search_after 遍历索引，返回按需拉取的命中 Stream（需关闭以释放 PIT）。
+     * 请求中的 index 为原始名称（自动加前缀）。
+     */
+    public <T> Stream<Hit<T>> scan(ElasticsearchScanRequest request, Class<T> type) {
+        return scanner.scan(request.withIndex(indexName(request.index())), type);
+    }
+
+    /**
+     * 缓存查询：index 为原始名称（自动加前缀），未启用查询缓存时直接查询。
+     */
+    public <T> SearchResponse<T> cachedSearch(String index,
+                                              Function<SearchRequest.Builder, ObjectBuilder<SearchRequest>> fn,
+                                              Class<T> type) {
+        SearchRequest request = SearchRequest.of(builder -> {
+            fn.apply(builder);
+            return builder.index(indexName(index));
+        });
+        if (queryCache != null) {
+            return queryCache.search(request, type);
+        }
+        try {
+            return client.search(request, type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Elasticsearch search failed", ex);
+        }
+    }
+
     public BulkIngester<Object> bulkIngester() {
         return bulkIngester;
     }
@@ -39,4 +121,118 @@ public class ElasticsearchOps {
     public boolean hasBulkIngester() {
         return bulkIngester != null;
     }
+
+    /**
+     * 添加 Bulk 操作，待发送字节数达到自适应目标时提前 flush；启用溢写时 BulkIngester 饱和则写入磁盘缓冲。
+     */
+    public void bulkAdd(BulkOperation operation) {
+        bulkAdd(operation, null);
+    }
+
+    /**
+     * 添加带上下文的 Bulk 操作（上下文在监听器回调中返回，带上下文的操作不溢写）。
+     */
+    public void bulkAdd(BulkOperation operation, Object context) {
+        if (bulkIngester == null) {
+            throw new IllegalStateException("Bulk ingester is not enabled");
+        }
+        if (context == null && spillBuffer != null && spillBuffer.offer(operation)) {
+            return;
+        }
+        bulkIngester.add(operation, context);
+        if (bulkController != null && bulkController.shouldFlush(bulkIngester.pendingOperationsSize())
+                && flushing.compareAndSet(false, true)) {
+            try {
+                bulkIngester.flush();
+            } finally {
+                flushing.set(false);
+            }
+        }
+    }
+
+    /**
+     * 以原始 JSON 字节添加 index 操作，不解析也不重新序列化（如 Kafka 消息体）；index 为最终索引名，id 为空时由集群生成。
+     */
+    public void bulkIndexRaw(String index, String id, byte[] json) {
+        bulkIndexRaw(index, id, json, 0, json.length);
+    }
+
+    /**
+     * 以原始 JSON 字节片段添加 index 操作；字节数组被直接引用，发送前调用方不应修改。
+     */
+    public void bulkIndexRaw(String index, String id, byte[] json, int offset, int length) {
+        bulkAdd(rawIndexOperation(index, id, rawJson(json, offset, length)));
+    }
+
+    /**
+     * 以原始 JSON 添加 index 操作：堆内 buffer 直接引用底层数组（不改变 position），堆外 buffer 复制一次。
+     */
+    public void bulkIndexRaw(String index, String id, ByteBuffer json) {
+        if (json.hasArray()) {
+            bulkIndexRaw(index, id, json.array(), json.arrayOffset() + json.position(), json.remaining());
+            return;
+        }
+        byte[] bytes = new byte[json.remaining()];
+        json.duplicate().get(bytes);
+        bulkIndexRaw(index, id, bytes);
+    }
+
+    /**
+     * 在调用线程将文档序列化为 JSON；结果可作为 index/create 操作的 document，BulkIngester 不会再次序列化。
+     */
+    public BinaryData serialize(Object document) {
+        return BinaryData.of(document, mapper);
+    }
+
+    /**
+     * 将原始 JSON 字节包装为 index/create 操作的 document，换行处理与 bulkIndexRaw 相同。
+     */
+    public BinaryData rawDocument(byte[] json) {
+        return rawJson(json, 0, json.length);
+    }
+
+    /**
+     * 批量添加 index 操作，文档数达到 bulk-parallel-serialize-threshold 时先在 ForkJoin 公共池并行序列化，再按原顺序加入 Bulk。
+     */
+    public <T> void bulkIndexAll(String index, List<T> documents, Function<T, String> idFunction) {
+        boolean parallel = parallelSerializeThreshold > 0 && documents.size() >= parallelSerializeThreshold;
+        List<BulkOperation> operations = (parallel ? documents.parallelStream() : documents.stream())
+                .map(document -> rawIndexOperation(index, idFunction == null ? null : idFunction.apply(document),
+                        serialize(document)))
+                .toList();
+        operations.forEach(this::bulkAdd);
+    }
+
+    private BulkOperation rawIndexOperation(String index, String id, BinaryData document) {
+        return BulkOperation.of(op -> op.index(IndexOperation.<BinaryData>of(b -> {
+            b.index(index).document(document);
+            if (id != null) {
+                b.id(id);
+            }
+            return b;
+        })));
+    }
+
+    /**
+     * 包装原始 JSON；含换行时复制一份并将换行替换为空格（JSON 字符串内不会出现原始换行，UTF-8 多字节序列也不含 0x0A/0x0D），
+     * 保证 NDJSON 请求体每个文档一行。
+     */
+    private static BinaryData rawJson(byte[] json, int offset, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Raw JSON document must not be empty");
+        }
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (json[i] == '\n' || json[i] == '\r') {
+                byte[] copy = Arrays.copyOfRange(json, offset, end);
+                for (int j = i - offset; j < copy.length; j++) {
+                    if (copy[j] == '\n' || copy[j] == '\r') {
+                        copy[j] = ' ';
+                    }
+                }
+                return BinaryData.of(copy, JSON);
+            }
+        }
+        return BinaryData.of(json, offset, length, JSON);
+    }
 }
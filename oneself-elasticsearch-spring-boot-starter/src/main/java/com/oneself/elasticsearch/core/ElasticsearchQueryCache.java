@@ -0,0 +1,249 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.indices.IndicesStatsResponse;
+import co.elastic.clients.elasticsearch.indices.stats.IndexStats;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import jakarta.json.stream.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 类型化查询结果缓存（本地 LRU + 可选共享二级存储）。
+ * <p>
+ * key 为索引名（排序后）、文档类型、routing/preference 与规范化（对象字段排序）后的请求体的 SHA-256，其它 URL 参数不参与。
+ * TTL 模式下条目在 TTL 内有效；REFRESH 模式下条目额外绑定查询时的索引版本（按索引 uuid、外部 refresh 次数与写入/删除次数计算），
+ * 版本变化即失效，版本本身最多每个校验间隔查询一次 {@code _stats}。缓存的响应对象在调用方之间共享，不应修改。
+ */
+public class ElasticsearchQueryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchQueryCache.class);
+
+    private final ElasticsearchClient client;
+    private final JsonpMapper mapper;
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final boolean refreshAware;
+    private final long validateIntervalNanos;
+    private final ElasticsearchQueryCacheStore store;
+    private final Map<String, Entry> entries;
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 构造缓存。
+     *
+     * @param client           客户端
+     * @param maxEntries       本地最大条目数（LRU 淘汰）
+     * @param ttl              条目最长存活时间（两种模式均生效）
+     * @param invalidation     失效模式
+     * @param validateInterval REFRESH 模式下索引版本的校验间隔
+     * @param store            共享二级存储，可为空
+     */
+    public ElasticsearchQueryCache(ElasticsearchClient client, int maxEntries, Duration ttl,
+                                   OneselfElasticsearchProperties.QueryCacheInvalidation invalidation,
+                                   Duration validateInterval, ElasticsearchQueryCacheStore store) {
+        if (maxEntries <= 0 || ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalStateException("Query cache max-entries and ttl must be positive");
+        }
+        this.client = client;
+        this.mapper = client._jsonpMapper();
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAware = invalidation == OneselfElasticsearchProperties.QueryCacheInvalidation.REFRESH;
+        this.validateIntervalNanos = validateInterval.toNanos();
+        this.store = store;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 执行查询，命中缓存时直接返回。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SearchResponse<T> search(SearchRequest request, Class<T> type) {
+        List<String> indices = new ArrayList<>(request.index());
+        indices.sort(null);
+        String key = key(indices, request, type);
+        // 版本在查询前读取，查询期间发生的 refresh 会在下次校验时使条目失效
+        String version = refreshAware ? version(indices) : "";
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && now < entry.expiresAt && entry.version.equals(version)) {
+            hits.incrementAndGet();
+            return (SearchResponse<T>) entry.response;
+        }
+        SearchResponse<T> shared = loadShared(key, version, type);
+        if (shared != null) {
+            sharedHits.incrementAndGet();
+            put(key, shared, version, now);
+            return shared;
+        }
+        misses.incrementAndGet();
+        SearchResponse<T> response;
+        try {
+            response = client.search(request, type);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Elasticsearch search failed", ex);
+        }
+        put(key, response, version, now);
+        storeShared(key, version, response);
+        return response;
+    }
+
+    /**
+     * 清空本地缓存与索引版本。
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        versions.clear();
+    }
+
+    /**
+     * 本地条目数。
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 本地命中次数。
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * 二级存储命中次数。
+     */
+    public long sharedHits() {
+        return sharedHits.get();
+    }
+
+    /**
+     * 未命中（实际查询）次数。
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    private void put(String key, SearchResponse<?> response, String version, long now) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, version, now + ttlNanos));
+        }
+    }
+
+    private <T> SearchResponse<T> loadShared(String key, String version, Class<T> type) {
+        if (store == null) {
+            return null;
+        }
+        try {
+            String value = store.get(key);
+            int separator = value == null ? -1 : value.indexOf('\n');
+            if (separator < 0 || !value.substring(0, separator).equals(version)) {
+                return null;
+            }
+            JsonpDeserializer<SearchResponse<T>> deserializer =
+                    SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(type));
+            try (JsonParser parser = mapper.jsonProvider().createParser(new StringReader(value.substring(separator + 1)))) {
+                return deserializer.deserialize(parser, mapper);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("oneself.elasticsearch failed to read shared query cache: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void storeShared(String key, String version, SearchResponse<?> response) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.put(key, version + "\n" + toJson(response), ttl);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("oneself.elasticsearch failed to write shared query cache: {}", ex.getMessage());
+        }
+    }
+
+    private String version(List<String> indices) {
+        String indexKey = String.join(",", indices);
+        long now = System.nanoTime();
+        Version cached = versions.get(indexKey);
+        if (cached != null && now - cached.checkedAt < validateIntervalNanos) {
+            return cached.value;
+        }
+        IndicesStatsResponse stats;
+        try {
+            stats = client.indices().stats(s -> s.index(indices.isEmpty() ? List.of("_all") : indices)
+                    .metric("indexing", "refresh"));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Elasticsearch index stats failed", ex);
+        }
+        StringBuilder token = new StringBuilder();
+        new TreeMap<>(stats.indices()).forEach((name, index) -> {
+            IndexStats primaries = index.primaries();
+            token.append(name).append(':').append(index.uuid());
+            if (primaries != null && primaries.refresh() != null && primaries.indexing() != null) {
+                token.append(':').append(primaries.refresh().externalTotal())
+                        .append(':').append(primaries.indexing().indexTotal())
+                        .append(':').append(primaries.indexing().deleteTotal());
+            }
+            token.append(';');
+        });
+        String value = ElasticsearchJsonSupport.sha256(token.toString());
+        versions.put(indexKey, new Version(value, now));
+        return value;
+    }
+
+    private String key(List<String> indices, SearchRequest request, Class<?> type) {
+        try {
+            Object body = canonicalMapper.readValue(toJson(request), Object.class);
+            return ElasticsearchJsonSupport.sha256(String.join(",", indices) + "\n" + type.getName() + "\n" + request.routing() + "\n"
+                    + request.preference() + "\n" + canonicalMapper.writeValueAsString(body));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to build query cache key", ex);
+        }
+    }
+
+    private String toJson(Object value) throws IOException {
+        return ElasticsearchJsonSupport.toJson(value, mapper);
+    }
+
+    private record Entry(SearchResponse<?> response, String version, long expiresAt) {
+    }
+
+    private record Version(String value, long checkedAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+
+/**
+ * 查询结果缓存的共享二级存储（如 Redis），值为带索引版本标记的响应 JSON。
+ */
+public interface ElasticsearchQueryCacheStore {
+
+    /**
+     * 读取缓存值，不存在时返回 null。
+     */
+    String get(String key);
+
+    /**
+     * 写入缓存值。
+     */
+    void put(String key, String value, Duration ttl);
+}
@@ -0,0 +1,68 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.util.List;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+
+/**
+ * 全量遍历请求（point-in-time + search_after）。
+ *
+ * @param index     原始索引名称（{@link ElasticsearchOps#scan} 自动加前缀）
+ * @param query     过滤条件（为空则遍历全部文档）
+ * @param includes  仅返回的 source 字段（为空返回完整 source）
+ * @param pageSize  每页条数（为空使用全局配置）
+ * @param slices    切片数，大于 1 时返回并行 Stream，每个切片独立翻页
+ * @param keepAlive PIT 保持时间（为空使用全局配置），需覆盖单页处理耗时
+ * @param prefetch  是否在处理当前页时预取下一页
+ */
+public record ElasticsearchScanRequest(String index,
+                                       Query query,
+                                       List<String> includes,
+                                       Integer pageSize,
+                                       Integer slices,
+                                       Duration keepAlive,
+                                       boolean prefetch) {
+
+    /**
+     * 遍历整个索引（单切片、预取）。
+     */
+    public static ElasticsearchScanRequest of(String index) {
+        return new ElasticsearchScanRequest(index, null, null, null, null, null, true);
+    }
+
+    /**
+     * 按条件遍历索引（单切片、预取）。
+     */
+    public static ElasticsearchScanRequest of(String index, Query query) {
+        return new ElasticsearchScanRequest(index, query, null, null, null, null, true);
+    }
+
+    /**
+     * 指定索引。
+     */
+    public ElasticsearchScanRequest withIndex(String name) {
+        return new ElasticsearchScanRequest(name, query, includes, pageSize, slices, keepAlive, prefetch);
+    }
+
+    /**
+     * 指定返回字段。
+     */
+    public ElasticsearchScanRequest withIncludes(String... fields) {
+        return new ElasticsearchScanRequest(index, query, List.of(fields), pageSize, slices, keepAlive, prefetch);
+    }
+
+    /**
+     * 指定每页条数。
+     */
+    public ElasticsearchScanRequest withPageSize(int size) {
+        return new ElasticsearchScanRequest(index, query, includes, size, slices, keepAlive, prefetch);
+    }
+
+    /**
+     * 指定切片数。
+     */
+    public ElasticsearchScanRequest withSlices(int count) {
+        return new ElasticsearchScanRequest(index, query, includes, pageSize, count, keepAlive, prefetch);
+    }
+}
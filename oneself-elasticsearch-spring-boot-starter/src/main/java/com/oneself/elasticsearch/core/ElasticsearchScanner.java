@@ -0,0 +1,243 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于 point-in-time + search_after 的全量遍历，替代深分页 from/size。
+ * <p>
+ * 按 {@code _shard_doc} 排序翻页，切片数大于 1 时每个切片独立翻页，返回的 Stream 可被并行消费；开启预取时处理当前页的同时
+ * 异步请求下一页。Stream 按需拉取，消费速度即请求速度；遍历结束或 Stream 关闭时释放 PIT，建议使用 try-with-resources。
+ */
+public class ElasticsearchScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchScanner.class);
+
+    private static final String SHARD_DOC = "_shard_doc";
+
+    private final ElasticsearchAsyncClient asyncClient;
+    private final int defaultPageSize;
+    private final Duration defaultKeepAlive;
+
+    /**
+     * 构造遍历器。
+     */
+    public ElasticsearchScanner(ElasticsearchAsyncClient asyncClient, int defaultPageSize, Duration defaultKeepAlive) {
+        this.asyncClient = asyncClient;
+        this.defaultPageSize = defaultPageSize;
+        this.defaultKeepAlive = defaultKeepAlive;
+    }
+
+    /**
+     * 遍历索引，返回按需拉取的命中 Stream。
+     */
+    public <T> Stream<Hit<T>> scan(ElasticsearchScanRequest request, Class<T> type) {
+        int pageSize = request.pageSize() == null ? defaultPageSize : request.pageSize();
+        int slices = request.slices() == null ? 1 : request.slices();
+        if (pageSize <= 0 || slices <= 0) {
+            throw new IllegalStateException("Scan page-size and slices must be positive");
+        }
+        Time keepAlive = Time.of(t -> t.time((request.keepAlive() == null ? defaultKeepAlive : request.keepAlive())
+                .toMillis() + "ms"));
+        String pitId = join(asyncClient.openPointInTime(p -> p.index(request.index()).keepAlive(keepAlive))).id();
+        Scan<T> scan = new Scan<>(request, type, pageSize, slices, keepAlive, pitId);
+        return StreamSupport.stream(new SliceSpliterator<>(scan, 0, slices), slices > 1).onClose(scan::close);
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw new IllegalStateException("Elasticsearch scan request failed", ex.getCause());
+        }
+    }
+
+    /**
+     * 一次遍历的共享状态：PIT、剩余切片与关闭标记。
+     */
+    private final class Scan<T> {
+
+        private final ElasticsearchScanRequest request;
+        private final Class<T> type;
+        private final int pageSize;
+        private final int slices;
+        private final Time keepAlive;
+        private final AtomicReference<String> pitId;
+        private final AtomicInteger remaining;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Scan(ElasticsearchScanRequest request, Class<T> type, int pageSize, int slices, Time keepAlive, String pitId) {
+            this.request = request;
+            this.type = type;
+            this.pageSize = pageSize;
+            this.slices = slices;
+            this.keepAlive = keepAlive;
+            this.pitId = new AtomicReference<>(pitId);
+            this.remaining = new AtomicInteger(slices);
+        }
+
+        CompletableFuture<SearchResponse<T>> fetch(int slice, List<FieldValue> searchAfter) {
+            return asyncClient.search(s -> {
+                s.pit(p -> p.id(pitId.get()).keepAlive(keepAlive))
+                        .size(pageSize)
+                        .sort(o -> o.field(f -> f.field(SHARD_DOC)))
+                        .trackTotalHits(t -> t.enabled(false));
+                if (request.query() != null) {
+                    s.query(request.query());
+                }
+                if (request.includes() != null && !request.includes().isEmpty()) {
+                    s.source(c -> c.filter(f -> f.includes(request.includes())));
+                }
+                if (slices > 1) {
+                    s.slice(c -> c.id(String.valueOf(slice)).max(slices));
+                }
+                if (searchAfter != null) {
+                    s.searchAfter(searchAfter);
+                }
+                return s;
+            }, type);
+        }
+
+        void sliceDone() {
+            if (remaining.decrementAndGet() == 0) {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            asyncClient.closePointInTime(c -> c.id(pitId.get())).whenComplete((response, ex) -> {
+                if (ex != null) {
+                    log.warn("oneself.elasticsearch failed to close point-in-time: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 单个切片的翻页游标。
+     */
+    private static final class SliceCursor<T> {
+
+        private final Scan<T> scan;
+        private final int slice;
+        private CompletableFuture<SearchResponse<T>> next;
+        private List<FieldValue> searchAfter;
+        private List<Hit<T>> page = List.of();
+        private int position;
+        private boolean done;
+
+        SliceCursor(Scan<T> scan, int slice) {
+            this.scan = scan;
+            this.slice = slice;
+            if (scan.request.prefetch()) {
+                this.next = scan.fetch(slice, null);
+            }
+        }
+
+        Hit<T> poll() {
+            while (position >= page.size()) {
+                if (done || scan.closed.get()) {
+                    return null;
+                }
+                if (next == null) {
+                    next = scan.fetch(slice, searchAfter);
+                }
+                SearchResponse<T> response = join(next);
+                if (response.pitId() != null) {
+                    scan.pitId.set(response.pitId());
+                }
+                page = response.hits().hits();
+                position = 0;
+                next = null;
+                if (page.size() < scan.pageSize) {
+                    done = true;
+                    scan.sliceDone();
+                } else {
+                    searchAfter = page.get(page.size() - 1).sort();
+                    if (scan.request.prefetch()) {
+                        next = scan.fetch(slice, searchAfter);
+                    }
+                }
+            }
+            return page.get(position++);
+        }
+    }
+
+    /**
+     * 覆盖切片区间 [from, to) 的 Spliterator，按切片拆分以支持并行消费。
+     */
+    private static final class SliceSpliterator<T> implements Spliterator<Hit<T>> {
+
+        private final Scan<T> scan;
+        private int from;
+        private final int to;
+        private SliceCursor<T> cursor;
+
+        SliceSpliterator(Scan<T> scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Hit<T>> action) {
+            while (from < to) {
+                if (cursor == null) {
+                    cursor = new SliceCursor<>(scan, from);
+                }
+                Hit<T> hit = cursor.poll();
+                if (hit != null) {
+                    action.accept(hit);
+                    return true;
+                }
+                cursor = null;
+                from++;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Hit<T>> trySplit() {
+            int start = cursor == null ? from : from + 1;
+            int mid = (start + to) >>> 1;
+            if (mid <= start) {
+                return null;
+            }
+            SliceSpliterator<T> prefix = new SliceSpliterator<>(scan, from, mid);
+            prefix.cursor = cursor;
+            cursor = null;
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+}
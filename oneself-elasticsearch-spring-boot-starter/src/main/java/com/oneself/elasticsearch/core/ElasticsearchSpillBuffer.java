@@ -0,0 +1,704 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperationBase;
+import co.elastic.clients.elasticsearch.core.bulk.CreateOperation;
+import co.elastic.clients.elasticsearch.core.bulk.DeleteOperation;
+import co.elastic.clients.elasticsearch.core.bulk.IndexOperation;
+import co.elastic.clients.elasticsearch.core.bulk.UpdateOperation;
+import co.elastic.clients.elasticsearch.core.bulk.WriteOperation;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.util.BinaryData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk 溢写缓冲：BulkIngester 饱和（在途请求已满且待发送字节超过阈值）时，操作追加到内存映射的分段日志，
+ * 由后台线程在集群恢复后按顺序写回 BulkIngester，调用线程不再因 ES 变慢而阻塞或堆内存膨胀。
+ * <p>
+ * 每个分段文件头为 {@code magic(4) + 已消费位置(4) + 序号(8)}，条目为 {@code 长度(4) + CRC32(4) + 内容}，
+ * 最后一个条目后写入 0 作为结束标记。分段消费完后清空复用，最多 maxSegments 个；全部写满时 {@link #offer} 返回 false，
+ * 调用方退回到阻塞写入。重启时按序号恢复分段，校验 CRC 截断残缺条目，从已消费位置继续写回（至少一次）。
+ * <p>
+ * 写回的操作以 {@link Acknowledgement} 作为 BulkIngester 上下文，由 {@link ElasticsearchBulkListener} 在请求返回后确认：
+ * 请求成功（条目级错误已进入死信）后按写回顺序推进已消费位置；整批失败时回退到最早未确认的条目，暂停后重新写回。
+ * <p>
+ * 仅支持无 versionType / dynamicTemplates 的操作，文档在溢写时序列化，写回时以原始 JSON 提交。
+ */
+public class ElasticsearchSpillBuffer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ElasticsearchSpillBuffer.class);
+
+    private static final int MAGIC = 0x45535350;
+    private static final int HEADER_BYTES = 16;
+    private static final int READ_POSITION_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int ENTRY_HEADER_BYTES = 8;
+    private static final String FILE_PREFIX = "spill-";
+    private static final String FILE_SUFFIX = ".seg";
+    private static final String JSON = "application/json";
+    private static final long DRAIN_PAUSE_MILLIS = 50;
+    private static final long RETRY_PAUSE_MILLIS = 1000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private static final byte KIND_INDEX = 0;
+    private static final byte KIND_CREATE = 1;
+    private static final byte KIND_UPDATE = 2;
+    private static final byte KIND_DELETE = 3;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final long thresholdBytes;
+    private final JsonpMapper mapper;
+    private final BulkIngester<Object> ingester;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Deque<Segment> free = new ArrayDeque<>();
+    private final Deque<Acknowledgement> unacknowledged = new ArrayDeque<>();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    private final Thread drainer;
+    private volatile boolean running = true;
+    private volatile long pendingEntries;
+    private volatile long pausedUntil;
+    private long generation;
+    private int segmentCount;
+    private int nextFileIndex;
+    private long nextSequence;
+
+    /**
+     * 构造溢写缓冲，恢复目录中已有的分段并启动写回线程。
+     *
+     * @param directory      分段目录
+     * @param segmentBytes   单个分段大小
+     * @param maxSegments    最大分段数（磁盘占用上限为 segmentBytes * maxSegments）
+     * @param thresholdBytes BulkIngester 待发送字节超过该值且在途请求已满时开始溢写
+     * @param mapper         序列化文档使用的 JsonpMapper（与客户端一致）
+     * @param ingester       写回目标
+     */
+    public ElasticsearchSpillBuffer(Path directory, int segmentBytes, int maxSegments, long thresholdBytes,
+                                    JsonpMapper mapper, BulkIngester<Object> ingester) throws IOException {
+        if (segmentBytes <= HEADER_BYTES + ENTRY_HEADER_BYTES || maxSegments <= 0) {
+            throw new IllegalStateException("Bulk spill segment-bytes and max-segments are too small");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.thresholdBytes = thresholdBytes;
+        this.mapper = mapper;
+        this.ingester = ingester;
+        recover();
+        this.drainer = new Thread(this::drainLoop, "oneself-es-spill-drainer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * 尝试溢写操作：存在积压或 BulkIngester 饱和时写入分段并返回 true；否则（或无法溢写）返回 false，由调用方直接写入。
+     */
+    public boolean offer(BulkOperation operation) {
+        if (pendingEntries == 0 && !saturated()) {
+            return false;
+        }
+        byte[] payload;
+        try {
+            payload = encode(operation);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("oneself.elasticsearch failed to encode bulk operation for spill: {}", ex.getMessage());
+            return false;
+        }
+        if (payload == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (!running) {
+                return false;
+            }
+            try {
+                if (!append(payload)) {
+                    return false;
+                }
+            } catch (IOException ex) {
+                log.warn("oneself.elasticsearch failed to spill bulk operation: {}", ex.getMessage());
+                return false;
+            }
+            notifyAll();
+        }
+        spilled.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 待写回的条目数（不含已写回、等待确认的条目）。
+     */
+    public long pendingEntries() {
+        return pendingEntries;
+    }
+
+    /**
+     * 已创建的分段数。
+     */
+    public synchronized int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * 累计溢写条目数。
+     */
+    public long spilled() {
+        return spilled.get();
+    }
+
+    /**
+     * 累计写回条目数。
+     */
+    public long drained() {
+        return drained.get();
+    }
+
+    /**
+     * 停止写回线程并刷盘，未写回的条目保留在磁盘，下次启动时继续。
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            drainer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            for (Segment segment : free) {
+                segment.close();
+            }
+            segments.clear();
+            free.clear();
+        }
+    }
+
+    private boolean saturated() {
+        return ingester.pendingRequests() >= ingester.maxConcurrentRequests()
+                && ingester.pendingOperationsSize() >= thresholdBytes;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                synchronized (this) {
+                    while (running && pendingEntries == 0) {
+                        wait(TimeUnit.SECONDS.toMillis(1));
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                if (saturated() || System.currentTimeMillis() < pausedUntil) {
+                    Thread.sleep(DRAIN_PAUSE_MILLIS);
+                    continue;
+                }
+                drainOne();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IllegalStateException ex) {
+                // BulkIngester 已关闭
+                log.warn("oneself.elasticsearch spill drainer stopped: {}", ex.getMessage());
+                return;
+            } catch (IOException | RuntimeException ex) {
+                log.error("oneself.elasticsearch spill drainer failed", ex);
+            }
+        }
+    }
+
+    private void drainOne() throws IOException {
+        Acknowledgement ack;
+        byte[] payload;
+        synchronized (this) {
+            Segment segment = null;
+            for (Segment candidate : segments) {
+                if (candidate.readPosition < candidate.writePosition) {
+                    segment = candidate;
+                    break;
+                }
+            }
+            if (segment == null) {
+                recycleIfDrained();
+                return;
+            }
+            int position = segment.readPosition;
+            payload = segment.read(position);
+            if (payload == null) {
+                log.error("oneself.elasticsearch spill segment {} is corrupted at {}, skipping remaining entries",
+                        segment.path, position);
+                int skipped = segment.countEntries(position);
+                pendingEntries -= skipped;
+                ack = dispatch(segment, segment.writePosition, skipped);
+            } else {
+                pendingEntries--;
+                ack = dispatch(segment, position + ENTRY_HEADER_BYTES + payload.length, 1);
+            }
+        }
+        BulkOperation operation = null;
+        if (payload != null) {
+            try {
+                operation = decode(payload);
+            } catch (IOException | RuntimeException ex) {
+                log.error("oneself.elasticsearch failed to decode spilled bulk operation, skipping", ex);
+            }
+        }
+        if (operation == null) {
+            acknowledge(ack);
+            return;
+        }
+        ingester.add(operation, ack);
+        drained.incrementAndGet();
+    }
+
+    private Acknowledgement dispatch(Segment segment, int end, int entries) {
+        Acknowledgement ack = new Acknowledgement(this, segment, end, entries, generation);
+        segment.readPosition = end;
+        unacknowledged.addLast(ack);
+        return ack;
+    }
+
+    /**
+     * 确认条目已写入：按写回顺序把连续已确认的条目提交为已消费位置。
+     */
+    synchronized void acknowledge(Acknowledgement ack) {
+        if (ack.generation != generation) {
+            return;
+        }
+        ack.done = true;
+        Acknowledgement head;
+        while ((head = unacknowledged.peekFirst()) != null && head.done) {
+            unacknowledged.pollFirst();
+            head.segment.commit(head.end);
+        }
+        recycleIfDrained();
+    }
+
+    /**
+     * 条目所在请求整批失败：丢弃在途确认，回退到已消费位置并暂停写回。
+     */
+    synchronized void fail(Acknowledgement ack) {
+        if (ack.generation != generation) {
+            return;
+        }
+        generation++;
+        long rewound = 0;
+        for (Acknowledgement outstanding : unacknowledged) {
+            rewound += outstanding.entries;
+        }
+        unacknowledged.clear();
+        for (Segment segment : segments) {
+            segment.readPosition = segment.committedPosition;
+        }
+        pendingEntries += rewound;
+        pausedUntil = System.currentTimeMillis() + RETRY_PAUSE_MILLIS;
+        log.warn("oneself.elasticsearch spilled bulk request failed, rewinding {} operations", rewound);
+        notifyAll();
+    }
+
+    private boolean append(byte[] payload) throws IOException {
+        int required = ENTRY_HEADER_BYTES + payload.length;
+        if (required > segmentBytes - HEADER_BYTES) {
+            return false;
+        }
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.writePosition + required > segment.capacity) {
+            segment = nextSegment();
+            if (segment == null) {
+                return false;
+            }
+            Segment previous = segments.peekLast();
+            if (previous != null) {
+                previous.buffer.force();
+            }
+            segments.addLast(segment);
+        }
+        segment.write(payload);
+        pendingEntries++;
+        return true;
+    }
+
+    private Segment nextSegment() throws IOException {
+        Segment segment = free.pollFirst();
+        if (segment == null) {
+            if (segmentCount >= maxSegments) {
+                return null;
+            }
+            Files.createDirectories(directory);
+            segment = Segment.open(directory.resolve(FILE_PREFIX + (nextFileIndex++) + FILE_SUFFIX), segmentBytes);
+            segmentCount++;
+        }
+        segment.reset(nextSequence++);
+        return segment;
+    }
+
+    private void recycleIfDrained() {
+        Segment head;
+        while ((head = segments.peekFirst()) != null && head.committedPosition >= head.writePosition) {
+            if (segments.size() == 1) {
+                head.reset(nextSequence++);
+                return;
+            }
+            segments.pollFirst();
+            free.addLast(head);
+        }
+    }
+
+    private void recover() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Segment> recovered = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            for (Path path : stream.toList()) {
+                String name = path.getFileName().toString();
+                if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+                    continue;
+                }
+                try {
+                    int index = Integer.parseInt(name.substring(FILE_PREFIX.length(),
+                            name.length() - FILE_SUFFIX.length()));
+                    nextFileIndex = Math.max(nextFileIndex, index + 1);
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                long size = Files.size(path);
+                if (size <= HEADER_BYTES || size > Integer.MAX_VALUE) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                Segment segment = Segment.open(path, (int) size);
+                if (!segment.recover()) {
+                    segment.reset(0);
+                }
+                recovered.add(segment);
+            }
+        }
+        recovered.sort(Comparator.comparingLong(segment -> segment.sequence));
+        long entries = 0;
+        for (Segment segment : recovered) {
+            nextSequence = Math.max(nextSequence, segment.sequence + 1);
+            if (segment.readPosition < segment.writePosition) {
+                entries += segment.countEntries(segment.readPosition);
+                segments.addLast(segment);
+            } else {
+                free.addLast(segment);
+            }
+        }
+        segmentCount = recovered.size();
+        pendingEntries = entries;
+        if (entries > 0) {
+            log.info("oneself.elasticsearch recovered {} spilled bulk operations from {}", entries, directory);
+        }
+    }
+
+    private byte[] encode(BulkOperation operation) throws IOException {
+        if (!(operation._get() instanceof BulkOperationBase base) || base.versionType() != null) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        String pipeline = null;
+        Boolean requireAlias = null;
+        Integer retryOnConflict = null;
+        BinaryData body = null;
+        byte kind;
+        if (base instanceof WriteOperation write) {
+            if (!write.dynamicTemplates().isEmpty()) {
+                return null;
+            }
+            pipeline = write.pipeline();
+            requireAlias = write.requireAlias();
+        }
+        if (base instanceof IndexOperation<?> index) {
+            kind = KIND_INDEX;
+            body = BinaryData.of(index.document(), mapper);
+        } else if (base instanceof CreateOperation<?> create) {
+            kind = KIND_CREATE;
+            body = BinaryData.of(create.document(), mapper);
+        } else if (base instanceof UpdateOperation<?, ?> update) {
+            kind = KIND_UPDATE;
+            requireAlias = update.requireAlias();
+            retryOnConflict = update.retryOnConflict();
+            body = update.binaryAction() != null ? update.binaryAction() : BinaryData.of(update.action(), mapper);
+        } else if (base instanceof DeleteOperation) {
+            kind = KIND_DELETE;
+        } else {
+            return null;
+        }
+        out.writeByte(kind);
+        writeString(out, base.index());
+        writeString(out, base.id());
+        writeString(out, base.routing());
+        writeString(out, pipeline);
+        out.writeByte(requireAlias == null ? -1 : requireAlias ? 1 : 0);
+        writeLong(out, base.ifSeqNo());
+        writeLong(out, base.ifPrimaryTerm());
+        writeLong(out, base.version());
+        out.writeInt(retryOnConflict == null ? -1 : retryOnConflict);
+        if (body == null) {
+            out.writeInt(0);
+        } else {
+            ByteBuffer data = body.asByteBuffer();
+            out.writeInt(data.remaining());
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            out.write(bytes);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private BulkOperation decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte kind = in.readByte();
+        String index = readString(in);
+        String id = readString(in);
+        String routing = readString(in);
+        String pipeline = readString(in);
+        byte alias = in.readByte();
+        Boolean requireAlias = alias < 0 ? null : alias == 1;
+        Long ifSeqNo = readLong(in);
+        Long ifPrimaryTerm = readLong(in);
+        Long version = readLong(in);
+        int conflict = in.readInt();
+        Integer retryOnConflict = conflict < 0 ? null : conflict;
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        BinaryData body = BinaryData.of(bytes, JSON);
+        return switch (kind) {
+            case KIND_INDEX -> BulkOperation.of(op -> op.index(IndexOperation.<BinaryData>of(b -> b
+                    .index(index).id(id).routing(routing).pipeline(pipeline).requireAlias(requireAlias)
+                    .ifSeqNo(ifSeqNo).ifPrimaryTerm(ifPrimaryTerm).version(version)
+                    .document(body))));
+            case KIND_CREATE -> BulkOperation.of(op -> op.create(CreateOperation.<BinaryData>of(b -> b
+                    .index(index).id(id).routing(routing).pipeline(pipeline).requireAlias(requireAlias)
+                    .ifSeqNo(ifSeqNo).ifPrimaryTerm(ifPrimaryTerm).version(version)
+                    .document(body))));
+            case KIND_UPDATE -> BulkOperation.of(op -> op.update(UpdateOperation.<Object, Object>of(b -> b
+                    .index(index).id(id).routing(routing).requireAlias(requireAlias).retryOnConflict(retryOnConflict)
+                    .ifSeqNo(ifSeqNo).ifPrimaryTerm(ifPrimaryTerm).version(version)
+                    .binaryAction(body))));
+            case KIND_DELETE -> BulkOperation.of(op -> op.delete(DeleteOperation.of(b -> b
+                    .index(index).id(id).routing(routing)
+                    .ifSeqNo(ifSeqNo).ifPrimaryTerm(ifPrimaryTerm).version(version))));
+            default -> throw new IOException("Unknown spilled bulk operation kind: " + kind);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 写回条目的确认句柄，作为 BulkIngester 上下文随操作传递。
+     */
+    static final class Acknowledgement {
+
+        private final ElasticsearchSpillBuffer owner;
+        private final Segment segment;
+        private final int end;
+        private final int entries;
+        private final long generation;
+        private boolean done;
+
+        private Acknowledgement(ElasticsearchSpillBuffer owner, Segment segment, int end, int entries,
+                                long generation) {
+            this.owner = owner;
+            this.segment = segment;
+            this.end = end;
+            this.entries = entries;
+            this.generation = generation;
+        }
+
+        /**
+         * 请求成功后确认。
+         */
+        void acknowledge() {
+            owner.acknowledge(this);
+        }
+
+        /**
+         * 请求整批失败，条目将重新写回。
+         */
+        void fail() {
+            owner.fail(this);
+        }
+    }
+
+    /**
+     * 内存映射的分段文件，readPosition 为写回位置，committedPosition 为已确认并持久化的消费位置。
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private long sequence;
+        private int readPosition;
+        private int committedPosition;
+        private int writePosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path path, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(path, channel, buffer, capacity);
+        }
+
+        /**
+         * 从文件恢复读写位置，文件头无效时返回 false。
+         */
+        boolean recover() {
+            if (buffer.getInt(0) != MAGIC) {
+                return false;
+            }
+            sequence = buffer.getLong(SEQUENCE_OFFSET);
+            int position = HEADER_BYTES;
+            while (position + ENTRY_HEADER_BYTES <= capacity) {
+                byte[] payload = read(position);
+                if (payload == null) {
+                    break;
+                }
+                position += ENTRY_HEADER_BYTES + payload.length;
+            }
+            writePosition = position;
+            terminate(position);
+            int committed = buffer.getInt(READ_POSITION_OFFSET);
+            readPosition = committed < HEADER_BYTES || committed > writePosition ? writePosition : committed;
+            committedPosition = readPosition;
+            return true;
+        }
+
+        /**
+         * 读取条目内容，无条目或校验失败时返回 null。
+         */
+        byte[] read(int position) {
+            if (position + ENTRY_HEADER_BYTES > capacity) {
+                return null;
+            }
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > capacity - position - ENTRY_HEADER_BYTES) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + ENTRY_HEADER_BYTES, payload);
+            return crc(payload) == buffer.getInt(position + 4) ? payload : null;
+        }
+
+        int countEntries(int from) {
+            int count = 0;
+            int position = from;
+            while (position < writePosition) {
+                int length = buffer.getInt(position);
+                if (length <= 0) {
+                    break;
+                }
+                position += ENTRY_HEADER_BYTES + length;
+                count++;
+            }
+            return count;
+        }
+
+        void write(byte[] payload) {
+            int position = writePosition;
+            int next = position + ENTRY_HEADER_BYTES + payload.length;
+            terminate(next);
+            buffer.put(position + ENTRY_HEADER_BYTES, payload);
+            buffer.putInt(position + 4, crc(payload));
+            // 长度最后写入，崩溃时残缺条目在恢复阶段被校验截断
+            buffer.putInt(position, payload.length);
+            writePosition = next;
+        }
+
+        void commit(int position) {
+            committedPosition = position;
+            buffer.putInt(READ_POSITION_OFFSET, position);
+        }
+
+        void reset(long newSequence) {
+            sequence = newSequence;
+            readPosition = HEADER_BYTES;
+            committedPosition = HEADER_BYTES;
+            writePosition = HEADER_BYTES;
+            terminate(HEADER_BYTES);
+            buffer.putInt(READ_POSITION_OFFSET, HEADER_BYTES);
+            buffer.putLong(SEQUENCE_OFFSET, newSequence);
+            buffer.putInt(0, MAGIC);
+        }
+
+        private void terminate(int position) {
+            if (position + 4 <= capacity) {
+                buffer.putInt(position, 0);
+            }
+        }
+
+        void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
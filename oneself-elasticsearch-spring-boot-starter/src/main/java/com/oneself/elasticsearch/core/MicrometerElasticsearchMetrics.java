@@ -0,0 +1,104 @@
+package com.oneself.elasticsearch.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 基于 Micrometer 的 Starter 指标。
+ * <p>
+ * 指标：{@code oneself.elasticsearch.bulk}（outcome，含直方图）、{@code oneself.elasticsearch.bulk.operations}、
+ * {@code oneself.elasticsearch.bulk.items}（index/result）、{@code oneself.elasticsearch.bulk.retries}、
+ * {@code oneself.elasticsearch.bulk.dead.letters}（index）。Meter 按标签缓存，热路径不重复构建。
+ */
+public class MicrometerElasticsearchMetrics implements ElasticsearchMetrics {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile DistributionSummary operations;
+    private volatile MeterRegistry registry;
+
+    public MicrometerElasticsearchMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public void recordBulk(long latencyNanos, int operationCount, String outcome) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        timers.computeIfAbsent(outcome, key -> Timer.builder("oneself.elasticsearch.bulk")
+                        .tag("outcome", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary summary = operations;
+        if (summary == null) {
+            summary = DistributionSummary.builder("oneself.elasticsearch.bulk.operations").register(meterRegistry);
+            operations = summary;
+        }
+        summary.record(operationCount);
+    }
+
+    @Override
+    public void recordBulkItems(String index, int succeeded, int failed, int rejected) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        increment(meterRegistry, index, "success", succeeded);
+        increment(meterRegistry, index, "failed", failed);
+        increment(meterRegistry, index, "rejected", rejected);
+    }
+
+    @Override
+    public void countRetries(int count) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null || count <= 0) {
+            return;
+        }
+        counters.computeIfAbsent("retries", key -> Counter.builder("oneself.elasticsearch.bulk.retries")
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    @Override
+    public void countDeadLetters(String index, int count) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null || count <= 0) {
+            return;
+        }
+        counters.computeIfAbsent("dead:" + index, key -> Counter.builder("oneself.elasticsearch.bulk.dead.letters")
+                        .tag("index", index)
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    private void increment(MeterRegistry meterRegistry, String index, String result, int count) {
+        if (count <= 0) {
+            return;
+        }
+        counters.computeIfAbsent(index + ":" + result, key -> Counter.builder("oneself.elasticsearch.bulk.items")
+                        .tag("index", index)
+                        .tag("result", result)
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,32 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+
+import com.oneself.redis.core.RedisOps;
+
+/**
+ * 基于 {@link RedisOps} 的查询结果二级缓存（key 前缀与校验沿用 Redis Starter 配置）。
+ */
+public class RedisElasticsearchQueryCacheStore implements ElasticsearchQueryCacheStore {
+
+    private static final String KEY_PREFIX = "es-query-cache:";
+
+    private final RedisOps redisOps;
+
+    public RedisElasticsearchQueryCacheStore(RedisOps redisOps) {
+        this.redisOps = redisOps;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisOps.get(KEY_PREFIX + key)
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .orElse(null);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisOps.set(KEY_PREFIX + key, value, ttl);
+    }
+}
@@ -0,0 +1,105 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.SearchType;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticsearchAsyncOpsTest {
+
+    private final HoldingTransport transport = new HoldingTransport();
+
+    @Test
+    void coalescesIdenticalInFlightSearches() {
+        ElasticsearchAsyncOps ops = ops(false);
+
+        ops.search("orders", s -> s.query(q -> q.term(t -> t.field("status").value("PAID"))), Map.class);
+        ops.search("orders", s -> s.query(q -> q.term(t -> t.field("status").value("PAID"))), Map.class);
+
+        assertThat(transport.endpoints).containsExactly("es/search");
+        assertThat(ops.coalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsSearchesWithDifferentUrlParametersApart() {
+        ElasticsearchAsyncOps ops = ops(false);
+
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)), Map.class);
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).requestCache(false), Map.class);
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).searchType(SearchType.DfsQueryThenFetch), Map.class);
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).allowPartialSearchResults(false), Map.class);
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).timeout("1s"), Map.class);
+
+        assertThat(transport.endpoints).containsExactly("es/search", "es/search", "es/search", "es/search", "es/search");
+        assertThat(ops.coalesced()).isZero();
+    }
+
+    @Test
+    void sendsSearchesWithUrlParametersOutsideTheBatch() {
+        ElasticsearchAsyncOps ops = ops(true);
+
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).requestCache(false), Map.class);
+        ops.search("orders", s -> s.query(q -> q.matchAll(m -> m)).routing("r1"), Map.class);
+        ops.close();
+
+        assertThat(transport.endpoints).containsExactly("es/search", "es/msearch");
+        assertThat(ops.batchedRequests()).isEqualTo(1);
+    }
+
+    private ElasticsearchAsyncOps ops(boolean batching) {
+        OneselfElasticsearchProperties properties = new OneselfElasticsearchProperties();
+        properties.setAsyncBatchEnabled(batching);
+        properties.setAsyncBatchWindow(Duration.ofMinutes(1));
+        return new ElasticsearchAsyncOps(new ElasticsearchAsyncClient(transport), properties);
+    }
+
+    /**
+     * 记录请求端点、响应永不完成的 transport，使请求保持在途。
+     */
+    private static class HoldingTransport implements ElasticsearchTransport {
+
+        private final JsonpMapper mapper = new JacksonJsonpMapper();
+        private final List<String> endpoints = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                      Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                      TransportOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            endpoints.add(endpoint.id());
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public JsonpMapper jsonpMapper() {
+            return mapper;
+        }
+
+        @Override
+        public TransportOptions options() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
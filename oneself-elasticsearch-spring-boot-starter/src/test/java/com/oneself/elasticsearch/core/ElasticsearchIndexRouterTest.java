@@ -0,0 +1,108 @@
+package com.oneself.elasticsearch.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchProperties.TimeIndexMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticsearchIndexRouterTest {
+
+    private ElasticsearchIndexRouter router;
+
+    @AfterEach
+    void tearDown() {
+        router.close();
+    }
+
+    @Test
+    void routesInterleavedDaysToTheirOwnIndexInTheConfiguredZone() {
+        router = router(TimeIndexMode.DAILY);
+        Instant lateEvent = Instant.parse("2026-10-18T15:30:00Z");
+        Instant currentEvent = Instant.parse("2026-10-18T16:10:00Z");
+
+        assertThat(router.writeIndex("orders", currentEvent)).isEqualTo("app_orders-2026.10.19");
+        assertThat(router.writeIndex("orders", lateEvent)).isEqualTo("app_orders-2026.10.18");
+        assertThat(router.writeIndex("orders", currentEvent)).isEqualTo("app_orders-2026.10.19");
+        assertThat(router.writeIndex("orders", lateEvent)).isEqualTo("app_orders-2026.10.18");
+    }
+
+    @Test
+    void keepsRoutingCorrectlyWhenMorePeriodsThanCachedAreWritten() {
+        router = router(TimeIndexMode.DAILY);
+        Instant start = Instant.parse("2026-10-01T04:00:00Z");
+
+        for (int round = 0; round < 2; round++) {
+            for (int day = 0; day < 12; day++) {
+                String expected = String.format("app_orders-2026.10.%02d", day + 1);
+                assertThat(router.writeIndex("orders", start.plus(Duration.ofDays(day)))).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void splitsMonthsAtTheZoneBoundary() {
+        router = router(TimeIndexMode.MONTHLY);
+
+        assertThat(router.writeIndex("orders", Instant.parse("2026-10-31T15:59:59Z"))).isEqualTo("app_orders-2026.10");
+        assertThat(router.writeIndex("orders", Instant.parse("2026-10-31T16:00:00Z"))).isEqualTo("app_orders-2026.11");
+        assertThat(router.writeIndex("orders", Instant.parse("2026-10-01T00:00:00Z"))).isEqualTo("app_orders-2026.10");
+    }
+
+    private static ElasticsearchIndexRouter router(TimeIndexMode mode) {
+        OneselfElasticsearchProperties properties = new OneselfElasticsearchProperties();
+        properties.setIndexPrefix("app");
+        properties.setTimeIndexNames("orders");
+        properties.setTimeIndexMode(mode);
+        properties.setTimeIndexZone("Asia/Shanghai");
+        properties.setTimeIndexCheckInterval(Duration.ofHours(1));
+        ElasticsearchClient client = new ElasticsearchClient(new UnavailableTransport());
+        return new ElasticsearchIndexRouter(client, new ElasticsearchOps(client, properties, null), properties);
+    }
+
+    /**
+     * 集群不可用的 transport，后台模板初始化失败后按检查间隔重试，不影响写索引计算。
+     */
+    private static class UnavailableTransport implements ElasticsearchTransport {
+
+        private final JsonpMapper mapper = new JacksonJsonpMapper();
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                      Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                      TransportOptions options) {
+            throw new IllegalStateException("cluster unavailable");
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            return CompletableFuture.failedFuture(new IllegalStateException("cluster unavailable"));
+        }
+
+        @Override
+        public JsonpMapper jsonpMapper() {
+            return mapper;
+        }
+
+        @Override
+        public TransportOptions options() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.oneself.elasticsearch.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ElasticsearchSpillBufferTest {
+
+    private static final JsonpMapper MAPPER = new JacksonJsonpMapper();
+
+    private final List<CompletableFuture<BulkResponse>> held = new CopyOnWriteArrayList<>();
+    private final AtomicInteger completedBulks = new AtomicInteger();
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("es-spill-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void replaysEntriesInFlightAtShutdownAfterRestart() throws Exception {
+        StubTransport first = new StubTransport(request -> hold());
+        BulkIngester<Object> ingester = ingester(first);
+        ElasticsearchSpillBuffer buffer = buffer(ingester);
+        ingester.add(operation("0"));
+
+        assertThat(buffer.offer(operation("1"))).isTrue();
+        assertThat(buffer.offer(operation("2"))).isTrue();
+        held.get(0).complete(response(List.of("0")));
+        await(() -> first.sentIds.size() == 2);
+        buffer.close();
+
+        assertThat(first.sentIds).containsExactly("0", "1");
+
+        StubTransport second = new StubTransport(ElasticsearchSpillBufferTest::succeed);
+        ElasticsearchSpillBuffer recovered = buffer(ingester(second));
+        await(() -> completedBulks.get() == 3);
+        recovered.close();
+
+        assertThat(second.sentIds).containsExactly("1", "2");
+        assertThat(reopenedPendingEntries()).isZero();
+    }
+
+    @Test
+    void rewindsAndResendsEntriesOfFailedBulk() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        StubTransport transport = new StubTransport(request -> switch (requests.getAndIncrement()) {
+            case 0 -> hold();
+            case 1 -> CompletableFuture.failedFuture(new IOException("connection reset"));
+            default -> succeed(request);
+        });
+        BulkIngester<Object> ingester = ingester(transport);
+        ElasticsearchSpillBuffer buffer = buffer(ingester);
+        ingester.add(operation("0"));
+
+        assertThat(buffer.offer(operation("1"))).isTrue();
+        held.get(0).complete(response(List.of("0")));
+        await(() -> completedBulks.get() == 3);
+        buffer.close();
+
+        assertThat(transport.sentIds).containsExactly("0", "1", "1");
+        assertThat(buffer.pendingEntries()).isZero();
+        assertThat(reopenedPendingEntries()).isZero();
+    }
+
+    private long reopenedPendingEntries() throws IOException {
+        ElasticsearchSpillBuffer reopened = buffer(ingester(new StubTransport(request -> hold())));
+        long pending = reopened.pendingEntries();
+        reopened.close();
+        return pending;
+    }
+
+    private ElasticsearchSpillBuffer buffer(BulkIngester<Object> ingester) throws IOException {
+        return new ElasticsearchSpillBuffer(directory, 4096, 2, 0, MAPPER, ingester);
+    }
+
+    private BulkIngester<Object> ingester(StubTransport transport) {
+        ElasticsearchBulkListener listener = new ElasticsearchBulkListener(null, null) {
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Object> contexts,
+                                  BulkResponse response) {
+                super.afterBulk(executionId, request, contexts, response);
+                completedBulks.incrementAndGet();
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Object> contexts, Throwable failure) {
+                super.afterBulk(executionId, request, contexts, failure);
+                completedBulks.incrementAndGet();
+            }
+        };
+        return BulkIngester.of(builder -> builder.client(new ElasticsearchAsyncClient(transport))
+                .maxOperations(1).maxConcurrentRequests(1).listener(listener));
+    }
+
+    private CompletableFuture<BulkResponse> hold() {
+        CompletableFuture<BulkResponse> future = new CompletableFuture<>();
+        held.add(future);
+        return future;
+    }
+
+    private static CompletableFuture<BulkResponse> succeed(BulkRequest request) {
+        List<String> ids = request.operations().stream().map(operation -> operation.index().id()).toList();
+        return CompletableFuture.completedFuture(response(ids));
+    }
+
+    private static BulkResponse response(List<String> ids) {
+        List<BulkResponseItem> items = new ArrayList<>();
+        for (String id : ids) {
+            items.add(BulkResponseItem.of(item -> item.operationType(OperationType.Index).index("orders").id(id)
+                    .status(201)));
+        }
+        return BulkResponse.of(response -> response.errors(false).took(1).items(items));
+    }
+
+    private static BulkOperation operation(String id) {
+        return BulkOperation.of(op -> op.index(index -> index.index("orders").id(id).document(Map.of("id", id))));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * 异步 Bulk transport，按处理函数返回响应并记录发送的文档 id。
+     */
+    private static class StubTransport implements ElasticsearchTransport {
+
+        private final List<String> sentIds = new CopyOnWriteArrayList<>();
+        private final Function<BulkRequest, CompletableFuture<BulkResponse>> handler;
+
+        StubTransport(Function<BulkRequest, CompletableFuture<BulkResponse>> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                      Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                      TransportOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            BulkRequest bulk = (BulkRequest) request;
+            bulk.operations().forEach(operation -> sentIds.add(operation.index().id()));
+            return (CompletableFuture<ResponseT>) handler.apply(bulk);
+        }
+
+        @Override
+        public JsonpMapper jsonpMapper() {
+            return MAPPER;
+        }
+
+        @Override
+        public TransportOptions options() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.oneself.sink.autoconfigure;
+
+import java.util.Properties;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.oneself.elasticsearch.autoconfigure.OneselfElasticsearchAutoConfiguration;
+import com.oneself.elasticsearch.core.ElasticsearchDeadLetterJournal;
+import com.oneself.elasticsearch.core.ElasticsearchIndexRouter;
+import com.oneself.elasticsearch.core.ElasticsearchOps;
+import com.oneself.kafka.autoconfigure.OneselfKafkaAutoConfiguration;
+import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
+import com.oneself.kafka.core.KafkaConsumerAdapter;
+import com.oneself.sink.core.DefaultSinkDocumentMapper;
+import com.oneself.sink.core.KafkaElasticsearchSink;
+import com.oneself.sink.core.SinkDocumentMapper;
+import com.oneself.sink.core.SinkMetrics;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Kafka 到 Elasticsearch Sink 自动装配：批量消费、映射文档、Bulk 写入，Bulk 确认后提交 offset。
+ */
+@AutoConfiguration(after = {OneselfKafkaAutoConfiguration.class, OneselfElasticsearchAutoConfiguration.class})
+@ConditionalOnBean({ElasticsearchClient.class, ElasticsearchOps.class, ConsumerFactory.class})
+@ConditionalOnProperty(prefix = "oneself.sink", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(OneselfSinkProperties.class)
+public class OneselfSinkAutoConfiguration {
+
+    /**
+     * 默认文档映射。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SinkDocumentMapper sinkDocumentMapper(ElasticsearchOps ops, ObjectProvider<ElasticsearchIndexRouter> router,
+                                                 OneselfSinkProperties properties) {
+        ElasticsearchIndexRouter indexRouter = null;
+        if (properties.isTimeIndexRouting()) {
+            indexRouter = router.getIfAvailable();
+            if (indexRouter == null) {
+                throw new IllegalStateException(
+                        "oneself.sink.time-index-routing requires oneself.elasticsearch.time-index-enabled");
+            }
+        }
+        return new DefaultSinkDocumentMapper(ops, indexRouter, properties.getIndex(), properties.getIdHeader());
+    }
+
+    /**
+     * Sink 监听器。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaElasticsearchSink kafkaElasticsearchSink(ElasticsearchClient client,
+                                                         ObjectProvider<KafkaConsumerAdapter> adapter,
+                                                         SinkDocumentMapper mapper,
+                                                         ObjectProvider<ElasticsearchDeadLetterJournal> deadLetterJournal,
+                                                         ObjectProvider<SinkMetrics> metrics,
+                                                         OneselfSinkProperties properties) {
+        return new KafkaElasticsearchSink(client, adapter.getIfAvailable(KafkaConsumerAdapter::new), mapper,
+                properties.isDeadLetterEnabled() ? deadLetterJournal.getIfAvailable() : null,
+                metrics.getIfAvailable(), properties.getRetryMaxAttempts(), properties.getRetryInitialDelay());
+    }
+
+    /**
+     * Sink 消费容器（批量监听，手动提交）：整批失败（连接失败、429/5xx 重试耗尽）按重投间隔无限重投，
+     * 映射异常与不可重试的条目错误不重试，由恢复器处理指向的记录。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaElasticsearchSinkContainer")
+    public ConcurrentMessageListenerContainer<Object, Object> kafkaElasticsearchSinkContainer(
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaElasticsearchSink sink,
+            OneselfSinkProperties properties,
+            ObjectProvider<OneselfKafkaProperties> kafkaStarterProperties,
+            KafkaProperties kafkaProperties,
+            ObjectProvider<KafkaTemplate<Object, Object>> kafkaTemplate) {
+        if (properties.getTopics() == null || properties.getTopics().length == 0) {
+            throw new IllegalStateException("oneself.sink.topics is required");
+        }
+        if (properties.getBatchSize() <= 0 || properties.getRedeliveryInterval().isNegative()) {
+            throw new IllegalStateException("oneself.sink.batch-size must be positive and redelivery-interval must not be negative");
+        }
+        ContainerProperties containerProperties = new ContainerProperties(properties.getTopics());
+        containerProperties.setGroupId(resolveGroupId(properties, kafkaStarterProperties.getIfAvailable(), kafkaProperties));
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setMessageListener(sink);
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(properties.getBatchSize()));
+        containerProperties.setKafkaConsumerProperties(consumerProperties);
+        ConcurrentMessageListenerContainer<Object, Object> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer(properties, kafkaTemplate),
+                new FixedBackOff(properties.getRedeliveryInterval().toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS));
+        // Sink 仅对无法写入的单条记录抛出 BatchListenerFailedException，直接恢复，避免坏数据阻塞分区
+        errorHandler.addNotRetryableExceptions(BatchListenerFailedException.class);
+        container.setCommonErrorHandler(errorHandler);
+        if (properties.getConcurrency() != null) {
+            container.setConcurrency(properties.getConcurrency());
+        }
+        return container;
+    }
+
+    private ConsumerRecordRecoverer recoverer(OneselfSinkProperties properties,
+                                              ObjectProvider<KafkaTemplate<Object, Object>> kafkaTemplate) {
+        String topic = properties.getDeadLetterTopic();
+        if (topic == null || topic.isBlank()) {
+            return null;
+        }
+        KafkaTemplate<Object, Object> template = kafkaTemplate.getIfAvailable();
+        if (template == null) {
+            throw new IllegalStateException("oneself.sink.dead-letter-topic requires a KafkaTemplate bean");
+        }
+        return new DeadLetterPublishingRecoverer(template, (record, ex) -> new TopicPartition(topic, -1));
+    }
+
+    private String resolveGroupId(OneselfSinkProperties properties, OneselfKafkaProperties kafkaStarterProperties,
+                                  KafkaProperties kafkaProperties) {
+        if (properties.getGroupId() != null && !properties.getGroupId().isBlank()) {
+            return properties.getGroupId();
+        }
+        String groupId = kafkaStarterProperties == null ? null : kafkaStarterProperties.getConsumerGroupId();
+        if (groupId == null || groupId.isBlank()) {
+            groupId = kafkaProperties.getConsumer().getGroupId();
+        }
+        if (groupId == null || groupId.isBlank()) {
+            throw new IllegalStateException("oneself.sink.group-id or a consumer group id is required for the sink");
+        }
+        return groupId + ".es-sink";
+    }
+}
@@ -0,0 +1,29 @@
+package com.oneself.sink.autoconfigure;
+
+import com.oneself.sink.core.MicrometerSinkMetrics;
+import com.oneself.sink.core.SinkMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Sink 指标自动装配（需要 Micrometer）：吞吐、Bulk 耗时、端到端延迟与分区 lag。
+ */
+@AutoConfiguration(before = OneselfSinkAutoConfiguration.class)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "oneself.sink", name = "metrics-enabled", havingValue = "true")
+public class OneselfSinkMetricsAutoConfiguration {
+
+    /**
+     * Sink 指标。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SinkMetrics sinkMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MicrometerSinkMetrics(meterRegistry);
+    }
+}
@@ -0,0 +1,279 @@
+package com.oneself.sink.autoconfigure;
+
+import java.time.Duration;
+
+import com.oneself.kafka.core.KafkaHeaderNames;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Kafka 到 Elasticsearch Sink 配置。
+ */
+@ConfigurationProperties(prefix = "oneself.sink")
+public class OneselfSinkProperties {
+
+    /**
+     * 是否启用 Sink。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 订阅的 topic 列表。
+     */
+    private String[] topics = new String[0];
+
+    /**
+     * 消费组 id，为空时使用 Kafka Starter 消费组 id 加 {@code .es-sink} 后缀。
+     */
+    private String groupId;
+
+    /**
+     * 消费并发数。
+     */
+    private Integer concurrency;
+
+    /**
+     * 单批最大记录数（max.poll.records），即单个 Bulk 请求的最大操作数。
+     */
+    private int batchSize = 500;
+
+    /**
+     * 写入的原始索引名（自动加索引前缀），为空时使用 topic 名。
+     */
+    private String index;
+
+    /**
+     * 是否通过时间切分索引路由按事件时间选择写索引（需开启 oneself.elasticsearch.time-index-enabled）。
+     */
+    private boolean timeIndexRouting = false;
+
+    /**
+     * 文档 id 所在 header。
+     */
+    private String idHeader = KafkaHeaderNames.EVENT_ID;
+
+    /**
+     * Bulk 条目 429/5xx 的最大重试次数，耗尽后整批重投。
+     */
+    private int retryMaxAttempts = 3;
+
+    /**
+     * Bulk 条目重试首次延迟（指数退避）。
+     */
+    private Duration retryInitialDelay = Duration.ofMillis(200);
+
+    /**
+     * 整批写入失败后的重投间隔（无限重投，期间暂停消费）。
+     */
+    private Duration redeliveryInterval = Duration.ofSeconds(5);
+
+    /**
+     * 是否将不可重试的条目写入 Elasticsearch Starter 的死信日志。
+     */
+    private boolean deadLetterEnabled = true;
+
+    /**
+     * 无法写入的记录（映射异常、未写入死信日志的不可重试条目）转发的死信 topic，为空时仅记录错误日志后跳过。
+     */
+    private String deadLetterTopic;
+
+    /**
+     * 是否启用 Micrometer 指标。
+     */
+    private boolean metricsEnabled = false;
+
+    /**
+     * 是否Enabled。
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置Enabled。
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取Topics。
+     */
+    public String[] getTopics() {
+        return topics;
+    }
+
+    /**
+     * 设置Topics。
+     */
+    public void setTopics(String[] topics) {
+        this.topics = topics;
+    }
+
+    /**
+     * 获取GroupId。
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * 设置GroupId。
+     */
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * 获取Concurrency。
+     */
+    public Integer getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * 设置Concurrency。
+     */
+    public void setConcurrency(Integer concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 获取BatchSize。
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置BatchSize。
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 获取Index。
+     */
+    public String getIndex() {
+        return index;
+    }
+
+    /**
+     * 设置Index。
+     */
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    /**
+     * 是否TimeIndexRouting。
+     */
+    public boolean isTimeIndexRouting() {
+        return timeIndexRouting;
+    }
+
+    /**
+     * 设置TimeIndexRouting。
+     */
+    public void setTimeIndexRouting(boolean timeIndexRouting) {
+        this.timeIndexRouting = timeIndexRouting;
+    }
+
+    /**
+     * 获取IdHeader。
+     */
+    public String getIdHeader() {
+        return idHeader;
+    }
+
+    /**
+     * 设置IdHeader。
+     */
+    public void setIdHeader(String idHeader) {
+        this.idHeader = idHeader;
+    }
+
+    /**
+     * 获取RetryMaxAttempts。
+     */
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    /**
+     * 设置RetryMaxAttempts。
+     */
+    public void setRetryMaxAttempts(int retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    /**
+     * 获取RetryInitialDelay。
+     */
+    public Duration getRetryInitialDelay() {
+        return retryInitialDelay;
+    }
+
+    /**
+     * 设置RetryInitialDelay。
+     */
+    public void setRetryInitialDelay(Duration retryInitialDelay) {
+        this.retryInitialDelay = retryInitialDelay;
+    }
+
+    /**
+     * 获取RedeliveryInterval。
+     */
+    public Duration getRedeliveryInterval() {
+        return redeliveryInterval;
+    }
+
+    /**
+     * 设置RedeliveryInterval。
+     */
+    public void setRedeliveryInterval(Duration redeliveryInterval) {
+        this.redeliveryInterval = redeliveryInterval;
+    }
+
+    /**
+     * 是否DeadLetterEnabled。
+     */
+    public boolean isDeadLetterEnabled() {
+        return deadLetterEnabled;
+    }
+
+    /**
+     * 设置DeadLetterEnabled。
+     */
+    public void setDeadLetterEnabled(boolean deadLetterEnabled) {
+        this.deadLetterEnabled = deadLetterEnabled;
+    }
+
+    /**
+     * 获取DeadLetterTopic。
+     */
+    public String getDeadLetterTopic() {
+        return deadLetterTopic;
+    }
+
+    /**
+     * 设置DeadLetterTopic。
+     */
+    public void setDeadLetterTopic(String deadLetterTopic) {
+        this.deadLetterTopic = deadLetterTopic;
+    }
+
+    /**
+     * 是否MetricsEnabled。
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * 设置MetricsEnabled。
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+}
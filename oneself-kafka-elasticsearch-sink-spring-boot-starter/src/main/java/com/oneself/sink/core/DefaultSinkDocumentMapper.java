@@ -0,0 +1,70 @@
+package com.oneself.sink.core;
+
+import java.time.Instant;
+
+import com.oneself.elasticsearch.core.ElasticsearchIndexRouter;
+import com.oneself.elasticsearch.core.ElasticsearchOps;
+import com.oneself.kafka.core.KafkaMessage;
+import com.oneself.kafka.core.RecordKafkaMessage;
+
+/**
+ * 默认映射：payload 作为文档，id 取事件 id header，索引为配置索引或 topic 名。
+ * <p>
+ * 缺少事件 id 时使用 {@code topic-partition-offset}，保证同一条记录重复投递时写入同一文档；拆包得到的事件使用各自的事件 id，
+ * 缺失时不设置 id；
+ * {@code byte[]} 类型的 payload 视为原始 JSON 直接写入；payload 为空（tombstone）时跳过。
+ */
+public class DefaultSinkDocumentMapper implements SinkDocumentMapper {
+
+    private final ElasticsearchOps ops;
+    private final ElasticsearchIndexRouter router;
+    private final String index;
+    private final String idHeader;
+
+    /**
+     * 构造映射器。
+     *
+     * @param ops      索引前缀与原始 JSON 包装
+     * @param router   时间切分索引路由，为空时使用 {@link ElasticsearchOps#indexName(String)}
+     * @param index    原始索引名，为空时使用 topic 名
+     * @param idHeader 文档 id 所在 header
+     */
+    public DefaultSinkDocumentMapper(ElasticsearchOps ops, ElasticsearchIndexRouter router, String index,
+                                     String idHeader) {
+        this.ops = ops;
+        this.router = router;
+        this.index = index;
+        this.idHeader = idHeader;
+    }
+
+    @Override
+    public SinkDocument map(KafkaMessage<Object> message) {
+        Object payload = message.getPayload();
+        if (payload == null) {
+            return null;
+        }
+        Object document = payload instanceof byte[] json ? ops.rawDocument(json) : payload;
+        return SinkDocument.of(index(message), id(message), document);
+    }
+
+    private String index(KafkaMessage<Object> message) {
+        String raw = index == null || index.isBlank() ? message.getTopic() : index;
+        if (router == null) {
+            return ops.indexName(raw);
+        }
+        Instant timestamp = message.getTimestamp();
+        return timestamp == null ? router.writeIndex(raw) : router.writeIndex(raw, timestamp);
+    }
+
+    private String id(KafkaMessage<Object> message) {
+        String id = message.getHeader(idHeader);
+        if (id != null && !id.isBlank()) {
+            return id;
+        }
+        if (message instanceof RecordKafkaMessage<Object> recordMessage) {
+            return recordMessage.getRecord().topic() + "-" + recordMessage.getRecord().partition() + "-"
+                    + recordMessage.getRecord().offset();
+        }
+        return null;
+    }
+}
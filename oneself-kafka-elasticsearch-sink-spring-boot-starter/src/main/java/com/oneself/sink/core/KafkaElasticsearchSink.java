@@ -0,0 +1,303 @@
+package com.oneself.sink.core;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.IndexOperation;
+import com.oneself.elasticsearch.core.ElasticsearchDeadLetterJournal;
+import com.oneself.kafka.core.KafkaConsumerAdapter;
+import com.oneself.kafka.core.KafkaEnvelope;
+import com.oneself.kafka.core.KafkaMessage;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchAcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Kafka 到 Elasticsearch 的批量 Sink（至少一次）。
+ * <p>
+ * 每次 poll 的记录拆包（{@link KafkaConsumerAdapter#unpack}）并映射为文档后以一个 Bulk 请求同步写入，Bulk 响应确认后才 acknowledge，offset 在监听器返回后提交。
+ * 条目级 429/5xx 按指数退避重试；重试耗尽或整批请求失败时抛出 {@link IllegalStateException}，本批不提交并由容器错误处理器整体重投，
+ * 文档 id 取事件 id，重投覆盖同一文档而不产生重复。其它条目错误（如 mapping 冲突）写入死信日志后照常提交；
+ * 未配置死信日志的条目错误以及拆包/映射异常抛出指向来源记录的 {@link BatchListenerFailedException}，
+ * 由容器错误处理器提交其之前的记录并将该记录交给恢复器（死信 topic 或日志），不阻塞分区。
+ * <p>
+ * 不依赖 Spring 容器：可直接以任意 transport 构建的 {@link ElasticsearchClient} 与内存中的 {@link ConsumerRecord}
+ * 调用 {@link #write(List)} 或 {@link #onMessage(List, Acknowledgment, Consumer)}。
+ */
+public class KafkaElasticsearchSink
+        implements BatchAcknowledgingConsumerAwareMessageListener<String, KafkaEnvelope<Object>> {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaElasticsearchSink.class);
+
+    private final ElasticsearchClient client;
+    private final KafkaConsumerAdapter adapter;
+    private final SinkDocumentMapper mapper;
+    private final ElasticsearchDeadLetterJournal deadLetterJournal;
+    private final SinkMetrics metrics;
+    private final int retryMaxAttempts;
+    private final long retryInitialDelayMillis;
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * 构造 Sink。
+     *
+     * @param client            客户端
+     * @param adapter           消息适配器
+     * @param mapper            文档映射
+     * @param deadLetterJournal 死信日志，可为空
+     * @param metrics           指标，可为空
+     * @param retryMaxAttempts  条目级 429/5xx 最大重试次数
+     * @param retryInitialDelay 首次重试延迟
+     */
+    public KafkaElasticsearchSink(ElasticsearchClient client, KafkaConsumerAdapter adapter, SinkDocumentMapper mapper,
+                                  ElasticsearchDeadLetterJournal deadLetterJournal, SinkMetrics metrics,
+                                  int retryMaxAttempts, Duration retryInitialDelay) {
+        if (retryMaxAttempts < 0 || retryInitialDelay.isNegative()) {
+            throw new IllegalStateException("Sink retry-max-attempts and retry-initial-delay must not be negative");
+        }
+        this.client = client;
+        this.adapter = adapter;
+        this.mapper = mapper;
+        this.deadLetterJournal = deadLetterJournal;
+        this.metrics = metrics;
+        this.retryMaxAttempts = retryMaxAttempts;
+        this.retryInitialDelayMillis = retryInitialDelay.toMillis();
+    }
+
+    @Override
+    public void onMessage(List<ConsumerRecord<String, KafkaEnvelope<Object>>> records, Acknowledgment acknowledgment,
+                          Consumer<?, ?> consumer) {
+        write(records);
+        acknowledgment.acknowledge();
+        if (metrics != null && consumer != null) {
+            recordLag(records, consumer);
+        }
+    }
+
+    /**
+     * 写入一批记录，返回时全部文档均已被 Bulk 确认（或进入死信）；写入失败抛出 {@link IllegalStateException}，
+     * 单条记录无法写入时抛出指向该记录的 {@link BatchListenerFailedException}。
+     */
+    public Result write(List<ConsumerRecord<String, KafkaEnvelope<Object>>> records) {
+        if (records.isEmpty()) {
+            return new Result(0, 0, 0);
+        }
+        List<BulkOperation> operations = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, KafkaEnvelope<Object>>> sources = new ArrayList<>(records.size());
+        List<Instant> timestamps = new ArrayList<>(records.size());
+        int skipped = 0;
+        for (ConsumerRecord<String, KafkaEnvelope<Object>> record : records) {
+            for (KafkaMessage<Object> message : unpack(record)) {
+                SinkDocument document = map(record, message);
+                if (document == null) {
+                    skipped++;
+                    continue;
+                }
+                operations.add(indexOperation(document));
+                sources.add(record);
+                timestamps.add(message.getTimestamp());
+            }
+        }
+        List<Failure> failures = operations.isEmpty() ? List.of() : bulk(operations);
+        if (!failures.isEmpty() && deadLetterJournal == null) {
+            Failure first = failures.get(0);
+            throw rejected(sources.get(first.position()), "document rejected: " + first.deadLetter().error(), null);
+        }
+        int deadLettered = deadLetter(failures);
+        int succeeded = operations.size() - failures.size();
+        indexed.addAndGet(succeeded);
+        batches.incrementAndGet();
+        if (metrics != null) {
+            metrics.countRecords("indexed", succeeded);
+            metrics.countRecords("skipped", skipped);
+            metrics.countRecords("dead-letter", deadLettered);
+            long now = System.currentTimeMillis();
+            for (Instant timestamp : timestamps) {
+                if (timestamp != null) {
+                    metrics.recordEndToEnd(now - timestamp.toEpochMilli());
+                }
+            }
+        }
+        return new Result(succeeded, skipped, deadLettered);
+    }
+
+    /**
+     * 已确认写入的文档数。
+     */
+    public long indexed() {
+        return indexed.get();
+    }
+
+    /**
+     * 已完成的批次数。
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    /**
+     * 发送 Bulk 并重试可恢复条目，返回不可恢复的失败条目。
+     */
+    private List<Failure> bulk(List<BulkOperation> operations) {
+        List<Failure> failures = new ArrayList<>();
+        List<BulkOperation> pending = operations;
+        List<Integer> positions = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            positions.add(i);
+        }
+        long delay = retryInitialDelayMillis;
+        long start = System.nanoTime();
+        for (int attempt = 0; ; attempt++) {
+            BulkResponse response = execute(pending, operations.size(), start);
+            List<BulkOperation> retryable = new ArrayList<>();
+            List<Integer> retryablePositions = new ArrayList<>();
+            String lastError = null;
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null) {
+                    continue;
+                }
+                if (item.status() == 429 || item.status() >= 500) {
+                    retryable.add(pending.get(i));
+                    retryablePositions.add(positions.get(i));
+                    lastError = item.error().reason();
+                } else {
+                    failures.add(new Failure(positions.get(i), new ElasticsearchDeadLetterJournal.DeadLetter(
+                            pending.get(i), item.status(), item.error().type() + ": " + item.error().reason())));
+                }
+            }
+            if (retryable.isEmpty()) {
+                failures.sort(Comparator.comparingInt(Failure::position));
+                record(start, operations.size(), "success");
+                return failures;
+            }
+            if (attempt >= retryMaxAttempts) {
+                record(start, operations.size(), "failed");
+                throw new IllegalStateException("Elasticsearch sink bulk still has " + retryable.size()
+                        + " retryable failures after " + retryMaxAttempts + " retries: " + lastError);
+            }
+            sleep(delay);
+            delay = Math.max(1L, delay * 2);
+            pending = retryable;
+            positions = retryablePositions;
+        }
+    }
+
+    private BulkResponse execute(List<BulkOperation> operations, int total, long start) {
+        try {
+            return client.bulk(b -> b.operations(operations));
+        } catch (IOException | RuntimeException ex) {
+            record(start, total, "failed");
+            throw new IllegalStateException("Elasticsearch sink bulk failed", ex);
+        }
+    }
+
+    private int deadLetter(List<Failure> failures) {
+        if (failures.isEmpty()) {
+            return 0;
+        }
+        try {
+            deadLetterJournal.append(failures.stream().map(Failure::deadLetter).toList());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to write sink dead letters", ex);
+        }
+        return failures.size();
+    }
+
+    private List<KafkaMessage<Object>> unpack(ConsumerRecord<String, KafkaEnvelope<Object>> record) {
+        try {
+            return adapter.unpack(record);
+        } catch (RuntimeException ex) {
+            throw rejected(record, "unpack failed", ex);
+        }
+    }
+
+    private SinkDocument map(ConsumerRecord<String, KafkaEnvelope<Object>> record, KafkaMessage<Object> message) {
+        try {
+            return mapper.map(message);
+        } catch (RuntimeException ex) {
+            throw rejected(record, "document mapping failed", ex);
+        }
+    }
+
+    private static BatchListenerFailedException rejected(ConsumerRecord<?, ?> record, String reason, Throwable cause) {
+        return new BatchListenerFailedException("Elasticsearch sink cannot write record " + record.topic() + "-"
+                + record.partition() + "@" + record.offset() + ": " + reason, cause, record);
+    }
+
+    private void recordLag(List<ConsumerRecord<String, KafkaEnvelope<Object>>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> partitions = new LinkedHashSet<>();
+        records.forEach(record -> partitions.add(new TopicPartition(record.topic(), record.partition())));
+        // 已 acknowledge，lag 采样失败不能再让本批重投
+        try {
+            for (TopicPartition partition : partitions) {
+                OptionalLong lag = consumer.currentLag(partition);
+                if (lag.isPresent()) {
+                    metrics.recordLag(partition.topic(), partition.partition(), lag.getAsLong());
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.debug("oneself.sink failed to sample consumer lag: {}", ex.getMessage());
+        }
+    }
+
+    private void record(long start, int operations, String outcome) {
+        if (metrics != null) {
+            metrics.recordBulk(System.nanoTime() - start, operations, outcome);
+        }
+    }
+
+    private static BulkOperation indexOperation(SinkDocument document) {
+        return BulkOperation.of(op -> op.index(IndexOperation.of(b -> {
+            b.index(document.index()).document(document.document());
+            if (document.id() != null) {
+                b.id(document.id());
+            }
+            return b;
+        })));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying sink bulk", ex);
+        }
+    }
+
+    /**
+     * 单批写入结果。
+     *
+     * @param indexed      确认写入的文档数
+     * @param skipped      映射为空而跳过的消息数（打包记录按拆包后的事件计数）
+     * @param deadLettered 写入死信日志的文档数
+     */
+    public record Result(int indexed, int skipped, int deadLettered) {
+    }
+
+    /**
+     * 不可重试的失败条目及其在本批操作中的位置。
+     */
+    private record Failure(int position, ElasticsearchDeadLetterJournal.DeadLetter deadLetter) {
+    }
+}
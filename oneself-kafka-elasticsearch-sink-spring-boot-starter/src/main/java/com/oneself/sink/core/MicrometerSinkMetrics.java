@@ -0,0 +1,107 @@
+package com.oneself.sink.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 基于 Micrometer 的 Sink 指标。
+ * <p>
+ * 指标：{@code oneself.sink.bulk}（outcome，含直方图）、{@code oneself.sink.bulk.operations}、
+ * {@code oneself.sink.records}（result）、{@code oneself.sink.latency}（端到端，含直方图）、
+ * {@code oneself.sink.lag}（topic/partition）。Meter 按标签缓存，热路径不重复构建。
+ */
+public class MicrometerSinkMetrics implements SinkMetrics {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lags = new ConcurrentHashMap<>();
+    private volatile DistributionSummary operations;
+    private volatile Timer endToEnd;
+    private volatile MeterRegistry registry;
+
+    public MicrometerSinkMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public void recordBulk(long latencyNanos, int operationCount, String outcome) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        timers.computeIfAbsent(outcome, key -> Timer.builder("oneself.sink.bulk")
+                        .tag("outcome", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary summary = operations;
+        if (summary == null) {
+            summary = DistributionSummary.builder("oneself.sink.bulk.operations").register(meterRegistry);
+            operations = summary;
+        }
+        summary.record(operationCount);
+    }
+
+    @Override
+    public void countRecords(String result, int count) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null || count <= 0) {
+            return;
+        }
+        counters.computeIfAbsent(result, key -> Counter.builder("oneself.sink.records")
+                        .tag("result", key)
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    @Override
+    public void recordEndToEnd(long latencyMillis) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer timer = endToEnd;
+        if (timer == null) {
+            timer = Timer.builder("oneself.sink.latency")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            endToEnd = timer;
+        }
+        timer.record(Math.max(0L, latencyMillis), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordLag(String topic, int partition, long lag) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        lags.computeIfAbsent(topic + ":" + partition, key -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("oneself.sink.lag", value, AtomicLong::get)
+                    .tag("topic", topic)
+                    .tag("partition", String.valueOf(partition))
+                    .register(meterRegistry);
+            return value;
+        }).set(lag);
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+}
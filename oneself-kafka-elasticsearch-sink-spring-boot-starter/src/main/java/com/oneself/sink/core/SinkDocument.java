@@ -0,0 +1,15 @@
+package com.oneself.sink.core;
+
+/**
+ * 一条消息映射出的 Elasticsearch 文档。
+ *
+ * @param index    最终索引名（或写别名）
+ * @param id       文档 id，为空时由集群生成（重复投递会产生重复文档）
+ * @param document 文档内容（对象按客户端 mapper 序列化，{@code BinaryData} 原样写入）
+ */
+public record SinkDocument(String index, String id, Object document) {
+
+    public static SinkDocument of(String index, String id, Object document) {
+        return new SinkDocument(index, id, document);
+    }
+}
@@ -0,0 +1,15 @@
+package com.oneself.sink.core;
+
+import com.oneself.kafka.core.KafkaMessage;
+
+/**
+ * 将 Kafka 消息映射为 Elasticsearch 文档。
+ */
+@FunctionalInterface
+public interface SinkDocumentMapper {
+
+    /**
+     * 映射单条消息，返回 null 表示跳过（不写入但 offset 照常提交）。
+     */
+    SinkDocument map(KafkaMessage<Object> message);
+}
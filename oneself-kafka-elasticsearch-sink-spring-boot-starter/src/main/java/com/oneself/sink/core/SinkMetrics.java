@@ -0,0 +1,34 @@
+package com.oneself.sink.core;
+
+/**
+ * Sink 指标 SPI，默认实现基于 Micrometer（{@link MicrometerSinkMetrics}）。
+ */
+public interface SinkMetrics {
+
+    /**
+     * 记录一次 Bulk 请求（含条目重试）。
+     *
+     * @param latencyNanos 请求耗时
+     * @param operations   操作数
+     * @param outcome      success / failed
+     */
+    void recordBulk(long latencyNanos, int operations, String outcome);
+
+    /**
+     * 记录记录处理结果。
+     *
+     * @param result indexed / skipped / dead-letter
+     * @param count  条数
+     */
+    void countRecords(String result, int count);
+
+    /**
+     * 记录端到端延迟（事件时间到 Bulk 确认）。
+     */
+    void recordEndToEnd(long latencyMillis);
+
+    /**
+     * 更新分区消费 lag。
+     */
+    void recordLag(String topic, int partition, long lag);
+}
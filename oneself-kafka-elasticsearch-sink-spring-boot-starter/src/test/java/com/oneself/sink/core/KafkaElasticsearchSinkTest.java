@@ -0,0 +1,186 @@
+package com.oneself.sink.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import com.oneself.kafka.core.KafkaConsumerAdapter;
+import com.oneself.kafka.core.KafkaEnvelope;
+import com.oneself.kafka.core.KafkaHeaderNames;
+import com.oneself.kafka.core.KafkaPackedEvents;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KafkaElasticsearchSinkTest {
+
+    private static final SinkDocumentMapper MAPPER = message -> message.getPayload() == null
+            ? null
+            : SinkDocument.of("orders", message.getHeader(KafkaHeaderNames.EVENT_ID), message.getPayload());
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final List<String> indexedIds = new CopyOnWriteArrayList<>();
+
+    @Test
+    void acknowledgesOnlyAfterBulkResponse() {
+        KafkaElasticsearchSink sink = sink(id -> 201, 3);
+
+        sink.onMessage(List.of(record(0, "e1"), record(1, "e2")), () -> events.add("ack"), null);
+
+        assertThat(events).containsExactly("bulk", "ack");
+        assertThat(indexedIds).containsExactly("e1", "e2");
+        assertThat(sink.indexed()).isEqualTo(2);
+    }
+
+    @Test
+    void retriesRetryableItemsThenFailsWithoutAcknowledging() {
+        KafkaElasticsearchSink sink = sink(id -> id.equals("e2") ? 429 : 201, 2);
+
+        assertThatThrownBy(() -> sink.onMessage(List.of(record(0, "e1"), record(1, "e2")),
+                () -> events.add("ack"), null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("retryable failures");
+
+        assertThat(events).containsExactly("bulk", "bulk", "bulk");
+        assertThat(indexedIds).containsExactly("e1", "e2", "e2", "e2");
+        assertThat(sink.indexed()).isZero();
+    }
+
+    @Test
+    void pointsAtTheRecordWhoseDocumentCannotBeMapped() {
+        ConsumerRecord<String, KafkaEnvelope<Object>> poison = record(1, "e2");
+        SinkDocumentMapper mapper = message -> {
+            if ("e2".equals(message.getHeader(KafkaHeaderNames.EVENT_ID))) {
+                throw new IllegalArgumentException("bad payload");
+            }
+            return MAPPER.map(message);
+        };
+        KafkaElasticsearchSink sink = new KafkaElasticsearchSink(new ElasticsearchClient(new StubTransport(id -> 201)),
+                new KafkaConsumerAdapter(), mapper, null, null, 3, Duration.ZERO);
+
+        assertThatThrownBy(() -> sink.onMessage(List.of(record(0, "e1"), poison), () -> events.add("ack"), null))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getRecord()).isSameAs(poison))
+                .hasMessageContaining("document mapping failed");
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void pointsAtTheFirstPermanentlyRejectedRecordWithoutDeadLetterJournal() {
+        ConsumerRecord<String, KafkaEnvelope<Object>> rejected = record(1, "e2");
+        KafkaElasticsearchSink sink = sink(id -> id.equals("e1") ? 201 : 400, 3);
+
+        assertThatThrownBy(() -> sink.onMessage(List.of(record(0, "e1"), rejected, record(2, "e3")),
+                () -> events.add("ack"), null))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getRecord()).isSameAs(rejected))
+                .hasMessageContaining("document rejected");
+
+        assertThat(events).containsExactly("bulk");
+        assertThat(indexedIds).containsExactly("e1", "e2", "e3");
+    }
+
+    @Test
+    void writesPackedEventsAsSeparateDocuments() {
+        KafkaElasticsearchSink sink = sink(id -> 201, 0);
+        List<KafkaEnvelope<Object>> packed = List.of(
+                envelope("e1", Map.of("n", 1), Map.of(KafkaHeaderNames.EVENT_ID, "e1")),
+                envelope("e2", Map.of("n", 2), Map.of(KafkaHeaderNames.EVENT_ID, "e2")));
+        ConsumerRecord<String, KafkaEnvelope<Object>> record = new ConsumerRecord<>("orders", 0, 0L, "k",
+                envelope("outer", new KafkaPackedEvents(packed), Map.of(KafkaHeaderNames.PACKED_COUNT, "2")));
+
+        KafkaElasticsearchSink.Result result = sink.write(List.of(record));
+
+        assertThat(indexedIds).containsExactly("e1", "e2");
+        assertThat(result.indexed()).isEqualTo(2);
+    }
+
+    private KafkaElasticsearchSink sink(Function<String, Integer> status, int retryMaxAttempts) {
+        return new KafkaElasticsearchSink(new ElasticsearchClient(new StubTransport(status)),
+                new KafkaConsumerAdapter(), MAPPER, null, null, retryMaxAttempts, Duration.ZERO);
+    }
+
+    private static ConsumerRecord<String, KafkaEnvelope<Object>> record(long offset, String eventId) {
+        return new ConsumerRecord<>("orders", 0, offset, "k" + offset,
+                envelope(eventId, Map.of("n", offset), Map.of(KafkaHeaderNames.EVENT_ID, eventId)));
+    }
+
+    private static KafkaEnvelope<Object> envelope(String eventId, Object payload, Map<String, String> headers) {
+        return new KafkaEnvelope<>(eventId, payload.getClass().getName(), null, "v1", payload, headers, Instant.now());
+    }
+
+    /**
+     * 按文档 id 返回条目状态的 Bulk transport，记录调用顺序与写入的 id。
+     */
+    private class StubTransport implements ElasticsearchTransport {
+
+        private final JsonpMapper mapper = new JacksonJsonpMapper();
+        private final Function<String, Integer> status;
+
+        StubTransport(Function<String, Integer> status) {
+            this.status = status;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                      Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                      TransportOptions options) {
+            events.add("bulk");
+            List<BulkResponseItem> items = new ArrayList<>();
+            for (BulkOperation operation : ((BulkRequest) request).operations()) {
+                String id = operation.index().id();
+                int code = status.apply(id);
+                indexedIds.add(id);
+                items.add(BulkResponseItem.of(item -> {
+                    item.operationType(OperationType.Index).index(operation.index().index()).id(id).status(code);
+                    if (code >= 300) {
+                        item.error(error -> error.type("es_rejected_execution_exception").reason("busy"));
+                    }
+                    return item;
+                }));
+            }
+            return (ResponseT) BulkResponse.of(response -> response.errors(false).took(1).items(items));
+        }
+
+        @Override
+        public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+                RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JsonpMapper jsonpMapper() {
+            return mapper;
+        }
+
+        @Override
+        public TransportOptions options() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.oneself.kafka.actuate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import com.oneself.kafka.core.KafkaDlqReplayJob;
+import com.oneself.kafka.core.KafkaDlqReplayRequest;
+import com.oneself.kafka.core.KafkaDlqReplayer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * DLQ 重放端点：GET 查看任务，POST 启动任务，DELETE /{id} 停止任务。
+ */
+@Endpoint(id = "kafkadlq")
+public class KafkaDlqReplayEndpoint {
+
+    private final KafkaDlqReplayer replayer;
+
+    public KafkaDlqReplayEndpoint(KafkaDlqReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    /**
+     * 查看全部任务。
+     */
+    @ReadOperation
+    public List<Map<String, Object>> jobs() {
+        return replayer.jobs().stream().map(KafkaDlqReplayJob::snapshot).toList();
+    }
+
+    /**
+     * 查看单个任务。
+     */
+    @ReadOperation
+    public Map<String, Object> job(@Selector String id) {
+        KafkaDlqReplayJob job = replayer.job(id);
+        return job == null ? null : job.snapshot();
+    }
+
+    /**
+     * 启动重放任务，时间参数为 ISO-8601 格式。
+     */
+    @WriteOperation
+    public Map<String, Object> start(String dlqTopic,
+                                     @Nullable Long fromOffset,
+                                     @Nullable Long toOffset,
+                                     @Nullable String fromTime,
+                                     @Nullable String toTime,
+                                     @Nullable String failureClass,
+                                     @Nullable String key,
+                                     @Nullable String targetTopic,
+                                     @Nullable Integer ratePerSecond,
+                                     @Nullable Long maxRecords,
+                                     @Nullable Boolean resume) {
+        KafkaDlqReplayRequest request = new KafkaDlqReplayRequest(dlqTopic, fromOffset, toOffset,
+                fromTime == null ? null : Instant.parse(fromTime),
+                toTime == null ? null : Instant.parse(toTime),
+                failureClass, key, targetTopic, ratePerSecond, maxRecords, resume == null || resume);
+        return replayer.start(request).snapshot();
+    }
+
+    /**
+     * 停止任务。
+     */
+    @DeleteOperation
+    public Map<String, Object> stop(@Selector String id) {
+        return Map.of("id", id, "stopped", replayer.stop(id));
+    }
+}
@@ -1,10 +1,28 @@
 package com.oneself.kafka.autoconfigure;
 
+import com.oneself.kafka.core.KafkaAdaptiveBatchController;
+import com.oneself.kafka.core.KafkaBatchProcessor;
+import com.oneself.kafka.core.KafkaBatchingOps;
+import com.oneself.kafka.core.KafkaCircuitBreaker;
 import com.oneself.kafka.core.KafkaConsumerAdapter;
+import com.oneself.kafka.core.KafkaDecorrelatedJitterBackOff;
+import com.oneself.kafka.core.KafkaEnvelopeDeserializer;
+import com.oneself.kafka.core.KafkaEnvelopeSerializer;
+import com.oneself.kafka.core.KafkaExactlyOnceSupport;
+import com.oneself.kafka.core.KafkaExceptionPolicies;
 import com.oneself.kafka.core.KafkaIdempotentExecutor;
+import com.oneself.kafka.core.KafkaMetrics;
 import com.oneself.kafka.core.KafkaOps;
+import com.oneself.kafka.core.KafkaParallelProcessor;
+import com.oneself.kafka.core.KafkaPartitionLifecycleListener;
+import com.oneself.kafka.core.KafkaPolicyErrorHandler;
+import com.oneself.kafka.core.KafkaProducerPool;
+import com.oneself.kafka.core.KafkaRebalanceHooks;
 import com.oneself.kafka.core.KafkaRetryRecoverer;
+import com.oneself.kafka.core.KafkaVirtualThreadExecutor;
+import com.oneself.kafka.core.MeteredKafkaIdempotentExecutor;
 import com.oneself.kafka.core.RedisKafkaIdempotentExecutor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -13,25 +31,47 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.boot.kafka.autoconfigure.KafkaAutoConfiguration;
 import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.core.KafkaTemplate;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.config.SslConfigs;
+import java.util.ArrayList;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.clients.consumer.RoundRobinAssignor;
+import org.apache.kafka.clients.consumer.StickyAssignor;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.FailedRecordProcessor;
 import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 import org.springframework.util.backoff.FixedBackOff;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.ClassUtils;
 
 /**
  * Kafka Starter 自动装配。
@@ -48,8 +88,97 @@ public class OneselfKafkaAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "producer-enabled", havingValue = "true", matchIfMissing = true)
-    public KafkaOps kafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties) {
-        return new KafkaOps(kafkaTemplate, properties);
+    public KafkaOps kafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties,
+                             ObjectProvider<KafkaProducerPool> producerPool, ObjectProvider<KafkaMetrics> metrics,
+                             ObjectProvider<KafkaExactlyOnceSupport> exactlyOnce) {
+        return new KafkaOps(kafkaTemplate, properties, producerPool.getIfAvailable(), metrics.getIfAvailable(),
+                exactlyOnce.getIfAvailable());
+    }
+
+    /**
+     * 生产端微批发送。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "batching-enabled", havingValue = "true")
+    public KafkaBatchingOps kafkaBatchingOps(KafkaOps kafkaOps, OneselfKafkaProperties properties) {
+        return new KafkaBatchingOps(kafkaOps, properties.getBatchingRingCapacity(), properties.getBatchingMaxBatchSize(),
+                properties.getBatchingLinger(), properties.isBatchingPackEnabled(), properties.getBatchingOfferTimeout());
+    }
+
+    /**
+     * 按 topic 分组的生产者池。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "producer-pools-enabled", havingValue = "true")
+    public KafkaProducerPool kafkaProducerPool(KafkaTemplate<Object, Object> kafkaTemplate,
+                                               KafkaProperties kafkaProperties,
+                                               OneselfKafkaProperties properties,
+                                               ObjectProvider<KafkaEnvelopeSerializer> envelopeSerializer) {
+        KafkaProducerPool pool = new KafkaProducerPool(kafkaTemplate);
+        KafkaEnvelopeSerializer serializer = envelopeSerializer.getIfAvailable();
+        properties.getProducerPools().forEach((name, config) -> {
+            if (config.getSize() <= 0) {
+                throw new IllegalStateException("Producer pool " + name + " size must be positive");
+            }
+            Map<String, Object> base = buildProducerConfigs(kafkaProperties, properties, properties.isIdempotenceEnabled());
+            if (config.getLinger() != null) {
+                base.put(ProducerConfig.LINGER_MS_CONFIG, (int) config.getLinger().toMillis());
+            }
+            if (config.getBatchSize() != null) {
+                base.put(ProducerConfig.BATCH_SIZE_CONFIG, config.getBatchSize());
+            }
+            if (config.getCompressionType() != null && !config.getCompressionType().isBlank()) {
+                base.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, config.getCompressionType());
+            }
+            if (config.getBufferMemory() != null) {
+                base.put(ProducerConfig.BUFFER_MEMORY_CONFIG, config.getBufferMemory());
+            }
+            Object clientId = base.getOrDefault(ProducerConfig.CLIENT_ID_CONFIG, "oneself-kafka");
+            List<DefaultKafkaProducerFactory<Object, Object>> factories = new ArrayList<>(config.getSize());
+            for (int i = 0; i < config.getSize(); i++) {
+                Map<String, Object> configs = new HashMap<>(base);
+                configs.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-" + name + "-" + i);
+                DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+                if (serializer != null) {
+                    factory.setValueSerializer(serializer);
+                }
+                factories.add(factory);
+            }
+            pool.register(name, config.getTopics(), factories);
+        });
+        return pool;
+    }
+
+    /**
+     * Exactly-once 支持：独立的事务型生产者工厂（默认生产者保持非事务，事务外发送不受影响）。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "eos-enabled", havingValue = "true")
+    public KafkaExactlyOnceSupport kafkaExactlyOnceSupport(KafkaProperties kafkaProperties,
+                                                           OneselfKafkaProperties properties,
+                                                           ObjectProvider<KafkaEnvelopeSerializer> envelopeSerializer) {
+        Map<String, Object> configs = buildProducerConfigs(kafkaProperties, properties, true);
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG, (int) properties.getEosTransactionTimeout().toMillis());
+        configs.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        Object clientId = configs.getOrDefault(ProducerConfig.CLIENT_ID_CONFIG, "oneself-kafka");
+        configs.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-tx");
+        String prefix = properties.getEosTransactionIdPrefix();
+        if (prefix == null || prefix.isBlank()) {
+            prefix = sanitizeInstanceId(clientId + "-" + resolveInstanceIdentity(null,
+                    "oneself.kafka.eos-transaction-id-prefix")) + "-tx-";
+        }
+        DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+        factory.setTransactionIdPrefix(prefix.trim());
+        KafkaEnvelopeSerializer serializer = envelopeSerializer.getIfAvailable();
+        if (serializer != null) {
+            factory.setValueSerializer(serializer);
+        }
+        return new KafkaExactlyOnceSupport(factory);
     }
 
     /**
@@ -59,24 +188,15 @@ public class OneselfKafkaAutoConfiguration {
     @ConditionalOnMissingBean(ProducerFactory.class)
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "idempotence-enabled", havingValue = "true", matchIfMissing = true)
     public ProducerFactory<Object, Object> kafkaProducerFactory(KafkaProperties kafkaProperties,
-                                                                OneselfKafkaProperties properties) {
-        Map<String, Object> configs = kafkaProperties.buildProducerProperties();
-        applyConnectionSettings(configs, properties);
-        configs.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        configs.putIfAbsent(ProducerConfig.ACKS_CONFIG, properties.getProducerAcks());
-        configs.putIfAbsent(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
-        configs.putIfAbsent(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG,
-                (int) properties.getProducerDeliveryTimeout().toMillis());
-        configs.putIfAbsent(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG,
-                (int) properties.getProducerRequestTimeout().toMillis());
-        configs.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG,
-                (int) properties.getProducerLinger().toMillis());
-        configs.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, properties.getProducerBatchSize());
-        configs.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getProducerCompressionType());
-        if (properties.getProducerClientId() != null && !properties.getProducerClientId().isBlank()) {
-            configs.putIfAbsent(ProducerConfig.CLIENT_ID_CONFIG, properties.getProducerClientId());
+                                                                OneselfKafkaProperties properties,
+                                                                ObjectProvider<KafkaEnvelopeSerializer> envelopeSerializer) {
+        Map<String, Object> configs = buildProducerConfigs(kafkaProperties, properties, true);
+        DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+        KafkaEnvelopeSerializer serializer = envelopeSerializer.getIfAvailable();
+        if (serializer != null) {
+            factory.setValueSerializer(serializer);
         }
-        return new DefaultKafkaProducerFactory<>(configs);
+        return factory;
     }
 
     /**
@@ -86,22 +206,15 @@ public class OneselfKafkaAutoConfiguration {
     @ConditionalOnMissingBean(ProducerFactory.class)
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "idempotence-enabled", havingValue = "false")
     public ProducerFactory<Object, Object> kafkaProducerFactoryNonIdempotent(KafkaProperties kafkaProperties,
-                                                                             OneselfKafkaProperties properties) {
-        Map<String, Object> configs = kafkaProperties.buildProducerProperties();
-        applyConnectionSettings(configs, properties);
-        configs.putIfAbsent(ProducerConfig.ACKS_CONFIG, properties.getProducerAcks());
-        configs.putIfAbsent(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG,
-                (int) properties.getProducerDeliveryTimeout().toMillis());
-        configs.putIfAbsent(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG,
-                (int) properties.getProducerRequestTimeout().toMillis());
-        configs.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG,
-                (int) properties.getProducerLinger().toMillis());
-        configs.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, properties.getProducerBatchSize());
-        configs.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getProducerCompressionType());
-        if (properties.getProducerClientId() != null && !properties.getProducerClientId().isBlank()) {
-            configs.putIfAbsent(ProducerConfig.CLIENT_ID_CONFIG, properties.getProducerClientId());
+                                                                             OneselfKafkaProperties properties,
+                                                                             ObjectProvider<KafkaEnvelopeSerializer> envelopeSerializer) {
+        Map<String, Object> configs = buildProducerConfigs(kafkaProperties, properties, false);
+        DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+        KafkaEnvelopeSerializer serializer = envelopeSerializer.getIfAvailable();
+        if (serializer != null) {
+            factory.setValueSerializer(serializer);
         }
-        return new DefaultKafkaProducerFactory<>(configs);
+        return factory;
     }
 
     /**
@@ -110,7 +223,8 @@ public class OneselfKafkaAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean(ConsumerFactory.class)
     public ConsumerFactory<Object, Object> kafkaConsumerFactory(KafkaProperties kafkaProperties,
-                                                                OneselfKafkaProperties properties) {
+                                                                OneselfKafkaProperties properties,
+                                                                ObjectProvider<KafkaEnvelopeDeserializer> envelopeDeserializer) {
         Map<String, Object> configs = kafkaProperties.buildConsumerProperties();
         applyConnectionSettings(configs, properties);
         configs.putIfAbsent(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, properties.isConsumerEnableAutoCommit());
@@ -124,10 +238,19 @@ public class OneselfKafkaAutoConfiguration {
                 (int) properties.getConsumerHeartbeatInterval().toMillis());
         configs.putIfAbsent(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, properties.getConsumerFetchMaxBytes());
         configs.putIfAbsent(ConsumerConfig.ISOLATION_LEVEL_CONFIG, properties.getConsumerIsolationLevel());
+        String assignor = assignorClassName(properties.getConsumerAssignmentStrategy());
+        if (assignor != null) {
+            configs.putIfAbsent(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, assignor);
+        }
         if (properties.getConsumerGroupId() != null && !properties.getConsumerGroupId().isBlank()) {
             configs.putIfAbsent(ConsumerConfig.GROUP_ID_CONFIG, properties.getConsumerGroupId());
         }
-        return new DefaultKafkaConsumerFactory<>(configs);
+        DefaultKafkaConsumerFactory<Object, Object> factory = new DefaultKafkaConsumerFactory<>(configs);
+        KafkaEnvelopeDeserializer deserializer = envelopeDeserializer.getIfAvailable();
+        if (deserializer != null) {
+            factory.setValueDeserializer(deserializer);
+        }
+        return factory;
     }
 
     /**
@@ -135,17 +258,20 @@ public class OneselfKafkaAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean(CommonErrorHandler.class)
-    public DefaultErrorHandler kafkaErrorHandler(ConsumerRecordRecoverer recoverer, OneselfKafkaProperties properties) {
-        long backoffMs = properties.getLocalRetryBackoff().toMillis();
-        FixedBackOff backOff = new FixedBackOff(backoffMs, properties.getLocalRetryAttempts());
-        DefaultErrorHandler handler = new DefaultErrorHandler(recoverer, backOff);
-        for (String className : properties.getNonRetryableExceptions()) {
-            Class<?> target = loadClass(className);
-            if (target != null && Exception.class.isAssignableFrom(target)) {
-                handler.addNotRetryableExceptions(target.asSubclass(Exception.class));
-            }
-        }
-        return handler;
+    public DefaultErrorHandler kafkaErrorHandler(ConsumerRecordRecoverer recoverer, OneselfKafkaProperties properties,
+                                                 ObjectProvider<KafkaCircuitBreaker> circuitBreaker) {
+        return buildErrorHandler(recoverer, properties, circuitBreaker.getIfAvailable());
+    }
+
+    /**
+     * 消费熔断器（失败率超过阈值时暂停容器）。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "circuit-breaker-enabled", havingValue = "true")
+    public KafkaCircuitBreaker kafkaCircuitBreaker(OneselfKafkaProperties properties) {
+        return new KafkaCircuitBreaker(properties.getCircuitBreakerWindowSize(), properties.getCircuitBreakerMinimumCalls(),
+                properties.getCircuitBreakerFailureRateThreshold(), properties.getCircuitBreakerOpenDuration());
     }
 
     /**
@@ -160,6 +286,15 @@ public class OneselfKafkaAutoConfiguration {
         return new KafkaRetryRecoverer(template, properties);
     }
 
+    /**
+     * 再均衡回调组合（收集全部 KafkaPartitionLifecycleListener）。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaRebalanceHooks kafkaRebalanceHooks(ObjectProvider<KafkaPartitionLifecycleListener> listeners) {
+        return new KafkaRebalanceHooks(listeners.orderedStream().toList());
+    }
+
     /**
      * 统一 Listener 容器工厂，默认手动 ack 与统一错误处理。
      */
@@ -168,25 +303,213 @@ public class OneselfKafkaAutoConfiguration {
     public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
             ConsumerFactory<Object, Object> consumerFactory,
             CommonErrorHandler errorHandler,
-            OneselfKafkaProperties properties) {
+            OneselfKafkaProperties properties,
+            ObjectProvider<KafkaCircuitBreaker> circuitBreaker,
+            ObjectProvider<KafkaRebalanceHooks> rebalanceHooks) {
         ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.setCommonErrorHandler(errorHandler);
+        circuitBreaker.ifAvailable(factory::setRecordInterceptor);
         factory.getContainerProperties().setAckMode(parseAckMode(properties.getListenerAckMode()));
         if (properties.getListenerConcurrency() != null) {
             factory.setConcurrency(properties.getListenerConcurrency());
         }
+        applyListenerTaskExecutor(factory, properties);
+        applyRebalanceSettings(factory, properties, rebalanceHooks.getIfAvailable(), null, null);
         return factory;
     }
+
+    /**
+     * 批量 Listener 容器工厂，单条失败时仅重试/转发失败记录（需配合 {@link KafkaBatchProcessor} 或抛出
+     * {@code BatchListenerFailedException}）。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaBatchListenerContainerFactory")
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "batch-listener-enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaBatchListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            ConsumerRecordRecoverer recoverer,
+            OneselfKafkaProperties properties,
+            ObjectProvider<KafkaCircuitBreaker> circuitBreaker,
+            ObjectProvider<KafkaRebalanceHooks> rebalanceHooks) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(buildErrorHandler(recoverer, properties, circuitBreaker.getIfAvailable()));
+        circuitBreaker.ifAvailable(factory::setBatchInterceptor);
+        factory.getContainerProperties().setAckMode(parseAckMode(properties.getListenerAckMode()));
+        if (properties.getListenerConcurrency() != null) {
+            factory.setConcurrency(properties.getListenerConcurrency());
+        }
+        applyListenerTaskExecutor(factory, properties);
+        applyRebalanceSettings(factory, properties, rebalanceHooks.getIfAvailable(), null, null);
+        return factory;
+    }
+
+    /**
+     * 并行消费 Listener 容器工厂：批量拉取后交由 {@link KafkaParallelProcessor} 派发，offset 由处理器提交。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaParallelListenerContainerFactory")
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "parallel-enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaParallelListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            ConsumerRecordRecoverer recoverer,
+            KafkaParallelProcessor parallelProcessor,
+            OneselfKafkaProperties properties,
+            ObjectProvider<KafkaRebalanceHooks> rebalanceHooks) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(buildErrorHandler(recoverer, properties, null));
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setIdleEventInterval(properties.getParallelCommitInterval().toMillis());
+        if (properties.getListenerConcurrency() != null) {
+            factory.setConcurrency(properties.getListenerConcurrency());
+        }
+        applyListenerTaskExecutor(factory, properties);
+        applyRebalanceSettings(factory, properties, rebalanceHooks.getIfAvailable(), parallelProcessor, null);
+        return factory;
+    }
+
+    /**
+     * 自适应批大小控制器。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "adaptive-enabled", havingValue = "true")
+    public KafkaAdaptiveBatchController kafkaAdaptiveBatchController(OneselfKafkaProperties properties) {
+        return new KafkaAdaptiveBatchController(properties.getAdaptiveLatencyTarget(),
+                properties.getConsumerMaxPollInterval(), properties.getAdaptiveMinRecords(), adaptiveMaxRecords(properties));
+    }
+
+    private static int adaptiveMaxRecords(OneselfKafkaProperties properties) {
+        int maxRecords = properties.getAdaptiveMaxRecords() != null
+                ? properties.getAdaptiveMaxRecords()
+                : properties.getConsumerMaxPollRecords();
+        return Math.max(1, maxRecords);
+    }
+
+    /**
+     * 自适应批大小 Listener 容器工厂：批量拉取后交由 {@link KafkaAdaptiveBatchController} 截取处理，offset 由控制器提交。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaAdaptiveListenerContainerFactory")
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "adaptive-enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaAdaptiveListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            ConsumerRecordRecoverer recoverer,
+            OneselfKafkaProperties properties,
+            ObjectProvider<KafkaCircuitBreaker> circuitBreaker,
+            ObjectProvider<KafkaRebalanceHooks> rebalanceHooks) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(buildErrorHandler(recoverer, properties, circuitBreaker.getIfAvailable()));
+        circuitBreaker.ifAvailable(factory::setBatchInterceptor);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // 单次拉取不超过批大小上限，减少被 seek 回退后重复拉取的记录
+        Properties consumerOverrides = new Properties();
+        consumerOverrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                String.valueOf(adaptiveMaxRecords(properties)));
+        if (properties.getListenerConcurrency() != null) {
+            factory.setConcurrency(properties.getListenerConcurrency());
+        }
+        applyListenerTaskExecutor(factory, properties);
+        applyRebalanceSettings(factory, properties, rebalanceHooks.getIfAvailable(), null, consumerOverrides);
+        return factory;
+    }
+
+    /**
+     * Exactly-once Listener 容器工厂：容器开启 Kafka 事务后调用监听方法，方法内 {@link KafkaOps} 发送与消费 offset
+     * 同事务提交；默认按批消费，一次 poll 一个事务。失败时回滚并按本地重试退避重新拉取，耗尽后转发重试/DLQ 并提交 offset。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaEosListenerContainerFactory")
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "eos-enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaEosListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaExactlyOnceSupport exactlyOnce,
+            ConsumerRecordRecoverer recoverer,
+            OneselfKafkaProperties properties,
+            ObjectProvider<KafkaRebalanceHooks> rebalanceHooks) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(properties.isEosBatchEnabled());
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaAwareTransactionManager(exactlyOnce.transactionManager());
+        containerProperties.setAckMode(properties.isEosBatchEnabled()
+                ? ContainerProperties.AckMode.BATCH
+                : ContainerProperties.AckMode.RECORD);
+        BackOff backOff = buildBackOff(properties.getLocalRetryBackoffStrategy(), properties.getLocalRetryBackoff(),
+                properties.getLocalRetryMaxBackoff(), properties.getLocalRetryAttempts(),
+                properties.getLocalRetryMaxElapsed(), properties);
+        DefaultAfterRollbackProcessor<Object, Object> rollbackProcessor =
+                new DefaultAfterRollbackProcessor<>(recoverer, backOff, exactlyOnce.template(), true);
+        applyExceptionPolicies(rollbackProcessor, properties);
+        factory.setAfterRollbackProcessor(rollbackProcessor);
+        if (properties.getListenerConcurrency() != null) {
+            factory.setConcurrency(properties.getListenerConcurrency());
+        }
+        applyListenerTaskExecutor(factory, properties);
+        applyRebalanceSettings(factory, properties, rebalanceHooks.getIfAvailable(), null, null);
+        return factory;
+    }
+
     /**
      * 统一消费者适配器。
      */
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "consumer-enabled", havingValue = "true", matchIfMissing = true)
-    public KafkaConsumerAdapter kafkaConsumerAdapter() {
-        return new KafkaConsumerAdapter();
+    public KafkaConsumerAdapter kafkaConsumerAdapter(ObjectProvider<KafkaMetrics> metrics) {
+        return new KafkaConsumerAdapter(metrics.getIfAvailable());
+    }
+
+    /**
+     * 批量消费处理器（存在幂等执行器时自动启用批量幂等）。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "consumer-enabled", havingValue = "true", matchIfMissing = true)
+    public KafkaBatchProcessor kafkaBatchProcessor(KafkaConsumerAdapter adapter,
+                                                   ObjectProvider<KafkaIdempotentExecutor> idempotentExecutor) {
+        return new KafkaBatchProcessor(adapter, idempotentExecutor.getIfAvailable());
+    }
+
+    /**
+     * 分区内并行消费处理器。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "parallel-enabled", havingValue = "true")
+    public KafkaParallelProcessor kafkaParallelProcessor(KafkaConsumerAdapter adapter,
+                                                         ObjectProvider<KafkaIdempotentExecutor> idempotentExecutor,
+                                                         ConsumerRecordRecoverer recoverer,
+                                                         OneselfKafkaProperties properties) {
+        ExecutorService executor;
+        if (properties.isVirtualThreadsEnabled()) {
+            executor = new KafkaVirtualThreadExecutor("oneself-kafka-parallel-", properties.getVirtualThreadMaxConcurrency());
+        } else {
+            int threads = properties.getParallelConcurrency() != null
+                    ? properties.getParallelConcurrency()
+                    : Runtime.getRuntime().availableProcessors() * 2;
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "oneself-kafka-parallel-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return new KafkaParallelProcessor(adapter, idempotentExecutor.getIfAvailable(), recoverer, executor,
+                properties.getParallelMaxInFlightPerPartition(), properties.getParallelDrainTimeout(),
+                Set.copyOf(Arrays.asList(properties.getOrderedTopics())));
     }
 
     /**
@@ -197,8 +520,186 @@ public class OneselfKafkaAutoConfiguration {
     @ConditionalOnMissingBean(KafkaIdempotentExecutor.class)
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "idempotent-store", havingValue = "REDIS")
     public KafkaIdempotentExecutor redisKafkaIdempotentExecutor(StringRedisTemplate redisTemplate,
-                                                                OneselfKafkaProperties properties) {
-        return new RedisKafkaIdempotentExecutor(redisTemplate, properties);
+                                                                OneselfKafkaProperties properties,
+                                                                ObjectProvider<KafkaMetrics> metrics) {
+        return metered(new RedisKafkaIdempotentExecutor(redisTemplate, properties), metrics.getIfAvailable());
+    }
+
+    /**
+     * 存在 Starter 指标时为 Starter 创建的幂等执行器增加耗时指标，自定义执行器不做替换。
+     */
+    static KafkaIdempotentExecutor metered(KafkaIdempotentExecutor executor, KafkaMetrics metrics) {
+        return metrics == null ? executor : new MeteredKafkaIdempotentExecutor(executor, metrics);
+    }
+
+    /**
+     * 构建错误处理器（全局退避 + 按异常类型的策略 + 非重试异常 + 熔断 + 重试/DLQ 转发）。
+     */
+    private DefaultErrorHandler buildErrorHandler(ConsumerRecordRecoverer recoverer, OneselfKafkaProperties properties,
+                                                  KafkaCircuitBreaker circuitBreaker) {
+        BackOff defaultBackOff = buildBackOff(properties.getLocalRetryBackoffStrategy(),
+                properties.getLocalRetryBackoff(), properties.getLocalRetryMaxBackoff(),
+                properties.getLocalRetryAttempts(), properties.getLocalRetryMaxElapsed(), properties);
+        KafkaPolicyErrorHandler handler = new KafkaPolicyErrorHandler(recoverer, defaultBackOff, circuitBreaker);
+        applyExceptionPolicies(handler, properties);
+        return handler;
+    }
+
+    /**
+     * 应用非重试异常与按异常类型的退避策略，错误处理器与事务回滚处理器共用。
+     * 配置的异常类名必须存在且为 Exception 子类，否则启动失败。
+     */
+    private void applyExceptionPolicies(FailedRecordProcessor handler, OneselfKafkaProperties properties) {
+        for (String className : properties.getNonRetryableExceptions()) {
+            handler.addNotRetryableExceptions(requireExceptionClass(className));
+        }
+        KafkaExceptionPolicies policies = new KafkaExceptionPolicies();
+        properties.getExceptionPolicies().forEach((className, policy) -> {
+            Class<? extends Exception> type = requireExceptionClass(className);
+            int attempts = policy.getAttempts() != null ? policy.getAttempts() : properties.getLocalRetryAttempts();
+            if (attempts <= 0) {
+                handler.addNotRetryableExceptions(type);
+                return;
+            }
+            policies.register(type, buildBackOff(
+                    policy.getStrategy() != null ? policy.getStrategy() : properties.getLocalRetryBackoffStrategy(),
+                    policy.getBackoff() != null ? policy.getBackoff() : properties.getLocalRetryBackoff(),
+                    policy.getMaxBackoff() != null ? policy.getMaxBackoff() : properties.getLocalRetryMaxBackoff(),
+                    attempts,
+                    policy.getMaxElapsed() != null ? policy.getMaxElapsed() : properties.getLocalRetryMaxElapsed(),
+                    properties));
+        });
+        if (!policies.isEmpty()) {
+            handler.setBackOffFunction((record, ex) -> policies.backOffFor(ex));
+        }
+    }
+
+    private BackOff buildBackOff(OneselfKafkaProperties.BackoffStrategy strategy, java.time.Duration interval,
+                                 java.time.Duration maxInterval, int attempts, java.time.Duration maxElapsed,
+                                 OneselfKafkaProperties properties) {
+        long intervalMs = interval.toMillis();
+        long maxElapsedMs = maxElapsed == null ? Long.MAX_VALUE : maxElapsed.toMillis();
+        switch (strategy == null ? OneselfKafkaProperties.BackoffStrategy.FIXED : strategy) {
+            case EXPONENTIAL -> {
+                ExponentialBackOff backOff = new ExponentialBackOff(intervalMs, properties.getLocalRetryMultiplier());
+                backOff.setMaxInterval(maxInterval.toMillis());
+                backOff.setJitter(intervalMs / 2);
+                backOff.setMaxAttempts(attempts);
+                backOff.setMaxElapsedTime(maxElapsedMs);
+                return backOff;
+            }
+            case DECORRELATED_JITTER -> {
+                return new KafkaDecorrelatedJitterBackOff(intervalMs, maxInterval.toMillis(), attempts, maxElapsedMs);
+            }
+            default -> {
+                if (maxElapsed == null) {
+                    return new FixedBackOff(intervalMs, attempts);
+                }
+                ExponentialBackOff backOff = new ExponentialBackOff(intervalMs, 1.0);
+                backOff.setMaxAttempts(attempts);
+                backOff.setMaxElapsedTime(maxElapsedMs);
+                return backOff;
+            }
+        }
+    }
+
+    /**
+     * 启用虚拟线程时，消费线程改为虚拟线程（阻塞 I/O 不占用平台线程）。
+     */
+    private void applyListenerTaskExecutor(ConcurrentKafkaListenerContainerFactory<Object, Object> factory,
+                                           OneselfKafkaProperties properties) {
+        if (!properties.isVirtualThreadsEnabled()) {
+            return;
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("oneself-kafka-listener-");
+        executor.setVirtualThreads(true);
+        factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
+
+    /**
+     * 应用再均衡设置：生命周期回调（含容器自身监听器）、静态成员标识与按容器的消费者参数覆盖。
+     * <p>
+     * 工厂级 {@code kafkaConsumerProperties} 不会复制到容器，消费者参数只能在容器定制器中写入。
+     */
+    private void applyRebalanceSettings(ConcurrentKafkaListenerContainerFactory<Object, Object> factory,
+                                        OneselfKafkaProperties properties,
+                                        KafkaRebalanceHooks hooks,
+                                        ConsumerAwareRebalanceListener delegate,
+                                        Properties consumerOverrides) {
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        if (hooks != null && hooks.hasListeners()) {
+            containerProperties.setConsumerRebalanceListener(hooks.withDelegate(delegate));
+        } else if (delegate != null) {
+            containerProperties.setConsumerRebalanceListener(delegate);
+        }
+        boolean staticMembership = properties.isConsumerStaticMembershipEnabled();
+        if (!staticMembership && consumerOverrides == null) {
+            return;
+        }
+        String instanceId = staticMembership
+                ? resolveInstanceIdentity(properties.getConsumerGroupInstanceId(), "oneself.kafka.consumer-group-instance-id")
+                : null;
+        factory.setContainerCustomizer(container -> {
+            Properties consumerProperties = container.getContainerProperties().getKafkaConsumerProperties();
+            if (consumerOverrides != null) {
+                consumerOverrides.stringPropertyNames().forEach(name -> {
+                    if (!consumerProperties.containsKey(name)) {
+                        consumerProperties.setProperty(name, consumerOverrides.getProperty(name));
+                    }
+                });
+            }
+            if (instanceId != null) {
+                // 无 listener id 的容器只能共用实例标识，同组内互相踢出；随机后缀重启后变化又失去静态成员的意义
+                String listenerId = container.getListenerId();
+                if (listenerId == null || listenerId.isBlank()) {
+                    throw new IllegalStateException("oneself.kafka.consumer-static-membership-enabled requires every "
+                            + "listener container to have an id, e.g. @KafkaListener(id = ...)");
+                }
+                consumerProperties.setProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG,
+                        sanitizeInstanceId(instanceId + "-" + listenerId));
+            }
+        });
+    }
+
+    /**
+     * 实例标识（静态成员、事务 ID 前缀）：配置值，或环境变量 POD_NAME/HOSTNAME，或主机名。
+     */
+    private String resolveInstanceIdentity(String configured, String property) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+        for (String variable : new String[]{"POD_NAME", "HOSTNAME"}) {
+            String value = System.getenv(variable);
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            throw new IllegalStateException("Cannot resolve instance identity, please configure " + property, ex);
+        }
+    }
+
+    /**
+     * group.instance.id 仅允许 [a-zA-Z0-9._-]，长度不超过 249；Spring 会为并发子容器追加 -n 后缀。
+     */
+    private String sanitizeInstanceId(String id) {
+        String sanitized = id.replaceAll("[^a-zA-Z0-9._-]", "-");
+        return sanitized.length() > 240 ? sanitized.substring(0, 240) : sanitized;
+    }
+
+    private String assignorClassName(OneselfKafkaProperties.AssignmentStrategy strategy) {
+        if (strategy == null) {
+            return null;
+        }
+        return switch (strategy) {
+            case DEFAULT -> null;
+            case RANGE -> RangeAssignor.class.getName();
+            case ROUND_ROBIN -> RoundRobinAssignor.class.getName();
+            case STICKY -> StickyAssignor.class.getName();
+            case COOPERATIVE_STICKY -> CooperativeStickyAssignor.class.getName();
+        };
     }
 
     private ContainerProperties.AckMode parseAckMode(String value) {
@@ -209,6 +710,32 @@ public class OneselfKafkaAutoConfiguration {
         return ContainerProperties.AckMode.valueOf(normalized);
     }
 
+    /**
+     * 生产者基础配置（幂等与非幂等共用）。
+     */
+    private Map<String, Object> buildProducerConfigs(KafkaProperties kafkaProperties, OneselfKafkaProperties properties,
+                                                     boolean idempotent) {
+        Map<String, Object> configs = kafkaProperties.buildProducerProperties();
+        applyConnectionSettings(configs, properties);
+        if (idempotent) {
+            configs.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            configs.putIfAbsent(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        }
+        configs.putIfAbsent(ProducerConfig.ACKS_CONFIG, properties.getProducerAcks());
+        configs.putIfAbsent(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG,
+                (int) properties.getProducerDeliveryTimeout().toMillis());
+        configs.putIfAbsent(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG,
+                (int) properties.getProducerRequestTimeout().toMillis());
+        configs.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG,
+                (int) properties.getProducerLinger().toMillis());
+        configs.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, properties.getProducerBatchSize());
+        configs.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getProducerCompressionType());
+        if (properties.getProducerClientId() != null && !properties.getProducerClientId().isBlank()) {
+            configs.putIfAbsent(ProducerConfig.CLIENT_ID_CONFIG, properties.getProducerClientId());
+        }
+        return configs;
+    }
+
     /**
      * 应用统一连接参数。
      */
@@ -239,14 +766,19 @@ public class OneselfKafkaAutoConfiguration {
         }
     }
 
-    private Class<?> loadClass(String className) {
+    private Class<? extends Exception> requireExceptionClass(String className) {
         if (className == null || className.isBlank()) {
-            return null;
+            throw new IllegalStateException("Blank exception class name in oneself.kafka error handling config");
         }
+        Class<?> target;
         try {
-            return Class.forName(className);
-        } catch (ClassNotFoundException ex) {
-            return null;
+            target = ClassUtils.forName(className.trim(), getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError ex) {
+            throw new IllegalStateException("Exception class not found: " + className, ex);
+        }
+        if (!Exception.class.isAssignableFrom(target)) {
+            throw new IllegalStateException("Configured class is not an Exception: " + className);
         }
+        return target.asSubclass(Exception.class);
     }
 }
@@ -0,0 +1,91 @@
+package com.oneself.kafka.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oneself.kafka.core.JacksonKafkaPayloadCodec;
+import com.oneself.kafka.core.KafkaCodecRegistry;
+import com.oneself.kafka.core.KafkaEnvelopeCodec;
+import com.oneself.kafka.core.KafkaEnvelopeDeserializer;
+import com.oneself.kafka.core.KafkaEnvelopeSerializer;
+import com.oneself.kafka.core.KafkaPayloadCodec;
+import com.oneself.kafka.core.KafkaSchemaRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Envelope 编解码自动装配（需要 Jackson）。
+ */
+@AutoConfiguration(before = OneselfKafkaAutoConfiguration.class)
+@ConditionalOnClass(name = "com.fasterxml.jackson.databind.ObjectMapper")
+@ConditionalOnProperty(prefix = "oneself.kafka", name = "codec-enabled", havingValue = "true")
+public class OneselfKafkaCodecAutoConfiguration {
+
+    /**
+     * payload 类型注册表。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaSchemaRegistry kafkaSchemaRegistry(OneselfKafkaProperties properties) {
+        KafkaSchemaRegistry registry = new KafkaSchemaRegistry(properties.getCodecTrustedPackages());
+        properties.getCodecSchemas().forEach((schemaId, className) -> {
+            try {
+                registry.register(schemaId, ClassUtils.forName(className, null));
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("Kafka codec schema class not found: " + className, ex);
+            }
+        });
+        return registry;
+    }
+
+    /**
+     * payload 编码注册表，内置 json/cbor/smile 并合并应用侧自定义编码。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaCodecRegistry kafkaCodecRegistry(OneselfKafkaProperties properties,
+                                                 ObjectProvider<KafkaPayloadCodec> customCodecs) {
+        List<KafkaPayloadCodec> codecs = new ArrayList<>();
+        codecs.add(JacksonKafkaPayloadCodec.json());
+        if (ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper", null)) {
+            codecs.add(JacksonKafkaPayloadCodec.cbor());
+        }
+        if (ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.databind.SmileMapper", null)) {
+            codecs.add(JacksonKafkaPayloadCodec.smile());
+        }
+        customCodecs.orderedStream().forEach(codecs::add);
+        return new KafkaCodecRegistry(codecs, properties.getCodec(), properties.getTopicCodecs());
+    }
+
+    /**
+     * Envelope 二进制编解码。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaEnvelopeCodec kafkaEnvelopeCodec(KafkaCodecRegistry codecRegistry, KafkaSchemaRegistry schemaRegistry) {
+        return new KafkaEnvelopeCodec(codecRegistry, schemaRegistry, JacksonKafkaPayloadCodec.json());
+    }
+
+    /**
+     * Envelope 序列化器，由生产者工厂使用。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaEnvelopeSerializer kafkaEnvelopeSerializer(KafkaEnvelopeCodec envelopeCodec) {
+        return new KafkaEnvelopeSerializer(envelopeCodec);
+    }
+
+    /**
+     * Envelope 反序列化器，由消费者工厂使用。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaEnvelopeDeserializer kafkaEnvelopeDeserializer(KafkaEnvelopeCodec envelopeCodec) {
+        return new KafkaEnvelopeDeserializer(envelopeCodec);
+    }
+}
@@ -4,6 +4,8 @@ import com.oneself.kafka.core.DbKafkaIdempotentExecutor;
 import com.oneself.kafka.core.JdbcKafkaIdempotentRepository;
 import com.oneself.kafka.core.KafkaIdempotentExecutor;
 import com.oneself.kafka.core.KafkaIdempotentRepository;
+import com.oneself.kafka.core.KafkaMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -33,8 +35,10 @@ public class OneselfKafkaJdbcAutoConfiguration {
     @ConditionalOnMissingBean(KafkaIdempotentExecutor.class)
     @ConditionalOnProperty(prefix = "oneself.kafka", name = "idempotent-store", havingValue = "DB")
     public KafkaIdempotentExecutor dbKafkaIdempotentExecutor(KafkaIdempotentRepository repository,
-                                                             OneselfKafkaProperties properties) {
+                                                             OneselfKafkaProperties properties,
+                                                             ObjectProvider<KafkaMetrics> metrics) {
         String groupId = properties.getConsumerGroupId() == null ? "unknown" : properties.getConsumerGroupId();
-        return new DbKafkaIdempotentExecutor(repository, groupId);
+        return OneselfKafkaAutoConfiguration.metered(new DbKafkaIdempotentExecutor(repository, groupId),
+                metrics.getIfAvailable());
     }
 }
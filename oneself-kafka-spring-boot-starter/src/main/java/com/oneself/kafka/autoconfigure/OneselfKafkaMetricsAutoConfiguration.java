@@ -0,0 +1,146 @@
+package com.oneself.kafka.autoconfigure;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.oneself.kafka.core.KafkaAdaptiveBatchController;
+import com.oneself.kafka.core.KafkaExactlyOnceSupport;
+import com.oneself.kafka.core.KafkaLagMonitor;
+import com.oneself.kafka.core.KafkaMetrics;
+import com.oneself.kafka.core.KafkaProducerPool;
+import com.oneself.kafka.core.MicrometerKafkaMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+/**
+ * Kafka 指标自动装配（需要 Micrometer）：客户端指标绑定、Starter 耗时指标、消费 lag 与自适应批大小决策。
+ */
+@AutoConfiguration(before = OneselfKafkaAutoConfiguration.class)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "oneself.kafka", name = "metrics-enabled", havingValue = "true")
+public class OneselfKafkaMetricsAutoConfiguration {
+
+    /**
+     * Starter 指标。
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaMetrics kafkaMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MicrometerKafkaMetrics(meterRegistry);
+    }
+
+    /**
+     * 为生产者/消费者工厂绑定客户端指标。
+     */
+    @Bean
+    public static BeanPostProcessor kafkaMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                MeterRegistry registry = bean instanceof DefaultKafkaProducerFactory<?, ?>
+                        || bean instanceof DefaultKafkaConsumerFactory<?, ?>
+                        || bean instanceof KafkaProducerPool
+                        || bean instanceof KafkaExactlyOnceSupport
+                        || bean instanceof KafkaAdaptiveBatchController ? meterRegistry.getIfAvailable() : null;
+                if (registry == null) {
+                    return bean;
+                }
+                if (bean instanceof DefaultKafkaProducerFactory<?, ?> factory) {
+                    bindProducer(factory, registry);
+                } else if (bean instanceof DefaultKafkaConsumerFactory<?, ?> factory) {
+                    bindConsumer(factory, registry);
+                } else if (bean instanceof KafkaProducerPool pool) {
+                    pool.addListener(new MicrometerProducerListener<>(registry));
+                } else if (bean instanceof KafkaExactlyOnceSupport exactlyOnce) {
+                    exactlyOnce.addListener(new MicrometerProducerListener<>(registry));
+                } else if (bean instanceof KafkaAdaptiveBatchController controller) {
+                    bindAdaptive(controller, registry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 消费 lag 采集（基于本实例监听容器分配的分区）。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oneself.kafka", name = "metrics-lag-enabled", havingValue = "true", matchIfMissing = true)
+    public KafkaLagMonitor kafkaLagMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                                           ObjectProvider<ConsumerFactory<?, ?>> consumerFactory,
+                                           ObjectProvider<KafkaListenerEndpointRegistry> endpointRegistry,
+                                           OneselfKafkaProperties properties) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        ConsumerFactory<?, ?> factory = consumerFactory.getIfAvailable();
+        if (registry == null || factory == null) {
+            throw new IllegalStateException("Kafka lag metrics require a MeterRegistry and a ConsumerFactory");
+        }
+        Map<String, Object> configs = new HashMap<>();
+        factory.getConfigurationProperties().forEach((key, value) -> {
+            if (AdminClientConfig.configNames().contains(key)) {
+                configs.put(key, value);
+            }
+        });
+        configs.put(AdminClientConfig.CLIENT_ID_CONFIG, "oneself-kafka-lag");
+        return new KafkaLagMonitor(Admin.create(configs), registry, () -> {
+            KafkaListenerEndpointRegistry listenerRegistry = endpointRegistry.getIfAvailable();
+            return listenerRegistry == null ? List.of() : listenerRegistry.getAllListenerContainers();
+        }, properties.getMetricsLagInterval());
+    }
+
+    private static void bindAdaptive(KafkaAdaptiveBatchController controller, MeterRegistry registry) {
+        Gauge.builder("oneself.kafka.adaptive.limit", controller, KafkaAdaptiveBatchController::currentLimit)
+                .register(registry);
+        TimeGauge.builder("oneself.kafka.adaptive.record.time", controller, TimeUnit.NANOSECONDS,
+                KafkaAdaptiveBatchController::recordNanos).register(registry);
+        TimeGauge.builder("oneself.kafka.adaptive.batch.time", controller, TimeUnit.NANOSECONDS,
+                KafkaAdaptiveBatchController::lastBatchNanos).register(registry);
+        TimeGauge.builder("oneself.kafka.adaptive.budget", controller, TimeUnit.NANOSECONDS,
+                KafkaAdaptiveBatchController::budgetNanos).register(registry);
+        FunctionCounter.builder("oneself.kafka.adaptive.records", controller,
+                KafkaAdaptiveBatchController::processedRecords).register(registry);
+        FunctionCounter.builder("oneself.kafka.adaptive.rewound", controller,
+                KafkaAdaptiveBatchController::rewoundRecords).register(registry);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void bindProducer(DefaultKafkaProducerFactory factory, MeterRegistry registry) {
+        for (Object listener : factory.getListeners()) {
+            if (listener instanceof MicrometerProducerListener) {
+                return;
+            }
+        }
+        factory.addListener(new MicrometerProducerListener<>(registry));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void bindConsumer(DefaultKafkaConsumerFactory factory, MeterRegistry registry) {
+        for (Object listener : factory.getListeners()) {
+            if (listener instanceof MicrometerConsumerListener) {
+                return;
+            }
+        }
+        factory.addListener(new MicrometerConsumerListener<>(registry));
+    }
+}
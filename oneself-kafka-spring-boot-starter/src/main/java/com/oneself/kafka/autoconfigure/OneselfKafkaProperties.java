@@ -88,6 +88,76 @@ public class OneselfKafkaProperties {
      */
     private String dlqSuffix = "dlq";
 
+    /**
+     * 最大重试次数（为空则等于重试 topic 档位数，超出档位后复用最后一档并指数退避）。
+     */
+    private Integer retryMaxAttempts;
+
+    /**
+     * 超出档位后的退避倍数。
+     */
+    private double retryBackoffMultiplier = 2.0;
+
+    /**
+     * 重试延迟抖动比例（0~1）。
+     */
+    private double retryJitter = 0.1;
+
+    /**
+     * 单次重试最大延迟。
+     */
+    private java.time.Duration retryMaxDelay = java.time.Duration.ofHours(6);
+
+    /**
+     * 是否启用重试 topic 消费者（按到期时间暂停/恢复分区并回投原监听器）。
+     */
+    private boolean retryConsumerEnabled = false;
+
+    /**
+     * 重试消费者 groupId（为空则为消费组 + ".retry"）。
+     */
+    private String retryConsumerGroupId;
+
+    /**
+     * 重试 topic 订阅正则。
+     */
+    private String retryConsumerTopicPattern = ".+\\.retry\\.[0-9]+[a-z]+";
+
+    /**
+     * 重试消费者并发数。
+     */
+    private Integer retryConsumerConcurrency;
+
+    /**
+     * 重试/死信转发最大在途发送数（超过时等待，防止故障期间压垮生产者）。
+     */
+    private int recovererMaxInFlight = 1000;
+
+    /**
+     * 等待转发发送名额的最长时间（超时视为转发失败，记录回退重投）。
+     */
+    private java.time.Duration recovererSendTimeout = java.time.Duration.ofSeconds(30);
+
+    /**
+     * 是否启用 DLQ 重放（KafkaDlqReplayer 与 actuator 端点 kafkadlq）。
+     */
+    private boolean replayEnabled = false;
+
+    /**
+     * 重放检查点 groupId 前缀（实际为前缀 + "." + DLQ topic）。
+     */
+    private String replayGroupIdPrefix = "oneself-dlq-replay";
+
+    /**
+     * 默认每秒重放条数（小于等于 0 不限速）。
+     */
+    private int replayRatePerSecond = 200;
+
+    /**
+     * 每批读取条数（每批发送确认后提交检查点）。
+     */
+    private int replayBatchSize = 500;
+
     /**
      * 本地重试次数（不含首次）。
      */
@@ -103,6 +173,111 @@ public class OneselfKafkaProperties {
      */
     private String[] nonRetryableExceptions = new String[0];
 
+    /**
+     * 本地重试退避策略。
+     */
+    private BackoffStrategy localRetryBackoffStrategy = BackoffStrategy.FIXED;
+
+    /**
+     * 指数退避倍数。
+     */
+    private double localRetryMultiplier = 2.0;
+
+    /**
+     * 单次本地重试最大间隔（指数/抖动策略）。
+     */
+    private java.time.Duration localRetryMaxBackoff = java.time.Duration.ofSeconds(30);
+
+    /**
+     * 本地重试累计最大等待时间（为空不限制）。
+     */
+    private java.time.Duration localRetryMaxElapsed;
+
+    /**
+     * 按异常类名配置的重试策略（匹配异常及其 cause 链上最具体的类型）。
+     */
+    private java.util.Map<String, ExceptionPolicy> exceptionPolicies = new java.util.LinkedHashMap<>();
+
+    /**
+     * 是否启用消费熔断（失败率超过阈值时暂停容器）。
+     */
+    private boolean circuitBreakerEnabled = false;
+
+    /**
+     * 熔断统计窗口（最近处理次数）。
+     */
+    private int circuitBreakerWindowSize = 100;
+
+    /**
+     * 熔断最少统计次数。
+     */
+    private int circuitBreakerMinimumCalls = 20;
+
+    /**
+     * 熔断失败率阈值（0~1）。
+     */
+    private double circuitBreakerFailureRateThreshold = 0.5;
+
+    /**
+     * 熔断后暂停时长。
+     */
+    private java.time.Duration circuitBreakerOpenDuration = java.time.Duration.ofSeconds(30);
+
+    /**
+     * 是否启用生产端微批发送（KafkaBatchingOps）。
+     */
+    private boolean batchingEnabled = false;
+
+    /**
+     * 微批环形队列容量（向上取 2 的幂）。
+     */
+    private int batchingRingCapacity = 8192;
+
+    /**
+     * 单个 (topic, key) 批的最大事件数。
+     */
+    private int batchingMaxBatchSize = 100;
+
+    /**
+     * 批的最长等待时间。
+     */
+    private java.time.Duration batchingLinger = java.time.Duration.ofMillis(5);
+
+    /**
+     * 是否将同批事件打包为一条记录（消费端需拆包）。
+     */
+    private boolean batchingPackEnabled = false;
+
+    /**
+     * 队列满时调用方的最长等待时间。
+     */
+    private java.time.Duration batchingOfferTimeout = java.time.Duration.ofSeconds(1);
+
+    /**
+     * 是否启用按 topic 分组的生产者池。
+     */
+    private boolean producerPoolsEnabled = false;
+
+    /**
+     * 生产者池（key 为池名称），未匹配的 topic 使用默认生产者。
+     */
+    private java.util.Map<String, ProducerPool> producerPools = new java.util.LinkedHashMap<>();
+
+    /**
+     * 是否启用指标采集（需要 Micrometer）。
+     */
+    private boolean metricsEnabled = false;
+
+    /**
+     * 是否采集消费 lag（metrics-enabled 开启时生效）。
+     */
+    private boolean metricsLagEnabled = true;
+
+    /**
+     * 消费 lag 采集间隔。
+     */
+    private java.time.Duration metricsLagInterval = java.time.Duration.ofSeconds(30);
+
     /**
      * 是否启用 Outbox（仅提供模型与接口）。
      */
@@ -208,6 +383,41 @@ public class OneselfKafkaProperties {
      */
     private String consumerIsolationLevel = "read_committed";
 
+    /**
+     * 消费者分区分配策略（partition.assignment.strategy）。
+     */
+    private AssignmentStrategy consumerAssignmentStrategy = AssignmentStrategy.COOPERATIVE_STICKY;
+
+    /**
+     * 是否启用静态成员（group.instance.id），重启在 session.timeout 内不触发再均衡。
+     */
+    private boolean consumerStaticMembershipEnabled = false;
+
+    /**
+     * 静态成员标识前缀，为空时依次取环境变量 POD_NAME、HOSTNAME 与主机名。
+     */
+    private String consumerGroupInstanceId;
+
+    /**
+     * 是否启用 Exactly-once 消费-转换-生产模式（事务型生产者 + EOS 监听容器）。
+     */
+    private boolean eosEnabled = false;
+
+    /**
+     * 事务 ID 前缀，需在实例间唯一，为空时取 client-id、实例标识与 "-tx-" 拼接。
+     */
+    private String eosTransactionIdPrefix;
+
+    /**
+     * EOS 容器是否按批消费（一次 poll 一个事务），关闭时每条记录一个事务。
+     */
+    private boolean eosBatchEnabled = true;
+
+    /**
+     * 事务超时（transaction.timeout.ms），需大于单批处理耗时。
+     */
+    private java.time.Duration eosTransactionTimeout = java.time.Duration.ofSeconds(60);
+
     /**
      * 监听器 ack 模式。
      */
@@ -238,6 +448,91 @@ public class OneselfKafkaProperties {
      */
     private String producerClientId;
 
+    /**
+     * 是否注册批量 Listener 容器工厂（kafkaBatchListenerContainerFactory）。
+     */
+    private boolean batchListenerEnabled = true;
+
+    /**
+     * 是否启用分区内并行消费（同 key 串行）。
+     */
+    private boolean parallelEnabled = false;
+
+    /**
+     * 并行消费工作线程数（为空则为 CPU 核数 * 2）。
+     */
+    private Integer parallelConcurrency;
+
+    /**
+     * 单分区最大在途记录数（达到上限时阻塞派发）。
+     */
+    private int parallelMaxInFlightPerPartition = 1000;
+
+    /**
+     * 分区回收/关闭时等待在途记录完成的最长时间。
+     */
+    private java.time.Duration parallelDrainTimeout = java.time.Duration.ofSeconds(30);
+
+    /**
+     * 无新消息时提交已完成 offset 的间隔。
+     */
+    private java.time.Duration parallelCommitInterval = java.time.Duration.ofSeconds(5);
+
+    /**
+     * 是否使用虚拟线程运行 Listener 容器与并行消费任务。
+     */
+    private boolean virtualThreadsEnabled = false;
+
+    /**
+     * 虚拟线程并行消费的最大并发任务数（保护下游 DB/HTTP）。
+     */
+    private int virtualThreadMaxConcurrency = 256;
+
+    /**
+     * 是否启用自适应批大小消费（kafkaAdaptiveListenerContainerFactory）。
+     */
+    private boolean adaptiveEnabled = false;
+
+    /**
+     * 单批处理延迟目标（不超过 max.poll.interval 的一半）。
+     */
+    private java.time.Duration adaptiveLatencyTarget = java.time.Duration.ofSeconds(2);
+
+    /**
+     * 自适应最小批大小。
+     */
+    private int adaptiveMinRecords = 10;
+
+    /**
+     * 自适应最大批大小，为空时等于 consumer-max-poll-records。
+     */
+    private Integer adaptiveMaxRecords;
+
+    /**
+     * 是否启用 Envelope 二进制编解码（替代 JSON 序列化器）。
+     */
+    private boolean codecEnabled = false;
+
+    /**
+     * 默认 payload 编码（json/cbor/smile 或自定义编码名称）。
+     */
+    private String codec = "json";
+
+    /**
+     * 按 topic 指定 payload 编码（topic -> 编码名称）。
+     */
+    private java.util.Map<String, String> topicCodecs = new java.util.LinkedHashMap<>();
+
+    /**
+     * payload schemaId 注册（schemaId -> 全限定类名），已注册类型仅写入 schemaId。
+     */
+    private java.util.Map<Integer, String> codecSchemas = new java.util.LinkedHashMap<>();
+
+    /**
+     * 按类名解析 payload 类型时的可信包（* 表示全部）。
+     */
+    private String[] codecTrustedPackages = new String[0];
+
     /**
      * 是否Enabled。
      */
@@ -365,143 +660,633 @@ public class OneselfKafkaProperties {
     }
 
     /**
-     * 获取SslKeystorePassword。
+     * 获取SslKeystorePassword。
+     */
+    public String getSslKeystorePassword() {
+        return sslKeystorePassword;
+    }
+
+    /**
+     * 设置SslKeystorePassword。
+     */
+    public void setSslKeystorePassword(String sslKeystorePassword) {
+        this.sslKeystorePassword = sslKeystorePassword;
+    }
+
+    /**
+     * 获取SchemaVersion。
+     */
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * 设置SchemaVersion。
+     */
+    public void setSchemaVersion(String schemaVersion) {
+        this.schemaVersion = schemaVersion;
+    }
+
+    /**
+     * 获取OrderedTopics。
+     */
+    public String[] getOrderedTopics() {
+        return orderedTopics;
+    }
+
+    /**
+     * 设置OrderedTopics。
+     */
+    public void setOrderedTopics(String[] orderedTopics) {
+        this.orderedTopics = orderedTopics;
+    }
+
+    /**
+     * 获取UnorderedKeyStrategy。
+     */
+    public UnorderedKeyStrategy getUnorderedKeyStrategy() {
+        return unorderedKeyStrategy;
+    }
+
+    /**
+     * 设置UnorderedKeyStrategy。
+     */
+    public void setUnorderedKeyStrategy(UnorderedKeyStrategy unorderedKeyStrategy) {
+        this.unorderedKeyStrategy = unorderedKeyStrategy;
+    }
+
+    /**
+     * 是否RetryEnabled。
+     */
+    public boolean isRetryEnabled() {
+        return retryEnabled;
+    }
+
+    /**
+     * 设置RetryEnabled。
+     */
+    public void setRetryEnabled(boolean retryEnabled) {
+        this.retryEnabled = retryEnabled;
+    }
+
+    /**
+     * 获取RetryTopicDelays。
+     */
+    public String[] getRetryTopicDelays() {
+        return retryTopicDelays;
+    }
+
+    /**
+     * 设置RetryTopicDelays。
+     */
+    public void setRetryTopicDelays(String[] retryTopicDelays) {
+        this.retryTopicDelays = retryTopicDelays;
+    }
+
+    /**
+     * 获取DlqSuffix。
+     */
+    public String getDlqSuffix() {
+        return dlqSuffix;
+    }
+
+    /**
+     * 设置DlqSuffix。
+     */
+    public void setDlqSuffix(String dlqSuffix) {
+        this.dlqSuffix = dlqSuffix;
+    }
+
+    /**
+     * 获取RetryMaxAttempts。
+     */
+    public Integer getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    /**
+     * 设置RetryMaxAttempts。
+     */
+    public void setRetryMaxAttempts(Integer retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    /**
+     * 获取RetryBackoffMultiplier。
+     */
+    public double getRetryBackoffMultiplier() {
+        return retryBackoffMultiplier;
+    }
+
+    /**
+     * 设置RetryBackoffMultiplier。
+     */
+    public void setRetryBackoffMultiplier(double retryBackoffMultiplier) {
+        this.retryBackoffMultiplier = retryBackoffMultiplier;
+    }
+
+    /**
+     * 获取RetryJitter。
+     */
+    public double getRetryJitter() {
+        return retryJitter;
+    }
+
+    /**
+     * 设置RetryJitter。
+     */
+    public void setRetryJitter(double retryJitter) {
+        this.retryJitter = retryJitter;
+    }
+
+    /**
+     * 获取RetryMaxDelay。
+     */
+    public java.time.Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    /**
+     * 设置RetryMaxDelay。
+     */
+    public void setRetryMaxDelay(java.time.Duration retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    /**
+     * 是否RetryConsumerEnabled。
+     */
+    public boolean isRetryConsumerEnabled() {
+        return retryConsumerEnabled;
+    }
+
+    /**
+     * 设置RetryConsumerEnabled。
+     */
+    public void setRetryConsumerEnabled(boolean retryConsumerEnabled) {
+        this.retryConsumerEnabled = retryConsumerEnabled;
+    }
+
+    /**
+     * 获取RetryConsumerGroupId。
+     */
+    public String getRetryConsumerGroupId() {
+        return retryConsumerGroupId;
+    }
+
+    /**
+     * 设置RetryConsumerGroupId。
+     */
+    public void setRetryConsumerGroupId(String retryConsumerGroupId) {
+        this.retryConsumerGroupId = retryConsumerGroupId;
+    }
+
+    /**
+     * 获取RetryConsumerTopicPattern。
+     */
+    public String getRetryConsumerTopicPattern() {
+        return retryConsumerTopicPattern;
+    }
+
+    /**
+     * 设置RetryConsumerTopicPattern。
+     */
+    public void setRetryConsumerTopicPattern(String retryConsumerTopicPattern) {
+        this.retryConsumerTopicPattern = retryConsumerTopicPattern;
+    }
+
+    /**
+     * 获取RetryConsumerConcurrency。
+     */
+    public Integer getRetryConsumerConcurrency() {
+        return retryConsumerConcurrency;
+    }
+
+    /**
+     * 设置RetryConsumerConcurrency。
+     */
+    public void setRetryConsumerConcurrency(Integer retryConsumerConcurrency) {
+        this.retryConsumerConcurrency = retryConsumerConcurrency;
+    }
+
+    /**
+     * 获取RecovererMaxInFlight。
+     */
+    public int getRecovererMaxInFlight() {
+        return recovererMaxInFlight;
+    }
+
+    /**
+     * 设置RecovererMaxInFlight。
+     */
+    public void setRecovererMaxInFlight(int recovererMaxInFlight) {
+        this.recovererMaxInFlight = recovererMaxInFlight;
+    }
+
+    /**
+     * 获取RecovererSendTimeout。
+     */
+    public java.time.Duration getRecovererSendTimeout() {
+        return recovererSendTimeout;
+    }
+
+    /**
+     * 设置RecovererSendTimeout。
+     */
+    public void setRecovererSendTimeout(java.time.Duration recovererSendTimeout) {
+        this.recovererSendTimeout = recovererSendTimeout;
+    }
+
+    /**
+     * 是否ReplayEnabled。
+     */
+    public boolean isReplayEnabled() {
+        return replayEnabled;
+    }
+
+    /**
+     * 设置ReplayEnabled。
+     */
+    public void setReplayEnabled(boolean replayEnabled) {
+        this.replayEnabled = replayEnabled;
+    }
+
+    /**
+     * 获取ReplayGroupIdPrefix。
+     */
+    public String getReplayGroupIdPrefix() {
+        return replayGroupIdPrefix;
+    }
+
+    /**
+     * 设置ReplayGroupIdPrefix。
+     */
+    public void setReplayGroupIdPrefix(String replayGroupIdPrefix) {
+        this.replayGroupIdPrefix = replayGroupIdPrefix;
+    }
+
+    /**
+     * 获取ReplayRatePerSecond。
+     */
+    public int getReplayRatePerSecond() {
+        return replayRatePerSecond;
+    }
+
+    /**
+     * 设置ReplayRatePerSecond。
+     */
+    public void setReplayRatePerSecond(int replayRatePerSecond) {
+        this.replayRatePerSecond = replayRatePerSecond;
+    }
+
+    /**
+     * 获取ReplayBatchSize。
+     */
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    /**
+     * 设置ReplayBatchSize。
+     */
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    /**
+     * 获取LocalRetryAttempts。
+     */
+    public int getLocalRetryAttempts() {
+        return localRetryAttempts;
+    }
+
+    /**
+     * 设置LocalRetryAttempts。
+     */
+    public void setLocalRetryAttempts(int localRetryAttempts) {
+        this.localRetryAttempts = localRetryAttempts;
+    }
+
+    /**
+     * 获取LocalRetryBackoff。
+     */
+    public java.time.Duration getLocalRetryBackoff() {
+        return localRetryBackoff;
+    }
+
+    /**
+     * 设置LocalRetryBackoff。
+     */
+    public void setLocalRetryBackoff(java.time.Duration localRetryBackoff) {
+        this.localRetryBackoff = localRetryBackoff;
+    }
+
+    /**
+     * 获取NonRetryableExceptions。
+     */
+    public String[] getNonRetryableExceptions() {
+        return nonRetryableExceptions;
+    }
+
+    /**
+     * 设置NonRetryableExceptions。
+     */
+    public void setNonRetryableExceptions(String[] nonRetryableExceptions) {
+        this.nonRetryableExceptions = nonRetryableExceptions;
+    }
+
+    /**
+     * 获取LocalRetryBackoffStrategy。
+     */
+    public BackoffStrategy getLocalRetryBackoffStrategy() {
+        return localRetryBackoffStrategy;
+    }
+
+    /**
+     * 设置LocalRetryBackoffStrategy。
+     */
+    public void setLocalRetryBackoffStrategy(BackoffStrategy localRetryBackoffStrategy) {
+        this.localRetryBackoffStrategy = localRetryBackoffStrategy;
+    }
+
+    /**
+     * 获取LocalRetryMultiplier。
+     */
+    public double getLocalRetryMultiplier() {
+        return localRetryMultiplier;
+    }
+
+    /**
+     * 设置LocalRetryMultiplier。
+     */
+    public void setLocalRetryMultiplier(double localRetryMultiplier) {
+        this.localRetryMultiplier = localRetryMultiplier;
+    }
+
+    /**
+     * 获取LocalRetryMaxBackoff。
+     */
+    public java.time.Duration getLocalRetryMaxBackoff() {
+        return localRetryMaxBackoff;
+    }
+
+    /**
+     * 设置LocalRetryMaxBackoff。
+     */
+    public void setLocalRetryMaxBackoff(java.time.Duration localRetryMaxBackoff) {
+        this.localRetryMaxBackoff = localRetryMaxBackoff;
+    }
+
+    /**
+     * 获取LocalRetryMaxElapsed。
+     */
+    public java.time.Duration getLocalRetryMaxElapsed() {
+        return localRetryMaxElapsed;
+    }
+
+    /**
+     * 设置LocalRetryMaxElapsed。
+     */
+    public void setLocalRetryMaxElapsed(java.time.Duration localRetryMaxElapsed) {
+        this.localRetryMaxElapsed = localRetryMaxElapsed;
+    }
+
+    /**
+     * 获取ExceptionPolicies。
+     */
+    public java.util.Map<String, ExceptionPolicy> getExceptionPolicies() {
+        return exceptionPolicies;
+    }
+
+    /**
+     * 设置ExceptionPolicies。
+     */
+    public void setExceptionPolicies(java.util.Map<String, ExceptionPolicy> exceptionPolicies) {
+        this.exceptionPolicies = exceptionPolicies;
+    }
+
+    /**
+     * 是否CircuitBreakerEnabled。
+     */
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * 设置CircuitBreakerEnabled。
+     */
+    public void setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+    }
+
+    /**
+     * 获取CircuitBreakerWindowSize。
+     */
+    public int getCircuitBreakerWindowSize() {
+        return circuitBreakerWindowSize;
+    }
+
+    /**
+     * 设置CircuitBreakerWindowSize。
+     */
+    public void setCircuitBreakerWindowSize(int circuitBreakerWindowSize) {
+        this.circuitBreakerWindowSize = circuitBreakerWindowSize;
+    }
+
+    /**
+     * 获取CircuitBreakerMinimumCalls。
+     */
+    public int getCircuitBreakerMinimumCalls() {
+        return circuitBreakerMinimumCalls;
+    }
+
+    /**
+     * 设置CircuitBreakerMinimumCalls。
+     */
+    public void setCircuitBreakerMinimumCalls(int circuitBreakerMinimumCalls) {
+        this.circuitBreakerMinimumCalls = circuitBreakerMinimumCalls;
+    }
+
+    /**
+     * 获取CircuitBreakerFailureRateThreshold。
+     */
+    public double getCircuitBreakerFailureRateThreshold() {
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    /**
+     * 设置CircuitBreakerFailureRateThreshold。
+     */
+    public void setCircuitBreakerFailureRateThreshold(double circuitBreakerFailureRateThreshold) {
+        this.circuitBreakerFailureRateThreshold = circuitBreakerFailureRateThreshold;
+    }
+
+    /**
+     * 获取CircuitBreakerOpenDuration。
+     */
+    public java.time.Duration getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * 设置CircuitBreakerOpenDuration。
+     */
+    public void setCircuitBreakerOpenDuration(java.time.Duration circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
+    /**
+     * 是否BatchingEnabled。
+     */
+    public boolean isBatchingEnabled() {
+        return batchingEnabled;
+    }
+
+    /**
+     * 设置BatchingEnabled。
+     */
+    public void setBatchingEnabled(boolean batchingEnabled) {
+        this.batchingEnabled = batchingEnabled;
+    }
+
+    /**
+     * 获取BatchingRingCapacity。
      */
-    public String getSslKeystorePassword() {
-        return sslKeystorePassword;
+    public int getBatchingRingCapacity() {
+        return batchingRingCapacity;
     }
 
     /**
-     * 设置SslKeystorePassword。
+     * 设置BatchingRingCapacity。
      */
-    public void setSslKeystorePassword(String sslKeystorePassword) {
-        this.sslKeystorePassword = sslKeystorePassword;
+    public void setBatchingRingCapacity(int batchingRingCapacity) {
+        this.batchingRingCapacity = batchingRingCapacity;
     }
 
     /**
-     * 获取SchemaVersion。
+     * 获取BatchingMaxBatchSize。
      */
-    public String getSchemaVersion() {
-        return schemaVersion;
+    public int getBatchingMaxBatchSize() {
+        return batchingMaxBatchSize;
     }
 
     /**
-     * 设置SchemaVersion。
+     * 设置BatchingMaxBatchSize。
      */
-    public void setSchemaVersion(String schemaVersion) {
-        this.schemaVersion = schemaVersion;
+    public void setBatchingMaxBatchSize(int batchingMaxBatchSize) {
+        this.batchingMaxBatchSize = batchingMaxBatchSize;
     }
 
     /**
-     * 获取OrderedTopics。
+     * 获取BatchingLinger。
      */
-    public String[] getOrderedTopics() {
-        return orderedTopics;
+    public java.time.Duration getBatchingLinger() {
+        return batchingLinger;
     }
 
     /**
-     * 设置OrderedTopics。
+     * 设置BatchingLinger。
      */
-    public void setOrderedTopics(String[] orderedTopics) {
-        this.orderedTopics = orderedTopics;
+    public void setBatchingLinger(java.time.Duration batchingLinger) {
+        this.batchingLinger = batchingLinger;
     }
 
     /**
-     * 获取UnorderedKeyStrategy。
+     * 是否BatchingPackEnabled。
      */
-    public UnorderedKeyStrategy getUnorderedKeyStrategy() {
-        return unorderedKeyStrategy;
+    public boolean isBatchingPackEnabled() {
+        return batchingPackEnabled;
     }
 
     /**
-     * 设置UnorderedKeyStrategy。
+     * 设置BatchingPackEnabled。
      */
-    public void setUnorderedKeyStrategy(UnorderedKeyStrategy unorderedKeyStrategy) {
-        this.unorderedKeyStrategy = unorderedKeyStrategy;
+    public void setBatchingPackEnabled(boolean batchingPackEnabled) {
+        this.batchingPackEnabled = batchingPackEnabled;
     }
 
     /**
-     * 是否RetryEnabled。
+     * 获取BatchingOfferTimeout。
      */
-    public boolean isRetryEnabled() {
-        return retryEnabled;
+    public java.time.Duration getBatchingOfferTimeout() {
+        return batchingOfferTimeout;
     }
 
     /**
-     * 设置RetryEnabled。
+     * 设置BatchingOfferTimeout。
      */
-    public void setRetryEnabled(boolean retryEnabled) {
-        this.retryEnabled = retryEnabled;
+    public void setBatchingOfferTimeout(java.time.Duration batchingOfferTimeout) {
+        this.batchingOfferTimeout = batchingOfferTimeout;
     }
 
     /**
-     * 获取RetryTopicDelays。
+     * 是否ProducerPoolsEnabled。
      */
-    public String[] getRetryTopicDelays() {
-        return retryTopicDelays;
+    public boolean isProducerPoolsEnabled() {
+        return producerPoolsEnabled;
     }
 
     /**
-     * 设置RetryTopicDelays。
+     * 设置ProducerPoolsEnabled。
      */
-    public void setRetryTopicDelays(String[] retryTopicDelays) {
-        this.retryTopicDelays = retryTopicDelays;
+    public void setProducerPoolsEnabled(boolean producerPoolsEnabled) {
+        this.producerPoolsEnabled = producerPoolsEnabled;
     }
 
     /**
-     * 获取DlqSuffix。
+     * 获取ProducerPools。
      */
-    public String getDlqSuffix() {
-        return dlqSuffix;
+    public java.util.Map<String, ProducerPool> getProducerPools() {
+        return producerPools;
     }
 
     /**
-     * 设置DlqSuffix。
+     * 设置ProducerPools。
      */
-    public void setDlqSuffix(String dlqSuffix) {
-        this.dlqSuffix = dlqSuffix;
+    public void setProducerPools(java.util.Map<String, ProducerPool> producerPools) {
+        this.producerPools = producerPools;
     }
 
     /**
-     * 获取LocalRetryAttempts。
+     * 是否MetricsEnabled。
      */
-    public int getLocalRetryAttempts() {
-        return localRetryAttempts;
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
     }
 
     /**
-     * 设置LocalRetryAttempts。
+     * 设置MetricsEnabled。
      */
-    public void setLocalRetryAttempts(int localRetryAttempts) {
-        this.localRetryAttempts = localRetryAttempts;
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
     }
 
     /**
-     * 获取LocalRetryBackoff。
+     * 是否MetricsLagEnabled。
      */
-    public java.time.Duration getLocalRetryBackoff() {
-        return localRetryBackoff;
+    public boolean isMetricsLagEnabled() {
+        return metricsLagEnabled;
     }
 
     /**
-     * 设置LocalRetryBackoff。
+     * 设置MetricsLagEnabled。
      */
-    public void setLocalRetryBackoff(java.time.Duration localRetryBackoff) {
-        this.localRetryBackoff = localRetryBackoff;
+    public void setMetricsLagEnabled(boolean metricsLagEnabled) {
+        this.metricsLagEnabled = metricsLagEnabled;
     }
 
     /**
-     * 获取NonRetryableExceptions。
+     * 获取MetricsLagInterval。
      */
-    public String[] getNonRetryableExceptions() {
-        return nonRetryableExceptions;
+    public java.time.Duration getMetricsLagInterval() {
+        return metricsLagInterval;
     }
 
     /**
-     * 设置NonRetryableExceptions。
+     * 设置MetricsLagInterval。
      */
-    public void setNonRetryableExceptions(String[] nonRetryableExceptions) {
-        this.nonRetryableExceptions = nonRetryableExceptions;
+    public void setMetricsLagInterval(java.time.Duration metricsLagInterval) {
+        this.metricsLagInterval = metricsLagInterval;
     }
 
     /**
@@ -798,6 +1583,104 @@ public class OneselfKafkaProperties {
         this.consumerIsolationLevel = consumerIsolationLevel;
     }
 
+    /**
+     * 获取ConsumerAssignmentStrategy。
+     */
+    public AssignmentStrategy getConsumerAssignmentStrategy() {
+        return consumerAssignmentStrategy;
+    }
+
+    /**
+     * 设置ConsumerAssignmentStrategy。
+     */
+    public void setConsumerAssignmentStrategy(AssignmentStrategy consumerAssignmentStrategy) {
+        this.consumerAssignmentStrategy = consumerAssignmentStrategy;
+    }
+
+    /**
+     * 是否ConsumerStaticMembershipEnabled。
+     */
+    public boolean isConsumerStaticMembershipEnabled() {
+        return consumerStaticMembershipEnabled;
+    }
+
+    /**
+     * 设置ConsumerStaticMembershipEnabled。
+     */
+    public void setConsumerStaticMembershipEnabled(boolean consumerStaticMembershipEnabled) {
+        this.consumerStaticMembershipEnabled = consumerStaticMembershipEnabled;
+    }
+
+    /**
+     * 获取ConsumerGroupInstanceId。
+     */
+    public String getConsumerGroupInstanceId() {
+        return consumerGroupInstanceId;
+    }
+
+    /**
+     * 设置ConsumerGroupInstanceId。
+     */
+    public void setConsumerGroupInstanceId(String consumerGroupInstanceId) {
+        this.consumerGroupInstanceId = consumerGroupInstanceId;
+    }
+
+    /**
+     * 是否EosEnabled。
+     */
+    public boolean isEosEnabled() {
+        return eosEnabled;
+    }
+
+    /**
+     * 设置EosEnabled。
+     */
+    public void setEosEnabled(boolean eosEnabled) {
+        this.eosEnabled = eosEnabled;
+    }
+
+    /**
+     * 获取EosTransactionIdPrefix。
+     */
+    public String getEosTransactionIdPrefix() {
+        return eosTransactionIdPrefix;
+    }
+
+    /**
+     * 设置EosTransactionIdPrefix。
+     */
+    public void setEosTransactionIdPrefix(String eosTransactionIdPrefix) {
+        this.eosTransactionIdPrefix = eosTransactionIdPrefix;
+    }
+
+    /**
+     * 是否EosBatchEnabled。
+     */
+    public boolean isEosBatchEnabled() {
+        return eosBatchEnabled;
+    }
+
+    /**
+     * 设置EosBatchEnabled。
+     */
+    public void setEosBatchEnabled(boolean eosBatchEnabled) {
+        this.eosBatchEnabled = eosBatchEnabled;
+    }
+
+    /**
+     * 获取EosTransactionTimeout。
+     */
+    public java.time.Duration getEosTransactionTimeout() {
+        return eosTransactionTimeout;
+    }
+
+    /**
+     * 设置EosTransactionTimeout。
+     */
+    public void setEosTransactionTimeout(java.time.Duration eosTransactionTimeout) {
+        this.eosTransactionTimeout = eosTransactionTimeout;
+    }
+
     /**
      * 获取ListenerAckMode。
      */
@@ -882,6 +1765,244 @@ public class OneselfKafkaProperties {
         this.producerClientId = producerClientId;
     }
 
+    /**
+     * 是否BatchListenerEnabled。
+     */
+    public boolean isBatchListenerEnabled() {
+        return batchListenerEnabled;
+    }
+
+    /**
+     * 设置BatchListenerEnabled。
+     */
+    public void setBatchListenerEnabled(boolean batchListenerEnabled) {
+        this.batchListenerEnabled = batchListenerEnabled;
+    }
+
+    /**
+     * 是否ParallelEnabled。
+     */
+    public boolean isParallelEnabled() {
+        return parallelEnabled;
+    }
+
+    /**
+     * 设置ParallelEnabled。
+     */
+    public void setParallelEnabled(boolean parallelEnabled) {
+        this.parallelEnabled = parallelEnabled;
+    }
+
+    /**
+     * 获取ParallelConcurrency。
+     */
+    public Integer getParallelConcurrency() {
+        return parallelConcurrency;
+    }
+
+    /**
+     * 设置ParallelConcurrency。
+     */
+    public void setParallelConcurrency(Integer parallelConcurrency) {
+        this.parallelConcurrency = parallelConcurrency;
+    }
+
+    /**
+     * 获取ParallelMaxInFlightPerPartition。
+     */
+    public int getParallelMaxInFlightPerPartition() {
+        return parallelMaxInFlightPerPartition;
+    }
+
+    /**
+     * 设置ParallelMaxInFlightPerPartition。
+     */
+    public void setParallelMaxInFlightPerPartition(int parallelMaxInFlightPerPartition) {
+        this.parallelMaxInFlightPerPartition = parallelMaxInFlightPerPartition;
+    }
+
+    /**
+     * 获取ParallelDrainTimeout。
+     */
+    public java.time.Duration getParallelDrainTimeout() {
+        return parallelDrainTimeout;
+    }
+
+    /**
+     * 设置ParallelDrainTimeout。
+     */
+    public void setParallelDrainTimeout(java.time.Duration parallelDrainTimeout) {
+        this.parallelDrainTimeout = parallelDrainTimeout;
+    }
+
+    /**
+     * 获取ParallelCommitInterval。
+     */
+    public java.time.Duration getParallelCommitInterval() {
+        return parallelCommitInterval;
+    }
+
+    /**
+     * 设置ParallelCommitInterval。
+     */
+    public void setParallelCommitInterval(java.time.Duration parallelCommitInterval) {
+        this.parallelCommitInterval = parallelCommitInterval;
+    }
+
+    /**
+     * 是否VirtualThreadsEnabled。
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * 设置VirtualThreadsEnabled。
+     */
+    public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    /**
+     * 获取VirtualThreadMaxConcurrency。
+     */
+    public int getVirtualThreadMaxConcurrency() {
+        return virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * 设置VirtualThreadMaxConcurrency。
+     */
+    public void setVirtualThreadMaxConcurrency(int virtualThreadMaxConcurrency) {
+        this.virtualThreadMaxConcurrency = virtualThreadMaxConcurrency;
+    }
+
+    /**
+     * 是否AdaptiveEnabled。
+     */
+    public boolean isAdaptiveEnabled() {
+        return adaptiveEnabled;
+    }
+
+    /**
+     * 设置AdaptiveEnabled。
+     */
+    public void setAdaptiveEnabled(boolean adaptiveEnabled) {
+        this.adaptiveEnabled = adaptiveEnabled;
+    }
+
+    /**
+     * 获取AdaptiveLatencyTarget。
+     */
+    public java.time.Duration getAdaptiveLatencyTarget() {
+        return adaptiveLatencyTarget;
+    }
+
+    /**
+     * 设置AdaptiveLatencyTarget。
+     */
+    public void setAdaptiveLatencyTarget(java.time.Duration adaptiveLatencyTarget) {
+        this.adaptiveLatencyTarget = adaptiveLatencyTarget;
+    }
+
+    /**
+     * 获取AdaptiveMinRecords。
+     */
+    public int getAdaptiveMinRecords() {
+        return adaptiveMinRecords;
+    }
+
+    /**
+     * 设置AdaptiveMinRecords。
+     */
+    public void setAdaptiveMinRecords(int adaptiveMinRecords) {
+        this.adaptiveMinRecords = adaptiveMinRecords;
+    }
+
+    /**
+     * 获取AdaptiveMaxRecords。
+     */
+    public Integer getAdaptiveMaxRecords() {
+        return adaptiveMaxRecords;
+    }
+
+    /**
+     * 设置AdaptiveMaxRecords。
+     */
+    public void setAdaptiveMaxRecords(Integer adaptiveMaxRecords) {
+        this.adaptiveMaxRecords = adaptiveMaxRecords;
+    }
+
+    /**
+     * 是否CodecEnabled。
+     */
+    public boolean isCodecEnabled() {
+        return codecEnabled;
+    }
+
+    /**
+     * 设置CodecEnabled。
+     */
+    public void setCodecEnabled(boolean codecEnabled) {
+        this.codecEnabled = codecEnabled;
+    }
+
+    /**
+     * 获取Codec。
+     */
+    public String getCodec() {
+        return codec;
+    }
+
+    /**
+     * 设置Codec。
+     */
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * 获取TopicCodecs。
+     */
+    public java.util.Map<String, String> getTopicCodecs() {
+        return topicCodecs;
+    }
+
+    /**
+     * 设置TopicCodecs。
+     */
+    public void setTopicCodecs(java.util.Map<String, String> topicCodecs) {
+        this.topicCodecs = topicCodecs;
+    }
+
+    /**
+     * 获取CodecSchemas。
+     */
+    public java.util.Map<Integer, String> getCodecSchemas() {
+        return codecSchemas;
+    }
+
+    /**
+     * 设置CodecSchemas。
+     */
+    public void setCodecSchemas(java.util.Map<Integer, String> codecSchemas) {
+        this.codecSchemas = codecSchemas;
+    }
+
+    /**
+     * 获取CodecTrustedPackages。
+     */
+    public String[] getCodecTrustedPackages() {
+        return codecTrustedPackages;
+    }
+
+    /**
+     * 设置CodecTrustedPackages。
+     */
+    public void setCodecTrustedPackages(String[] codecTrustedPackages) {
+        this.codecTrustedPackages = codecTrustedPackages;
+    }
+
     /**
      * 非顺序 topic 的 key 策略枚举。
      */
@@ -903,4 +2024,253 @@ public class OneselfKafkaProperties {
         /** DB 幂等。 */
         DB
     }
+
+    /**
+     * 本地重试退避策略枚举。
+     */
+    public enum BackoffStrategy {
+        /** 固定间隔。 */
+        FIXED,
+        /** 指数退避（叠加抖动）。 */
+        EXPONENTIAL,
+        /** 去相关抖动退避。 */
+        DECORRELATED_JITTER
+    }
+
+    /**
+     * 单个异常类型的重试策略，未配置的字段沿用全局本地重试配置。
+     */
+    public static class ExceptionPolicy {
+
+        /**
+         * 重试次数（0 表示不重试，直接转发）。
+         */
+        private Integer attempts;
+
+        /**
+         * 退避策略。
+         */
+        private BackoffStrategy strategy;
+
+        /**
+         * 初始间隔。
+         */
+        private java.time.Duration backoff;
+
+        /**
+         * 最大间隔。
+         */
+        private java.time.Duration maxBackoff;
+
+        /**
+         * 累计最大等待时间。
+         */
+        private java.time.Duration maxElapsed;
+
+        /**
+         * 获取Attempts。
+         */
+        public Integer getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * 设置Attempts。
+         */
+        public void setAttempts(Integer attempts) {
+            this.attempts = attempts;
+        }
+
+        /**
+         * 获取Strategy。
+         */
+        public BackoffStrategy getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * 设置Strategy。
+         */
+        public void setStrategy(BackoffStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        /**
+         * 获取Backoff。
+         */
+        public java.time.Duration getBackoff() {
+            return backoff;
+        }
+
+        /**
+         * 设置Backoff。
+         */
+        public void setBackoff(java.time.Duration backoff) {
+            this.backoff = backoff;
+        }
+
+        /**
+         * 获取MaxBackoff。
+         */
+        public java.time.Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        /**
+         * 设置MaxBackoff。
+         */
+        public void setMaxBackoff(java.time.Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * 获取MaxElapsed。
+         */
+        public java.time.Duration getMaxElapsed() {
+            return maxElapsed;
+        }
+
+        /**
+         * 设置MaxElapsed。
+         */
+        public void setMaxElapsed(java.time.Duration maxElapsed) {
+            this.maxElapsed = maxElapsed;
+        }
+    }
+
+    /**
+     * 生产者池配置，池内按分区将记录固定到某个生产者。
+     */
+    public static class ProducerPool {
+
+        /**
+         * 使用该池的 topic。
+         */
+        private java.util.List<String> topics = new java.util.ArrayList<>();
+
+        /**
+         * 池内生产者数量。
+         */
+        private int size = 2;
+
+        /**
+         * 批量等待时间（为空时沿用 producer-linger）。
+         */
+        private java.time.Duration linger;
+
+        /**
+         * 批量大小（为空时沿用 producer-batch-size）。
+         */
+        private Integer batchSize;
+
+        /**
+         * 压缩算法（为空时沿用 producer-compression-type）。
+         */
+        private String compressionType;
+
+        /**
+         * 单个生产者缓冲区字节数（为空时沿用客户端默认值）。
+         */
+        private Long bufferMemory;
+
+        /**
+         * 获取Topics。
+         */
+        public java.util.List<String> getTopics() {
+            return topics;
+        }
+
+        /**
+         * 设置Topics。
+         */
+        public void setTopics(java.util.List<String> topics) {
+            this.topics = topics;
+        }
+
+        /**
+         * 获取Size。
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * 设置Size。
+         */
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        /**
+         * 获取Linger。
+         */
+        public java.time.Duration getLinger() {
+            return linger;
+        }
+
+        /**
+         * 设置Linger。
+         */
+        public void setLinger(java.time.Duration linger) {
+            this.linger = linger;
+        }
+
+        /**
+         * 获取BatchSize。
+         */
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * 设置BatchSize。
+         */
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * 获取CompressionType。
+         */
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        /**
+         * 设置CompressionType。
+         */
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        /**
+         * 获取BufferMemory。
+         */
+        public Long getBufferMemory() {
+            return bufferMemory;
+        }
+
+        /**
+         * 设置BufferMemory。
+         */
+        public void setBufferMemory(Long bufferMemory) {
+            this.bufferMemory = bufferMemory;
+        }
+    }
+
+    /**
+     * 消费者分区分配策略。
+     */
+    public enum AssignmentStrategy {
+        /** 沿用客户端默认值（Range + CooperativeSticky）。 */
+        DEFAULT,
+        /** RangeAssignor（eager）。 */
+        RANGE,
+        /** RoundRobinAssignor（eager）。 */
+        ROUND_ROBIN,
+        /** StickyAssignor（eager）。 */
+        STICKY,
+        /** CooperativeStickyAssignor（增量协作式再均衡）。 */
+        COOPERATIVE_STICKY
+    }
 }
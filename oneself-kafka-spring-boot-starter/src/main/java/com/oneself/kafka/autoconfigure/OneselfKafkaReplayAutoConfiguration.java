@@ -0,0 +1,45 @@
+package com.oneself.kafka.autoconfigure;
+
+import com.oneself.kafka.actuate.KafkaDlqReplayEndpoint;
+import com.oneself.kafka.core.KafkaDlqReplayer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * DLQ 重放自动装配。
+ */
+@AutoConfiguration(after = OneselfKafkaAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "oneself.kafka", name = "replay-enabled", havingValue = "true")
+public class OneselfKafkaReplayAutoConfiguration {
+
+    /**
+     * DLQ 重放器。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public KafkaDlqReplayer kafkaDlqReplayer(ConsumerFactory<?, ?> consumerFactory,
+                                             ProducerFactory<?, ?> producerFactory,
+                                             OneselfKafkaProperties properties) {
+        return new KafkaDlqReplayer(consumerFactory, producerFactory, properties);
+    }
+
+    /**
+     * Actuator 端点（需引入 spring-boot-actuator）。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        KafkaDlqReplayEndpoint kafkaDlqReplayEndpoint(KafkaDlqReplayer replayer) {
+            return new KafkaDlqReplayEndpoint(replayer);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.oneself.kafka.autoconfigure;
+
+import java.util.regex.Pattern;
+
+import com.oneself.kafka.core.KafkaRetryTopicDispatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.kafka.autoconfigure.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * 重试 topic 消费者自动装配：订阅重试 topic，按到期时间暂停/恢复分区并回投原始监听器。
+ */
+@AutoConfiguration(after = OneselfKafkaAutoConfiguration.class)
+@ConditionalOnBean(ConsumerRecordRecoverer.class)
+@ConditionalOnProperty(prefix = "oneself.kafka", name = "retry-consumer-enabled", havingValue = "true")
+public class OneselfKafkaRetryConsumerAutoConfiguration {
+
+    /**
+     * 重试 topic 调度器。
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public KafkaRetryTopicDispatcher kafkaRetryTopicDispatcher(ObjectProvider<KafkaListenerEndpointRegistry> registry,
+                                                               ConsumerRecordRecoverer recoverer) {
+        return new KafkaRetryTopicDispatcher(registry::getIfAvailable, recoverer);
+    }
+
+    /**
+     * 重试 topic 消费容器（按正则订阅，offset 由调度器提交）。
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaRetryListenerContainer")
+    public ConcurrentMessageListenerContainer<Object, Object> kafkaRetryListenerContainer(
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaRetryTopicDispatcher dispatcher,
+            OneselfKafkaProperties properties,
+            KafkaProperties kafkaProperties) {
+        ContainerProperties containerProperties =
+                new ContainerProperties(Pattern.compile(properties.getRetryConsumerTopicPattern()));
+        containerProperties.setGroupId(resolveGroupId(properties, kafkaProperties));
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setMessageListener(dispatcher);
+        ConcurrentMessageListenerContainer<Object, Object> container =
+                new ConcurrentMessageListenerContainer<>(consumerFactory, containerProperties);
+        if (properties.getRetryConsumerConcurrency() != null) {
+            container.setConcurrency(properties.getRetryConsumerConcurrency());
+        }
+        dispatcher.setContainer(container);
+        return container;
+    }
+
+    private String resolveGroupId(OneselfKafkaProperties properties, KafkaProperties kafkaProperties) {
+        if (properties.getRetryConsumerGroupId() != null && !properties.getRetryConsumerGroupId().isBlank()) {
+            return properties.getRetryConsumerGroupId();
+        }
+        String groupId = properties.getConsumerGroupId();
+        if (groupId == null || groupId.isBlank()) {
+            groupId = kafkaProperties.getConsumer().getGroupId();
+        }
+        if (groupId == null || groupId.isBlank()) {
+            throw new IllegalStateException(
+                    "oneself.kafka.retry-consumer-group-id or a consumer group id is required for the retry consumer");
+        }
+        return groupId + ".retry";
+    }
+}
@@ -1,5 +1,11 @@
 package com.oneself.kafka.core;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -33,4 +39,91 @@ public class DbKafkaIdempotentExecutor implements KafkaIdempotentExecutor {
             throw ex;
         }
     }
+
+    /**
+     * 仓储支持释放占位时一次批量插入占位、一次批量标记完成；否则逐条占位与提交，失败时无需释放。
+     */
+    @Override
+    public <M> void executeBatch(List<M> items, Function<? super M, KafkaIdempotentRecord> recordResolver,
+                                 Consumer<? super M> action, Consumer<? super M> onDuplicate) {
+        if (!(repository instanceof KafkaReleasableIdempotentRepository releasable)) {
+            for (M item : items) {
+                executeOne(item, recordResolver.apply(item), action, onDuplicate);
+            }
+            return;
+        }
+        List<KafkaIdempotentRecord> records = new ArrayList<>(items.size());
+        List<KafkaIdempotentRecord> candidates = new ArrayList<>(items.size());
+        for (M item : items) {
+            KafkaIdempotentRecord record = recordResolver.apply(item);
+            boolean idempotent = record != null && record.idempotent();
+            records.add(idempotent ? record : null);
+            if (idempotent) {
+                candidates.add(record);
+            }
+        }
+        Set<String> acquired = candidates.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(releasable.tryInsertAll(candidates, consumerGroup));
+        List<String> done = new ArrayList<>(acquired.size());
+        String processing = null;
+        try {
+            for (int index = 0; index < items.size(); index++) {
+                M item = items.get(index);
+                KafkaIdempotentRecord record = records.get(index);
+                if (record == null) {
+                    action.accept(item);
+                    continue;
+                }
+                if (!acquired.remove(record.eventId())) {
+                    onDuplicate.accept(item);
+                    continue;
+                }
+                processing = record.eventId();
+                action.accept(item);
+                done.add(record.eventId());
+                processing = null;
+            }
+        } catch (RuntimeException ex) {
+            String failed = processing;
+            if (failed != null) {
+                cleanup(ex, () -> releasable.markFailed(failed, ex.getMessage()));
+            }
+            cleanup(ex, () -> releasable.markDoneAll(done));
+            cleanup(ex, () -> releasable.releaseAll(acquired));
+            throw ex;
+        }
+        releasable.markDoneAll(done);
+    }
+
+    private <M> void executeOne(M item, KafkaIdempotentRecord record, Consumer<? super M> action,
+                                Consumer<? super M> onDuplicate) {
+        if (record == null || !record.idempotent()) {
+            action.accept(item);
+            return;
+        }
+        if (!repository.tryInsert(record.eventId(), consumerGroup, record.topic(), record.partition(),
+                record.offset())) {
+            onDuplicate.accept(item);
+            return;
+        }
+        try {
+            action.accept(item);
+        } catch (RuntimeException ex) {
+            cleanup(ex, () -> repository.markFailed(record.eventId(), ex.getMessage()));
+            throw ex;
+        }
+        repository.markDone(record.eventId());
+    }
+
+    /**
+     * 失败路径上的仓储操作异常挂在原始异常上，不覆盖监听器异常及其重试分类。
+     */
+    private void cleanup(RuntimeException original, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException ex) {
+            original.addSuppressed(ex);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package com.oneself.kafka.core;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * 基于 Jackson 的 payload 编解码（JSON / CBOR / Smile）。
+ */
+public class JacksonKafkaPayloadCodec implements KafkaPayloadCodec {
+
+    public static final byte JSON_ID = 1;
+    public static final byte CBOR_ID = 2;
+    public static final byte SMILE_ID = 3;
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper mapper;
+
+    public JacksonKafkaPayloadCodec(byte id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        this.mapper = configure(mapper);
+    }
+
+    /**
+     * JSON 编码（兼容旧消息）。
+     */
+    public static JacksonKafkaPayloadCodec json() {
+        return new JacksonKafkaPayloadCodec(JSON_ID, "json", new ObjectMapper());
+    }
+
+    /**
+     * CBOR 二进制编码（需引入 jackson-dataformat-cbor）。
+     */
+    public static JacksonKafkaPayloadCodec cbor() {
+        return new JacksonKafkaPayloadCodec(CBOR_ID, "cbor", new CBORMapper());
+    }
+
+    /**
+     * Smile 二进制编码（需引入 jackson-dataformat-smile）。
+     */
+    public static JacksonKafkaPayloadCodec smile() {
+        return new JacksonKafkaPayloadCodec(SMILE_ID, "smile", new SmileMapper());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        try {
+            return mapper.writeValueAsBytes(payload);
+        } catch (IOException ex) {
+            throw new SerializationException("Failed to encode payload with " + name, ex);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] data, int offset, int length, Class<?> type) {
+        Class<?> target = type == null ? Object.class : type;
+        try {
+            return mapper.readValue(data, offset, length, target);
+        } catch (IOException ex) {
+            throw new SerializationException("Failed to decode payload with " + name, ex);
+        }
+    }
+
+    /**
+     * 将通用结构转换为目标类型。
+     */
+    public Object convert(Object value, Class<?> type) {
+        if (value == null || type == null || type.isInstance(value)) {
+            return value;
+        }
+        return mapper.convertValue(value, type);
+    }
+
+    private ObjectMapper configure(ObjectMapper target) {
+        target.findAndRegisterModules();
+        target.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        target.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        target.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        return target;
+    }
+}
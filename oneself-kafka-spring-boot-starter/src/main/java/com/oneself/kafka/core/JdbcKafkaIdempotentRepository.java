@@ -1,14 +1,29 @@
 package com.oneself.kafka.core;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * JDBC 幂等记录仓储（基于唯一键约束）。
  */
-public class JdbcKafkaIdempotentRepository implements KafkaIdempotentRepository {
+public class JdbcKafkaIdempotentRepository implements KafkaReleasableIdempotentRepository {
+
+    private static final int IN_CLAUSE_CHUNK = 500;
 
     private final JdbcTemplate jdbcTemplate;
     private final String tableName;
@@ -20,9 +35,7 @@ public class JdbcKafkaIdempotentRepository implements KafkaIdempotentRepository
 
     @Override
     public boolean tryInsert(String eventId, String groupId, String topic, int partition, long offset) {
-        String sql = "INSERT INTO " + tableName
-                + " (event_id, consumer_group, topic, partition_id, offset_id, status, created_at, updated_at)"
-                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String sql = insertSql();
         try {
             jdbcTemplate.update(sql, eventId, groupId, topic, partition, offset,
                     "PROCESSING", Instant.now(), Instant.now());
@@ -43,4 +56,126 @@ public class JdbcKafkaIdempotentRepository implements KafkaIdempotentRepository
         String sql = "UPDATE " + tableName + " SET status = ?, error_msg = ?, updated_at = ? WHERE event_id = ?";
         jdbcTemplate.update(sql, "FAILED", errorMessage, Instant.now(), eventId);
     }
+
+    @Override
+    public void release(String eventId) {
+        jdbcTemplate.update("DELETE FROM " + tableName + " WHERE event_id = ?", eventId);
+    }
+
+    /**
+     * 先批量查询已存在记录，再以单事务 JDBC batch 插入剩余记录；
+     * 并发冲突导致 batch 失败时整体回滚并退化为逐条插入。
+     */
+    @Override
+    public Set<String> tryInsertAll(Collection<KafkaIdempotentRecord> records, String groupId) {
+        Map<String, KafkaIdempotentRecord> candidates = new LinkedHashMap<>();
+        records.forEach(record -> candidates.putIfAbsent(record.eventId(), record));
+        if (candidates.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        candidates.keySet().removeAll(findExisting(candidates.keySet()));
+        if (candidates.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                && insertBatch(candidates.values(), groupId)) {
+            return new LinkedHashSet<>(candidates.keySet());
+        }
+        Set<String> inserted = new LinkedHashSet<>();
+        for (KafkaIdempotentRecord record : candidates.values()) {
+            if (tryInsert(record.eventId(), groupId, record.topic(), record.partition(), record.offset())) {
+                inserted.add(record.eventId());
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public void markDoneAll(Collection<String> eventIds) {
+        for (List<String> chunk : chunks(eventIds)) {
+            String sql = "UPDATE " + tableName + " SET status = ?, updated_at = ? WHERE event_id IN ("
+                    + placeholders(chunk.size()) + ")";
+            List<Object> args = new ArrayList<>(chunk.size() + 2);
+            args.add("DONE");
+            args.add(Instant.now());
+            args.addAll(chunk);
+            jdbcTemplate.update(sql, args.toArray());
+        }
+    }
+
+    @Override
+    public void releaseAll(Collection<String> eventIds) {
+        for (List<String> chunk : chunks(eventIds)) {
+            String sql = "DELETE FROM " + tableName + " WHERE event_id IN (" + placeholders(chunk.size()) + ")";
+            jdbcTemplate.update(sql, chunk.toArray());
+        }
+    }
+
+    private Set<String> findExisting(Collection<String> eventIds) {
+        Set<String> existing = new LinkedHashSet<>();
+        for (List<String> chunk : chunks(eventIds)) {
+            String sql = "SELECT event_id FROM " + tableName + " WHERE event_id IN (" + placeholders(chunk.size()) + ")";
+            existing.addAll(jdbcTemplate.queryForList(sql, String.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private boolean insertBatch(Collection<KafkaIdempotentRecord> records, String groupId) {
+        Boolean inserted = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insertSql())) {
+                Timestamp now = Timestamp.from(Instant.now());
+                for (KafkaIdempotentRecord record : records) {
+                    statement.setString(1, record.eventId());
+                    statement.setString(2, groupId);
+                    statement.setString(3, record.topic());
+                    statement.setInt(4, record.partition());
+                    statement.setLong(5, record.offset());
+                    statement.setString(6, "PROCESSING");
+                    statement.setTimestamp(7, now);
+                    statement.setTimestamp(8, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException ex) {
+                connection.rollback();
+                return false;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        return Boolean.TRUE.equals(inserted);
+    }
+
+    private String insertSql() {
+        return "INSERT INTO " + tableName
+                + " (event_id, consumer_group, topic, partition_id, offset_id, status, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    private List<List<String>> chunks(Collection<String> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> all = new ArrayList<>(values);
+        List<List<String>> chunks = new ArrayList<>((all.size() + IN_CLAUSE_CHUNK - 1) / IN_CLAUSE_CHUNK);
+        for (int start = 0; start < all.size(); start += IN_CLAUSE_CHUNK) {
+            chunks.add(all.subList(start, Math.min(all.size(), start + IN_CLAUSE_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private String placeholders(int count) {
+        StringBuilder builder = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        return builder.toString();
+    }
 }
@@ -0,0 +1,158 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * 自适应批大小控制器：按单条处理耗时（EWMA）计算每次交给监听方法的记录数，使单批耗时接近延迟目标。
+ * <p>
+ * 每次 poll 只处理前 limit 条记录，提交已处理 offset，未处理的分区 seek 回首条未处理记录，下次 poll 重新拉取；
+ * 起始分区轮换，避免靠后的分区饥饿。单批预算取 {@code min(延迟目标, max.poll.interval × 0.5)}，
+ * 处理变慢时批大小随之收缩，不会因单批超时触发再均衡；处理变快时批大小增长至上限。
+ * 上限应与消费者 max.poll.records 一致，否则超出上限的记录每次 poll 都会被回退并重新拉取。
+ * <p>
+ * 估计值为实例级：共用同一实例的监听器（及其并发消费者）共享一个 EWMA，负载差异较大的监听器应使用独立实例。
+ */
+public class KafkaAdaptiveBatchController {
+
+    private static final double EWMA_ALPHA = 0.2;
+    private static final double POLL_INTERVAL_RATIO = 0.5;
+
+    private final long budgetNanos;
+    private final int minRecords;
+    private final int maxRecords;
+    private final AtomicInteger limit;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rewound = new AtomicLong();
+    private volatile double recordNanos;
+    private volatile long lastBatchNanos;
+
+    /**
+     * 构造控制器。
+     *
+     * @param latencyTarget   单批处理延迟目标
+     * @param maxPollInterval 消费者 max.poll.interval
+     * @param minRecords      最小批大小
+     * @param maxRecords      最大批大小（通常为 max.poll.records）
+     */
+    public KafkaAdaptiveBatchController(Duration latencyTarget, Duration maxPollInterval, int minRecords, int maxRecords) {
+        this.budgetNanos = Math.min(latencyTarget.toNanos(), (long) (maxPollInterval.toNanos() * POLL_INTERVAL_RATIO));
+        this.minRecords = Math.max(1, minRecords);
+        this.maxRecords = Math.max(this.minRecords, maxRecords);
+        this.limit = new AtomicInteger(this.minRecords);
+    }
+
+    /**
+     * 处理一次 poll 的记录，需在批量监听方法（消费线程）内调用，容器 AckMode 需为 MANUAL 且监听方法不再确认。
+     * <p>
+     * handler 抛出异常时不提交也不 seek，交由容器错误处理器按整批处理。
+     */
+    public <K, V> void process(ConsumerRecords<K, V> records,
+                               org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                               Consumer<List<ConsumerRecord<K, V>>> handler) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<TopicPartition> partitions = new ArrayList<>(records.partitions());
+        int start = Math.floorMod(rotation.getAndIncrement(), partitions.size());
+        int budget = limit.get();
+        List<ConsumerRecord<K, V>> batch = new ArrayList<>(Math.min(budget, records.count()));
+        Map<TopicPartition, Long> rewinds = new HashMap<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            TopicPartition partition = partitions.get((start + i) % partitions.size());
+            List<ConsumerRecord<K, V>> partitionRecords = records.records(partition);
+            int take = Math.min(partitionRecords.size(), budget - batch.size());
+            batch.addAll(partitionRecords.subList(0, take));
+            if (take < partitionRecords.size()) {
+                rewinds.put(partition, partitionRecords.get(take).offset());
+                rewound.addAndGet(partitionRecords.size() - take);
+            }
+        }
+        long begin = System.nanoTime();
+        handler.accept(batch);
+        update(System.nanoTime() - begin, batch.size());
+        processed.addAndGet(batch.size());
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (ConsumerRecord<K, V> record : batch) {
+            offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+        }
+        Set<TopicPartition> assignment = consumer.assignment();
+        offsets.keySet().retainAll(assignment);
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        rewinds.forEach((partition, offset) -> {
+            if (assignment.contains(partition)) {
+                consumer.seek(partition, offset);
+            }
+        });
+    }
+
+    /**
+     * 当前批大小上限。
+     */
+    public int currentLimit() {
+        return limit.get();
+    }
+
+    /**
+     * 单条处理耗时估计（纳秒，EWMA）。
+     */
+    public double recordNanos() {
+        return recordNanos;
+    }
+
+    /**
+     * 最近一批处理耗时（纳秒）。
+     */
+    public long lastBatchNanos() {
+        return lastBatchNanos;
+    }
+
+    /**
+     * 单批耗时预算（纳秒）。
+     */
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * 累计处理记录数。
+     */
+    public long processedRecords() {
+        return processed.get();
+    }
+
+    /**
+     * 累计回退（下次 poll 重新拉取）的记录数。
+     */
+    public long rewoundRecords() {
+        return rewound.get();
+    }
+
+    private void update(long elapsedNanos, int count) {
+        lastBatchNanos = elapsedNanos;
+        if (count == 0) {
+            return;
+        }
+        double sample = (double) elapsedNanos / count;
+        double current = recordNanos;
+        double estimate = current == 0 ? sample : EWMA_ALPHA * sample + (1 - EWMA_ALPHA) * current;
+        recordNanos = estimate;
+        long next = estimate <= 0 ? maxRecords : (long) (budgetNanos / estimate);
+        limit.set((int) Math.max(minRecords, Math.min(maxRecords, next)));
+    }
+}
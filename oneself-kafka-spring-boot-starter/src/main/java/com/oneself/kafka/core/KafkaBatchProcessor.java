@@ -0,0 +1,75 @@
+package com.oneself.kafka.core;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+/**
+ * 批量消费处理器：批量适配、批量幂等，并在单条失败时定位失败记录。
+ * <p>
+ * 单条处理失败会抛出 {@link BatchListenerFailedException}，批量容器的错误处理器据此提交失败记录之前的 offset，
+ * 仅对失败记录执行本地重试与重试/死信转发，其后的记录在下一次 poll 重新投递。无法定位失败记录（如幂等占位失败）时
+ * 重新抛出原始异常，由错误处理器按整批失败处理。
+ */
+public class KafkaBatchProcessor {
+
+    private final KafkaConsumerAdapter adapter;
+    private final KafkaIdempotentExecutor idempotentExecutor;
+
+    /**
+     * 构造批量处理器，idempotentExecutor 为空时不做幂等。
+     */
+    public KafkaBatchProcessor(KafkaConsumerAdapter adapter, KafkaIdempotentExecutor idempotentExecutor) {
+        this.adapter = adapter;
+        this.idempotentExecutor = idempotentExecutor;
+    }
+
+    /**
+     * 处理一次 poll 的全部记录。
+     */
+    public <T> void process(ConsumerRecords<String, KafkaEnvelope<T>> records, Consumer<KafkaMessage<T>> handler) {
+        processMessages(adapter.adaptAll(records), handler);
+    }
+
+    /**
+     * 处理已适配的批量消息（顺序需与批量监听参数一致）。
+     */
+    public <T> void processMessages(List<KafkaMessage<T>> messages, Consumer<KafkaMessage<T>> handler) {
+        KafkaMessage<?>[] current = new KafkaMessage<?>[1];
+        Consumer<KafkaMessage<T>> tracked = message -> {
+            current[0] = message;
+            handler.accept(message);
+            // 仓储操作在处理器返回后失败时不归咎于最后一条记录
+            current[0] = null;
+        };
+        try {
+            if (idempotentExecutor == null) {
+                messages.forEach(tracked);
+            } else {
+                idempotentExecutor.executeBatch(messages, KafkaIdempotentRecord::of, tracked, message -> {
+                });
+            }
+        } catch (BatchListenerFailedException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw failed(messages, current[0], ex);
+        }
+    }
+
+    private RuntimeException failed(List<? extends KafkaMessage<?>> messages, KafkaMessage<?> failed,
+                                    RuntimeException cause) {
+        if (failed instanceof RecordKafkaMessage<?> recordMessage) {
+            return new BatchListenerFailedException("Batch record processing failed", cause, recordMessage.getRecord());
+        }
+        int index = 0;
+        for (KafkaMessage<?> message : messages) {
+            if (message == failed) {
+                return new BatchListenerFailedException("Batch record processing failed", cause, index);
+            }
+            index++;
+        }
+        return cause;
+    }
+}
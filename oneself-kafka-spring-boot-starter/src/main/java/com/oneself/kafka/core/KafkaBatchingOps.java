@@ -0,0 +1,356 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.kafka.support.SendResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 生产端微批发送：调用方线程仅做 key 解析并写入无锁环形队列，单个 flusher 线程按 (topic, key)
+ * 聚合，达到批大小或 linger 到期后统一交给 {@link KafkaOps} 发送。
+ * <p>
+ * 开启打包时，同一 (topic, key) 的多条事件合并为一条 {@link KafkaPackedEvents} 记录，
+ * 压缩由生产者 compression.type 完成，消费端使用 {@link KafkaConsumerAdapter#unpack} 拆包。
+ * 同一 (topic, key) 内保持写入顺序。
+ * <p>
+ * 每次 send 返回该事件的发送结果，打包发送的事件共享打包记录的结果；序列化、发送或生产者回调失败时以异常完成。
+ */
+public class KafkaBatchingOps implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaBatchingOps.class);
+    private static final long WAIT_PARK_NANOS = 50_000L;
+
+    private final KafkaOps ops;
+    private final Ring ring;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final boolean packEnabled;
+    private final long offerTimeoutNanos;
+    private final Map<BatchKey, Batch> batches = new LinkedHashMap<>();
+    private final AtomicLong flushRequested = new AtomicLong();
+    private final AtomicLong flushCompleted = new AtomicLong();
+    private final AtomicReference<FlushFailure> flushFailure = new AtomicReference<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * 构造微批发送器。
+     *
+     * @param ops           底层发送
+     * @param ringCapacity  环形队列容量（向上取 2 的幂）
+     * @param maxBatchSize  单个 (topic, key) 批的最大事件数
+     * @param linger        批的最长等待时间
+     * @param packEnabled   是否将同批事件打包为一条记录
+     * @param offerTimeout  队列满时调用方的最长等待时间
+     */
+    public KafkaBatchingOps(KafkaOps ops, int ringCapacity, int maxBatchSize, Duration linger,
+                            boolean packEnabled, Duration offerTimeout) {
+        this.ops = ops;
+        this.ring = new Ring(ringCapacity);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = Math.max(0L, linger == null ? 0L : linger.toNanos());
+        this.packEnabled = packEnabled;
+        this.offerTimeoutNanos = Math.max(0L, offerTimeout == null ? 0L : offerTimeout.toNanos());
+        this.flusher = Thread.ofPlatform().name("oneself-kafka-batching").daemon().start(this::runFlusher);
+    }
+
+    /**
+     * 发送到指定主题。
+     */
+    public CompletableFuture<SendResult<Object, Object>> send(String topic, Object payload) {
+        return send(topic, null, payload, null);
+    }
+
+    /**
+     * 发送到指定主题并指定 key。
+     */
+    public CompletableFuture<SendResult<Object, Object>> send(String topic, String key, Object payload) {
+        return send(topic, key, payload, null);
+    }
+
+    /**
+     * 发送自定义 header 的消息，key 解析与 traceId 采集在调用方线程完成。
+     */
+    public CompletableFuture<SendResult<Object, Object>> send(String topic, String key, Object payload,
+                                                              Map<String, String> headers) {
+        if (!running) {
+            throw new IllegalStateException("Kafka batching ops is closed");
+        }
+        Event event = new Event(topic, ops.resolveKey(topic, key, payload), payload, headers,
+                ops.mdcTraceId(), Instant.now(), System.nanoTime(), new CompletableFuture<>());
+        if (ring.offer(event)) {
+            return event.future();
+        }
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        LockSupport.unpark(flusher);
+        while (!ring.offer(event)) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("Kafka batching queue is full, topic=" + topic);
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        return event.future();
+    }
+
+    /**
+     * 将此前写入的全部事件交给生产者并刷出，超时或生产者刷出失败时抛出异常（单条发送失败见 send 返回的结果）。
+     */
+    public void flush(Duration timeout) {
+        long ticket = flushRequested.incrementAndGet();
+        LockSupport.unpark(flusher);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (flushCompleted.get() < ticket) {
+            if (!flusher.isAlive()) {
+                throw new IllegalStateException("Kafka batching flusher is not running");
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("Kafka batching flush timed out after " + timeout);
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        FlushFailure failure = flushFailure.get();
+        if (failure != null && failure.ticket() >= ticket) {
+            throw new IllegalStateException("Kafka batching producer flush failed", failure.cause());
+        }
+    }
+
+    /**
+     * 将此前写入的全部事件交给生产者并刷出。
+     */
+    public void flush() {
+        flush(Duration.ofSeconds(30));
+    }
+
+    /**
+     * 当前队列中尚未被 flusher 取走的事件数（近似值）。
+     */
+    public int queued() {
+        return ring.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(Duration.ofSeconds(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            long requested = flushRequested.get();
+            drain();
+            if (requested != flushCompleted.get()) {
+                flushAll();
+                flushProducer(requested);
+                flushCompleted.set(requested);
+                continue;
+            }
+            long now = System.nanoTime();
+            long nextDue = flushDue(now);
+            if (ring.isEmpty() && flushRequested.get() == requested) {
+                LockSupport.parkNanos(nextDue == Long.MAX_VALUE ? Math.max(lingerNanos, 1_000_000L) : nextDue);
+            }
+        }
+        long requested = flushRequested.get();
+        drain();
+        flushAll();
+        flushProducer(requested);
+        flushCompleted.set(requested);
+    }
+
+    /**
+     * 刷出生产者，失败记录到对应的 flush 序号，由等待该序号的 {@link #flush(Duration)} 抛出。
+     */
+    private void flushProducer(long ticket) {
+        try {
+            ops.flushProducer();
+        } catch (RuntimeException ex) {
+            log.error("oneself.kafka batching producer flush failed", ex);
+            flushFailure.set(new FlushFailure(ticket, ex));
+        }
+    }
+
+    /**
+     * 取走队列中全部事件并放入批，批满立即发送。
+     */
+    private void drain() {
+        Event event;
+        while ((event = ring.poll()) != null) {
+            BatchKey batchKey = new BatchKey(event.topic(), event.key());
+            Batch batch = batches.get(batchKey);
+            if (batch == null) {
+                batch = new Batch(event.enqueuedAt());
+                batches.put(batchKey, batch);
+            }
+            batch.events.add(event);
+            if (batch.events.size() >= maxBatchSize) {
+                batches.remove(batchKey);
+                send(batchKey, batch.events);
+            }
+        }
+    }
+
+    /**
+     * 发送 linger 到期的批，返回距下一个批到期的纳秒数（无批返回 Long.MAX_VALUE）。
+     */
+    private long flushDue(long now) {
+        long next = Long.MAX_VALUE;
+        Iterator<Map.Entry<BatchKey, Batch>> iterator = batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<BatchKey, Batch> entry = iterator.next();
+            long remaining = entry.getValue().createdAt + lingerNanos - now;
+            if (remaining <= 0) {
+                iterator.remove();
+                send(entry.getKey(), entry.getValue().events);
+            } else {
+                next = Math.min(next, remaining);
+            }
+        }
+        return next;
+    }
+
+    private void flushAll() {
+        batches.forEach(this::send);
+        batches.clear();
+    }
+
+    private void send(BatchKey batchKey, Batch batch) {
+        send(batchKey, batch.events);
+    }
+
+    private void send(BatchKey batchKey, List<Event> events) {
+        if (packEnabled && events.size() > 1) {
+            try {
+                List<KafkaEnvelope<Object>> envelopes = new ArrayList<>(events.size());
+                for (Event event : events) {
+                    envelopes.add(ops.envelope(event.payload(), event.headers(), new LinkedHashMap<>(),
+                            event.traceId(), event.timestamp()));
+                }
+                ops.sendPacked(batchKey.topic(), batchKey.key(), envelopes).whenComplete((result, ex) ->
+                        events.forEach(event -> complete(event, result, ex)));
+            } catch (RuntimeException ex) {
+                log.error("oneself.kafka batching send failed, topic={}, key={}, events={}",
+                        batchKey.topic(), batchKey.key(), events.size(), ex);
+                events.forEach(event -> event.future().completeExceptionally(ex));
+            }
+            return;
+        }
+        for (Event event : events) {
+            try {
+                ops.sendResolved(event.topic(), event.key(), event.payload(), event.headers(),
+                        event.traceId(), event.timestamp()).whenComplete((result, ex) -> complete(event, result, ex));
+            } catch (RuntimeException ex) {
+                log.error("oneself.kafka batching send failed, topic={}, key={}", event.topic(), event.key(), ex);
+                event.future().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private static void complete(Event event, SendResult<Object, Object> result, Throwable ex) {
+        if (ex != null) {
+            event.future().completeExceptionally(ex);
+        } else {
+            event.future().complete(result);
+        }
+    }
+
+    private record Event(String topic, String key, Object payload, Map<String, String> headers,
+                         String traceId, Instant timestamp, long enqueuedAt,
+                         CompletableFuture<SendResult<Object, Object>> future) {
+    }
+
+    private record FlushFailure(long ticket, RuntimeException cause) {
+    }
+
+    private record BatchKey(String topic, String key) {
+    }
+
+    private static final class Batch {
+
+        private final long createdAt;
+        private final List<Event> events = new ArrayList<>();
+
+        private Batch(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * 有界多生产者单消费者环形队列，每个槽位通过序号判断可写/可读，写入仅一次 CAS。
+     */
+    private static final class Ring {
+
+        private final int mask;
+        private final AtomicReferenceArray<Event> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        private Ring(int requestedCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+            this.mask = capacity - 1;
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        private boolean offer(Event event) {
+            while (true) {
+                long position = tail.get();
+                int index = (int) (position & mask);
+                long diff = sequences.get(index) - position;
+                if (diff == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slots.lazySet(index, event);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private Event poll() {
+            long position = head;
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                return null;
+            }
+            Event event = slots.get(index);
+            slots.lazySet(index, null);
+            head = position + 1;
+            sequences.set(index, position + mask + 1);
+            return event;
+        }
+
+        private boolean isEmpty() {
+            return sequences.get((int) (head & mask)) != head + 1;
+        }
+
+        private int size() {
+            return (int) Math.max(0L, tail.get() - head);
+        }
+    }
+}
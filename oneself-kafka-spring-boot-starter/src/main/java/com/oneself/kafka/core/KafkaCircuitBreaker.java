@@ -0,0 +1,171 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * 消费熔断器：统计最近 N 次处理结果，失败率超过阈值时暂停上报失败的容器，到期后恢复并重置统计。
+ * <p>
+ * 成功结果通过 Record/Batch 拦截器上报，失败结果由 {@link KafkaPolicyErrorHandler} 上报；
+ * 熔断期间上报失败的容器会立即暂停，失败记录回退 offset，不消耗重试次数。
+ */
+public class KafkaCircuitBreaker implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object>,
+        AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaCircuitBreaker.class);
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<MessageListenerContainer> paused = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private int position;
+    private int calls;
+    private int failures;
+    private volatile long openUntil;
+
+    /**
+     * 构造熔断器。
+     *
+     * @param windowSize           统计窗口大小
+     * @param minimumCalls         最少统计次数
+     * @param failureRateThreshold 失败率阈值（0~1）
+     * @param openDuration         熔断暂停时长
+     */
+    public KafkaCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-kafka-circuit-breaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+                                                    Consumer<Object, Object> consumer) {
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        record(false);
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records,
+                                                     Consumer<Object, Object> consumer) {
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        record(false);
+    }
+
+    /**
+     * 上报失败，熔断打开时暂停容器并返回 true。
+     */
+    public boolean onFailure(MessageListenerContainer container) {
+        record(true);
+        if (!isOpen()) {
+            return false;
+        }
+        if (container != null && paused.add(container)) {
+            container.pause();
+        }
+        return true;
+    }
+
+    /**
+     * 熔断是否打开。
+     */
+    public boolean isOpen() {
+        return System.currentTimeMillis() < openUntil;
+    }
+
+    /**
+     * 当前窗口失败率。
+     */
+    public double failureRate() {
+        lock.lock();
+        try {
+            return calls == 0 ? 0.0 : (double) failures / calls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void record(boolean failure) {
+        boolean opened = false;
+        lock.lock();
+        try {
+            if (calls == window.length) {
+                if (window[position]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            window[position] = failure;
+            if (failure) {
+                failures++;
+            }
+            position = (position + 1) % window.length;
+            if (failure && !isOpen() && calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+                openUntil = System.currentTimeMillis() + openDuration.toMillis();
+                opened = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (opened) {
+            log.warn("oneself.kafka circuit breaker opened, failureRate={}, pause={}ms",
+                    failureRate(), openDuration.toMillis());
+            scheduler.schedule(this::halfOpen, openDuration.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 到期后重置统计并恢复已暂停容器，恢复后再次失败率超标会重新熔断。
+     */
+    private void halfOpen() {
+        lock.lock();
+        try {
+            calls = 0;
+            failures = 0;
+            position = 0;
+        } finally {
+            lock.unlock();
+        }
+        for (MessageListenerContainer container : paused) {
+            container.resume();
+        }
+        paused.clear();
+        log.info("oneself.kafka circuit breaker resumed consumers");
+    }
+}
@@ -0,0 +1,84 @@
+package com.oneself.kafka.core;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * payload 编码注册表，负责按 topic 选择编码与按编码标识查找解码器。
+ */
+public class KafkaCodecRegistry {
+
+    private final KafkaPayloadCodec[] codecsById = new KafkaPayloadCodec[256];
+    private final Map<String, KafkaPayloadCodec> codecsByName = new HashMap<>();
+    private final Map<String, KafkaPayloadCodec> codecsByTopic = new HashMap<>();
+    private final KafkaPayloadCodec defaultCodec;
+
+    /**
+     * 构造注册表。
+     *
+     * @param codecs       可用编码
+     * @param defaultCodec 默认编码名称
+     * @param topicCodecs  topic 到编码名称的映射
+     */
+    public KafkaCodecRegistry(Collection<? extends KafkaPayloadCodec> codecs, String defaultCodec,
+                              Map<String, String> topicCodecs) {
+        for (KafkaPayloadCodec codec : codecs) {
+            int index = codec.id() & 0xFF;
+            if (index == 0) {
+                throw new IllegalArgumentException("Codec id 0 is reserved: " + codec.name());
+            }
+            if (codecsById[index] != null) {
+                throw new IllegalStateException("Duplicate codec id " + index + ": "
+                        + codecsById[index].name() + ", " + codec.name());
+            }
+            codecsById[index] = codec;
+            codecsByName.put(normalize(codec.name()), codec);
+        }
+        this.defaultCodec = require(defaultCodec);
+        if (topicCodecs != null) {
+            topicCodecs.forEach((topic, name) -> codecsByTopic.put(topic, require(name)));
+        }
+    }
+
+    /**
+     * 获取 topic 使用的编码。
+     */
+    public KafkaPayloadCodec codecFor(String topic) {
+        if (topic == null || codecsByTopic.isEmpty()) {
+            return defaultCodec;
+        }
+        return codecsByTopic.getOrDefault(topic, defaultCodec);
+    }
+
+    /**
+     * 根据编码标识获取解码器。
+     */
+    public KafkaPayloadCodec codecOf(byte id) {
+        KafkaPayloadCodec codec = codecsById[id & 0xFF];
+        if (codec == null) {
+            throw new IllegalStateException("Unknown payload codec id: " + (id & 0xFF));
+        }
+        return codec;
+    }
+
+    /**
+     * 根据名称获取编码，不存在返回 null。
+     */
+    public KafkaPayloadCodec codecNamed(String name) {
+        return name == null ? null : codecsByName.get(normalize(name));
+    }
+
+    private KafkaPayloadCodec require(String name) {
+        KafkaPayloadCodec codec = codecNamed(name);
+        if (codec == null) {
+            throw new IllegalStateException("Payload codec not available: " + name + ", known: " + codecsByName.keySet());
+        }
+        return codec;
+    }
+
+    private String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
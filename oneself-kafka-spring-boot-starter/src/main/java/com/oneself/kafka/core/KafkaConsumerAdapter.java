@@ -1,12 +1,14 @@
 package com.oneself.kafka.core;
 
+import java.math.BigDecimal;
 import java.time.Instant;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 
 
 /**
@@ -14,39 +16,156 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
  */
 public class KafkaConsumerAdapter {
 
+    private final ThreadLocal<List<KafkaMessage<?>>> batchBuffer = ThreadLocal.withInitial(ArrayList::new);
+    private final KafkaMetrics metrics;
+
+    public KafkaConsumerAdapter() {
+        this(null);
+    }
+
     /**
-     * 将 ConsumerRecord 转为统一消息模型。
+     * 构造适配器，metrics 不为空时记录适配耗时。
+     */
+    public KafkaConsumerAdapter(KafkaMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 将 ConsumerRecord 转为统一消息模型，headers 与 timestamp 在访问时才解码。
      */
     public <T> KafkaMessage<T> adapt(ConsumerRecord<String, KafkaEnvelope<T>> record) {
-        Map<String, String> headers = new HashMap<>();
-        record.headers().forEach(header -> headers.put(header.key(), new String(header.value(), StandardCharsets.UTF_8)));
-        Instant timestamp = Instant.ofEpochMilli(record.timestamp());
-        KafkaEnvelope<T> envelope = record.value();
-        if (envelope == null) {
-            return new KafkaMessage<>(record.topic(), record.key(), null, headers, timestamp);
+        if (metrics == null) {
+            return new RecordKafkaMessage<>(record);
+        }
+        long start = System.nanoTime();
+        KafkaMessage<T> message = new RecordKafkaMessage<>(record);
+        metrics.recordAdapt("adapt", 1, start);
+        return message;
+    }
+
+    /**
+     * 批量适配一次 poll 的全部记录，顺序与 ConsumerRecords 迭代顺序一致。
+     * <p>
+     * 返回的列表按线程复用，下次在同一线程调用 adaptAll 时会被清空，不要跨批次持有。
+     */
+    public <T> List<KafkaMessage<T>> adaptAll(ConsumerRecords<String, KafkaEnvelope<T>> records) {
+        long start = metrics == null ? 0L : System.nanoTime();
+        List<KafkaMessage<T>> messages = reusableBuffer(records.count());
+        for (ConsumerRecord<String, KafkaEnvelope<T>> record : records) {
+            messages.add(new RecordKafkaMessage<>(record));
+        }
+        if (metrics != null) {
+            metrics.recordAdapt("adaptAll", messages.size(), start);
+        }
+        return messages;
+    }
+
+    /**
+     * 批量适配记录列表（{@code List<ConsumerRecord>} 形式的批量监听参数）。
+     */
+    public <T> List<KafkaMessage<T>> adaptAll(List<ConsumerRecord<String, KafkaEnvelope<T>>> records) {
+        long start = metrics == null ? 0L : System.nanoTime();
+        List<KafkaMessage<T>> messages = reusableBuffer(records.size());
+        for (ConsumerRecord<String, KafkaEnvelope<T>> record : records) {
+            messages.add(new RecordKafkaMessage<>(record));
+        }
+        if (metrics != null) {
+            metrics.recordAdapt("adaptAll", messages.size(), start);
+        }
+        return messages;
+    }
+
+    /**
+     * 拆包：带 {@link KafkaHeaderNames#PACKED_COUNT} 的打包记录展开为多条消息，普通记录按 {@link #adapt} 返回单条。
+     * <p>
+     * 未注册类型的内层 payload 以通用结构（Map/List/基础类型）返回。
+     */
+    @SuppressWarnings("unchecked")
+    public List<KafkaMessage<Object>> unpack(ConsumerRecord<String, ? extends KafkaEnvelope<?>> record) {
+        KafkaMessage<Object> message = adapt((ConsumerRecord<String, KafkaEnvelope<Object>>) record);
+        List<?> events = message.getHeader(KafkaHeaderNames.PACKED_COUNT) == null
+                ? null
+                : packedEvents(message.getPayload());
+        if (events == null) {
+            return List.of(message);
         }
-        Map<String, String> mergedHeaders = mergeHeaders(headers, envelope.headers());
-        if (!mergedHeaders.containsKey(KafkaHeaderNames.EVENT_ID) && envelope.id() != null) {
-            mergedHeaders.put(KafkaHeaderNames.EVENT_ID, envelope.id());
+        List<KafkaMessage<Object>> messages = new ArrayList<>(events.size());
+        for (Object event : events) {
+            messages.add(toMessage(record.topic(), record.key(), event));
         }
-        if (!mergedHeaders.containsKey(KafkaHeaderNames.TRACE_ID) && envelope.traceId() != null) {
-            mergedHeaders.put(KafkaHeaderNames.TRACE_ID, envelope.traceId());
+        return messages;
+    }
+
+    /**
+     * 拆包一次 poll 的全部记录，顺序与记录及包内顺序一致。
+     */
+    public List<KafkaMessage<Object>> unpackAll(ConsumerRecords<String, ? extends KafkaEnvelope<?>> records) {
+        List<KafkaMessage<Object>> messages = new ArrayList<>(records.count());
+        for (ConsumerRecord<String, ? extends KafkaEnvelope<?>> record : records) {
+            messages.addAll(unpack(record));
         }
-        return new KafkaMessage<>(record.topic(),
-                Optional.ofNullable(record.key()).orElse(envelope.id()),
-                envelope.payload(),
-                mergedHeaders,
-                envelope.timestamp() == null ? timestamp : envelope.timestamp());
+        return messages;
     }
 
     /**
-     * 合并 Record 与 Envelope 的 headers。
+     * 拆包记录列表，顺序与记录及包内顺序一致。
      */
-    private Map<String, String> mergeHeaders(Map<String, String> recordHeaders, Map<String, String> envelopeHeaders) {
-        Map<String, String> merged = new HashMap<>(recordHeaders);
-        if (envelopeHeaders != null) {
-            merged.putAll(envelopeHeaders);
+    public List<KafkaMessage<Object>> unpackAll(List<? extends ConsumerRecord<String, ? extends KafkaEnvelope<?>>> records) {
+        List<KafkaMessage<Object>> messages = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ? extends KafkaEnvelope<?>> record : records) {
+            messages.addAll(unpack(record));
+        }
+        return messages;
+    }
+
+    private List<?> packedEvents(Object payload) {
+        if (payload instanceof KafkaPackedEvents packed) {
+            return packed.events();
+        }
+        if (payload instanceof Map<?, ?> map && map.size() == 1 && map.get("events") instanceof List<?> list) {
+            return list;
+        }
+        return null;
+    }
+
+    private KafkaMessage<Object> toMessage(String topic, String key, Object event) {
+        if (event instanceof KafkaEnvelope<?> envelope) {
+            return new KafkaMessage<>(topic, key, envelope.payload(), envelope.headers(), envelope.timestamp());
+        }
+        if (!(event instanceof Map<?, ?> map)) {
+            return new KafkaMessage<>(topic, key, event, Map.of(), null);
         }
-        return merged;
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (map.get("headers") instanceof Map<?, ?> rawHeaders) {
+            rawHeaders.forEach((name, value) -> {
+                if (name != null && value != null) {
+                    headers.put(name.toString(), value.toString());
+                }
+            });
+        }
+        return new KafkaMessage<>(topic, key, map.get("payload"), headers, toInstant(map.get("timestamp")));
+    }
+
+    private Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof Number number) {
+            BigDecimal seconds = new BigDecimal(number.toString());
+            return Instant.ofEpochSecond(seconds.longValue(),
+                    seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            return Instant.parse(text);
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> List<KafkaMessage<T>> reusableBuffer(int expectedSize) {
+        List<KafkaMessage<?>> buffer = batchBuffer.get();
+        buffer.clear();
+        ((ArrayList<?>) buffer).ensureCapacity(expectedSize);
+        return (List) buffer;
     }
 }
@@ -0,0 +1,60 @@
+package com.oneself.kafka.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * 去相关抖动退避：{@code next = min(max, random(initial, previous * 3))}，相比纯指数退避更能打散并发重试。
+ */
+public class KafkaDecorrelatedJitterBackOff implements BackOff {
+
+    private final long initialInterval;
+    private final long maxInterval;
+    private final long maxAttempts;
+    private final long maxElapsedTime;
+
+    /**
+     * 构造退避策略。
+     *
+     * @param initialInterval 初始间隔（毫秒）
+     * @param maxInterval     最大间隔（毫秒）
+     * @param maxAttempts     最大重试次数
+     * @param maxElapsedTime  累计最大等待时间（毫秒，{@link Long#MAX_VALUE} 表示不限制）
+     */
+    public KafkaDecorrelatedJitterBackOff(long initialInterval, long maxInterval, long maxAttempts, long maxElapsedTime) {
+        this.initialInterval = Math.max(1L, initialInterval);
+        this.maxInterval = Math.max(this.initialInterval, maxInterval);
+        this.maxAttempts = maxAttempts;
+        this.maxElapsedTime = maxElapsedTime;
+    }
+
+    @Override
+    public BackOffExecution start() {
+        return new Execution();
+    }
+
+    private final class Execution implements BackOffExecution {
+
+        private long attempts;
+        private long elapsed;
+        private long previous = initialInterval;
+
+        @Override
+        public long nextBackOff() {
+            if (attempts >= maxAttempts || elapsed >= maxElapsedTime) {
+                return STOP;
+            }
+            long upper = Math.min(maxInterval, previous * 3);
+            long next = upper > initialInterval
+                    ? ThreadLocalRandom.current().nextLong(initialInterval, upper + 1)
+                    : initialInterval;
+            next = Math.min(next, maxElapsedTime - elapsed);
+            previous = next;
+            attempts++;
+            elapsed += next;
+            return next;
+        }
+    }
+}
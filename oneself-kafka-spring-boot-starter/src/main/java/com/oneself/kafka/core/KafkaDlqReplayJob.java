@@ -0,0 +1,144 @@
+package com.oneself.kafka.core;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DLQ 重放任务进度。
+ */
+public class KafkaDlqReplayJob {
+
+    /**
+     * 任务状态。
+     */
+    public enum State {
+        /** 运行中。 */
+        RUNNING,
+        /** 已完成。 */
+        COMPLETED,
+        /** 已停止。 */
+        STOPPED,
+        /** 失败。 */
+        FAILED
+    }
+
+    private final String id;
+    private final KafkaDlqReplayRequest request;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile boolean stopRequested;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public KafkaDlqReplayJob(String id, KafkaDlqReplayRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    /**
+     * 请求停止（当前批次提交检查点后退出）。
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * 获取Id。
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取Request。
+     */
+    public KafkaDlqReplayRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * 获取State。
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 已扫描条数。
+     */
+    public long getScanned() {
+        return scanned.get();
+    }
+
+    /**
+     * 已重放条数。
+     */
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    /**
+     * 已跳过条数（未匹配过滤条件或缺少原始 topic）。
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * 获取FinishedAt。
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 获取Error。
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 转为展示用结构。
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("dlqTopic", request.dlqTopic());
+        result.put("state", state);
+        result.put("scanned", scanned.get());
+        result.put("replayed", replayed.get());
+        result.put("skipped", skipped.get());
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("error", error);
+        return result;
+    }
+
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    void scanned() {
+        scanned.incrementAndGet();
+    }
+
+    void replayed(long count) {
+        replayed.addAndGet(count);
+    }
+
+    void skipped() {
+        skipped.incrementAndGet();
+    }
+
+    void finish(State finalState, String message) {
+        this.error = message;
+        this.finishedAt = Instant.now();
+        this.state = finalState;
+    }
+}
@@ -0,0 +1,38 @@
+package com.oneself.kafka.core;
+
+import java.time.Instant;
+
+/**
+ * DLQ 重放请求。
+ *
+ * @param dlqTopic      死信 topic
+ * @param fromOffset    起始 offset（含，为空则从最早或 fromTime 开始）
+ * @param toOffset      结束 offset（含，为空则到启动时的末尾）
+ * @param fromTime      起始时间（按消息时间戳）
+ * @param toTime        结束时间（不含）
+ * @param failureClass  仅重放该失败异常类（匹配 x-failure-class）
+ * @param key           仅重放该 key
+ * @param targetTopic   目标 topic（为空则使用 x-original-topic）
+ * @param ratePerSecond 每秒重放条数（为空使用全局配置）
+ * @param maxRecords    最多重放条数
+ * @param resume        是否从上次检查点继续
+ */
+public record KafkaDlqReplayRequest(String dlqTopic,
+                                    Long fromOffset,
+                                    Long toOffset,
+                                    Instant fromTime,
+                                    Instant toTime,
+                                    String failureClass,
+                                    String key,
+                                    String targetTopic,
+                                    Integer ratePerSecond,
+                                    Long maxRecords,
+                                    boolean resume) {
+
+    /**
+     * 重放整个 DLQ（从检查点继续）。
+     */
+    public static KafkaDlqReplayRequest of(String dlqTopic) {
+        return new KafkaDlqReplayRequest(dlqTopic, null, null, null, null, null, null, null, null, null, true);
+    }
+}
@@ -0,0 +1,358 @@
+package com.oneself.kafka.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
+
+/**
+ * DLQ 重放器：按 offset/时间范围读取死信 topic，按失败异常类或 key 过滤后限速批量重投到原始 topic。
+ * <p>
+ * 使用独立的字节级消费者/生产者，payload 与 header 原样重投（移除重试计数与到期时间，重新获得完整重试次数）。
+ * 每批发送确认后以独立 groupId（前缀 + DLQ topic）提交 offset 作为检查点，resume 时从检查点继续；
+ * 结束 offset 在任务开始时确定，重放期间新写入 DLQ 的消息不会被追读。
+ */
+public class KafkaDlqReplayer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaDlqReplayer.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final int MAX_FINISHED_JOBS = 100;
+    private static final Set<String> DROPPED_HEADERS = Set.of(KafkaHeaderNames.RETRY_COUNT,
+            KafkaHeaderNames.RETRY_DUE_AT);
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final ProducerFactory<?, ?> producerFactory;
+    private final OneselfKafkaProperties properties;
+    private final Map<String, KafkaDlqReplayJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, KafkaDlqReplayJob> running = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "oneself-kafka-dlq-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KafkaDlqReplayer(ConsumerFactory<?, ?> consumerFactory, ProducerFactory<?, ?> producerFactory,
+                            OneselfKafkaProperties properties) {
+        this.consumerFactory = consumerFactory;
+        this.producerFactory = producerFactory;
+        this.properties = properties;
+    }
+
+    /**
+     * 同步重放，返回结束后的任务进度。
+     */
+    public KafkaDlqReplayJob replay(KafkaDlqReplayRequest request) {
+        KafkaDlqReplayJob job = register(request);
+        run(job);
+        return job;
+    }
+
+    /**
+     * 异步启动重放任务。
+     */
+    public KafkaDlqReplayJob start(KafkaDlqReplayRequest request) {
+        KafkaDlqReplayJob job = register(request);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+     * 获取任务，不存在返回 null。
+     */
+    public KafkaDlqReplayJob job(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 获取全部任务（已结束的任务最多保留最近 100 个）。
+     */
+    public Collection<KafkaDlqReplayJob> jobs() {
+        return jobs.values();
+    }
+
+    /**
+     * 停止任务，返回是否存在。
+     */
+    public boolean stop(String id) {
+        KafkaDlqReplayJob job = jobs.get(id);
+        if (job == null) {
+            return false;
+        }
+        job.stop();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        jobs.values().forEach(KafkaDlqReplayJob::stop);
+        executor.shutdown();
+    }
+
+    private KafkaDlqReplayJob register(KafkaDlqReplayRequest request) {
+        if (request == null || request.dlqTopic() == null || request.dlqTopic().isBlank()) {
+            throw new IllegalArgumentException("dlqTopic is required");
+        }
+        KafkaDlqReplayJob job = new KafkaDlqReplayJob(UUID.randomUUID().toString(), request);
+        // 同一 DLQ topic 的检查与登记在 compute 内原子完成，并发 start 只有一个成功
+        KafkaDlqReplayJob current = running.compute(request.dlqTopic(), (topic, existing) ->
+                existing != null && existing.getState() == KafkaDlqReplayJob.State.RUNNING ? existing : job);
+        if (current != job) {
+            throw new IllegalStateException("Replay already running for " + request.dlqTopic() + ": " + current.getId());
+        }
+        jobs.put(job.getId(), job);
+        pruneFinished();
+        return job;
+    }
+
+    /**
+     * 只保留最近结束的 {@value #MAX_FINISHED_JOBS} 个任务。
+     */
+    private void pruneFinished() {
+        List<KafkaDlqReplayJob> finished = new ArrayList<>();
+        for (KafkaDlqReplayJob job : jobs.values()) {
+            if (job.getState() != KafkaDlqReplayJob.State.RUNNING && job.getFinishedAt() != null) {
+                finished.add(job);
+            }
+        }
+        if (finished.size() <= MAX_FINISHED_JOBS) {
+            return;
+        }
+        finished.sort(Comparator.comparing(KafkaDlqReplayJob::getFinishedAt));
+        finished.subList(0, finished.size() - MAX_FINISHED_JOBS).forEach(job -> jobs.remove(job.getId()));
+    }
+
+    private void run(KafkaDlqReplayJob job) {
+        KafkaDlqReplayRequest request = job.getRequest();
+        int rate = request.ratePerSecond() != null ? request.ratePerSecond() : properties.getReplayRatePerSecond();
+        KafkaRateLimiter limiter = new KafkaRateLimiter(rate);
+        try (KafkaConsumer<byte[], byte[]> consumer = createConsumer(request.dlqTopic());
+             KafkaProducer<byte[], byte[]> producer = createProducer()) {
+            Map<TopicPartition, Long> ends = assign(consumer, request);
+            Filter filter = new Filter(request);
+            long limit = request.maxRecords() == null ? Long.MAX_VALUE : request.maxRecords();
+            while (!ends.isEmpty() && !job.isStopRequested() && job.getReplayed() < limit) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                Map<TopicPartition, OffsetAndMetadata> checkpoint = new HashMap<>();
+                List<Future<RecordMetadata>> sends = new ArrayList<>();
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    Long end = ends.get(partition);
+                    if (end == null || record.offset() >= end || job.getReplayed() + sends.size() >= limit) {
+                        continue;
+                    }
+                    job.scanned();
+                    checkpoint.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    String target = filter.matches(record) ? targetTopic(record, request) : null;
+                    if (target == null) {
+                        job.skipped();
+                        continue;
+                    }
+                    limiter.acquire(1);
+                    sends.add(producer.send(new ProducerRecord<>(target, null, record.key(), record.value(),
+                            replayHeaders(record))));
+                }
+                awaitSends(producer, sends);
+                job.replayed(sends.size());
+                if (!checkpoint.isEmpty()) {
+                    consumer.commitSync(checkpoint);
+                }
+                completePartitions(consumer, ends);
+            }
+            job.finish(job.isStopRequested() ? KafkaDlqReplayJob.State.STOPPED : KafkaDlqReplayJob.State.COMPLETED, null);
+        } catch (RuntimeException ex) {
+            log.error("oneself.kafka dlq replay failed, job={}, topic={}", job.getId(), request.dlqTopic(), ex);
+            job.finish(KafkaDlqReplayJob.State.FAILED, ex.getMessage());
+        } finally {
+            running.remove(request.dlqTopic(), job);
+        }
+    }
+
+    /**
+     * 分配分区并定位起点，返回各分区结束 offset（不含）。
+     */
+    private Map<TopicPartition, Long> assign(KafkaConsumer<byte[], byte[]> consumer, KafkaDlqReplayRequest request) {
+        List<PartitionInfo> infos = consumer.partitionsFor(request.dlqTopic());
+        if (infos == null || infos.isEmpty()) {
+            throw new IllegalStateException("DLQ topic not found: " + request.dlqTopic());
+        }
+        List<TopicPartition> partitions = new ArrayList<>(infos.size());
+        for (PartitionInfo info : infos) {
+            partitions.add(new TopicPartition(info.topic(), info.partition()));
+        }
+        consumer.assign(partitions);
+        Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> ends = new HashMap<>(consumer.endOffsets(partitions));
+        Map<TopicPartition, Long> starts = new HashMap<>(beginnings);
+        if (request.fromTime() != null) {
+            offsetsForTime(consumer, partitions, request.fromTime().toEpochMilli(), ends).forEach(starts::put);
+        }
+        if (request.toTime() != null) {
+            offsetsForTime(consumer, partitions, request.toTime().toEpochMilli(), ends).forEach(ends::put);
+        }
+        Map<TopicPartition, OffsetAndMetadata> committed = request.resume()
+                ? consumer.committed(new HashSet<>(partitions)) : Map.of();
+        Map<TopicPartition, Long> active = new LinkedHashMap<>();
+        for (TopicPartition partition : partitions) {
+            long start = starts.get(partition);
+            if (request.fromOffset() != null) {
+                start = Math.max(start, request.fromOffset());
+            }
+            OffsetAndMetadata checkpoint = committed.get(partition);
+            if (checkpoint != null) {
+                start = Math.max(start, checkpoint.offset());
+            }
+            long end = ends.get(partition);
+            if (request.toOffset() != null) {
+                end = Math.min(end, request.toOffset() + 1);
+            }
+            if (start < end) {
+                consumer.seek(partition, start);
+                active.put(partition, end);
+            }
+        }
+        consumer.pause(partitions.stream().filter(partition -> !active.containsKey(partition)).toList());
+        return active;
+    }
+
+    private Map<TopicPartition, Long> offsetsForTime(KafkaConsumer<byte[], byte[]> consumer,
+                                                     List<TopicPartition> partitions, long timestamp,
+                                                     Map<TopicPartition, Long> ends) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, timestamp));
+        Map<TopicPartition, Long> result = new HashMap<>();
+        consumer.offsetsForTimes(query).forEach((partition, found) ->
+                result.put(partition, found == null ? ends.get(partition) : found.offset()));
+        return result;
+    }
+
+    private void completePartitions(KafkaConsumer<byte[], byte[]> consumer, Map<TopicPartition, Long> ends) {
+        List<TopicPartition> done = new ArrayList<>();
+        ends.forEach((partition, end) -> {
+            if (consumer.position(partition) >= end) {
+                done.add(partition);
+            }
+        });
+        if (!done.isEmpty()) {
+            consumer.pause(done);
+            done.forEach(ends::remove);
+        }
+    }
+
+    private void awaitSends(KafkaProducer<byte[], byte[]> producer, List<Future<RecordMetadata>> sends) {
+        if (sends.isEmpty()) {
+            return;
+        }
+        producer.flush();
+        for (Future<RecordMetadata> send : sends) {
+            try {
+                send.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while replaying DLQ", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("DLQ replay send failed: " + ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+    }
+
+    private String targetTopic(ConsumerRecord<byte[], byte[]> record, KafkaDlqReplayRequest request) {
+        if (request.targetTopic() != null && !request.targetTopic().isBlank()) {
+            return request.targetTopic();
+        }
+        Header header = record.headers().lastHeader(KafkaHeaderNames.ORIGINAL_TOPIC);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private RecordHeaders replayHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!DROPPED_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private KafkaConsumer<byte[], byte[]> createConsumer(String dlqTopic) {
+        Map<String, Object> configs = new HashMap<>(consumerFactory.getConfigurationProperties());
+        configs.put(ConsumerConfig.GROUP_ID_CONFIG, properties.getReplayGroupIdPrefix() + "." + dlqTopic);
+        configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, properties.getReplayBatchSize());
+        configs.put(ConsumerConfig.CLIENT_ID_CONFIG, "oneself-dlq-replay-" + dlqTopic);
+        configs.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        return new KafkaConsumer<>(configs, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private KafkaProducer<byte[], byte[]> createProducer() {
+        Map<String, Object> configs = new HashMap<>(producerFactory.getConfigurationProperties());
+        configs.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        configs.remove(ProducerConfig.CLIENT_ID_CONFIG);
+        return new KafkaProducer<>(configs, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    /**
+     * 失败异常类与 key 过滤。
+     */
+    private static final class Filter {
+
+        private final byte[] failureClass;
+        private final byte[] key;
+
+        private Filter(KafkaDlqReplayRequest request) {
+            this.failureClass = blankToNull(request.failureClass());
+            this.key = blankToNull(request.key());
+        }
+
+        private boolean matches(ConsumerRecord<byte[], byte[]> record) {
+            if (key != null && !Arrays.equals(key, record.key())) {
+                return false;
+            }
+            if (failureClass != null) {
+                Header header = record.headers().lastHeader(KafkaHeaderNames.FAILURE_CLASS);
+                return header != null && Arrays.equals(failureClass, header.value());
+            }
+            return true;
+        }
+
+        private static byte[] blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.oneself.kafka.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Envelope 二进制编解码。
+ * <p>
+ * 格式：{@code magic | version | codecId | flags | id | schemaId/type | traceId | schemaVersion
+ * | timestamp | headers | payload}，字符串与整数使用 varint 长度前缀；payload 由 {@link KafkaPayloadCodec} 编码。
+ * 首字节非 magic 时按旧版 JSON Envelope 解析，保证与存量消息兼容。
+ */
+public class KafkaEnvelopeCodec {
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_SCHEMA_ID = 1;
+    private static final int FLAG_TIMESTAMP = 1 << 1;
+    private static final int FLAG_PAYLOAD = 1 << 2;
+
+    private final KafkaCodecRegistry codecRegistry;
+    private final KafkaSchemaRegistry schemaRegistry;
+    private final JacksonKafkaPayloadCodec legacyCodec;
+
+    public KafkaEnvelopeCodec(KafkaCodecRegistry codecRegistry, KafkaSchemaRegistry schemaRegistry,
+                              JacksonKafkaPayloadCodec legacyCodec) {
+        this.codecRegistry = codecRegistry;
+        this.schemaRegistry = schemaRegistry;
+        this.legacyCodec = legacyCodec;
+    }
+
+    /**
+     * 编码 Envelope。
+     */
+    public byte[] encode(String topic, KafkaEnvelope<?> envelope) {
+        KafkaPayloadCodec codec = codecRegistry.codecFor(topic);
+        Object payload = envelope.payload();
+        Integer schemaId = payload == null ? null : schemaRegistry.schemaId(payload.getClass());
+        byte[] payloadBytes = payload == null ? null : codec.encode(payload);
+        int flags = (schemaId != null ? FLAG_SCHEMA_ID : 0)
+                | (envelope.timestamp() != null ? FLAG_TIMESTAMP : 0)
+                | (payloadBytes != null ? FLAG_PAYLOAD : 0);
+        Writer writer = new Writer(64 + (payloadBytes == null ? 0 : payloadBytes.length));
+        writer.writeByte(MAGIC);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeByte(codec.id());
+        writer.writeByte((byte) flags);
+        writer.writeString(envelope.id());
+        if (schemaId != null) {
+            writer.writeVarInt(schemaId);
+        } else {
+            writer.writeString(envelope.type());
+        }
+        writer.writeString(envelope.traceId());
+        writer.writeString(envelope.schemaVersion());
+        if (envelope.timestamp() != null) {
+            writer.writeVarLong(envelope.timestamp().getEpochSecond());
+            writer.writeVarInt(envelope.timestamp().getNano());
+        }
+        Map<String, String> headers = envelope.headers();
+        writer.writeVarInt(headers == null ? 0 : headers.size());
+        if (headers != null) {
+            headers.forEach((key, value) -> {
+                writer.writeString(key);
+                writer.writeString(value);
+            });
+        }
+        if (payloadBytes != null) {
+            writer.writeBytes(payloadBytes);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 解码 Envelope。
+     */
+    public KafkaEnvelope<Object> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (data[0] != MAGIC) {
+            return decodeLegacy(data);
+        }
+        Reader reader = new Reader(data);
+        reader.readByte();
+        byte version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported envelope format version: " + version);
+        }
+        KafkaPayloadCodec codec = codecRegistry.codecOf(reader.readByte());
+        int flags = reader.readByte();
+        String id = reader.readString();
+        Class<?> payloadType;
+        String type;
+        if ((flags & FLAG_SCHEMA_ID) != 0) {
+            int schemaId = reader.readVarInt();
+            payloadType = schemaRegistry.typeOf(schemaId);
+            if (payloadType == null) {
+                throw new SerializationException("Unknown payload schema id: " + schemaId);
+            }
+            type = payloadType.getName();
+        } else {
+            type = reader.readString();
+            payloadType = schemaRegistry.resolve(type);
+        }
+        String traceId = reader.readString();
+        String schemaVersion = reader.readString();
+        Instant timestamp = null;
+        if ((flags & FLAG_TIMESTAMP) != 0) {
+            timestamp = Instant.ofEpochSecond(reader.readVarLong(), reader.readVarInt());
+        }
+        int headerCount = reader.readVarInt();
+        Map<String, String> headers = new LinkedHashMap<>(Math.max(4, headerCount * 2));
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(reader.readString(), reader.readString());
+        }
+        Object payload = null;
+        if ((flags & FLAG_PAYLOAD) != 0) {
+            payload = codec.decode(data, reader.position(), data.length - reader.position(), payloadType);
+        }
+        return new KafkaEnvelope<>(id, type, traceId, schemaVersion, payload, headers, timestamp);
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaEnvelope<Object> decodeLegacy(byte[] data) {
+        KafkaEnvelope<Object> envelope = (KafkaEnvelope<Object>) legacyCodec.decode(data, 0, data.length,
+                KafkaEnvelope.class);
+        Class<?> payloadType = schemaRegistry.resolve(envelope.type());
+        if (payloadType == null || envelope.payload() == null) {
+            return envelope;
+        }
+        return new KafkaEnvelope<>(envelope.id(), envelope.type(), envelope.traceId(), envelope.schemaVersion(),
+                legacyCodec.convert(envelope.payload(), payloadType), envelope.headers(), envelope.timestamp());
+    }
+
+    /**
+     * 可扩容字节写入器。
+     */
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        private void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[position++] = (byte) zigzag;
+        }
+
+        /**
+         * 写入字符串，长度 +1 编码，0 表示 null。
+         */
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes);
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * 字节读取器。
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private byte readByte() {
+            if (position >= data.length) {
+                throw new SerializationException("Truncated envelope");
+            }
+            return data[position++];
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte current = readByte();
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in envelope");
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte current = readByte();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new SerializationException("Malformed varlong in envelope");
+        }
+
+        private String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (position + length > data.length) {
+                throw new SerializationException("Truncated envelope");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private int position() {
+            return position;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.oneself.kafka.core;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Envelope 反序列化器，根据消息头部的编码标识自动选择解码器。
+ */
+public class KafkaEnvelopeDeserializer implements Deserializer<Object> {
+
+    private final KafkaEnvelopeCodec envelopeCodec;
+
+    public KafkaEnvelopeDeserializer(KafkaEnvelopeCodec envelopeCodec) {
+        this.envelopeCodec = envelopeCodec;
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return envelopeCodec.decode(data);
+    }
+}
@@ -0,0 +1,31 @@
+package com.oneself.kafka.core;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Envelope 序列化器，按 topic 选择 payload 编码。
+ */
+public class KafkaEnvelopeSerializer implements Serializer<Object> {
+
+    private final KafkaEnvelopeCodec envelopeCodec;
+
+    public KafkaEnvelopeSerializer(KafkaEnvelopeCodec envelopeCodec) {
+        this.envelopeCodec = envelopeCodec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (data instanceof KafkaEnvelope<?> envelope) {
+            return envelopeCodec.encode(topic, envelope);
+        }
+        KafkaEnvelope<Object> wrapped = new KafkaEnvelope<>(null, data.getClass().getName(), null, null, data,
+                null, null);
+        return envelopeCodec.encode(topic, wrapped);
+    }
+}
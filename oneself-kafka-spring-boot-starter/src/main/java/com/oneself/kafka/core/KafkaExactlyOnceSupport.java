@@ -0,0 +1,76 @@
+package com.oneself.kafka.core;
+
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Exactly-once（consume-transform-produce）支持：独立的事务型生产者工厂、KafkaTemplate 与事务管理器。
+ * <p>
+ * 事务管理器交给 EOS 监听容器，容器在每次 poll（批量）或每条记录前开启 Kafka 事务，监听方法内经 {@link KafkaOps}
+ * 发送的消息与消费 offset（{@code sendOffsetsToTransaction}）在同一事务内提交或回滚。
+ * 事务管理器不注册为 Bean，避免影响应用内的 JDBC/JPA 事务管理器。
+ */
+public class KafkaExactlyOnceSupport implements AutoCloseable {
+
+    private final DefaultKafkaProducerFactory<Object, Object> producerFactory;
+    private final KafkaTemplate<Object, Object> template;
+    private final KafkaTransactionManager<Object, Object> transactionManager;
+
+    /**
+     * 构造 EOS 支持，producerFactory 必须已设置 transactionIdPrefix。
+     */
+    public KafkaExactlyOnceSupport(DefaultKafkaProducerFactory<Object, Object> producerFactory) {
+        if (!producerFactory.transactionCapable()) {
+            throw new IllegalStateException("Exactly-once requires a transactional producer factory");
+        }
+        this.producerFactory = producerFactory;
+        this.template = new KafkaTemplate<>(producerFactory);
+        this.transactionManager = new KafkaTransactionManager<>(producerFactory);
+    }
+
+    /**
+     * 事务型 KafkaTemplate。
+     */
+    public KafkaTemplate<Object, Object> template() {
+        return template;
+    }
+
+    /**
+     * Kafka 事务管理器（供监听容器使用）。
+     */
+    public KafkaTransactionManager<Object, Object> transactionManager() {
+        return transactionManager;
+    }
+
+    /**
+     * 当前线程是否处于 EOS 容器开启的 Kafka 事务中。
+     * <p>
+     * 仅判断事务型生产者是否已绑定到当前线程，应用自身的 JDBC/JPA 事务不会让发送切换为 Kafka 事务。
+     */
+    public boolean inTransaction() {
+        return TransactionSynchronizationManager.hasResource(producerFactory);
+    }
+
+    /**
+     * 在本地 Kafka 事务中执行发送（非消费触发的原子多条发送），需使用回调参数发送。
+     */
+    public <T> T executeInTransaction(KafkaOperations.OperationsCallback<Object, Object, T> callback) {
+        return template.executeInTransaction(callback);
+    }
+
+    /**
+     * 为事务型生产者工厂添加监听器（如客户端指标绑定）。
+     */
+    public void addListener(ProducerFactory.Listener<Object, Object> listener) {
+        producerFactory.addListener(listener);
+    }
+
+    @Override
+    public void close() {
+        producerFactory.destroy();
+    }
+}
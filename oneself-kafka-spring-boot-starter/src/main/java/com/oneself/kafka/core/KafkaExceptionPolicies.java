@@ -0,0 +1,71 @@
+package com.oneself.kafka.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.backoff.BackOff;
+
+/**
+ * 按异常类型选择退避策略：沿异常 cause 链查找，取最具体的已注册类型。
+ */
+public class KafkaExceptionPolicies {
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Class<?>, Optional<BackOff>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 注册异常类型的退避策略。
+     */
+    public void register(Class<? extends Throwable> type, BackOff backOff) {
+        entries.add(new Entry(type, backOff, depth(type)));
+        entries.sort(Comparator.comparingInt(Entry::depth).reversed());
+        resolved.clear();
+    }
+
+    /**
+     * 是否未配置任何策略。
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * 获取异常对应的退避策略，未匹配返回 null（使用默认策略）。
+     */
+    public BackOff backOffFor(Throwable exception) {
+        Throwable current = exception;
+        int guard = 0;
+        while (current != null && guard++ < 16) {
+            Optional<BackOff> backOff = resolved.computeIfAbsent(current.getClass(), this::match);
+            if (backOff.isPresent()) {
+                return backOff.get();
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return null;
+    }
+
+    private Optional<BackOff> match(Class<?> type) {
+        for (Entry entry : entries) {
+            if (entry.type().isAssignableFrom(type)) {
+                return Optional.of(entry.backOff());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int depth(Class<?> type) {
+        int depth = 0;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private record Entry(Class<? extends Throwable> type, BackOff backOff, int depth) {
+    }
+}
@@ -13,7 +13,38 @@ public final class KafkaHeaderNames {
     public static final String ORIGINAL_OFFSET = "x-original-offset";
     public static final String FAILURE_CLASS = "x-failure-class";
     public static final String FAILURE_MESSAGE = "x-failure-message";
+    public static final String RETRY_DUE_AT = "x-retry-due-at";
+    public static final String PACKED_COUNT = "x-packed-count";
+
+    /**
+     * 常用 header 表，下标由 {@link #indexOf(String)} 给出，用于按下标缓存解码结果与复用 key 实例。
+     */
+    static final String[] WELL_KNOWN = {
+            EVENT_ID, TRACE_ID, RETRY_COUNT, ORIGINAL_TOPIC, ORIGINAL_PARTITION, ORIGINAL_OFFSET,
+            FAILURE_CLASS, FAILURE_MESSAGE, RETRY_DUE_AT
+    };
 
     private KafkaHeaderNames() {
     }
+
+    /**
+     * 获取常用 header 下标，非常用 header 返回 -1。
+     */
+    static int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        return switch (name) {
+            case EVENT_ID -> 0;
+            case TRACE_ID -> 1;
+            case RETRY_COUNT -> 2;
+            case ORIGINAL_TOPIC -> 3;
+            case ORIGINAL_PARTITION -> 4;
+            case ORIGINAL_OFFSET -> 5;
+            case FAILURE_CLASS -> 6;
+            case FAILURE_MESSAGE -> 7;
+            case RETRY_DUE_AT -> 8;
+            default -> -1;
+        };
+    }
 }
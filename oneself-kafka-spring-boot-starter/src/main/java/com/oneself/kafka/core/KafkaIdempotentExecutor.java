@@ -1,5 +1,8 @@
 package com.oneself.kafka.core;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -11,4 +14,24 @@ public interface KafkaIdempotentExecutor {
      * 执行幂等逻辑。
      */
     <T> T execute(String eventId, Supplier<T> action, Supplier<T> onDuplicate);
+
+    /**
+     * 批量执行幂等逻辑：按顺序处理 items，重复事件回调 onDuplicate，其余回调 action。
+     * <p>
+     * recordResolver 返回事件 ID 与来源坐标（为空或无事件 ID 时不做幂等）。action 抛出异常时，已处理事件标记完成，
+     * 失败事件按单条语义处理，未处理事件释放占位后重新抛出。默认实现逐条调用 {@link #execute}，具体实现可批量占位/提交以摊薄存储往返。
+     */
+    default <M> void executeBatch(List<M> items, Function<? super M, KafkaIdempotentRecord> recordResolver,
+                                  Consumer<? super M> action, Consumer<? super M> onDuplicate) {
+        for (M item : items) {
+            KafkaIdempotentRecord record = recordResolver.apply(item);
+            execute(record == null ? null : record.eventId(), () -> {
+                action.accept(item);
+                return null;
+            }, () -> {
+                onDuplicate.accept(item);
+                return null;
+            });
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.oneself.kafka.core;
+
+/**
+ * 幂等占位记录：事件 ID 与来源记录坐标。
+ *
+ * @param eventId   事件 ID（为空表示不做幂等）
+ * @param topic     来源 topic
+ * @param partition 来源分区（未知时为 -1）
+ * @param offset    来源 offset（未知时为 -1）
+ */
+public record KafkaIdempotentRecord(String eventId, String topic, int partition, long offset) {
+
+    /**
+     * 由批量消息构造：记录型消息取 ConsumerRecord 坐标，其它消息仅有 topic。
+     */
+    public static KafkaIdempotentRecord of(KafkaMessage<?> message) {
+        String eventId = message.getHeader(KafkaHeaderNames.EVENT_ID);
+        if (message instanceof RecordKafkaMessage<?> recordMessage) {
+            return new KafkaIdempotentRecord(eventId, recordMessage.getRecord().topic(),
+                    recordMessage.getRecord().partition(), recordMessage.getRecord().offset());
+        }
+        return new KafkaIdempotentRecord(eventId, message.getTopic(), -1, -1L);
+    }
+
+    /**
+     * 是否需要幂等（事件 ID 非空）。
+     */
+    public boolean idempotent() {
+        return eventId != null && !eventId.isBlank();
+    }
+}
@@ -1,5 +1,10 @@
 package com.oneself.kafka.core;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * 幂等记录仓储接口。
  */
@@ -19,4 +24,26 @@ public interface KafkaIdempotentRepository {
      * 标记失败。
      */
     void markFailed(String eventId, String errorMessage);
+
+    /**
+     * 批量插入幂等记录，返回插入成功的 eventId（同一 eventId 以首条记录为准）。
+     */
+    default Set<String> tryInsertAll(Collection<KafkaIdempotentRecord> records, String groupId) {
+        Set<String> seen = new HashSet<>();
+        Set<String> inserted = new LinkedHashSet<>();
+        for (KafkaIdempotentRecord record : records) {
+            if (seen.add(record.eventId())
+                    && tryInsert(record.eventId(), groupId, record.topic(), record.partition(), record.offset())) {
+                inserted.add(record.eventId());
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 批量标记完成。
+     */
+    default void markDoneAll(Collection<String> eventIds) {
+        eventIds.forEach(this::markDone);
+    }
 }
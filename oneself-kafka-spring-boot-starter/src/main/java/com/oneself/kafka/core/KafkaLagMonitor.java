@@ -0,0 +1,154 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+/**
+ * 消费 lag 采集：定时读取本实例监听容器已分配分区的已提交 offset 与末尾 offset，
+ * 以 {@code oneself.kafka.consumer.lag}（group/topic/partition）暴露差值。
+ * <p>
+ * 只统计本实例分配到的分区，多实例汇总即为消费组整体 lag；分区回收时立即移除对应 gauge。
+ */
+public class KafkaLagMonitor implements KafkaPartitionLifecycleListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaLagMonitor.class);
+
+    private final Admin admin;
+    private final MeterRegistry registry;
+    private final Supplier<Collection<MessageListenerContainer>> containers;
+    private final Duration timeout;
+    private final Map<LagKey, LagGauge> gauges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 构造 lag 采集器并按 interval 定时刷新。
+     */
+    public KafkaLagMonitor(Admin admin, MeterRegistry registry,
+                           Supplier<Collection<MessageListenerContainer>> containers, Duration interval) {
+        this.admin = admin;
+        this.registry = registry;
+        this.containers = containers;
+        this.timeout = interval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-kafka-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 立即刷新 lag。
+     */
+    public void refresh() throws ExecutionException, InterruptedException, TimeoutException {
+        Map<String, Set<TopicPartition>> assigned = new LinkedHashMap<>();
+        for (MessageListenerContainer container : containers.get()) {
+            String groupId = container.getGroupId();
+            Collection<TopicPartition> partitions = container.getAssignedPartitions();
+            if (groupId != null && partitions != null && !partitions.isEmpty()) {
+                assigned.computeIfAbsent(groupId, key -> new HashSet<>()).addAll(partitions);
+            }
+        }
+        Set<TopicPartition> all = new HashSet<>();
+        assigned.values().forEach(all::addAll);
+        Map<TopicPartition, OffsetSpec> specs = new HashMap<>();
+        all.forEach(partition -> specs.put(partition, OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = specs.isEmpty()
+                ? Map.of()
+                : admin.listOffsets(specs).all().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        Set<LagKey> seen = new HashSet<>();
+        for (Map.Entry<String, Set<TopicPartition>> entry : assigned.entrySet()) {
+            String groupId = entry.getKey();
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            for (TopicPartition partition : entry.getValue()) {
+                OffsetAndMetadata offset = committed.get(partition);
+                ListOffsetsResult.ListOffsetsResultInfo end = endOffsets.get(partition);
+                if (offset == null || end == null) {
+                    continue;
+                }
+                LagKey key = new LagKey(groupId, partition);
+                seen.add(key);
+                gauges.computeIfAbsent(key, this::register).value.set(Math.max(0L, end.offset() - offset.offset()));
+            }
+        }
+        Iterator<Map.Entry<LagKey, LagGauge>> iterator = gauges.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<LagKey, LagGauge> entry = iterator.next();
+            if (!seen.contains(entry.getKey())) {
+                registry.remove(entry.getValue().gauge);
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevoked(String groupId, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            LagGauge lagGauge = gauges.remove(new LagKey(groupId, partition));
+            if (lagGauge != null) {
+                registry.remove(lagGauge.gauge);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        gauges.values().forEach(lagGauge -> registry.remove(lagGauge.gauge));
+        gauges.clear();
+        admin.close(Duration.ofSeconds(5));
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.warn("oneself.kafka lag refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    private LagGauge register(LagKey key) {
+        AtomicLong value = new AtomicLong();
+        Gauge gauge = Gauge.builder("oneself.kafka.consumer.lag", value, AtomicLong::doubleValue)
+                .tag("group", key.groupId())
+                .tag("topic", key.partition().topic())
+                .tag("partition", Integer.toString(key.partition().partition()))
+                .register(registry);
+        return new LagGauge(gauge, value);
+    }
+
+    private record LagKey(String groupId, TopicPartition partition) {
+    }
+
+    private record LagGauge(Gauge gauge, AtomicLong value) {
+    }
+}
@@ -38,6 +38,14 @@ public class KafkaMessage<T> {
         return headers;
     }
 
+    /**
+     * 获取单个 header，不存在返回 null。
+     */
+    public String getHeader(String name) {
+        Map<String, String> all = getHeaders();
+        return all == null ? null : all.get(name);
+    }
+
     public Instant getTimestamp() {
         return timestamp;
     }
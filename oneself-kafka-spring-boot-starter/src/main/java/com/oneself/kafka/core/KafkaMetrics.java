@@ -0,0 +1,35 @@
+package com.oneself.kafka.core;
+
+/**
+ * Starter 指标 SPI，默认实现基于 Micrometer（{@link MicrometerKafkaMetrics}）。
+ * <p>
+ * 接口本身不依赖 Micrometer，未引入 Micrometer 时核心组件不会加载相关类。
+ */
+public interface KafkaMetrics {
+
+    /**
+     * 记录一次发送（从调用 send 到 broker 确认）。
+     */
+    void recordSend(String topic, long startNanos, boolean success);
+
+    /**
+     * 记录一次消息适配。
+     *
+     * @param operation adapt / adaptAll
+     * @param records   适配的记录数
+     */
+    void recordAdapt(String operation, int records, long startNanos);
+
+    /**
+     * 记录一次幂等执行。
+     *
+     * @param operation execute / executeBatch
+     * @param outcome   executed / duplicate / failed
+     */
+    void recordIdempotent(String operation, String outcome, long startNanos);
+
+    /**
+     * 记录重复事件数。
+     */
+    void countDuplicates(int count);
+}
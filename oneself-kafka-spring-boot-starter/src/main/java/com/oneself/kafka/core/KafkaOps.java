@@ -3,12 +3,15 @@ package com.oneself.kafka.core;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.slf4j.MDC;
 
 import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
@@ -21,14 +24,44 @@ public class KafkaOps {
     private final KafkaTemplate<Object, Object> kafkaTemplate;
     private final OneselfKafkaProperties properties;
     private final KafkaKeyResolver keyResolver;
+    private final KafkaProducerPool producerPool;
+    private final KafkaMetrics metrics;
+    private final KafkaExactlyOnceSupport exactlyOnce;
 
     /**
      * 构造 KafkaOps。
      */
     public KafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties) {
+        this(kafkaTemplate, properties, null, null);
+    }
+
+    /**
+     * 构造 KafkaOps，配置生产者池时按 topic 分组发送。
+     */
+    public KafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties,
+                    KafkaProducerPool producerPool) {
+        this(kafkaTemplate, properties, producerPool, null);
+    }
+
+    /**
+     * 构造 KafkaOps，metrics 不为空时记录发送耗时（至 broker 确认）。
+     */
+    public KafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties,
+                    KafkaProducerPool producerPool, KafkaMetrics metrics) {
+        this(kafkaTemplate, properties, producerPool, metrics, null);
+    }
+
+    /**
+     * 构造 KafkaOps，exactlyOnce 不为空时，处于 EOS 容器事务内的发送改用事务型生产者并随消费 offset 一起提交。
+     */
+    public KafkaOps(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties,
+                    KafkaProducerPool producerPool, KafkaMetrics metrics, KafkaExactlyOnceSupport exactlyOnce) {
         this.kafkaTemplate = kafkaTemplate;
         this.properties = properties;
         this.keyResolver = new KafkaKeyResolver();
+        this.producerPool = producerPool;
+        this.metrics = metrics;
+        this.exactlyOnce = exactlyOnce;
     }
 
     /**
@@ -60,35 +93,103 @@ public class KafkaOps {
      * 发送自定义 header 的消息。
      */
     public void send(String topic, String key, Object payload, Map<String, String> headers) {
-        String resolvedKey = resolveKey(topic, key, payload);
+        sendResolved(topic, resolveKey(topic, key, payload), payload, headers, mdcTraceId(), Instant.now());
+    }
+
+    /**
+     * 以已解析的 key 与调用方线程采集的 traceId/时间发送（供批量发送复用），返回发送结果。
+     */
+    CompletableFuture<SendResult<Object, Object>> sendResolved(String topic, String resolvedKey, Object payload,
+                                                               Map<String, String> headers, String traceId,
+                                                               Instant timestamp) {
+        Map<String, String> mergedHeaders = new HashMap<>();
+        KafkaEnvelope<Object> envelope = envelope(payload, headers, mergedHeaders, traceId, timestamp);
+        return send(topic, resolvedKey, envelope, mergedHeaders);
+    }
+
+    /**
+     * 将多条事件打包为一条记录发送，返回发送结果。
+     */
+    CompletableFuture<SendResult<Object, Object>> sendPacked(String topic, String resolvedKey,
+                                                             List<KafkaEnvelope<Object>> events) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(KafkaHeaderNames.PACKED_COUNT, String.valueOf(events.size()));
+        KafkaEnvelope<Object> first = events.get(0);
         Map<String, String> mergedHeaders = new HashMap<>();
+        KafkaEnvelope<Object> envelope = envelope(new KafkaPackedEvents(events), headers, mergedHeaders,
+                first.traceId(), Instant.now());
+        return send(topic, resolvedKey, envelope, mergedHeaders);
+    }
+
+    /**
+     * 刷出生产者缓冲区中的记录。
+     */
+    void flushProducer() {
+        if (producerPool != null) {
+            producerPool.flush();
+            return;
+        }
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * 构建 Envelope，并将最终 header（含 eventId/traceId）写入 mergedHeaders。
+     */
+    KafkaEnvelope<Object> envelope(Object payload, Map<String, String> headers, Map<String, String> mergedHeaders,
+                                   String traceId, Instant timestamp) {
         if (headers != null) {
             mergedHeaders.putAll(headers);
         }
         String eventId = ensureHeader(mergedHeaders, KafkaHeaderNames.EVENT_ID, UUID.randomUUID().toString());
-        String traceId = ensureHeader(mergedHeaders, KafkaHeaderNames.TRACE_ID, mdcTraceId());
-        KafkaEnvelope<Object> envelope = new KafkaEnvelope<>(
+        String resolvedTraceId = ensureHeader(mergedHeaders, KafkaHeaderNames.TRACE_ID, traceId);
+        return new KafkaEnvelope<>(
                 eventId,
                 payload == null ? "unknown" : payload.getClass().getName(),
-                traceId,
+                resolvedTraceId,
                 properties.getSchemaVersion(),
                 payload,
                 mergedHeaders,
-                Instant.now()
+                timestamp
         );
-        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, resolvedKey, envelope);
-        mergedHeaders.forEach((headerKey, headerValue) -> {
+    }
+
+    private CompletableFuture<SendResult<Object, Object>> send(String topic, String resolvedKey,
+                                                              KafkaEnvelope<Object> envelope,
+                                                              Map<String, String> headers) {
+        ProducerRecord<Object, Object> record = new ProducerRecord<>(topic, resolvedKey, envelope);
+        headers.forEach((headerKey, headerValue) -> {
             if (headerKey != null && headerValue != null) {
                 record.headers().add(new RecordHeader(headerKey, headerValue.getBytes(StandardCharsets.UTF_8)));
             }
         });
-        kafkaTemplate.send(record);
+        if (metrics == null) {
+            return doSend(record);
+        }
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<SendResult<Object, Object>> future = doSend(record);
+            future.whenComplete((result, ex) -> metrics.recordSend(topic, start, ex == null));
+            return future;
+        } catch (RuntimeException ex) {
+            metrics.recordSend(topic, start, false);
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<SendResult<Object, Object>> doSend(ProducerRecord<Object, Object> record) {
+        if (exactlyOnce != null && exactlyOnce.inTransaction()) {
+            return exactlyOnce.template().send(record);
+        }
+        if (producerPool != null) {
+            return producerPool.send(record);
+        }
+        return kafkaTemplate.send(record);
     }
 
     /**
      * 解析消息 key，顺序 topic 必须保证有 key。
      */
-    private String resolveKey(String topic, String key, Object payload) {
+    String resolveKey(String topic, String key, Object payload) {
         boolean ordered = isOrderedTopic(topic);
         if (ordered) {
             if (key != null && !key.isBlank()) {
@@ -142,7 +243,7 @@ public class KafkaOps {
         return value;
     }
 
-    private String mdcTraceId() {
+    String mdcTraceId() {
         String traceId = MDC.get(KafkaHeaderNames.TRACE_ID);
         if (traceId == null || traceId.isBlank()) {
             traceId = MDC.get("traceId");
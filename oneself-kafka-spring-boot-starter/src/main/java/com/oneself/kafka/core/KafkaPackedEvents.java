@@ -0,0 +1,12 @@
+package com.oneself.kafka.core;
+
+import java.util.List;
+
+/**
+ * 打包消息 payload：多条逻辑事件合并为一条 Kafka 记录，配合生产者压缩显著降低单条开销。
+ * <p>
+ * 外层记录带 {@link KafkaHeaderNames#PACKED_COUNT} header，消费端使用 {@link KafkaConsumerAdapter#unpack} 拆包。
+ */
+public record KafkaPackedEvents(List<KafkaEnvelope<Object>> events) {
+
+}
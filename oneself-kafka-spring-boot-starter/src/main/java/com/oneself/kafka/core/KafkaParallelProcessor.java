@@ -0,0 +1,392 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+/**
+ * 分区内并行消费处理器：同一分区的记录派发到工作线程并行处理，同 key 记录串行以保证顺序。
+ * <p>
+ * 监听方法只负责派发并立即返回；offset 由 {@link KafkaPartitionOffsetTracker} 追踪，
+ * 每次 poll、容器空闲以及分区回收时只提交连续完成的前缀。处理失败的记录交给 {@link ConsumerRecordRecoverer}
+ * 转发到重试/死信 topic；未配置转发器或转发也失败时，消费线程在下一次 poll 或空闲时等待该分区在途记录结束，
+ * 提交失败位置之前的前缀并 seek 回失败位置重新投递（其后已完成的记录也会重新处理，依赖幂等执行器去重）。
+ * 单分区在途记录达到上限时阻塞派发线程（期间持续提交进度），需保证 max.poll.interval 足够覆盖处理耗时。
+ * 进度按消费组与分区隔离，同一处理器可被多个消费组的容器共享。
+ */
+public class KafkaParallelProcessor implements ConsumerAwareRebalanceListener,
+        ApplicationListener<ListenerContainerIdleEvent>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaParallelProcessor.class);
+
+    private static final long PERMIT_WAIT_MILLIS = 100L;
+
+    private final KafkaConsumerAdapter adapter;
+    private final KafkaIdempotentExecutor idempotentExecutor;
+    private final ConsumerRecordRecoverer recoverer;
+    private final ExecutorService executor;
+    private final int maxInFlightPerPartition;
+    private final Duration drainTimeout;
+    private final Set<String> orderedTopics;
+    private final Map<GroupPartition, KafkaPartitionOffsetTracker> trackers = new ConcurrentHashMap<>();
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * 构造并行处理器。
+     *
+     * @param adapter                 消息适配器
+     * @param idempotentExecutor      幂等执行器（可为空）
+     * @param recoverer               失败记录转发器（可为空）
+     * @param executor                工作线程池
+     * @param maxInFlightPerPartition 单分区最大在途记录数
+     * @param drainTimeout            分区回收/关闭时等待在途记录完成的最长时间
+     * @param orderedTopics           顺序 topic，无 key 记录按分区串行
+     */
+    public KafkaParallelProcessor(KafkaConsumerAdapter adapter,
+                                  KafkaIdempotentExecutor idempotentExecutor,
+                                  ConsumerRecordRecoverer recoverer,
+                                  ExecutorService executor,
+                                  int maxInFlightPerPartition,
+                                  Duration drainTimeout,
+                                  Set<String> orderedTopics) {
+        this.adapter = adapter;
+        this.idempotentExecutor = idempotentExecutor;
+        this.recoverer = recoverer;
+        this.executor = executor;
+        this.maxInFlightPerPartition = maxInFlightPerPartition;
+        this.drainTimeout = drainTimeout;
+        this.orderedTopics = orderedTopics;
+    }
+
+    /**
+     * 派发一次 poll 的记录，需在批量监听方法（消费线程）内调用。
+     */
+    public <T> void process(ConsumerRecords<String, KafkaEnvelope<T>> records,
+                            org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                            Consumer<KafkaMessage<T>> handler) {
+        String groupId = groupId(consumer);
+        Set<TopicPartition> rewound = rewindFailed(consumer, groupId);
+        commit(consumer, groupId, false);
+        for (ConsumerRecord<String, KafkaEnvelope<T>> record : records) {
+            if (!rewound.isEmpty() && rewound.contains(new TopicPartition(record.topic(), record.partition()))) {
+                continue;
+            }
+            dispatch(record, consumer, groupId, handler);
+        }
+    }
+
+    /**
+     * 提交当前消费者已分配分区的连续完成前缀。
+     */
+    public void commit(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer, boolean sync) {
+        commit(consumer, groupId(consumer), sync);
+    }
+
+    /**
+     * 指定消费组的单分区在途记录数。
+     */
+    public int inFlight(String groupId, TopicPartition partition) {
+        KafkaPartitionOffsetTracker tracker = trackers.get(new GroupPartition(groupId, partition));
+        return tracker == null ? 0 : tracker.inFlight();
+    }
+
+    @Override
+    public void onApplicationEvent(ListenerContainerIdleEvent event) {
+        String groupId = groupId(event.getConsumer());
+        rewindFailed(event.getConsumer(), groupId);
+        commit(event.getConsumer(), groupId, false);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                                                Collection<TopicPartition> partitions) {
+        String groupId = groupId(consumer);
+        awaitIdle(groupId, partitions);
+        try {
+            commit(consumer, groupId, true);
+        } catch (RuntimeException ex) {
+            log.warn("oneself.kafka parallel commit on revoke failed: {}", ex.getMessage());
+        }
+        partitions.forEach(partition -> trackers.remove(new GroupPartition(groupId, partition)));
+    }
+
+    @Override
+    public void onPartitionsLost(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                                 Collection<TopicPartition> partitions) {
+        String groupId = groupId(consumer);
+        partitions.forEach(partition -> trackers.remove(new GroupPartition(groupId, partition)));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer, String groupId, boolean sync) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            KafkaPartitionOffsetTracker tracker = trackers.get(new GroupPartition(groupId, partition));
+            if (tracker == null) {
+                continue;
+            }
+            long offset = tracker.committableOffset();
+            if (offset >= 0) {
+                offsets.put(partition, new OffsetAndMetadata(offset));
+            }
+        }
+        if (offsets.isEmpty()) {
+            return;
+        }
+        if (sync) {
+            consumer.commitSync(offsets);
+            markCommitted(groupId, offsets);
+            return;
+        }
+        consumer.commitAsync(offsets, (committed, ex) -> {
+            if (ex != null) {
+                log.warn("oneself.kafka parallel commit failed: {}", ex.getMessage());
+                return;
+            }
+            markCommitted(groupId, committed);
+        });
+    }
+
+    /**
+     * 存在无法恢复失败的分区：等待在途记录结束，提交失败位置之前的前缀，seek 回失败位置并重置追踪，返回这些分区。
+     * 需在消费线程调用；本次 poll 中这些分区的记录不再派发，下次 poll 从失败位置重新拉取。
+     */
+    private Set<TopicPartition> rewindFailed(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer, String groupId) {
+        Set<TopicPartition> rewound = new HashSet<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            KafkaPartitionOffsetTracker tracker = trackers.get(new GroupPartition(groupId, partition));
+            if (tracker != null && tracker.hasFailed()) {
+                rewound.add(partition);
+            }
+        }
+        if (rewound.isEmpty()) {
+            return rewound;
+        }
+        awaitIdle(groupId, rewound);
+        try {
+            commit(consumer, groupId, true);
+        } catch (RuntimeException ex) {
+            log.warn("oneself.kafka parallel commit before rewind failed: {}", ex.getMessage());
+        }
+        for (TopicPartition partition : rewound) {
+            KafkaPartitionOffsetTracker tracker = trackers.remove(new GroupPartition(groupId, partition));
+            long offset = tracker.resumeOffset();
+            log.warn("oneself.kafka parallel partition {} rewound to offset {} after unrecoverable failure",
+                    partition, offset);
+            consumer.seek(partition, offset);
+        }
+        return rewound;
+    }
+
+    private <T> void dispatch(ConsumerRecord<String, KafkaEnvelope<T>> record,
+                              org.apache.kafka.clients.consumer.Consumer<?, ?> consumer,
+                              String groupId,
+                              Consumer<KafkaMessage<T>> handler) {
+        GroupPartition partition = new GroupPartition(groupId, new TopicPartition(record.topic(), record.partition()));
+        KafkaPartitionOffsetTracker tracker = trackers.computeIfAbsent(partition,
+                key -> new KafkaPartitionOffsetTracker(maxInFlightPerPartition));
+        awaitPermit(tracker, consumer, groupId);
+        tracker.dispatched(record.offset());
+        Runnable task = () -> handle(record, tracker, handler);
+        Object key = laneKey(record);
+        if (key == null) {
+            executor.execute(task);
+        } else {
+            submit(new LaneKey(partition, key), task);
+        }
+    }
+
+    /**
+     * 处理单条记录；无论成功、失败还是抛出 Error，都会在 tracker 上结算该 offset 并释放许可。
+     */
+    private <T> void handle(ConsumerRecord<String, KafkaEnvelope<T>> record,
+                            KafkaPartitionOffsetTracker tracker,
+                            Consumer<KafkaMessage<T>> handler) {
+        boolean settled = false;
+        try {
+            KafkaMessage<T> message = adapter.adapt(record);
+            String eventId = message.getHeader(KafkaHeaderNames.EVENT_ID);
+            if (idempotentExecutor == null || eventId == null || eventId.isBlank()) {
+                handler.accept(message);
+            } else {
+                idempotentExecutor.execute(eventId, () -> {
+                    handler.accept(message);
+                    return null;
+                }, () -> null);
+            }
+            tracker.completed(record.offset());
+            settled = true;
+        } catch (RuntimeException ex) {
+            recover(record, ex, tracker);
+            settled = true;
+        } finally {
+            if (!settled) {
+                log.error("oneself.kafka parallel record aborted, topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset());
+                tracker.failed(record.offset());
+            }
+        }
+    }
+
+    private void recover(ConsumerRecord<?, ?> record, RuntimeException cause, KafkaPartitionOffsetTracker tracker) {
+        if (recoverer == null) {
+            log.error("oneself.kafka parallel record failed, topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset(), cause);
+            tracker.failed(record.offset());
+            return;
+        }
+        try {
+            recoverer.accept(record, cause);
+            tracker.completed(record.offset());
+        } catch (RuntimeException ex) {
+            log.error("oneself.kafka parallel recover failed, topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset(), ex);
+            tracker.failed(record.offset());
+        }
+    }
+
+    private void awaitPermit(KafkaPartitionOffsetTracker tracker,
+                             org.apache.kafka.clients.consumer.Consumer<?, ?> consumer, String groupId) {
+        try {
+            while (!tracker.tryAcquire(PERMIT_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                commit(consumer, groupId, false);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel consumer capacity", ex);
+        }
+    }
+
+    private void awaitIdle(String groupId, Collection<TopicPartition> partitions) {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (TopicPartition partition : partitions) {
+            KafkaPartitionOffsetTracker tracker = trackers.get(new GroupPartition(groupId, partition));
+            while (tracker != null && !tracker.isIdle() && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void markCommitted(String groupId, Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((partition, offset) -> {
+            KafkaPartitionOffsetTracker tracker = trackers.get(new GroupPartition(groupId, partition));
+            if (tracker != null) {
+                tracker.committed(offset.offset());
+            }
+        });
+    }
+
+    /**
+     * 串行 lane 标识：有 key 时按 key，顺序 topic 无 key 时按分区，其余不串行。
+     */
+    private Object laneKey(ConsumerRecord<String, ?> record) {
+        if (record.key() != null) {
+            return record.key();
+        }
+        return orderedTopics.contains(record.topic()) ? record.partition() : null;
+    }
+
+    private void submit(LaneKey key, Runnable task) {
+        lanes.compute(key, (laneKey, lane) -> {
+            Lane target = lane == null ? new Lane(laneKey) : lane;
+            target.tasks.add(task);
+            if (!target.scheduled) {
+                target.scheduled = true;
+                executor.execute(target);
+            }
+            return target;
+        });
+    }
+
+    /**
+     * 消费者所属消费组，无消费组（手动 assign）时为空串。
+     */
+    private static String groupId(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer) {
+        try {
+            return consumer.groupMetadata().groupId();
+        } catch (RuntimeException ex) {
+            return "";
+        }
+    }
+
+    private record GroupPartition(String groupId, TopicPartition partition) {
+    }
+
+    private record LaneKey(GroupPartition partition, Object key) {
+    }
+
+    /**
+     * 同 key 任务队列，每次只执行一个任务，执行完再调度下一个，队列为空时移除。
+     * 状态只在 lanes.compute 内修改。
+     */
+    private final class Lane implements Runnable {
+
+        private final LaneKey key;
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+
+        private Lane(LaneKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            Runnable[] next = new Runnable[1];
+            lanes.computeIfPresent(key, (laneKey, lane) -> {
+                next[0] = lane.tasks.poll();
+                return lane;
+            });
+            try {
+                if (next[0] != null) {
+                    next[0].run();
+                }
+            } finally {
+                lanes.computeIfPresent(key, (laneKey, lane) -> {
+                    if (lane.tasks.isEmpty()) {
+                        lane.scheduled = false;
+                        return null;
+                    }
+                    executor.execute(lane);
+                    return lane;
+                });
+            }
+        }
+    }
+}
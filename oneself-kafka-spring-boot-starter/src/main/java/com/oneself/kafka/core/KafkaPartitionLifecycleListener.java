@@ -0,0 +1,33 @@
+package com.oneself.kafka.core;
+
+import java.util.Collection;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * 分区生命周期回调，用于按分区预热或清理本地状态（缓存、队列、offset 追踪等）。
+ * <p>
+ * 声明为 Bean 即生效，由 {@link KafkaRebalanceHooks} 在 Starter 注册的容器再均衡时调用。
+ * 协作式再均衡下只会收到实际变化的分区，回调在消费线程执行，应尽快返回。
+ */
+public interface KafkaPartitionLifecycleListener {
+
+    /**
+     * 分区已分配（可用于预热）。
+     */
+    default void onPartitionsAssigned(String groupId, Collection<TopicPartition> partitions) {
+    }
+
+    /**
+     * 分区即将回收（offset 提交前调用，可用于排空在途任务）。
+     */
+    default void onPartitionsRevoked(String groupId, Collection<TopicPartition> partitions) {
+    }
+
+    /**
+     * 分区已丢失（已被分配给其他成员，无法再提交 offset），默认按回收处理。
+     */
+    default void onPartitionsLost(String groupId, Collection<TopicPartition> partitions) {
+        onPartitionsRevoked(groupId, partitions);
+    }
+}
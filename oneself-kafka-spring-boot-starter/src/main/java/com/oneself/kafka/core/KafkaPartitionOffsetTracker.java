@@ -0,0 +1,141 @@
+package com.oneself.kafka.core;
+
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单分区 offset 追踪器：记录已派发未完成的 offset，只允许提交连续完成的前缀。
+ * <p>
+ * 可提交 offset = 最小未完成 offset；无未完成记录时为最后派发 offset + 1。
+ * 记录无法恢复的失败后，{@link #hasFailed()} 为 true，由消费线程 seek 回 {@link #resumeOffset()} 重新投递。
+ * 同时以信号量限制单分区在途记录数。使用 {@link ReentrantLock} 而非 synchronized，避免在虚拟线程上固定载体线程。
+ */
+public class KafkaPartitionOffsetTracker {
+
+    private final TreeSet<Long> pending = new TreeSet<>();
+    private final Semaphore inFlightPermits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxInFlight;
+    private long nextOffset = -1L;
+    private long committedOffset = -1L;
+    private long failedOffset = -1L;
+
+    public KafkaPartitionOffsetTracker(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlightPermits = new Semaphore(this.maxInFlight);
+    }
+
+    /**
+     * 等待在途名额，超时返回 false。
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return inFlightPermits.tryAcquire(timeout, unit);
+    }
+
+    /**
+     * 记录派发。
+     */
+    public void dispatched(long offset) {
+        lock.lock();
+        try {
+            pending.add(offset);
+            nextOffset = Math.max(nextOffset, offset + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录完成并释放在途名额。
+     */
+    public void completed(long offset) {
+        lock.lock();
+        try {
+            pending.remove(offset);
+        } finally {
+            lock.unlock();
+        }
+        inFlightPermits.release();
+    }
+
+    /**
+     * 记录无法恢复的失败并释放在途名额：offset 保持未完成，提交停在该位置之前，等待消费线程 seek 回该位置重新投递。
+     */
+    public void failed(long offset) {
+        lock.lock();
+        try {
+            failedOffset = failedOffset < 0 ? offset : Math.min(failedOffset, offset);
+        } finally {
+            lock.unlock();
+        }
+        inFlightPermits.release();
+    }
+
+    /**
+     * 是否存在无法恢复的失败记录。
+     */
+    public boolean hasFailed() {
+        lock.lock();
+        try {
+            return failedOffset >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 重新投递的起始 offset：最小未完成 offset（含失败记录），无未完成记录时为最后派发 offset + 1。
+     */
+    public long resumeOffset() {
+        lock.lock();
+        try {
+            return pending.isEmpty() ? nextOffset : pending.first();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取待提交 offset，无新进展返回 -1。
+     */
+    public long committableOffset() {
+        lock.lock();
+        try {
+            if (nextOffset < 0) {
+                return -1L;
+            }
+            long candidate = pending.isEmpty() ? nextOffset : pending.first();
+            return candidate > committedOffset ? candidate : -1L;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录已提交 offset。
+     */
+    public void committed(long offset) {
+        lock.lock();
+        try {
+            committedOffset = Math.max(committedOffset, offset);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在途记录数。
+     */
+    public int inFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    /**
+     * 是否没有在途记录。
+     */
+    public boolean isIdle() {
+        return inFlight() == 0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.oneself.kafka.core;
+
+/**
+ * Envelope payload 编解码 SPI。
+ * <p>
+ * Envelope 的元数据由 {@link KafkaEnvelopeCodec} 以紧凑二进制写出，payload 交由具体实现编码，
+ * 编码标识 {@link #id()} 会写入消息头部，消费端据此选择解码器，因此同一 topic 可平滑切换编码。
+ */
+public interface KafkaPayloadCodec {
+
+    /**
+     * 编码标识（写入消息头部，全局唯一，0 保留）。
+     */
+    byte id();
+
+    /**
+     * 编码名称（用于配置选择，如 json/cbor/smile）。
+     */
+    String name();
+
+    /**
+     * 编码 payload。
+     */
+    byte[] encode(Object payload);
+
+    /**
+     * 解码 payload，type 为空时返回通用结构（Map/List/基础类型）。
+     */
+    Object decode(byte[] data, int offset, int length, Class<?> type);
+}
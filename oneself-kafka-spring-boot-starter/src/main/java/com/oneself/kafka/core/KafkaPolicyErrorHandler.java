@@ -0,0 +1,68 @@
+package com.oneself.kafka.core;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.util.backoff.BackOff;
+
+/**
+ * 带熔断的错误处理器：熔断打开时回退 offset 并暂停容器，不消耗重试次数也不转发；否则按 {@link DefaultErrorHandler} 处理。
+ */
+public class KafkaPolicyErrorHandler extends DefaultErrorHandler {
+
+    private final KafkaCircuitBreaker circuitBreaker;
+
+    public KafkaPolicyErrorHandler(ConsumerRecordRecoverer recoverer, BackOff backOff, KafkaCircuitBreaker circuitBreaker) {
+        super(recoverer, backOff);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public void handleRemaining(Exception thrownException, List<ConsumerRecord<?, ?>> records,
+                                Consumer<?, ?> consumer, MessageListenerContainer container) {
+        if (circuitBreaker != null && circuitBreaker.onFailure(container)) {
+            seekToFirst(records, consumer);
+            return;
+        }
+        super.handleRemaining(thrownException, records, consumer, container);
+    }
+
+    @Override
+    public void handleBatch(Exception thrownException, ConsumerRecords<?, ?> data, Consumer<?, ?> consumer,
+                            MessageListenerContainer container, Runnable invokeListener) {
+        if (circuitBreaker != null && circuitBreaker.onFailure(container)) {
+            seekToFirst(data, consumer);
+            return;
+        }
+        super.handleBatch(thrownException, data, consumer, container, invokeListener);
+    }
+
+    @Override
+    public <K, V> ConsumerRecords<K, V> handleBatchAndReturnRemaining(Exception thrownException,
+                                                                     ConsumerRecords<?, ?> data,
+                                                                     Consumer<?, ?> consumer,
+                                                                     MessageListenerContainer container,
+                                                                     Runnable invokeListener) {
+        if (circuitBreaker != null && circuitBreaker.onFailure(container)) {
+            seekToFirst(data, consumer);
+            return ConsumerRecords.empty();
+        }
+        return super.handleBatchAndReturnRemaining(thrownException, data, consumer, container, invokeListener);
+    }
+
+    private void seekToFirst(Iterable<? extends ConsumerRecord<?, ?>> records, Consumer<?, ?> consumer) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            offsets.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+        }
+        offsets.forEach(consumer::seek);
+    }
+}
@@ -0,0 +1,222 @@
+package com.oneself.kafka.core;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+/**
+ * 按 topic 分组的生产者池：每组 N 个独立生产者（各自 I/O 线程与缓冲区），慢 topic 不再阻塞其它 topic。
+ * <p>
+ * 有 key 的记录用组内配置的 key 序列化器序列化后按默认分区算法（murmur2）计算分区，并固定到 {@code 分区 % N} 号生产者，
+ * 同一分区只由一个生产者写入，保证 key 内顺序；仅 key 为 null 的记录在组内轮询。未分组的 topic 使用默认 KafkaTemplate。
+ */
+public class KafkaProducerPool implements AutoCloseable {
+
+    private static final long PARTITION_REFRESH_NANOS = 60_000_000_000L;
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+    private static final List<String> STAT_METRICS = List.of("buffer-total-bytes", "buffer-available-bytes",
+            "buffer-exhausted-total", "bufferpool-wait-time-ns-total", "record-send-total", "record-error-total");
+
+    private final KafkaTemplate<Object, Object> defaultTemplate;
+    private final Map<String, Group> groupsByTopic = new HashMap<>();
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+
+    public KafkaProducerPool(KafkaTemplate<Object, Object> defaultTemplate) {
+        this.defaultTemplate = defaultTemplate;
+    }
+
+    /**
+     * 注册生产者组。
+     *
+     * @param name      组名称
+     * @param topics    使用该组的 topic
+     * @param factories 组内生产者工厂（每个工厂对应一个生产者）
+     */
+    public void register(String name, List<String> topics, List<DefaultKafkaProducerFactory<Object, Object>> factories) {
+        if (factories.isEmpty()) {
+            throw new IllegalStateException("Producer pool " + name + " has no producers");
+        }
+        Group group = new Group(name, factories);
+        if (groups.putIfAbsent(name, group) != null) {
+            throw new IllegalStateException("Duplicate producer pool: " + name);
+        }
+        for (String topic : topics) {
+            Group existing = groupsByTopic.putIfAbsent(topic, group);
+            if (existing != null) {
+                throw new IllegalStateException("Topic " + topic + " assigned to producer pools "
+                        + existing.name + " and " + name);
+            }
+        }
+    }
+
+    /**
+     * 发送记录，按 topic 选择生产者组，按分区选择组内生产者。
+     */
+    public CompletableFuture<SendResult<Object, Object>> send(ProducerRecord<Object, Object> record) {
+        Group group = groupsByTopic.get(record.topic());
+        if (group == null) {
+            return defaultTemplate.send(record);
+        }
+        return group.send(record);
+    }
+
+    /**
+     * 刷出全部生产者。
+     */
+    public void flush() {
+        defaultTemplate.flush();
+        groups.values().forEach(Group::flush);
+    }
+
+    /**
+     * 为组内全部生产者工厂添加监听器（如客户端指标绑定）。
+     */
+    public void addListener(ProducerFactory.Listener<Object, Object> listener) {
+        groups.values().forEach(group -> group.factories.forEach(factory -> factory.addListener(listener)));
+    }
+
+    /**
+     * 各组生产者指标汇总（缓冲区总量/剩余、缓冲区耗尽次数、等待缓冲区耗时、发送与失败数）。
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        groups.forEach((name, group) -> stats.put(name, group.stats()));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        groups.values().forEach(Group::close);
+    }
+
+    /**
+     * 生产者组。
+     */
+    private static final class Group {
+
+        private final String name;
+        private final List<DefaultKafkaProducerFactory<Object, Object>> factories;
+        private final KafkaTemplate<Object, Object>[] templates;
+        private final Serializer<Object> keySerializer;
+        private final boolean ownsKeySerializer;
+        private final Map<String, PartitionCount> partitionCounts = new ConcurrentHashMap<>();
+        private final AtomicInteger roundRobin = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        private Group(String name, List<DefaultKafkaProducerFactory<Object, Object>> factories) {
+            this.name = name;
+            this.factories = List.copyOf(factories);
+            this.templates = new KafkaTemplate[factories.size()];
+            for (int i = 0; i < templates.length; i++) {
+                templates[i] = new KafkaTemplate<>(factories.get(i));
+            }
+            DefaultKafkaProducerFactory<Object, Object> factory = factories.get(0);
+            Serializer<Object> configured = factory.getKeySerializerSupplier() == null
+                    ? null : factory.getKeySerializerSupplier().get();
+            this.ownsKeySerializer = configured == null;
+            this.keySerializer = configured != null ? configured : createKeySerializer(name, factory);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Serializer<Object> createKeySerializer(String name, DefaultKafkaProducerFactory<Object, Object> factory) {
+            Map<String, Object> configs = factory.getConfigurationProperties();
+            Object type = configs.get(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG);
+            if (!(type instanceof Class<?>) && !(type instanceof String className && !className.isBlank())) {
+                throw new IllegalStateException("Producer pool " + name + " has no key serializer");
+            }
+            Serializer<Object> serializer;
+            try {
+                serializer = type instanceof Class<?> serializerClass
+                        ? (Serializer<Object>) Utils.newInstance(serializerClass)
+                        : Utils.newInstance((String) type, Serializer.class);
+            } catch (ClassNotFoundException | RuntimeException ex) {
+                throw new IllegalStateException("Failed to create key serializer for producer pool " + name, ex);
+            }
+            serializer.configure(configs, true);
+            return serializer;
+        }
+
+        private CompletableFuture<SendResult<Object, Object>> send(ProducerRecord<Object, Object> record) {
+            if (templates.length == 1) {
+                return templates[0].send(record);
+            }
+            if (record.partition() != null) {
+                return templates[record.partition() % templates.length].send(record);
+            }
+            byte[] key = record.key() == null ? null
+                    : keySerializer.serialize(record.topic(), record.headers(), record.key());
+            if (key == null) {
+                return templates[Math.floorMod(roundRobin.getAndIncrement(), templates.length)].send(record);
+            }
+            int partition = Utils.toPositive(Utils.murmur2(key)) % partitions(record.topic());
+            ProducerRecord<Object, Object> routed = new ProducerRecord<>(record.topic(), partition,
+                    record.timestamp(), record.key(), record.value(), record.headers());
+            return templates[partition % templates.length].send(routed);
+        }
+
+        /**
+         * topic 分区数，缓存并定期刷新。
+         */
+        private int partitions(String topic) {
+            long now = System.nanoTime();
+            PartitionCount cached = partitionCounts.get(topic);
+            if (cached != null && now - cached.loadedAt < PARTITION_REFRESH_NANOS) {
+                return cached.count;
+            }
+            int count = templates[0].partitionsFor(topic).size();
+            if (count <= 0) {
+                throw new IllegalStateException("No partitions available for topic " + topic);
+            }
+            partitionCounts.put(topic, new PartitionCount(count, now));
+            return count;
+        }
+
+        private void flush() {
+            for (KafkaTemplate<Object, Object> template : templates) {
+                template.flush();
+            }
+        }
+
+        private Map<String, Object> stats() {
+            Map<String, Double> totals = new LinkedHashMap<>();
+            for (KafkaTemplate<Object, Object> template : templates) {
+                for (Map.Entry<MetricName, ? extends Metric> entry : template.metrics().entrySet()) {
+                    MetricName metricName = entry.getKey();
+                    if (PRODUCER_METRICS_GROUP.equals(metricName.group()) && STAT_METRICS.contains(metricName.name())
+                            && entry.getValue().metricValue() instanceof Number value) {
+                        totals.merge(metricName.name(), value.doubleValue(), Double::sum);
+                    }
+                }
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("producers", templates.length);
+            stats.putAll(totals);
+            return stats;
+        }
+
+        private void close() {
+            if (ownsKeySerializer) {
+                keySerializer.close();
+            }
+            factories.forEach(DefaultKafkaProducerFactory::destroy);
+        }
+    }
+
+    private record PartitionCount(int count, long loadedAt) {
+    }
+}
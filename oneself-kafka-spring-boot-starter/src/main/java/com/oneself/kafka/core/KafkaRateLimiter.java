@@ -0,0 +1,47 @@
+package com.oneself.kafka.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 简单匀速限流器：按固定间隔发放许可，调用方阻塞到可用时刻。
+ */
+public class KafkaRateLimiter {
+
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * 构造限流器，permitsPerSecond 小于等于 0 表示不限流。
+     */
+    public KafkaRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond <= 0 ? 0L : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * 获取许可，必要时阻塞等待。
+     */
+    public void acquire(int permits) {
+        if (intervalNanos == 0L) {
+            return;
+        }
+        long waitUntil;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            waitUntil = Math.max(now, nextFreeNanos);
+            nextFreeNanos = waitUntil + intervalNanos * permits;
+        } finally {
+            lock.unlock();
+        }
+        long remaining;
+        while ((remaining = waitUntil - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
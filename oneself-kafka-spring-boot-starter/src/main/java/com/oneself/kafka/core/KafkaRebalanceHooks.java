@@ -0,0 +1,115 @@
+package com.oneself.kafka.core;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+/**
+ * 再均衡回调组合：先调用容器自身的监听器（如并行消费的排空与提交），再依次通知 {@link KafkaPartitionLifecycleListener}。
+ * <p>
+ * 单个回调异常只记录日志，不影响其他回调与再均衡流程。
+ */
+public class KafkaRebalanceHooks implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaRebalanceHooks.class);
+
+    private final List<KafkaPartitionLifecycleListener> listeners;
+    private final ConsumerAwareRebalanceListener delegate;
+
+    public KafkaRebalanceHooks(List<KafkaPartitionLifecycleListener> listeners) {
+        this(listeners, null);
+    }
+
+    public KafkaRebalanceHooks(List<KafkaPartitionLifecycleListener> listeners, ConsumerAwareRebalanceListener delegate) {
+        this.listeners = List.copyOf(listeners);
+        this.delegate = delegate;
+    }
+
+    /**
+     * 以 delegate 为容器自身监听器创建新的组合。
+     */
+    public KafkaRebalanceHooks withDelegate(ConsumerAwareRebalanceListener delegate) {
+        return new KafkaRebalanceHooks(listeners, delegate);
+    }
+
+    /**
+     * 是否存在生命周期回调。
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate != null) {
+            delegate.onPartitionsRevokedBeforeCommit(consumer, partitions);
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String groupId = groupId(consumer);
+        for (KafkaPartitionLifecycleListener listener : listeners) {
+            try {
+                listener.onPartitionsRevoked(groupId, partitions);
+            } catch (RuntimeException ex) {
+                log.warn("oneself.kafka partition revoke hook {} failed: {}", listener.getClass().getName(), ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate != null) {
+            delegate.onPartitionsRevokedAfterCommit(consumer, partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate != null) {
+            delegate.onPartitionsLost(consumer, partitions);
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String groupId = groupId(consumer);
+        for (KafkaPartitionLifecycleListener listener : listeners) {
+            try {
+                listener.onPartitionsLost(groupId, partitions);
+            } catch (RuntimeException ex) {
+                log.warn("oneself.kafka partition lost hook {} failed: {}", listener.getClass().getName(), ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate != null) {
+            delegate.onPartitionsAssigned(consumer, partitions);
+        }
+        if (partitions.isEmpty()) {
+            return;
+        }
+        String groupId = groupId(consumer);
+        for (KafkaPartitionLifecycleListener listener : listeners) {
+            try {
+                listener.onPartitionsAssigned(groupId, partitions);
+            } catch (RuntimeException ex) {
+                log.warn("oneself.kafka partition assign hook {} failed: {}", listener.getClass().getName(), ex.getMessage());
+            }
+        }
+    }
+
+    private String groupId(Consumer<?, ?> consumer) {
+        try {
+            return consumer.groupMetadata().groupId();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.oneself.kafka.core;
+
+import java.util.Collection;
+
+/**
+ * 支持删除占位的幂等记录仓储：批量处理失败时释放未执行事件的占位，使其可被重新处理。
+ * <p>
+ * 仅实现 {@link KafkaIdempotentRepository} 的仓储在批量处理时逐条占位与提交，不需要释放。
+ */
+public interface KafkaReleasableIdempotentRepository extends KafkaIdempotentRepository {
+
+    /**
+     * 删除幂等记录。
+     */
+    void release(String eventId);
+
+    /**
+     * 批量删除幂等记录。
+     */
+    default void releaseAll(Collection<String> eventIds) {
+        eventIds.forEach(this::release);
+    }
+}
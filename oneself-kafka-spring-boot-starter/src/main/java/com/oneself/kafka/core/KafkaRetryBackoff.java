@@ -0,0 +1,96 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 重试退避策略：前 N 次使用重试 topic 档位延迟，超出档位后在最后一档基础上指数增长，均叠加随机抖动。
+ */
+public class KafkaRetryBackoff {
+
+    private final Duration[] tiers;
+    private final int maxAttempts;
+    private final double multiplier;
+    private final double jitter;
+    private final Duration maxDelay;
+
+    /**
+     * 构造退避策略。
+     *
+     * @param tierDelays  重试 topic 档位（如 1m/10m/1h）
+     * @param maxAttempts 最大重试次数（小于档位数时按档位数）
+     * @param multiplier  超出档位后的指数倍数
+     * @param jitter      抖动比例（0~1）
+     * @param maxDelay    单次最大延迟
+     */
+    public KafkaRetryBackoff(String[] tierDelays, int maxAttempts, double multiplier, double jitter, Duration maxDelay) {
+        this.tiers = new Duration[tierDelays == null ? 0 : tierDelays.length];
+        for (int i = 0; i < tiers.length; i++) {
+            tiers[i] = parseDelay(tierDelays[i]);
+        }
+        this.maxAttempts = Math.max(maxAttempts, tiers.length);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(Math.max(jitter, 0.0), 1.0);
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * 是否还可以重试（retryCount 为已重试次数）。
+     */
+    public boolean canRetry(int retryCount) {
+        return tiers.length > 0 && retryCount < maxAttempts;
+    }
+
+    /**
+     * 获取本次重试使用的档位下标。
+     */
+    public int tierIndex(int retryCount) {
+        return Math.min(retryCount, tiers.length - 1);
+    }
+
+    /**
+     * 计算本次重试延迟（含抖动）。
+     */
+    public Duration delay(int retryCount) {
+        int tier = tierIndex(retryCount);
+        double base = tiers[tier].toMillis();
+        int overflow = retryCount - tier;
+        if (overflow > 0) {
+            base = base * Math.pow(multiplier, overflow);
+        }
+        if (maxDelay != null) {
+            base = Math.min(base, maxDelay.toMillis());
+        }
+        if (jitter > 0) {
+            base = base * (1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter));
+        }
+        return Duration.ofMillis(Math.max(0L, (long) base));
+    }
+
+    /**
+     * 解析延迟字符串（如 500ms/30s/1m/1h/1d）。
+     */
+    public static Duration parseDelay(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Retry delay must not be blank");
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        int unitStart = 0;
+        while (unitStart < normalized.length() && Character.isDigit(normalized.charAt(unitStart))) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalStateException("Invalid retry delay: " + value);
+        }
+        long amount = Long.parseLong(normalized.substring(0, unitStart));
+        return switch (normalized.substring(unitStart)) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "d" -> Duration.ofDays(amount);
+            default -> throw new IllegalStateException("Invalid retry delay unit: " + value);
+        };
+    }
+}
@@ -1,10 +1,18 @@
 package com.oneself.kafka.core;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ConsumerRecordRecoverer;
 
@@ -12,83 +20,195 @@ import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
 
 /**
  * 重试/死信转发器。
+ * <p>
+ * 转发到重试 topic 时写入 {@link KafkaHeaderNames#RETRY_DUE_AT}（到期时间戳），由重试消费者按到期时间调度。
+ * 每个源 topic 的重试/死信 topic 预先计算并缓存；发送为异步流水线，在途发送数超过上限时等待，
+ * 等待超时抛出异常由错误处理器回退重投，避免故障期间转发风暴压垮生产者。
  */
 public class KafkaRetryRecoverer implements ConsumerRecordRecoverer {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaRetryRecoverer.class);
+
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 256;
+    private static final byte[][] RETRY_COUNT_BYTES = new byte[32][];
+
+    static {
+        for (int i = 0; i < RETRY_COUNT_BYTES.length; i++) {
+            RETRY_COUNT_BYTES[i] = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final ClassValue<byte[]> CLASS_NAME_BYTES = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(Class<?> type) {
+            return type.getName().getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
     private final KafkaTemplate<Object, Object> kafkaTemplate;
     private final OneselfKafkaProperties properties;
+    private final KafkaRetryBackoff backoff;
+    private final Map<String, TopicTable> topicTables = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long sendTimeoutMillis;
 
     public KafkaRetryRecoverer(KafkaTemplate<Object, Object> kafkaTemplate, OneselfKafkaProperties properties) {
         this.kafkaTemplate = kafkaTemplate;
         this.properties = properties;
+        this.backoff = new KafkaRetryBackoff(properties.getRetryTopicDelays(),
+                properties.getRetryMaxAttempts() == null ? 0 : properties.getRetryMaxAttempts(),
+                properties.getRetryBackoffMultiplier(), properties.getRetryJitter(), properties.getRetryMaxDelay());
+        this.maxInFlight = Math.max(1, properties.getRecovererMaxInFlight());
+        this.inFlight = new Semaphore(maxInFlight);
+        this.sendTimeoutMillis = properties.getRecovererSendTimeout().toMillis();
     }
 
     @Override
     public void accept(ConsumerRecord<?, ?> record, Exception exception) {
-        String targetTopic = resolveTargetTopic(record);
+        Headers sourceHeaders = record.headers();
+        int retryCount = readRetryCount(sourceHeaders);
+        Header originalTopic = sourceHeaders.lastHeader(KafkaHeaderNames.ORIGINAL_TOPIC);
+        TopicTable table = originalTopic == null
+                ? topicTables.computeIfAbsent(record.topic(), TopicTable::new)
+                : topicTables.computeIfAbsent(new String(originalTopic.value(), StandardCharsets.UTF_8), TopicTable::new);
+        boolean retry = properties.isRetryEnabled() && backoff.canRetry(retryCount);
+        String targetTopic = retry ? table.retryTopics[backoff.tierIndex(retryCount)] : table.dlqTopic;
         ProducerRecord<Object, Object> producerRecord = new ProducerRecord<>(
                 targetTopic,
                 record.partition(),
                 record.key(),
                 record.value(),
-                record.headers()
+                sourceHeaders
         );
-        appendFailureHeaders(producerRecord.headers(), record, exception);
-        kafkaTemplate.send(producerRecord);
+        Headers headers = producerRecord.headers();
+        appendFailureHeaders(headers, record, table, retryCount, exception);
+        headers.remove(KafkaHeaderNames.RETRY_DUE_AT);
+        if (retry) {
+            long dueAt = System.currentTimeMillis() + backoff.delay(retryCount).toMillis();
+            headers.add(KafkaHeaderNames.RETRY_DUE_AT, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        }
+        send(producerRecord, record);
+    }
+
+    /**
+     * 当前在途转发数。
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
     }
 
-    private String resolveTargetTopic(ConsumerRecord<?, ?> record) {
-        if (!properties.isRetryEnabled()) {
-            return record.topic() + "." + properties.getDlqSuffix();
+    private void send(ProducerRecord<Object, Object> producerRecord, ConsumerRecord<?, ?> source) {
+        acquire(producerRecord.topic());
+        try {
+            kafkaTemplate.send(producerRecord).whenComplete((result, ex) -> {
+                inFlight.release();
+                if (ex != null) {
+                    log.error("oneself.kafka forward failed, target={}, source={}-{}@{}", producerRecord.topic(),
+                            source.topic(), source.partition(), source.offset(), ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.release();
+            throw ex;
         }
-        int retryCount = readRetryCount(record.headers());
-        String[] delays = properties.getRetryTopicDelays();
-        if (delays != null && retryCount < delays.length) {
-            return record.topic() + ".retry." + delays[retryCount];
+    }
+
+    private void acquire(String topic) {
+        try {
+            if (!inFlight.tryAcquire(sendTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new KafkaException("Recoverer backpressured, no send capacity for " + topic
+                        + " within " + sendTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting for recoverer send capacity", ex);
         }
-        return record.topic() + "." + properties.getDlqSuffix();
     }
 
     private int readRetryCount(Headers headers) {
         Header header = headers.lastHeader(KafkaHeaderNames.RETRY_COUNT);
-        if (header == null) {
+        if (header == null || header.value() == null || header.value().length == 0) {
             return 0;
         }
-        try {
-            return Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
-        } catch (NumberFormatException ex) {
-            return 0;
+        int value = 0;
+        for (byte b : header.value()) {
+            if (b < '0' || b > '9' || value > 100_000) {
+                return 0;
+            }
+            value = value * 10 + (b - '0');
         }
+        return value;
     }
 
-    private void appendFailureHeaders(Headers headers, ConsumerRecord<?, ?> record, Exception exception) {
-        int retryCount = readRetryCount(headers);
+    private void appendFailureHeaders(Headers headers, ConsumerRecord<?, ?> record, TopicTable table, int retryCount,
+                                      Exception exception) {
+        int nextCount = retryCount + 1;
         headers.remove(KafkaHeaderNames.RETRY_COUNT);
-        headers.add(KafkaHeaderNames.RETRY_COUNT, String.valueOf(retryCount + 1).getBytes(StandardCharsets.UTF_8));
-        addIfAbsent(headers, KafkaHeaderNames.ORIGINAL_TOPIC, record.topic());
-        addIfAbsent(headers, KafkaHeaderNames.ORIGINAL_PARTITION, String.valueOf(record.partition()));
-        addIfAbsent(headers, KafkaHeaderNames.ORIGINAL_OFFSET, String.valueOf(record.offset()));
+        headers.add(KafkaHeaderNames.RETRY_COUNT, nextCount < RETRY_COUNT_BYTES.length
+                ? RETRY_COUNT_BYTES[nextCount] : String.valueOf(nextCount).getBytes(StandardCharsets.UTF_8));
+        if (headers.lastHeader(KafkaHeaderNames.ORIGINAL_TOPIC) == null) {
+            headers.add(KafkaHeaderNames.ORIGINAL_TOPIC, table.sourceTopicBytes);
+            headers.add(KafkaHeaderNames.ORIGINAL_PARTITION,
+                    String.valueOf(record.partition()).getBytes(StandardCharsets.UTF_8));
+            headers.add(KafkaHeaderNames.ORIGINAL_OFFSET,
+                    String.valueOf(record.offset()).getBytes(StandardCharsets.UTF_8));
+        }
         headers.remove(KafkaHeaderNames.FAILURE_CLASS);
         headers.remove(KafkaHeaderNames.FAILURE_MESSAGE);
-        headers.add(KafkaHeaderNames.FAILURE_CLASS, exception.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaderNames.FAILURE_CLASS, CLASS_NAME_BYTES.get(exception.getClass()));
         headers.add(KafkaHeaderNames.FAILURE_MESSAGE, sanitize(exception.getMessage()).getBytes(StandardCharsets.UTF_8));
     }
 
-    private void addIfAbsent(Headers headers, String name, String value) {
-        if (headers.lastHeader(name) != null || value == null) {
-            return;
-        }
-        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
-    }
-
-    private String sanitize(String message) {
+    /**
+     * 截断并将连续换行替换为单个空格，只扫描输出所需的前缀。
+     */
+    static String sanitize(String message) {
         if (message == null) {
             return "";
         }
-        String trimmed = message.replaceAll("[\r\n]+", " ");
-        if (trimmed.length() > 256) {
-            return trimmed.substring(0, 256);
+        StringBuilder builder = null;
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == '\r' || c == '\n') {
+                if (builder == null) {
+                    builder = new StringBuilder(Math.min(length, MAX_FAILURE_MESSAGE_LENGTH));
+                    builder.append(message, 0, i);
+                }
+                while (i + 1 < length && (message.charAt(i + 1) == '\r' || message.charAt(i + 1) == '\n')) {
+                    i++;
+                }
+                builder.append(' ');
+            } else if (builder != null) {
+                builder.append(c);
+            } else if (i + 1 >= MAX_FAILURE_MESSAGE_LENGTH) {
+                return message.substring(0, MAX_FAILURE_MESSAGE_LENGTH);
+            }
+            if (builder != null && builder.length() >= MAX_FAILURE_MESSAGE_LENGTH) {
+                return builder.substring(0, MAX_FAILURE_MESSAGE_LENGTH);
+            }
+        }
+        return builder == null ? message : builder.toString();
+    }
+
+    /**
+     * 单个源 topic 的重试/死信 topic 表。
+     */
+    private final class TopicTable {
+
+        private final String[] retryTopics;
+        private final String dlqTopic;
+        private final byte[] sourceTopicBytes;
+
+        private TopicTable(String sourceTopic) {
+            String[] delays = properties.getRetryTopicDelays() == null ? new String[0] : properties.getRetryTopicDelays();
+            this.retryTopics = new String[delays.length];
+            for (int i = 0; i < delays.length; i++) {
+                retryTopics[i] = sourceTopic + ".retry." + delays[i];
+            }
+            this.dlqTopic = sourceTopic + "." + properties.getDlqSuffix();
+            this.sourceTopicBytes = sourceTopic.getBytes(StandardCharsets.UTF_8);
         }
-        return trimmed;
     }
 }
@@ -0,0 +1,237 @@
+package com.oneself.kafka.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchConsumerAwareMessageListener;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.GenericMessageListener;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * 重试 topic 调度器：按到期时间回投重试消息，未到期时暂停分区而非阻塞线程。
+ * <p>
+ * 到期时间优先取 {@link KafkaHeaderNames#RETRY_DUE_AT}，缺失时按消息时间戳 + topic 后缀延迟（如 {@code .retry.10m}）计算。
+ * 分区头部消息未到期时回退到该 offset 并暂停分区，到期后恢复；同一 topic 内消息按到期时间追加，头部到期即代表后续可依次处理。
+ * 到期消息以原始 topic 重新构造后回投：优先使用 {@link #register} 注册的处理器，否则回投订阅原始 topic 的 {@code @KafkaListener}。
+ * 回投失败交给 {@link ConsumerRecordRecoverer} 转发到下一档或死信；offset 由调度器在处理后同步提交。
+ */
+public class KafkaRetryTopicDispatcher implements BatchConsumerAwareMessageListener<Object, Object>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaRetryTopicDispatcher.class);
+
+    private static final String RETRY_INFIX = ".retry.";
+    private static final long RECOVER_FAILURE_PAUSE_MILLIS = 5000L;
+    private static final Acknowledgment NO_ACK = () -> {
+    };
+
+    private final Supplier<KafkaListenerEndpointRegistry> registry;
+    private final ConsumerRecordRecoverer recoverer;
+    private final Map<String, Consumer<ConsumerRecord<Object, Object>>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, GenericMessageListener<?>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Long> suffixDelays = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile MessageListenerContainer container;
+
+    /**
+     * 构造调度器。
+     *
+     * @param registry  Listener 注册表（用于查找原始监听器，可返回 null）
+     * @param recoverer 回投失败时的转发器
+     */
+    public KafkaRetryTopicDispatcher(Supplier<KafkaListenerEndpointRegistry> registry, ConsumerRecordRecoverer recoverer) {
+        this.registry = registry;
+        this.recoverer = recoverer;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oneself-kafka-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 注册原始 topic 的处理器（优先于自动查找的 {@code @KafkaListener}）。
+     */
+    public void register(String originalTopic, Consumer<ConsumerRecord<Object, Object>> handler) {
+        handlers.put(originalTopic, handler);
+    }
+
+    /**
+     * 设置重试消费容器（用于暂停/恢复分区）。
+     */
+    public void setContainer(MessageListenerContainer container) {
+        this.container = container;
+    }
+
+    @Override
+    public void onMessage(List<ConsumerRecord<Object, Object>> records,
+                         org.apache.kafka.clients.consumer.Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        Set<TopicPartition> blocked = new HashSet<>();
+        for (ConsumerRecord<Object, Object> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (blocked.contains(partition)) {
+                continue;
+            }
+            long dueAt = dueAt(record);
+            if (dueAt > System.currentTimeMillis()) {
+                block(consumer, partition, record.offset(), dueAt);
+                blocked.add(partition);
+                continue;
+            }
+            if (!dispatch(record, consumer)) {
+                block(consumer, partition, record.offset(), System.currentTimeMillis() + RECOVER_FAILURE_PAUSE_MILLIS);
+                blocked.add(partition);
+                continue;
+            }
+            offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+        }
+        if (offsets.isEmpty()) {
+            return;
+        }
+        try {
+            consumer.commitSync(offsets);
+        } catch (RuntimeException ex) {
+            log.warn("oneself.kafka retry commit failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 回投单条消息，失败时转发；转发也失败返回 false。
+     */
+    private boolean dispatch(ConsumerRecord<Object, Object> record,
+                             org.apache.kafka.clients.consumer.Consumer<?, ?> consumer) {
+        ConsumerRecord<Object, Object> original = rebuild(record);
+        try {
+            invoke(original, consumer);
+            return true;
+        } catch (RuntimeException ex) {
+            Exception cause = ex instanceof ListenerExecutionFailedException && ex.getCause() instanceof Exception
+                    ? (Exception) ex.getCause() : ex;
+            try {
+                recoverer.accept(original, cause);
+                return true;
+            } catch (RuntimeException recoverEx) {
+                log.error("oneself.kafka retry recover failed, topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset(), recoverEx);
+                return false;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void invoke(ConsumerRecord<Object, Object> record,
+                        org.apache.kafka.clients.consumer.Consumer<?, ?> consumer) {
+        Consumer<ConsumerRecord<Object, Object>> handler = handlers.get(record.topic());
+        if (handler != null) {
+            handler.accept(record);
+            return;
+        }
+        GenericMessageListener<?> listener = listeners.computeIfAbsent(record.topic(), this::findListener);
+        if (listener instanceof BatchMessageListener batch) {
+            if (batch.wantsPollResult()) {
+                TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                batch.onMessage(new ConsumerRecords<>(Map.of(partition, List.of(record)), Map.of()), NO_ACK,
+                        (org.apache.kafka.clients.consumer.Consumer) consumer);
+            } else {
+                batch.onMessage(List.of(record), NO_ACK, consumer);
+            }
+            return;
+        }
+        ((GenericMessageListener<ConsumerRecord<Object, Object>>) listener).onMessage(record, NO_ACK, consumer);
+    }
+
+    private GenericMessageListener<?> findListener(String topic) {
+        KafkaListenerEndpointRegistry endpointRegistry = registry.get();
+        if (endpointRegistry != null) {
+            for (MessageListenerContainer candidate : endpointRegistry.getListenerContainers()) {
+                String[] topics = candidate.getContainerProperties().getTopics();
+                if (topics != null && Arrays.asList(topics).contains(topic)
+                        && candidate.getContainerProperties().getMessageListener() instanceof GenericMessageListener<?> listener) {
+                    return listener;
+                }
+            }
+        }
+        throw new IllegalStateException("No listener found for retry of topic: " + topic);
+    }
+
+    private void block(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer, TopicPartition partition,
+                       long offset, long resumeAt) {
+        consumer.seek(partition, offset);
+        MessageListenerContainer target = container;
+        if (target == null) {
+            return;
+        }
+        target.pausePartition(partition);
+        long delay = Math.max(0L, resumeAt - System.currentTimeMillis());
+        scheduler.schedule(() -> target.resumePartition(partition), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private ConsumerRecord<Object, Object> rebuild(ConsumerRecord<Object, Object> record) {
+        String originalTopic = headerValue(record, KafkaHeaderNames.ORIGINAL_TOPIC);
+        if (originalTopic == null) {
+            int index = record.topic().lastIndexOf(RETRY_INFIX);
+            originalTopic = index > 0 ? record.topic().substring(0, index) : record.topic();
+        }
+        return new ConsumerRecord<>(originalTopic, record.partition(), record.offset(), record.timestamp(),
+                record.timestampType(), record.serializedKeySize(), record.serializedValueSize(),
+                record.key(), record.value(), record.headers(), record.leaderEpoch());
+    }
+
+    private long dueAt(ConsumerRecord<?, ?> record) {
+        String due = headerValue(record, KafkaHeaderNames.RETRY_DUE_AT);
+        if (due != null) {
+            try {
+                return Long.parseLong(due);
+            } catch (NumberFormatException ex) {
+                log.warn("oneself.kafka invalid retry due header: {}", due);
+            }
+        }
+        return record.timestamp() + suffixDelays.computeIfAbsent(record.topic(), this::parseSuffixDelay);
+    }
+
+    private long parseSuffixDelay(String topic) {
+        int index = topic.lastIndexOf(RETRY_INFIX);
+        if (index < 0) {
+            return 0L;
+        }
+        try {
+            return KafkaRetryBackoff.parseDelay(topic.substring(index + RETRY_INFIX.length())).toMillis();
+        } catch (RuntimeException ex) {
+            log.warn("oneself.kafka cannot parse retry delay from topic: {}", topic);
+            return 0L;
+        }
+    }
+
+    private String headerValue(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
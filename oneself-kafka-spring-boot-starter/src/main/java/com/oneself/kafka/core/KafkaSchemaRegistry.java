@@ -0,0 +1,91 @@
+package com.oneself.kafka.core;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * payload 类型注册表：schemaId 与类型互相映射，并控制按类名解析的可信包。
+ * <p>
+ * 已注册类型在消息中只写入 schemaId（varint），替代完整类名。
+ */
+public class KafkaSchemaRegistry {
+
+    private final Map<Integer, Class<?>> typesById = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> idsByType = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Class<?>>> resolvedTypes = new ConcurrentHashMap<>();
+    private final String[] trustedPackages;
+
+    public KafkaSchemaRegistry(String[] trustedPackages) {
+        this.trustedPackages = trustedPackages == null ? new String[0] : trustedPackages;
+    }
+
+    /**
+     * 注册 schemaId 与类型映射。
+     */
+    public void register(int schemaId, Class<?> type) {
+        if (schemaId <= 0) {
+            throw new IllegalArgumentException("Schema id must be positive: " + schemaId);
+        }
+        Class<?> existing = typesById.putIfAbsent(schemaId, type);
+        if (existing != null && !existing.equals(type)) {
+            throw new IllegalStateException("Schema id " + schemaId + " already registered for " + existing.getName());
+        }
+        idsByType.put(type, schemaId);
+        resolvedTypes.remove(type.getName());
+    }
+
+    /**
+     * 获取类型对应的 schemaId，未注册返回 null。
+     */
+    public Integer schemaId(Class<?> type) {
+        return type == null ? null : idsByType.get(type);
+    }
+
+    /**
+     * 根据 schemaId 获取类型。
+     */
+    public Class<?> typeOf(int schemaId) {
+        return typesById.get(schemaId);
+    }
+
+    /**
+     * 根据类名解析类型，仅解析已注册或位于可信包内的类型。
+     */
+    public Class<?> resolve(String typeName) {
+        if (typeName == null || typeName.isBlank()) {
+            return null;
+        }
+        return resolvedTypes.computeIfAbsent(typeName, this::load).orElse(null);
+    }
+
+    private Optional<Class<?>> load(String typeName) {
+        for (Class<?> registered : idsByType.keySet()) {
+            if (registered.getName().equals(typeName)) {
+                return Optional.of(registered);
+            }
+        }
+        if (!isTrusted(typeName)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(ClassUtils.forName(typeName, null));
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isTrusted(String typeName) {
+        for (String trusted : trustedPackages) {
+            if ("*".equals(trusted)) {
+                return true;
+            }
+            if (typeName.startsWith(trusted + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
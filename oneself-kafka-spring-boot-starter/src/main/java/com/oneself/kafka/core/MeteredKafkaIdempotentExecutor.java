@@ -0,0 +1,70 @@
+package com.oneself.kafka.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 带指标的幂等执行器，记录执行耗时、结果（executed/duplicate/failed）与重复事件数。
+ * <p>
+ * 批量执行全部为重复事件时结果记为 duplicate。Starter 仅包装自身创建的执行器，自定义执行器可自行包装。
+ */
+public class MeteredKafkaIdempotentExecutor implements KafkaIdempotentExecutor {
+
+    private final KafkaIdempotentExecutor delegate;
+    private final KafkaMetrics metrics;
+
+    public MeteredKafkaIdempotentExecutor(KafkaIdempotentExecutor delegate, KafkaMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T execute(String eventId, Supplier<T> action, Supplier<T> onDuplicate) {
+        long start = System.nanoTime();
+        boolean[] duplicate = new boolean[1];
+        try {
+            T result = delegate.execute(eventId, action, () -> {
+                duplicate[0] = true;
+                return onDuplicate.get();
+            });
+            metrics.recordIdempotent("execute", duplicate[0] ? "duplicate" : "executed", start);
+            if (duplicate[0]) {
+                metrics.countDuplicates(1);
+            }
+            return result;
+        } catch (RuntimeException | Error ex) {
+            metrics.recordIdempotent("execute", "failed", start);
+            throw ex;
+        }
+    }
+
+    @Override
+    public <M> void executeBatch(List<M> items, Function<? super M, KafkaIdempotentRecord> recordResolver,
+                                 Consumer<? super M> action, Consumer<? super M> onDuplicate) {
+        long start = System.nanoTime();
+        AtomicInteger duplicates = new AtomicInteger();
+        try {
+            delegate.executeBatch(items, recordResolver, action, item -> {
+                duplicates.incrementAndGet();
+                onDuplicate.accept(item);
+            });
+            boolean allDuplicate = !items.isEmpty() && duplicates.get() == items.size();
+            metrics.recordIdempotent("executeBatch", allDuplicate ? "duplicate" : "executed", start);
+        } catch (RuntimeException | Error ex) {
+            metrics.recordIdempotent("executeBatch", "failed", start);
+            throw ex;
+        } finally {
+            metrics.countDuplicates(duplicates.get());
+        }
+    }
+
+    /**
+     * 获取被包装的执行器。
+     */
+    public KafkaIdempotentExecutor getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,97 @@
+package com.oneself.kafka.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 基于 Micrometer 的 Starter 指标。
+ * <p>
+ * 指标：{@code oneself.kafka.send}（topic/success）、{@code oneself.kafka.adapt}（operation）、
+ * {@code oneself.kafka.adapt.records}、{@code oneself.kafka.idempotent}（operation/outcome）、
+ * {@code oneself.kafka.idempotent.duplicates}。Timer 按标签缓存，热路径不重复构建。
+ */
+public class MicrometerKafkaMetrics implements KafkaMetrics {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, Timer[]> sendTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public MicrometerKafkaMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public void recordSend(String topic, long startNanos, boolean success) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        Timer[] pair = sendTimers.computeIfAbsent(topic, key -> new Timer[]{
+                sendTimer(meterRegistry, key, true), sendTimer(meterRegistry, key, false)});
+        pair[success ? 0 : 1].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordAdapt(String operation, int records, long startNanos) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        timers.computeIfAbsent("adapt:" + operation, key -> Timer.builder("oneself.kafka.adapt")
+                        .tag("operation", operation)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        counters.computeIfAbsent("adapt:" + operation, key -> Counter.builder("oneself.kafka.adapt.records")
+                        .tag("operation", operation)
+                        .register(meterRegistry))
+                .increment(records);
+    }
+
+    @Override
+    public void recordIdempotent(String operation, String outcome, long startNanos) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null) {
+            return;
+        }
+        timers.computeIfAbsent("idempotent:" + operation + ":" + outcome, key -> Timer.builder("oneself.kafka.idempotent")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void countDuplicates(int count) {
+        MeterRegistry meterRegistry = registry();
+        if (meterRegistry == null || count <= 0) {
+            return;
+        }
+        counters.computeIfAbsent("idempotent:duplicates", key -> Counter.builder("oneself.kafka.idempotent.duplicates")
+                        .register(meterRegistry))
+                .increment(count);
+    }
+
+    private Timer sendTimer(MeterRegistry meterRegistry, String topic, boolean success) {
+        return Timer.builder("oneself.kafka.send")
+                .tag("topic", topic)
+                .tag("success", Boolean.toString(success))
+                .register(meterRegistry);
+    }
+
+    private MeterRegistry registry() {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,139 @@
+package com.oneself.kafka.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+/**
+ * 基于 ConsumerRecord 的惰性消息实现。
+ * <p>
+ * headers 与 timestamp 在首次访问时才解码：{@link #getHeader(String)} 只解码目标 header，常用 header 按下标缓存；
+ * {@link #getHeaders()} 才会构建完整 Map。合并规则与 {@link KafkaConsumerAdapter} 一致：Envelope headers 覆盖 Record headers，
+ * 缺失的 eventId/traceId 由 Envelope 字段补齐。实例不做同步，并发访问时只会重复解码，结果一致。
+ */
+public class RecordKafkaMessage<T> extends KafkaMessage<T> {
+
+    private static final String MISSING = new String(new char[0]);
+
+    private final ConsumerRecord<String, KafkaEnvelope<T>> record;
+    private final KafkaEnvelope<T> envelope;
+    private String[] wellKnownValues;
+    private Map<String, String> headers;
+    private Instant timestamp;
+
+    public RecordKafkaMessage(ConsumerRecord<String, KafkaEnvelope<T>> record) {
+        super(record.topic(), resolveKey(record), record.value() == null ? null : record.value().payload(),
+                null, null);
+        this.record = record;
+        this.envelope = record.value();
+    }
+
+    /**
+     * 原始 ConsumerRecord。
+     */
+    public ConsumerRecord<String, KafkaEnvelope<T>> getRecord() {
+        return record;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        if (headers == null) {
+            headers = materializeHeaders();
+        }
+        return headers;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (headers != null) {
+            return headers.get(name);
+        }
+        int index = KafkaHeaderNames.indexOf(name);
+        if (index < 0) {
+            return resolveHeader(name);
+        }
+        if (wellKnownValues == null) {
+            wellKnownValues = new String[KafkaHeaderNames.WELL_KNOWN.length];
+        }
+        String cached = wellKnownValues[index];
+        if (cached == null) {
+            String resolved = resolveHeader(name);
+            cached = resolved == null ? MISSING : resolved;
+            wellKnownValues[index] = cached;
+        }
+        return cached == MISSING ? null : cached;
+    }
+
+    @Override
+    public Instant getTimestamp() {
+        if (timestamp == null) {
+            timestamp = envelope != null && envelope.timestamp() != null
+                    ? envelope.timestamp()
+                    : Instant.ofEpochMilli(record.timestamp());
+        }
+        return timestamp;
+    }
+
+    private String resolveHeader(String name) {
+        if (envelope != null && envelope.headers() != null) {
+            String value = envelope.headers().get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        Header header = record.headers().lastHeader(name);
+        if (header != null) {
+            return decode(header);
+        }
+        if (envelope == null) {
+            return null;
+        }
+        if (KafkaHeaderNames.EVENT_ID.equals(name)) {
+            return envelope.id();
+        }
+        if (KafkaHeaderNames.TRACE_ID.equals(name)) {
+            return envelope.traceId();
+        }
+        return null;
+    }
+
+    private Map<String, String> materializeHeaders() {
+        Map<String, String> envelopeHeaders = envelope == null ? null : envelope.headers();
+        int expected = envelopeHeaders == null ? 8 : envelopeHeaders.size() + 8;
+        Map<String, String> merged = new HashMap<>(expected * 4 / 3 + 1);
+        for (Header header : record.headers()) {
+            String key = header.key();
+            int index = KafkaHeaderNames.indexOf(key);
+            merged.put(index < 0 ? key : KafkaHeaderNames.WELL_KNOWN[index], decode(header));
+        }
+        if (envelope == null) {
+            return merged;
+        }
+        if (envelopeHeaders != null) {
+            merged.putAll(envelopeHeaders);
+        }
+        if (!merged.containsKey(KafkaHeaderNames.EVENT_ID) && envelope.id() != null) {
+            merged.put(KafkaHeaderNames.EVENT_ID, envelope.id());
+        }
+        if (!merged.containsKey(KafkaHeaderNames.TRACE_ID) && envelope.traceId() != null) {
+            merged.put(KafkaHeaderNames.TRACE_ID, envelope.traceId());
+        }
+        return merged;
+    }
+
+    private static String decode(Header header) {
+        byte[] value = header.value();
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static <T> String resolveKey(ConsumerRecord<String, KafkaEnvelope<T>> record) {
+        if (record.key() != null || record.value() == null) {
+            return record.key();
+        }
+        return record.value().id();
+    }
+}
@@ -1,9 +1,18 @@
 package com.oneself.kafka.core;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 
 import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
 
@@ -14,6 +23,8 @@ public class RedisKafkaIdempotentExecutor implements KafkaIdempotentExecutor {
 
     private static final String PROCESSING = "PROCESSING";
     private static final String DONE = "DONE";
+    private static final byte[] PROCESSING_BYTES = PROCESSING.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DONE_BYTES = DONE.getBytes(StandardCharsets.UTF_8);
 
     private final StringRedisTemplate redisTemplate;
     private final OneselfKafkaProperties properties;
@@ -40,4 +51,88 @@ public class RedisKafkaIdempotentExecutor implements KafkaIdempotentExecutor {
             throw ex;
         }
     }
+
+    /**
+     * 使用 pipeline 一次性占位与标记完成，单批仅两次往返。
+     */
+    @Override
+    public <M> void executeBatch(List<M> items, Function<? super M, KafkaIdempotentRecord> recordResolver,
+                                 Consumer<? super M> action, Consumer<? super M> onDuplicate) {
+        List<String> keys = new ArrayList<>(items.size());
+        for (M item : items) {
+            KafkaIdempotentRecord record = recordResolver.apply(item);
+            keys.add(record == null || !record.idempotent() ? null
+                    : properties.getIdempotentKeyPrefix() + record.eventId());
+        }
+        boolean[] acquired = acquireAll(keys);
+        List<String> done = new ArrayList<>(items.size());
+        int index = 0;
+        try {
+            for (; index < items.size(); index++) {
+                M item = items.get(index);
+                if (!acquired[index]) {
+                    onDuplicate.accept(item);
+                    continue;
+                }
+                action.accept(item);
+                if (keys.get(index) != null) {
+                    done.add(keys.get(index));
+                }
+            }
+        } catch (RuntimeException ex) {
+            List<String> release = new ArrayList<>();
+            for (int i = index; i < items.size(); i++) {
+                if (acquired[i] && keys.get(i) != null) {
+                    release.add(keys.get(i));
+                }
+            }
+            markDone(done);
+            if (!release.isEmpty()) {
+                redisTemplate.delete(release);
+            }
+            throw ex;
+        }
+        markDone(done);
+    }
+
+    private boolean[] acquireAll(List<String> keys) {
+        boolean[] acquired = new boolean[keys.size()];
+        List<Integer> positions = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) == null) {
+                acquired[i] = true;
+            } else {
+                positions.add(i);
+            }
+        }
+        if (positions.isEmpty()) {
+            return acquired;
+        }
+        Expiration expiration = Expiration.from(properties.getIdempotentProcessingTtl());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int position : positions) {
+                connection.stringCommands().set(keys.get(position).getBytes(StandardCharsets.UTF_8),
+                        PROCESSING_BYTES, expiration, RedisStringCommands.SetOption.ifAbsent());
+            }
+            return null;
+        });
+        for (int i = 0; i < positions.size(); i++) {
+            acquired[positions.get(i)] = !Boolean.FALSE.equals(results.get(i));
+        }
+        return acquired;
+    }
+
+    private void markDone(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Expiration expiration = Expiration.from(properties.getIdempotentDoneTtl());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.stringCommands().set(key.getBytes(StandardCharsets.UTF_8), DONE_BYTES, expiration,
+                        RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
 }
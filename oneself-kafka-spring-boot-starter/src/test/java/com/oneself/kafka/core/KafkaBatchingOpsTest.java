@@ -0,0 +1,117 @@
+package com.oneself.kafka.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import com.oneself.kafka.autoconfigure.OneselfKafkaProperties;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KafkaBatchingOpsTest {
+
+    // KafkaTemplate 每次发送后关闭非共享生产者，测试中保持打开以手动完成发送
+    private final MockProducer<Object, Object> producer = new MockProducer<>(false, null,
+            (topic, data) -> String.valueOf(data).getBytes(StandardCharsets.UTF_8),
+            (topic, data) -> String.valueOf(data).getBytes(StandardCharsets.UTF_8)) {
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    };
+    private KafkaBatchingOps batchingOps;
+
+    @AfterEach
+    void tearDown() {
+        batchingOps.close();
+    }
+
+    @Test
+    void completesEachEventWithItsOwnSendResult() throws Exception {
+        batchingOps = batchingOps(false);
+
+        CompletableFuture<SendResult<Object, Object>> first = batchingOps.send("orders", "k1", "a");
+        CompletableFuture<SendResult<Object, Object>> second = batchingOps.send("orders", "k1", "b");
+        await(() -> producer.history().size() == 2);
+        producer.completeNext();
+        producer.errorNext(new IllegalStateException("broker unavailable"));
+        await(second::isDone);
+
+        assertThat(first.get().getRecordMetadata().topic()).isEqualTo("orders");
+        assertThat(second.isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    void failsAllPackedEventsWhenThePackedRecordFails() throws Exception {
+        batchingOps = batchingOps(true);
+
+        CompletableFuture<SendResult<Object, Object>> first = batchingOps.send("orders", "k1", "a");
+        CompletableFuture<SendResult<Object, Object>> second = batchingOps.send("orders", "k1", "b");
+        await(() -> producer.history().size() == 1);
+        producer.errorNext(new IllegalStateException("broker unavailable"));
+        await(() -> first.isDone() && second.isDone());
+
+        assertThat(first.isCompletedExceptionally()).isTrue();
+        assertThat(second.isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    void failsEventsThatCannotBeSent() throws Exception {
+        batchingOps = batchingOps(false);
+        producer.sendException = new KafkaException("producer closed");
+
+        CompletableFuture<SendResult<Object, Object>> first = batchingOps.send("orders", "k1", "a");
+        CompletableFuture<SendResult<Object, Object>> second = batchingOps.send("orders", "k1", "b");
+        await(() -> first.isDone() && second.isDone());
+
+        assertThat(first.isCompletedExceptionally()).isTrue();
+        assertThat(second.isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    void surfacesProducerFlushFailures() {
+        batchingOps = batchingOps(false);
+        producer.flushException = new KafkaException("flush failed");
+
+        batchingOps.send("orders", "k1", "a");
+
+        assertThatThrownBy(() -> batchingOps.flush(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("flush failed");
+    }
+
+    private KafkaBatchingOps batchingOps(boolean packEnabled) {
+        DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(Map.of()) {
+            @Override
+            public Producer<Object, Object> createProducer() {
+                return producer;
+            }
+        };
+        KafkaOps ops = new KafkaOps(new KafkaTemplate<>(factory), new OneselfKafkaProperties(), null);
+        return new KafkaBatchingOps(ops, 16, 10, Duration.ofMillis(200), packEnabled, Duration.ZERO);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
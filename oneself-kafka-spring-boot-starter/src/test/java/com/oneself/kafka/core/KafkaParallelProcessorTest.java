@@ -0,0 +1,159 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaParallelProcessorTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("orders", 0);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private MockConsumer<String, Object> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>("earliest");
+        consumer.assign(List.of(PARTITION));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.seek(PARTITION, 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void commitsOnlyTheContiguousCompletedPrefix() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        KafkaParallelProcessor processor = processor(null, 10);
+
+        processor.process(records(0, 3), consumer, message -> {
+            if ("k1".equals(message.getKey())) {
+                await(release);
+            }
+        });
+        awaitInFlight(processor, 1);
+        processor.commit(consumer, true);
+        assertThat(committed()).isEqualTo(1L);
+
+        release.countDown();
+        awaitInFlight(processor, 0);
+        processor.commit(consumer, true);
+        assertThat(committed()).isEqualTo(3L);
+    }
+
+    @Test
+    void recoveredFailureAdvancesTheCommit() throws Exception {
+        List<Long> recovered = new CopyOnWriteArrayList<>();
+        KafkaParallelProcessor processor = processor((record, ex) -> recovered.add(record.offset()), 10);
+
+        processor.process(records(0, 3), consumer, failOn("k1"));
+        awaitInFlight(processor, 0);
+        processor.commit(consumer, true);
+
+        assertThat(recovered).containsExactly(1L);
+        assertThat(committed()).isEqualTo(3L);
+    }
+
+    @Test
+    void unrecoverableFailureRewindsThePartition() throws Exception {
+        KafkaParallelProcessor processor = processor((record, ex) -> {
+            throw new IllegalStateException("dlq unavailable");
+        }, 10);
+
+        processor.process(records(0, 3), consumer, failOn("k1"));
+        awaitInFlight(processor, 0);
+        List<String> handled = new CopyOnWriteArrayList<>();
+        processor.process(records(3, 2), consumer, message -> handled.add(message.getKey()));
+
+        assertThat(committed()).isEqualTo(1L);
+        assertThat(consumer.position(PARTITION)).isEqualTo(1L);
+        assertThat(handled).isEmpty();
+        assertThat(processor.inFlight(groupId(), PARTITION)).isEqualTo(0);
+    }
+
+    @Test
+    void errorThrownByHandlerReleasesThePermitAndRewinds() throws Exception {
+        KafkaParallelProcessor processor = processor(null, 1);
+
+        processor.process(records(0, 1), consumer, message -> {
+            throw new AssertionError("boom");
+        });
+        awaitInFlight(processor, 0);
+        processor.process(records(1, 1), consumer, message -> {
+        });
+
+        assertThat(consumer.position(PARTITION)).isEqualTo(0L);
+    }
+
+    private KafkaParallelProcessor processor(ConsumerRecordRecoverer recoverer, int maxInFlight) {
+        return new KafkaParallelProcessor(new KafkaConsumerAdapter(), null, recoverer, executor, maxInFlight,
+                Duration.ofSeconds(5), Set.of());
+    }
+
+    private static Consumer<KafkaMessage<Object>> failOn(String key) {
+        return message -> {
+            if (key.equals(message.getKey())) {
+                throw new IllegalStateException("handler failed");
+            }
+        };
+    }
+
+    private static ConsumerRecords<String, KafkaEnvelope<Object>> records(long from, int count) {
+        List<ConsumerRecord<String, KafkaEnvelope<Object>>> records = new ArrayList<>();
+        for (long offset = from; offset < from + count; offset++) {
+            KafkaEnvelope<Object> envelope = new KafkaEnvelope<>(null, "map", null, "v1", Map.of("n", offset),
+                    Map.of(), Instant.now());
+            records.add(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "k" + offset, envelope));
+        }
+        return new ConsumerRecords<>(Map.of(PARTITION, records), Map.of());
+    }
+
+    private long committed() {
+        OffsetAndMetadata offset = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return offset == null ? -1L : offset.offset();
+    }
+
+    private String groupId() {
+        return consumer.groupMetadata().groupId();
+    }
+
+    private void awaitInFlight(KafkaParallelProcessor processor, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.inFlight(groupId(), PARTITION) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertThat(processor.inFlight(groupId(), PARTITION)).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.oneself.kafka.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaProducerPoolTest {
+
+    private static final String TOPIC = "orders";
+    private static final int PARTITIONS = 6;
+
+    private final List<MockProducer<Object, Object>> producers = new ArrayList<>();
+
+    @Test
+    void pinsNonStringKeysToThePartitionOfTheSerializedKey() {
+        KafkaProducerPool pool = pool(IntegerSerializer.class, 3);
+        int expected = Utils.toPositive(Utils.murmur2(new IntegerSerializer().serialize(TOPIC, 42))) % PARTITIONS;
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(new ProducerRecord<>(TOPIC, 42, "v" + i));
+        }
+
+        for (int i = 0; i < producers.size(); i++) {
+            List<Integer> partitions = producers.get(i).history().stream().map(ProducerRecord::partition).toList();
+            if (i == expected % producers.size()) {
+                assertThat(partitions).containsExactly(expected, expected, expected, expected, expected);
+            } else {
+                assertThat(partitions).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void pinsStringKeysLikeTheDefaultPartitioner() {
+        KafkaProducerPool pool = pool(StringSerializer.class, 2);
+        int expected = Utils.toPositive(Utils.murmur2(new StringSerializer().serialize(TOPIC, "k1"))) % PARTITIONS;
+
+        pool.send(new ProducerRecord<>(TOPIC, "k1", "v1"));
+
+        assertThat(producers.get(expected % 2).history().get(0).partition()).isEqualTo(expected);
+    }
+
+    @Test
+    void roundRobinsOnlyNullKeys() {
+        KafkaProducerPool pool = pool(StringSerializer.class, 3);
+
+        for (int i = 0; i < 3; i++) {
+            pool.send(new ProducerRecord<>(TOPIC, null, "v" + i));
+        }
+
+        for (MockProducer<Object, Object> producer : producers) {
+            assertThat(producer.history().size()).isEqualTo(1);
+            assertThat(producer.history().get(0).partition()).isNull();
+        }
+    }
+
+    private KafkaProducerPool pool(Class<?> keySerializer, int size) {
+        List<DefaultKafkaProducerFactory<Object, Object>> factories = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // KafkaTemplate 每次发送后关闭非共享生产者，测试中保持打开以检查发送历史
+            MockProducer<Object, Object> producer = new MockProducer<>(cluster(), true, null,
+                    serializer(keySerializer), serializer(StringSerializer.class)) {
+                @Override
+                public void close() {
+                }
+
+                @Override
+                public void close(Duration timeout) {
+                }
+            };
+            producers.add(producer);
+            factories.add(new DefaultKafkaProducerFactory<>(Map.of(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
+                    keySerializer, ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class)) {
+                @Override
+                public Producer<Object, Object> createProducer() {
+                    return producer;
+                }
+            });
+        }
+        KafkaProducerPool pool = new KafkaProducerPool(null);
+        pool.register("orders", List.of(TOPIC), factories);
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Serializer<Object> serializer(Class<?> type) {
+        return (Serializer<Object>) Utils.newInstance(type);
+    }
+
+    private static Cluster cluster() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions.add(new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}));
+        }
+        return new Cluster("test", List.of(node), partitions, Set.of(), Set.of());
+    }
+}